@@ -0,0 +1,137 @@
+package com.flipkart.krystal.config;
+
+import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A typed config key. The path of the key is computed once when the key is created, so keys should
+ * be created once (for example as constants, or when a decorator is created) and reused for every
+ * read.
+ *
+ * <p>Config values of a different type than the key's type are converted if possible: numbers are
+ * converted to the numeric type of the key, and strings (for example those read from a properties
+ * file) are parsed.
+ *
+ * @param <T> the type of the config value
+ */
+public final class ConfigKey<T> {
+
+  private final String path;
+  private final Class<T> type;
+
+  /** Computed once since keys are used as map keys on hot paths (see {@link NestedConfig}) */
+  private final int hashCode;
+
+  private ConfigKey(String path, Class<T> type) {
+    this.path = path;
+    this.type = type;
+    this.hashCode = Objects.hash(path, type);
+  }
+
+  public static <T> ConfigKey<T> of(String path, Class<T> type) {
+    return new ConfigKey<>(path, type);
+  }
+
+  public static ConfigKey<Boolean> booleanKey(String path) {
+    return of(path, Boolean.class);
+  }
+
+  public static ConfigKey<Integer> intKey(String path) {
+    return of(path, Integer.class);
+  }
+
+  public static ConfigKey<Long> longKey(String path) {
+    return of(path, Long.class);
+  }
+
+  public static ConfigKey<Double> doubleKey(String path) {
+    return of(path, Double.class);
+  }
+
+  public String path() {
+    return path;
+  }
+
+  public Class<T> type() {
+    return type;
+  }
+
+  /**
+   * Returns a new key whose path is this key's path prefixed with the given prefix. The returned
+   * key is not cached here: {@link NestedConfig} caches the prefixed keys of its own prefix, so
+   * reading a key via nested configs with different prefixes does not create new keys.
+   */
+  public ConfigKey<T> withPrefix(String prefix) {
+    return new ConfigKey<>(prefix + path, type);
+  }
+
+  /**
+   * Converts a raw config value to the type of this key.
+   *
+   * @throws IllegalArgumentException if the value cannot be converted to the type of this key
+   */
+  public T convert(Object value) {
+    if (type.isInstance(value)) {
+      return type.cast(value);
+    }
+    Object converted = null;
+    if (value instanceof Number number) {
+      if (type == Integer.class) {
+        converted = number.intValue();
+      } else if (type == Long.class) {
+        converted = number.longValue();
+      } else if (type == Double.class) {
+        converted = number.doubleValue();
+      }
+    } else if (value instanceof String string) {
+      converted = parse(string.trim());
+    }
+    if (converted == null) {
+      throw new IllegalArgumentException(
+          "Config value '%s' of type %s cannot be converted to %s for key %s"
+              .formatted(value, value.getClass().getName(), type.getName(), path));
+    }
+    return type.cast(converted);
+  }
+
+  private @Nullable Object parse(String value) {
+    try {
+      if (type == String.class) {
+        return value;
+      } else if (type == Boolean.class) {
+        return switch (value.toLowerCase()) {
+          case "true" -> Boolean.TRUE;
+          case "false" -> Boolean.FALSE;
+          default -> null;
+        };
+      } else if (type == Integer.class) {
+        return Integer.valueOf(value);
+      } else if (type == Long.class) {
+        return Long.valueOf(value);
+      } else if (type == Double.class || type == Number.class) {
+        return Double.valueOf(value);
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return null;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof ConfigKey<?> other && path.equals(other.path) && type.equals(other.type);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigKey[" + path + ", " + type.getSimpleName() + "]";
+  }
+}
@@ -1,6 +1,20 @@
 package com.flipkart.krystal.config;
 
+import java.util.Set;
+
 public interface ConfigListener {
 
   default void onConfigUpdate(ConfigProvider configProvider) {}
+
+  /**
+   * Called by push based config providers (like {@link LiveConfigProvider}) when configs this
+   * listener is interested in have changed. By default, this delegates to {@link
+   * #onConfigUpdate(ConfigProvider)}.
+   *
+   * @param configProvider the provider containing the updated configs
+   * @param changedKeys the keys whose values were added, changed or removed
+   */
+  default void onConfigChange(ConfigProvider configProvider, Set<String> changedKeys) {
+    onConfigUpdate(configProvider);
+  }
 }
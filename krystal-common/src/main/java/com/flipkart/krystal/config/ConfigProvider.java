@@ -1,8 +1,31 @@
 package com.flipkart.krystal.config;
 
 import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public interface ConfigProvider {
 
   <T> Optional<T> getConfig(String key);
+
+  default <T> Optional<T> getConfig(ConfigKey<T> key) {
+    return Optional.ofNullable(getConfigOrNull(key));
+  }
+
+  /**
+   * Returns the value of the given config, or the given default if the config is not present.
+   * Implementations which override {@link #getConfigOrNull(ConfigKey)} make this read allocation
+   * free, so it can be used on hot paths.
+   */
+  default <T> T getConfig(ConfigKey<T> key, T defaultValue) {
+    T value = getConfigOrNull(key);
+    return value != null ? value : defaultValue;
+  }
+
+  /**
+   * Returns the value of the given config converted to the type of the key, or null if the config
+   * is not present.
+   */
+  default <T> @Nullable T getConfigOrNull(ConfigKey<T> key) {
+    return this.<Object>getConfig(key.path()).map(key::convert).orElse(null);
+  }
 }
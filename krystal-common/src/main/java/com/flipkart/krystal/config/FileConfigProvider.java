@@ -0,0 +1,115 @@
+package com.flipkart.krystal.config;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+
+/**
+ * A {@link LiveConfigProvider} which reads configs from a local properties file and reloads them
+ * whenever the file changes, notifying the subscribed listeners of the changed configs. Meant for
+ * local testing and tuning (for example, of batch sizes and concurrency limits) without restarting
+ * the application.
+ *
+ * <p>Values are parsed into booleans, integers, longs or doubles where possible, and are otherwise
+ * retained as strings.
+ */
+public final class FileConfigProvider extends LiveConfigProvider implements AutoCloseable {
+
+  private final Path file;
+  private final WatchService watchService;
+
+  public FileConfigProvider(Path file) throws IOException {
+    super(load(file));
+    this.file = file.toAbsolutePath();
+    Path directory = this.file.getParent();
+    if (directory == null) {
+      throw new IllegalArgumentException("Cannot watch config file " + file);
+    }
+    this.watchService = file.getFileSystem().newWatchService();
+    directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    Thread watcher = new Thread(this::watch, "krystal-config-watcher-" + this.file.getFileName());
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  /** Reloads the configs from the file, notifying the listeners of the configs which changed. */
+  public void reload() {
+    try {
+      update(load(file));
+    } catch (IOException | RuntimeException e) {
+      // Retain the last good configs
+      Thread currentThread = Thread.currentThread();
+      currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  private void watch() {
+    while (true) {
+      WatchKey watchKey;
+      try {
+        watchKey = watchService.take();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+      boolean fileChanged = false;
+      for (WatchEvent<?> event : watchKey.pollEvents()) {
+        if (event.context() instanceof Path changed && changed.equals(file.getFileName())) {
+          fileChanged = true;
+        }
+      }
+      if (fileChanged) {
+        reload();
+      }
+      if (!watchKey.reset()) {
+        return;
+      }
+    }
+  }
+
+  private static ImmutableMap<String, Object> load(Path file) throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+    }
+    ImmutableMap.Builder<String, Object> configs =
+        ImmutableMap.builderWithExpectedSize(properties.size());
+    for (String key : properties.stringPropertyNames()) {
+      configs.put(key, parse(properties.getProperty(key).trim()));
+    }
+    return configs.buildOrThrow();
+  }
+
+  private static Object parse(String value) {
+    if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+      return Boolean.valueOf(value);
+    }
+    try {
+      long longValue = Long.parseLong(value);
+      if (longValue == (int) longValue) {
+        return (int) longValue;
+      }
+      return longValue;
+    } catch (NumberFormatException ignored) {
+    }
+    try {
+      return Double.valueOf(value);
+    } catch (NumberFormatException ignored) {
+    }
+    return value;
+  }
+}
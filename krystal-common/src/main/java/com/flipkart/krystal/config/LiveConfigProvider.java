@@ -0,0 +1,146 @@
+package com.flipkart.krystal.config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A push based {@link ConfigProvider}. Configs are held in an immutable snapshot which is replaced
+ * by {@link #update(Map)}, so reads never lock and {@link #getConfigOrNull(ConfigKey)} does not
+ * allocate.
+ *
+ * <p>{@link ConfigListener}s subscribe to the key prefixes they are interested in. When the configs
+ * are updated, only the keys whose values changed are computed, and each listener is notified via
+ * {@link ConfigListener#onConfigChange(ConfigProvider, Set)} only if some of those keys match its
+ * prefixes. This allows batch sizes, limits etc. to be retuned at runtime without a restart.
+ *
+ * <p>Listeners are held weakly so that subscribing short-lived listeners (like request scoped logic
+ * decorators) does not leak them. The subscriber must hold a strong reference to the listener for
+ * as long as it needs to be notified. Subscriptions of collected listeners are expunged on every
+ * subscription and update, so subscribing is constant time irrespective of how many listeners have
+ * been subscribed.
+ */
+public class LiveConfigProvider implements ConfigProvider {
+
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final ReferenceQueue<ConfigListener> collectedListeners = new ReferenceQueue<>();
+  private volatile ImmutableMap<String, Object> configs;
+
+  public LiveConfigProvider() {
+    this(ImmutableMap.of());
+  }
+
+  public LiveConfigProvider(Map<String, ?> configs) {
+    this.configs = ImmutableMap.copyOf(configs);
+  }
+
+  @Override
+  public <T> Optional<T> getConfig(String key) {
+    //noinspection unchecked
+    return Optional.ofNullable((T) configs.get(key));
+  }
+
+  @Override
+  public <T> @Nullable T getConfigOrNull(ConfigKey<T> key) {
+    Object value = configs.get(key.path());
+    return value != null ? key.convert(value) : null;
+  }
+
+  /**
+   * Subscribes the listener to changes of configs whose keys start with any of the given prefixes
+   * (or to all configs if no prefix is given). The listener is immediately updated with the current
+   * configs.
+   */
+  public void subscribe(ConfigListener listener, String... keyPrefixes) {
+    expungeCollectedListeners();
+    subscriptions.add(
+        new Subscription(listener, collectedListeners, ImmutableList.copyOf(keyPrefixes)));
+    listener.onConfigUpdate(this);
+  }
+
+  public void unsubscribe(ConfigListener listener) {
+    subscriptions.removeIf(
+        subscription -> {
+          ConfigListener subscribed = subscription.get();
+          return subscribed == null || subscribed == listener;
+        });
+  }
+
+  /**
+   * Replaces all the configs of this provider and notifies the listeners interested in the configs
+   * which have changed.
+   */
+  public synchronized void update(Map<String, ?> newConfigs) {
+    expungeCollectedListeners();
+    ImmutableMap<String, Object> oldConfigs = this.configs;
+    ImmutableMap<String, Object> configs = ImmutableMap.copyOf(newConfigs);
+    ImmutableSet.Builder<String> changedKeys = ImmutableSet.builder();
+    for (String key : Sets.union(oldConfigs.keySet(), configs.keySet())) {
+      if (!Objects.equals(oldConfigs.get(key), configs.get(key))) {
+        changedKeys.add(key);
+      }
+    }
+    ImmutableSet<String> changed = changedKeys.build();
+    if (changed.isEmpty()) {
+      return;
+    }
+    this.configs = configs;
+    for (Subscription subscription : subscriptions) {
+      ConfigListener listener = subscription.get();
+      if (listener == null) {
+        continue;
+      }
+      Set<String> interestingKeys = subscription.interestingKeys(changed);
+      if (interestingKeys.isEmpty()) {
+        continue;
+      }
+      try {
+        listener.onConfigChange(this, interestingKeys);
+      } catch (Throwable e) {
+        // One faulty listener must not prevent the others from receiving updates
+        Thread currentThread = Thread.currentThread();
+        currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+      }
+    }
+  }
+
+  private void expungeCollectedListeners() {
+    Reference<? extends ConfigListener> collected;
+    while ((collected = collectedListeners.poll()) != null) {
+      //noinspection SuspiciousMethodCalls
+      subscriptions.remove(collected);
+    }
+  }
+
+  /** Compared by identity, so that it can be removed once it is enqueued in the reference queue. */
+  private static final class Subscription extends WeakReference<ConfigListener> {
+
+    private final ImmutableList<String> keyPrefixes;
+
+    private Subscription(
+        ConfigListener listener,
+        ReferenceQueue<ConfigListener> collectedListeners,
+        ImmutableList<String> keyPrefixes) {
+      super(listener, collectedListeners);
+      this.keyPrefixes = keyPrefixes;
+    }
+
+    private Set<String> interestingKeys(ImmutableSet<String> changedKeys) {
+      if (keyPrefixes.isEmpty()) {
+        return changedKeys;
+      }
+      return ImmutableSet.copyOf(
+          Sets.filter(changedKeys, key -> keyPrefixes.stream().anyMatch(key::startsWith)));
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.flipkart.krystal.config;
 
 import java.util.Map;
 import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public record MapConfigProvider(Map<String, Object> configs) implements ConfigProvider {
 
@@ -10,4 +11,10 @@ public record MapConfigProvider(Map<String, Object> configs) implements ConfigPr
     //noinspection unchecked
     return Optional.ofNullable((T) configs.get(key));
   }
+
+  @Override
+  public <T> @Nullable T getConfigOrNull(ConfigKey<T> key) {
+    Object value = configs.get(key.path());
+    return value != null ? key.convert(value) : null;
+  }
 }
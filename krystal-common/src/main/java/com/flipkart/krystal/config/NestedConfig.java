@@ -1,12 +1,67 @@
 package com.flipkart.krystal.config;
 
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-public record NestedConfig(String configPrefix, ConfigProvider delegate)
-    implements ConfigProvider {
+/**
+ * A view of the configs of a delegate {@link ConfigProvider} whose keys have a common prefix.
+ *
+ * <p>The prefixed keys (and {@link ConfigKey}s) are computed once per key and cached, so that
+ * repeated lookups of the same key do not concatenate strings.
+ */
+public final class NestedConfig implements ConfigProvider {
+
+  private final String configPrefix;
+  private final ConfigProvider delegate;
+  private final Map<String, String> prefixedKeys = new ConcurrentHashMap<>();
+  private final Map<ConfigKey<?>, ConfigKey<?>> prefixedConfigKeys = new ConcurrentHashMap<>();
+
+  public NestedConfig(String configPrefix, ConfigProvider delegate) {
+    this.configPrefix = configPrefix;
+    this.delegate = delegate;
+  }
 
   @Override
   public <T> Optional<T> getConfig(String key) {
-    return delegate.getConfig(configPrefix + key);
+    return delegate.getConfig(prefixedKeys.computeIfAbsent(key, configPrefix::concat));
+  }
+
+  @Override
+  public <T> @Nullable T getConfigOrNull(ConfigKey<T> key) {
+    @SuppressWarnings("unchecked")
+    ConfigKey<T> prefixedKey =
+        (ConfigKey<T>) prefixedConfigKeys.computeIfAbsent(key, k -> k.withPrefix(configPrefix));
+    return delegate.getConfigOrNull(prefixedKey);
+  }
+
+  public String configPrefix() {
+    return configPrefix;
+  }
+
+  public ConfigProvider delegate() {
+    return delegate;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof NestedConfig other
+        && configPrefix.equals(other.configPrefix)
+        && delegate.equals(other.delegate);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(configPrefix, delegate);
+  }
+
+  @Override
+  public String toString() {
+    return "NestedConfig[configPrefix=" + configPrefix + ", delegate=" + delegate + "]";
   }
 }
@@ -3,7 +3,9 @@ package com.flipkart.krystal.data;
 import com.google.common.collect.ImmutableMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public record Inputs(ImmutableMap<String, InputValue<Object>> values) {
 
@@ -31,11 +33,25 @@ public record Inputs(ImmutableMap<String, InputValue<Object>> values) {
   }
 
   public <T> T getInputValueOrThrow(String inputName) {
-    return this.<T>getInputValueOpt(inputName).orElseThrow();
+    T value = getInputValueOrNull(inputName);
+    if (value == null) {
+      throw new NoSuchElementException("No value present for input " + inputName);
+    }
+    return value;
   }
 
   public <T> T getInputValueOrDefault(String inputName, T defaultValue) {
-    return this.<T>getInputValueOpt(inputName).orElse(defaultValue);
+    T value = getInputValueOrNull(inputName);
+    return value != null ? value : defaultValue;
+  }
+
+  /**
+   * Returns the value of the given input, or null if the input has no value (or has an error). This
+   * does not allocate, and is hence preferred over {@link #getInputValueOpt(String)} in generated
+   * code and other performance sensitive paths.
+   */
+  public <T> @Nullable T getInputValueOrNull(String inputName) {
+    return this.<T>getInputValue(inputName).valueOrNull();
   }
 
   public <T> Results<T> getDepValue(String inputName) {
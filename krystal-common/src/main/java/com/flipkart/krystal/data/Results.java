@@ -1,13 +1,204 @@
 package com.flipkart.krystal.data;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-public record Results<T>(ImmutableMap<Inputs, ValueOrError<T>> values) implements InputValue<T> {
+/**
+ * The results of all the executions of a dependency - one per request made to the dependency.
+ *
+ * <p>Results are stored in columnar form: the inputs of the i-th request, and the value or error of
+ * its response are stored at the i-th index of parallel arrays. This avoids creating a map entry
+ * and a {@link ValueOrError} per request for large fan-outs. Callers which iterate over the results
+ * should prefer {@link #size()} and the index based accessors. {@link #values()} returns a map view
+ * which is created lazily on first access. The inputs of the requests are distinct.
+ *
+ * <p>If the dependency was skipped, no requests were made to it: the results are empty and {@link
+ * #skipReason()} holds the reason for the skip. Empty results without a skip reason mean that the
+ * dependency was not skipped, but was called with zero requests.
+ */
+public final class Results<T> implements InputValue<T> {
 
   private static final Results<?> EMPTY = new Results<>(ImmutableMap.of());
 
+  private final Inputs[] inputs;
+  private final @Nullable Object[] values;
+  private final @Nullable Throwable[] errors;
+  private final @Nullable Throwable skipReason;
+
+  private @MonotonicNonNull ImmutableMap<Inputs, ValueOrError<T>> valuesMap;
+
+  /**
+   * Creates results from the given map. Only the columnar arrays are retained - the map returned by
+   * {@link #values()} is recreated from them if needed.
+   */
+  public Results(ImmutableMap<Inputs, ValueOrError<T>> values) {
+    int size = values.size();
+    this.inputs = new Inputs[size];
+    this.values = new Object[size];
+    this.errors = new Throwable[size];
+    int i = 0;
+    for (var entry : values.entrySet()) {
+      inputs[i] = entry.getKey();
+      this.values[i] = entry.getValue().valueOrNull();
+      errors[i] = entry.getValue().errorOrNull();
+      i++;
+    }
+    this.skipReason = null;
+  }
+
+  private Results(
+      Inputs[] inputs,
+      @Nullable Object[] values,
+      @Nullable Throwable[] errors,
+      @Nullable Throwable skipReason) {
+    this.inputs = inputs;
+    this.values = values;
+    this.errors = errors;
+    this.skipReason = skipReason;
+  }
+
   public static <T> Results<T> empty() {
     //noinspection unchecked
     return (Results<T>) EMPTY;
   }
+
+  /** Results of a dependency which was skipped for the given reason. */
+  public static <T> Results<T> skipped(Throwable skipReason) {
+    return new Results<>(EMPTY.inputs, EMPTY.values, EMPTY.errors, skipReason);
+  }
+
+  public static <T> Builder<T> builder(int expectedSize) {
+    return new Builder<>(expectedSize);
+  }
+
+  public int size() {
+    return inputs.length;
+  }
+
+  /** The inputs of the request at the given index. */
+  public Inputs inputsAt(int index) {
+    return inputs[index];
+  }
+
+  /** The value of the response at the given index, or null if there is no value. */
+  public @Nullable T valueAt(int index) {
+    //noinspection unchecked
+    return (T) values[index];
+  }
+
+  /** The error of the response at the given index, or null if the response did not fail. */
+  public @Nullable Throwable errorAt(int index) {
+    return errors[index];
+  }
+
+  public ValueOrError<T> valueOrErrorAt(int index) {
+    return ValueOrError.valueOrError(values[index], errors[index]);
+  }
+
+  /** The reason the dependency was skipped, or empty if it was not skipped. */
+  public Optional<Throwable> skipReason() {
+    return Optional.ofNullable(skipReason);
+  }
+
+  /**
+   * @return A map view of these results. The map is created on the first invocation of this
+   *     method.
+   */
+  public ImmutableMap<Inputs, ValueOrError<T>> values() {
+    ImmutableMap<Inputs, ValueOrError<T>> valuesMap = this.valuesMap;
+    if (valuesMap == null) {
+      ImmutableMap.Builder<Inputs, ValueOrError<T>> builder =
+          ImmutableMap.builderWithExpectedSize(size());
+      for (int i = 0; i < size(); i++) {
+        builder.put(inputs[i], valueOrErrorAt(i));
+      }
+      valuesMap = builder.buildOrThrow();
+      this.valuesMap = valuesMap;
+    }
+    return valuesMap;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Results<?> other)) {
+      return false;
+    }
+    return values().equals(other.values()) && Objects.equals(skipReason, other.skipReason);
+  }
+
+  @Override
+  public int hashCode() {
+    return values().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    if (skipReason != null) {
+      return "Results[skipReason=%s]".formatted(skipReason);
+    }
+    return "Results[values=%s]".formatted(values());
+  }
+
+  public static final class Builder<T> {
+
+    private Inputs[] inputs;
+    private @Nullable Object[] values;
+    private @Nullable Throwable[] errors;
+    private int size;
+    private final Set<Inputs> addedInputs;
+
+    private Builder(int expectedSize) {
+      this.inputs = new Inputs[expectedSize];
+      this.values = new Object[expectedSize];
+      this.errors = new Throwable[expectedSize];
+      this.addedInputs = new HashSet<>((int) (expectedSize / 0.75f) + 1);
+    }
+
+    public Builder<T> add(Inputs inputs, ValueOrError<T> valueOrError) {
+      return add(inputs, valueOrError.valueOrNull(), valueOrError.errorOrNull());
+    }
+
+    /**
+     * @throws IllegalArgumentException if results have already been added for the given inputs
+     */
+    public Builder<T> add(Inputs inputs, @Nullable T value, @Nullable Throwable error) {
+      if (!addedInputs.add(inputs)) {
+        throw new IllegalArgumentException("Duplicate results for inputs " + inputs);
+      }
+      if (size == this.inputs.length) {
+        int newCapacity = Math.max(size * 2, 1);
+        this.inputs = Arrays.copyOf(this.inputs, newCapacity);
+        this.values = Arrays.copyOf(this.values, newCapacity);
+        this.errors = Arrays.copyOf(this.errors, newCapacity);
+      }
+      this.inputs[size] = inputs;
+      this.values[size] = value;
+      this.errors[size] = error;
+      size++;
+      return this;
+    }
+
+    public Results<T> build() {
+      if (size == 0) {
+        return empty();
+      }
+      if (size < inputs.length) {
+        return new Results<>(
+            Arrays.copyOf(inputs, size),
+            Arrays.copyOf(values, size),
+            Arrays.copyOf(errors, size),
+            null);
+      }
+      return new Results<>(inputs, values, errors, null);
+    }
+  }
 }
@@ -4,6 +4,7 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A wrapper object representing a value or an error. This can be seen as a 'completed' version of a
@@ -30,21 +31,24 @@ import java.util.function.Function;
  * <ul>
  *   {@link #value()} is not empty and {@link #error()} is not empty - this scenario is impossible.
  * </ul>
+ *
+ * <p>Each of these states is represented by its own implementation ({@link Success}, {@link
+ * Failure} and {@link Empty}) which holds only the field relevant to the state. {@link #value()}
+ * and {@link #error()} are views computed on access. Performance sensitive callers can use {@link
+ * #valueOrNull()} and {@link #errorOrNull()} instead to avoid allocating {@link Optional}s.
  */
-public record ValueOrError<T>(Optional<T> value, Optional<Throwable> error)
-    implements InputValue<T> {
+public sealed interface ValueOrError<T> extends InputValue<T>
+    permits ValueOrError.Success, ValueOrError.Failure, ValueOrError.Empty {
 
-  private static final ValueOrError<?> EMPTY =
-      new ValueOrError<>(Optional.empty(), Optional.empty());
+  Optional<T> value();
 
-  public ValueOrError {
-    if ((value.isPresent() && error.isPresent())) {
-      throw new IllegalArgumentException(
-          "Both of 'value' and 'failureReason' cannot be present together");
-    }
-  }
+  Optional<Throwable> error();
+
+  @Nullable T valueOrNull();
 
-  public static <T> ValueOrError<T> valueOrError(Callable<T> valueProvider) {
+  @Nullable Throwable errorOrNull();
+
+  static <T> ValueOrError<T> valueOrError(Callable<T> valueProvider) {
     try {
       return withValue(valueProvider.call());
     } catch (Exception e) {
@@ -52,28 +56,47 @@ public record ValueOrError<T>(Optional<T> value, Optional<Throwable> error)
     }
   }
 
-  public static <S, T> Function<S, ValueOrError<T>> valueOrError(Function<S, T> valueComputer) {
+  static <S, T> Function<S, ValueOrError<T>> valueOrError(Function<S, T> valueComputer) {
     return s -> valueOrError(() -> valueComputer.apply(s));
   }
 
-  public static <T> ValueOrError<T> empty() {
+  static <T> ValueOrError<T> empty() {
     //noinspection unchecked
-    return (ValueOrError<T>) EMPTY;
+    return (ValueOrError<T>) Empty.EMPTY;
   }
 
-  public static <T> ValueOrError<T> withValue(T t) {
+  static <T> ValueOrError<T> withValue(@Nullable T t) {
     return valueOrError(t, null);
   }
 
-  public static <T> ValueOrError<T> withError(Throwable t) {
-    return valueOrError(null, t);
+  static <T> ValueOrError<T> withError(Throwable t) {
+    return new Failure<>(t);
   }
 
-  public static <T> ValueOrError<T> valueOrError(Object t, Throwable throwable) {
-    //noinspection unchecked,rawtypes
-    return new ValueOrError<T>(
-        (t instanceof Optional o) ? o : (Optional<T>) Optional.ofNullable(t),
-        Optional.ofNullable(throwable));
+  static <T> ValueOrError<T> valueOrError(@Nullable Object t, @Nullable Throwable throwable) {
+    if (t instanceof Optional<?> o) {
+      t = o.orElse(null);
+    }
+    if (throwable != null) {
+      if (t != null) {
+        throw new IllegalArgumentException(
+            "Both of 'value' and 'failureReason' cannot be present together");
+      }
+      return withError(throwable);
+    }
+    if (t == null) {
+      return empty();
+    }
+    if (t instanceof Boolean b) {
+      //noinspection unchecked
+      return (ValueOrError<T>) (b ? Success.TRUE : Success.FALSE);
+    }
+    if (t instanceof Integer i && i >= Success.INT_CACHE_LOW && i <= Success.INT_CACHE_HIGH) {
+      //noinspection unchecked
+      return (ValueOrError<T>) Success.INT_CACHE[i - Success.INT_CACHE_LOW];
+    }
+    //noinspection unchecked
+    return new Success<>((T) t);
   }
 
   /**
@@ -81,31 +104,116 @@ public record ValueOrError<T>(Optional<T> value, Optional<Throwable> error)
    *     {@link #error()} if it is present, or completed normally with contents of {@link #value()}
    *     (or null if it is empty)
    */
-  public CompletableFuture<T> toFuture() {
-    if (error().isPresent()) {
-      return CompletableFuture.failedFuture(error().get());
+  default CompletableFuture<T> toFuture() {
+    Throwable error = errorOrNull();
+    if (error != null) {
+      return CompletableFuture.failedFuture(error);
     } else {
-      return CompletableFuture.completedFuture(value().orElse(null));
+      return CompletableFuture.completedFuture(valueOrNull());
     }
   }
 
-  public Optional<T> getValueOrThrow() throws Exception {
-    Optional<Throwable> error = error();
-    if (error.isPresent()) {
-      if (error.get() instanceof Exception e) {
+  default Optional<T> getValueOrThrow() throws Exception {
+    Throwable error = errorOrNull();
+    if (error != null) {
+      if (error instanceof Exception e) {
         throw e;
       } else {
-        throw new RuntimeException(error.get());
+        throw new RuntimeException(error);
       }
     }
     return value();
   }
 
-  @Override
-  public String toString() {
-    if (error.isPresent()) {
-      return error.toString();
-    } else {
+  /** A successfully computed non-null value. */
+  record Success<T>(T valueOrNull) implements ValueOrError<T> {
+
+    private static final Success<Boolean> TRUE = new Success<>(true);
+    private static final Success<Boolean> FALSE = new Success<>(false);
+
+    private static final int INT_CACHE_LOW = -128;
+    private static final int INT_CACHE_HIGH = 127;
+    private static final Success<?>[] INT_CACHE =
+        new Success<?>[INT_CACHE_HIGH - INT_CACHE_LOW + 1];
+
+    static {
+      for (int i = 0; i < INT_CACHE.length; i++) {
+        INT_CACHE[i] = new Success<>(i + INT_CACHE_LOW);
+      }
+    }
+
+    @Override
+    public Optional<T> value() {
+      return Optional.of(valueOrNull);
+    }
+
+    @Override
+    public Optional<Throwable> error() {
+      return Optional.empty();
+    }
+
+    @Override
+    public @Nullable Throwable errorOrNull() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return value().toString();
+    }
+  }
+
+  /** A value which could not be computed because of the given error. */
+  record Failure<T>(Throwable errorOrNull) implements ValueOrError<T> {
+
+    @Override
+    public Optional<T> value() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<Throwable> error() {
+      return Optional.of(errorOrNull);
+    }
+
+    @Override
+    public @Nullable T valueOrNull() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return error().toString();
+    }
+  }
+
+  /** A null value. */
+  record Empty<T>() implements ValueOrError<T> {
+
+    private static final Empty<?> EMPTY = new Empty<>();
+
+    @Override
+    public Optional<T> value() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<Throwable> error() {
+      return Optional.empty();
+    }
+
+    @Override
+    public @Nullable T valueOrNull() {
+      return null;
+    }
+
+    @Override
+    public @Nullable Throwable errorOrNull() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
       return value().toString();
     }
   }
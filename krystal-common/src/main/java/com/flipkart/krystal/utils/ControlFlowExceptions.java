@@ -0,0 +1,25 @@
+package com.flipkart.krystal.utils;
+
+/**
+ * Settings for exceptions which signal expected outcomes (like a skipped dependency or missing
+ * mandatory inputs) rather than bugs. Such exceptions are created very frequently in large graphs,
+ * so by default they do not capture stack traces. Stack traces can be enabled for debugging by
+ * setting the system property {@value #STACK_TRACES_PROPERTY} to {@code true}, or by calling {@link
+ * #setStackTracesEnabled(boolean)}.
+ */
+public final class ControlFlowExceptions {
+
+  public static final String STACK_TRACES_PROPERTY = "krystal.controlFlowExceptions.stackTraces";
+
+  private static volatile boolean stackTracesEnabled = Boolean.getBoolean(STACK_TRACES_PROPERTY);
+
+  public static boolean stackTracesEnabled() {
+    return stackTracesEnabled;
+  }
+
+  public static void setStackTracesEnabled(boolean stackTracesEnabled) {
+    ControlFlowExceptions.stackTracesEnabled = stackTracesEnabled;
+  }
+
+  private ControlFlowExceptions() {}
+}
@@ -1,6 +1,12 @@
 package com.flipkart.krystal.utils;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 public class Futures {
 
@@ -48,5 +54,55 @@ public class Futures {
     propagateCancellation(destinationFuture, sourceFuture);
   }
 
+  /**
+   * Returns one future per key which is completed with the result of that key once {@code
+   * batchResults} completes. If {@code batchResults} fails, all the returned futures fail with the
+   * same error.
+   *
+   * <p>Only one callback is registered on {@code batchResults} for the whole batch, and the results
+   * of keys which are already computed at that point are copied into the returned futures without
+   * creating any intermediate completion stages.
+   */
+  public static <K, V> ImmutableMap<K, CompletableFuture<V>> flattenBatch(
+      ImmutableList<K> keys,
+      CompletionStage<? extends Map<K, ? extends CompletableFuture<V>>> batchResults) {
+    ImmutableMap.Builder<K, CompletableFuture<V>> builder =
+        ImmutableMap.builderWithExpectedSize(keys.size());
+    for (K key : keys) {
+      builder.put(key, new CompletableFuture<>());
+    }
+    ImmutableMap<K, CompletableFuture<V>> results = builder.buildOrThrow();
+    batchResults.whenComplete(
+        (batch, error) ->
+            results.forEach(
+                (key, result) -> {
+                  if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                  }
+                  CompletableFuture<V> source = batch.get(key);
+                  if (source == null) {
+                    result.completeExceptionally(
+                        new IllegalStateException("No result found for " + key));
+                  } else if (source.isDone()) {
+                    copyCompletion(source, result);
+                  } else {
+                    propagateCompletion(source, result);
+                  }
+                }));
+    return results;
+  }
+
+  private static <T> void copyCompletion(
+      CompletableFuture<? extends T> from, CompletableFuture<T> to) {
+    try {
+      to.complete(from.join());
+    } catch (CompletionException e) {
+      to.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+    } catch (CancellationException e) {
+      to.completeExceptionally(e);
+    }
+  }
+
   private Futures() {}
 }
@@ -0,0 +1,201 @@
+package com.flipkart.krystal.utils;
+
+import static java.lang.Math.max;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An approximate timer optimized for a very large number of short-lived timeouts, most of which are
+ * cancelled before they expire (like batching windows and request timeouts).
+ *
+ * <p>Timeouts are hashed into the buckets of a wheel which is advanced by a single worker thread
+ * once every tick. Scheduling and cancelling a timeout are O(1) and do not need any locks. A timeout
+ * fires within one tick of its deadline.
+ *
+ * <p>Timeout tasks are executed on the worker thread, so they are expected to be short and
+ * non-blocking. Tasks which need to do more work should hand it off to another executor.
+ */
+public final class HashedWheelTimer implements AutoCloseable {
+
+  private static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(1);
+  private static final int DEFAULT_WHEEL_SIZE = 512;
+
+  private static final class SharedTimerHolder {
+    private static final HashedWheelTimer SHARED_TIMER =
+        new HashedWheelTimer("krystal-shared-timer", DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+  }
+
+  private final long tickNanos;
+  private final List<TimerTask>[] wheel;
+  private final int mask;
+  private final Queue<TimerTask> pendingTasks = new ConcurrentLinkedQueue<>();
+  private final Thread workerThread;
+  private final long startNanos;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  /** Accessed only from the worker thread */
+  private long tick;
+
+  public HashedWheelTimer(String name, Duration tickDuration, int wheelSize) {
+    this.tickNanos = max(tickDuration.toNanos(), 1);
+    int normalizedWheelSize = Integer.highestOneBit(max(wheelSize, 1) * 2 - 1);
+    //noinspection unchecked
+    this.wheel = new List[normalizedWheelSize];
+    for (int i = 0; i < normalizedWheelSize; i++) {
+      wheel[i] = new ArrayList<>();
+    }
+    this.mask = normalizedWheelSize - 1;
+    this.startNanos = System.nanoTime();
+    this.workerThread = new Thread(this::run, name);
+    workerThread.setDaemon(true);
+    workerThread.start();
+  }
+
+  /**
+   * @return A timer which is shared by all the components in the JVM. The shared timer has a tick
+   *     duration of 1 ms.
+   */
+  public static HashedWheelTimer shared() {
+    return SharedTimerHolder.SHARED_TIMER;
+  }
+
+  /**
+   * Schedules the given task to be executed once after the given delay.
+   *
+   * @return A handle which can be used to cancel the timeout.
+   */
+  public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    if (closed.get()) {
+      throw new IllegalStateException("Timer has been closed");
+    }
+    TimerTask timerTask =
+        new TimerTask(task, System.nanoTime() - startNanos + max(unit.toNanos(delay), 0));
+    pendingTasks.add(timerTask);
+    return timerTask;
+  }
+
+  public Timeout newTimeout(Runnable task, Duration delay) {
+    return newTimeout(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      workerThread.interrupt();
+    }
+  }
+
+  private void run() {
+    while (!closed.get()) {
+      long deadline = tickNanos * (tick + 1);
+      long sleepNanos;
+      while ((sleepNanos = deadline - (System.nanoTime() - startNanos)) > 0) {
+        LockSupport.parkNanos(this, sleepNanos);
+        if (closed.get()) {
+          return;
+        }
+      }
+      transferPendingTasks();
+      expireTimeouts(wheel[(int) (tick & mask)]);
+      tick++;
+    }
+  }
+
+  private void transferPendingTasks() {
+    TimerTask timerTask;
+    while ((timerTask = pendingTasks.poll()) != null) {
+      if (timerTask.isCancelled()) {
+        continue;
+      }
+      long expiryTick = max(timerTask.deadlineNanos / tickNanos, tick);
+      timerTask.remainingRounds = (expiryTick - tick) / wheel.length;
+      wheel[(int) (expiryTick & mask)].add(timerTask);
+    }
+  }
+
+  private void expireTimeouts(List<TimerTask> bucket) {
+    Iterator<TimerTask> iterator = bucket.iterator();
+    while (iterator.hasNext()) {
+      TimerTask timerTask = iterator.next();
+      if (timerTask.isCancelled()) {
+        iterator.remove();
+      } else if (timerTask.remainingRounds <= 0) {
+        iterator.remove();
+        timerTask.expire();
+      } else {
+        timerTask.remainingRounds--;
+      }
+    }
+  }
+
+  /** A handle to a task scheduled with a {@link HashedWheelTimer}. */
+  public interface Timeout {
+
+    /**
+     * Cancels the timeout if it has not already expired.
+     *
+     * @return true if the timeout was cancelled by this call.
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    boolean isExpired();
+  }
+
+  private static final class TimerTask implements Timeout {
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final Runnable task;
+    private final long deadlineNanos;
+    private final AtomicInteger state = new AtomicInteger(INIT);
+
+    /** Accessed only from the worker thread */
+    private long remainingRounds;
+
+    private TimerTask(Runnable task, long deadlineNanos) {
+      this.task = task;
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public boolean cancel() {
+      return state.compareAndSet(INIT, CANCELLED);
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state.get() == CANCELLED;
+    }
+
+    @Override
+    public boolean isExpired() {
+      return state.get() == EXPIRED;
+    }
+
+    private void expire() {
+      if (!state.compareAndSet(INIT, EXPIRED)) {
+        return;
+      }
+      try {
+        task.run();
+      } catch (Throwable e) {
+        // Report the failure without killing the worker thread
+        Thread currentThread = Thread.currentThread();
+        currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.flipkart.krystal.utils;
+
+/**
+ * The priority with which the commands of a request are executed relative to the commands of other
+ * requests sharing the same command queue. When commands of multiple priorities are waiting to be
+ * executed, they are executed in a weighted round-robin fashion as per the {@link #weight()} of
+ * each priority.
+ */
+public enum RequestPriority {
+  /** Latency critical requests - for example, user facing requests. */
+  CRITICAL(8),
+  DEFAULT(4),
+  /** Requests whose latency is not critical - for example, prefetches and cache warmups. */
+  BACKGROUND(1);
+
+  private final int weight;
+
+  RequestPriority(int weight) {
+    this.weight = weight;
+  }
+
+  /**
+   * The maximum number of commands of this priority which are executed consecutively when commands
+   * of other priorities are also waiting to be executed.
+   */
+  public int weight() {
+    return weight;
+  }
+}
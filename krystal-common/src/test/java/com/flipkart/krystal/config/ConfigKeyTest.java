@@ -0,0 +1,96 @@
+package com.flipkart.krystal.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+class ConfigKeyTest {
+
+  @Test
+  void convert_valueOfKeyType_returnedAsIs() {
+    Integer value = 1000;
+    assertSame(value, ConfigKey.intKey("a").convert(value));
+  }
+
+  @Test
+  void convert_numberOfOtherType_convertedToKeyType() {
+    assertEquals(5, ConfigKey.intKey("a").convert(5L));
+    assertEquals(5L, ConfigKey.longKey("a").convert(5));
+    assertEquals(5.0, ConfigKey.doubleKey("a").convert(5));
+  }
+
+  @Test
+  void convert_string_parsed() {
+    assertEquals(true, ConfigKey.booleanKey("a").convert(" TRUE "));
+    assertEquals(42, ConfigKey.intKey("a").convert("42"));
+    assertEquals(42L, ConfigKey.longKey("a").convert("42"));
+    assertEquals(0.5, ConfigKey.doubleKey("a").convert("0.5"));
+  }
+
+  @Test
+  void convert_unparseableValue_throwsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> ConfigKey.intKey("a").convert("ten"));
+    assertThrows(IllegalArgumentException.class, () -> ConfigKey.booleanKey("a").convert("yes"));
+    assertThrows(IllegalArgumentException.class, () -> ConfigKey.booleanKey("a").convert(1));
+  }
+
+  @Test
+  void withPrefix_prefixedPathAndSameType() {
+    ConfigKey<Integer> prefixed = ConfigKey.intKey("max_batch_size").withPrefix("my_vajram.");
+
+    assertEquals("my_vajram.max_batch_size", prefixed.path());
+    assertEquals(Integer.class, prefixed.type());
+  }
+
+  @Test
+  void getConfigOrNull_nestedConfigsWithDifferentPrefixes_prefixedKeyCachedPerPrefix() {
+    List<ConfigKey<?>> readKeys = new ArrayList<>();
+    ConfigProvider configProvider =
+        new ConfigProvider() {
+          @Override
+          public <T> Optional<T> getConfig(String key) {
+            return Optional.empty();
+          }
+
+          @Override
+          public <T> @Nullable T getConfigOrNull(ConfigKey<T> key) {
+            readKeys.add(key);
+            return null;
+          }
+        };
+    NestedConfig first = new NestedConfig("first.", configProvider);
+    NestedConfig second = new NestedConfig("second.", configProvider);
+    ConfigKey<Integer> key = ConfigKey.intKey("max_batch_size");
+
+    // Alternating between prefixes must not evict the cached prefixed keys
+    first.getConfigOrNull(key);
+    second.getConfigOrNull(key);
+    first.getConfigOrNull(key);
+    second.getConfigOrNull(key);
+
+    assertEquals("first.max_batch_size", readKeys.get(0).path());
+    assertEquals("second.max_batch_size", readKeys.get(1).path());
+    assertSame(readKeys.get(0), readKeys.get(2));
+    assertSame(readKeys.get(1), readKeys.get(3));
+  }
+
+  @Test
+  void getConfig_typedKey_valueConvertedOrDefaulted() {
+    ConfigProvider configProvider =
+        new MapConfigProvider(
+            Map.<String, Object>of("nested.max_wait_ms", 10, "nested.enabled", "false"));
+    NestedConfig nestedConfig = new NestedConfig("nested.", configProvider);
+
+    assertEquals(10L, nestedConfig.getConfig(ConfigKey.longKey("max_wait_ms"), 0L));
+    assertEquals(false, nestedConfig.getConfig(ConfigKey.booleanKey("enabled"), true));
+    assertNull(nestedConfig.getConfigOrNull(ConfigKey.intKey("absent")));
+  }
+}
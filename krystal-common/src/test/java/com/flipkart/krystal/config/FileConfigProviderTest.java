@@ -0,0 +1,83 @@
+package com.flipkart.krystal.config;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileConfigProviderTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void new_propertiesFile_valuesParsed() throws Exception {
+    Path file = tempDir.resolve("krystal.properties");
+    Files.writeString(
+        file, "v.enabled=true\nv.max_batch_size=10\nv.max_wait_ms=5000000000\nv.name= batcher \n");
+
+    try (FileConfigProvider configProvider = new FileConfigProvider(file)) {
+      assertEquals(true, configProvider.getConfig("v.enabled").orElseThrow());
+      assertEquals(10, configProvider.getConfig("v.max_batch_size").orElseThrow());
+      assertEquals(5_000_000_000L, configProvider.getConfig("v.max_wait_ms").orElseThrow());
+      assertEquals("batcher", configProvider.getConfig("v.name").orElseThrow());
+      assertEquals(10L, configProvider.getConfig(ConfigKey.longKey("v.max_batch_size"), 0L));
+    }
+  }
+
+  @Test
+  void reload_fileChanged_changedKeysNotified() throws Exception {
+    Path file = tempDir.resolve("krystal.properties");
+    Files.writeString(file, "v.max_batch_size=10\nv.max_wait_ms=5\n");
+
+    try (FileConfigProvider configProvider = new FileConfigProvider(file)) {
+      List<Set<String>> changes = new CopyOnWriteArrayList<>();
+      ConfigListener listener =
+          new ConfigListener() {
+            @Override
+            public void onConfigChange(ConfigProvider configProvider, Set<String> changedKeys) {
+              changes.add(changedKeys);
+            }
+          };
+      configProvider.subscribe(listener, "v.");
+
+      // Replace the file atomically so that the file watcher never reads a partially written file
+      Path newFile = tempDir.resolve("krystal.properties.new");
+      Files.writeString(newFile, "v.max_batch_size=20\nv.max_wait_ms=5\n");
+      Files.move(newFile, file, ATOMIC_MOVE);
+      // The file watcher may also have reloaded the file. Either way, the change is notified once
+      configProvider.reload();
+
+      assertEquals(List.of(Set.of("v.max_batch_size")), changes);
+      assertEquals(20, configProvider.getConfig(ConfigKey.intKey("v.max_batch_size"), 0));
+    }
+  }
+
+  @Test
+  void reload_fileDeleted_lastGoodConfigsRetained() throws Exception {
+    Path file = tempDir.resolve("krystal.properties");
+    Files.writeString(file, "v.max_batch_size=10\n");
+
+    try (FileConfigProvider configProvider = new FileConfigProvider(file)) {
+      Files.delete(file);
+
+      Thread currentThread = Thread.currentThread();
+      Thread.UncaughtExceptionHandler handler = currentThread.getUncaughtExceptionHandler();
+      List<Throwable> uncaught = new CopyOnWriteArrayList<>();
+      currentThread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+      try {
+        configProvider.reload();
+      } finally {
+        currentThread.setUncaughtExceptionHandler(handler);
+      }
+
+      assertEquals(10, configProvider.getConfig(ConfigKey.intKey("v.max_batch_size"), 0));
+      assertEquals(1, uncaught.size());
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.flipkart.krystal.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class LiveConfigProviderTest {
+
+  @Test
+  void subscribe_listenerUpdatedImmediately() {
+    LiveConfigProvider configProvider = new LiveConfigProvider(Map.of("a.size", 1));
+    RecordingListener listener = new RecordingListener();
+
+    configProvider.subscribe(listener, "a.");
+
+    assertEquals(1, listener.updates.get());
+    assertEquals(List.of(), listener.changes);
+  }
+
+  @Test
+  void update_onlyChangedKeysNotified() {
+    LiveConfigProvider configProvider =
+        new LiveConfigProvider(Map.of("a.size", 1, "a.wait", 10, "a.removed", true));
+    RecordingListener listener = new RecordingListener();
+    configProvider.subscribe(listener);
+
+    configProvider.update(Map.of("a.size", 1, "a.wait", 20, "a.added", "x"));
+
+    assertEquals(List.of(Set.of("a.wait", "a.removed", "a.added")), listener.changes);
+    assertEquals(20, configProvider.getConfig(ConfigKey.intKey("a.wait"), 0));
+    assertNull(configProvider.getConfigOrNull(ConfigKey.booleanKey("a.removed")));
+  }
+
+  @Test
+  void update_noChanges_listenersNotNotified() {
+    LiveConfigProvider configProvider = new LiveConfigProvider(Map.of("a.size", 1));
+    RecordingListener listener = new RecordingListener();
+    configProvider.subscribe(listener);
+
+    configProvider.update(Map.of("a.size", 1));
+
+    assertEquals(List.of(), listener.changes);
+  }
+
+  @Test
+  void update_keysOutsidePrefixes_listenerNotNotified() {
+    LiveConfigProvider configProvider = new LiveConfigProvider();
+    RecordingListener aListener = new RecordingListener();
+    RecordingListener bcListener = new RecordingListener();
+    configProvider.subscribe(aListener, "a.");
+    configProvider.subscribe(bcListener, "b.", "c.");
+
+    configProvider.update(Map.of("b.size", 1, "c.size", 2, "d.size", 3));
+
+    assertEquals(List.of(), aListener.changes);
+    assertEquals(List.of(Set.of("b.size", "c.size")), bcListener.changes);
+  }
+
+  @Test
+  void update_listenerThrows_otherListenersStillNotified() {
+    LiveConfigProvider configProvider = new LiveConfigProvider();
+    configProvider.subscribe(
+        new ConfigListener() {
+          @Override
+          public void onConfigChange(ConfigProvider configProvider, Set<String> changedKeys) {
+            throw new IllegalStateException("faulty listener");
+          }
+        });
+    RecordingListener listener = new RecordingListener();
+    configProvider.subscribe(listener);
+
+    Thread currentThread = Thread.currentThread();
+    Thread.UncaughtExceptionHandler handler = currentThread.getUncaughtExceptionHandler();
+    List<Throwable> uncaught = new ArrayList<>();
+    currentThread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+    try {
+      configProvider.update(Map.of("a.size", 1));
+    } finally {
+      currentThread.setUncaughtExceptionHandler(handler);
+    }
+
+    assertEquals(List.of(Set.of("a.size")), listener.changes);
+    assertEquals(1, uncaught.size());
+  }
+
+  @Test
+  void update_listenerGarbageCollected_listenerDropped() throws Exception {
+    LiveConfigProvider configProvider = new LiveConfigProvider();
+    RecordingListener listener = new RecordingListener();
+    configProvider.subscribe(listener);
+    WeakReference<RecordingListener> listenerRef = new WeakReference<>(listener);
+    //noinspection UnusedAssignment
+    listener = null;
+
+    for (int i = 0; i < 50 && listenerRef.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertNull(listenerRef.get(), "The provider must not retain the subscribed listener");
+    // Dropping collected listeners while updating must not fail
+    configProvider.update(Map.of("a.size", 1));
+    assertTrue(configProvider.getConfig(ConfigKey.intKey("a.size")).isPresent());
+  }
+
+  private static final class RecordingListener implements ConfigListener {
+
+    private final AtomicInteger updates = new AtomicInteger();
+    private final List<Set<String>> changes = new ArrayList<>();
+
+    @Override
+    public void onConfigUpdate(ConfigProvider configProvider) {
+      updates.incrementAndGet();
+    }
+
+    @Override
+    public void onConfigChange(ConfigProvider configProvider, Set<String> changedKeys) {
+      changes.add(changedKeys);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.flipkart.krystal.data;
+
+import static com.flipkart.krystal.data.ValueOrError.withError;
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+class ResultsTest {
+
+  private static final IllegalStateException ERROR = new IllegalStateException("failed");
+
+  @Test
+  void builder_valuesErrorsAndNulls_roundTripThroughIndexedAccessors() {
+    Results<String> results =
+        Results.<String>builder(1)
+            .add(inputs(1), "one", null)
+            .add(inputs(2), null, ERROR)
+            .add(inputs(3), ValueOrError.empty())
+            .build();
+
+    assertEquals(3, results.size());
+    assertEquals(inputs(1), results.inputsAt(0));
+    assertEquals("one", results.valueAt(0));
+    assertNull(results.errorAt(0));
+    assertNull(results.valueAt(1));
+    assertSame(ERROR, results.errorAt(1));
+    assertEquals(withValue("one"), results.valueOrErrorAt(0));
+    assertEquals(withError(ERROR), results.valueOrErrorAt(1));
+    assertSame(ValueOrError.empty(), results.valueOrErrorAt(2));
+  }
+
+  @Test
+  void values_builtResults_mapViewMatchesIndexedAccessorsInOrder() {
+    Results<String> results =
+        Results.<String>builder(2).add(inputs(2), "two", null).add(inputs(1), null, ERROR).build();
+
+    ImmutableMap<Inputs, ValueOrError<String>> values = results.values();
+
+    assertEquals(
+        ImmutableMap.of(inputs(2), withValue("two"), inputs(1), withError(ERROR)), values);
+    assertEquals(inputs(2), values.keySet().iterator().next());
+    assertSame(values, results.values());
+  }
+
+  @Test
+  void new_fromMap_equalToBuiltResults() {
+    ImmutableMap<Inputs, ValueOrError<String>> map =
+        ImmutableMap.of(inputs(1), withValue("one"), inputs(2), withError(ERROR));
+    Results<String> fromMap = new Results<>(map);
+    Results<String> built =
+        Results.<String>builder(2).add(inputs(1), "one", null).add(inputs(2), null, ERROR).build();
+
+    assertEquals(2, fromMap.size());
+    assertEquals("one", fromMap.valueAt(0));
+    assertSame(ERROR, fromMap.errorAt(1));
+    assertEquals(map, fromMap.values());
+    assertEquals(built, fromMap);
+    assertEquals(built.hashCode(), fromMap.hashCode());
+  }
+
+  @Test
+  void build_noResults_emptySingleton() {
+    assertSame(Results.empty(), Results.builder(4).build());
+    assertEquals(0, Results.empty().size());
+    assertEquals(ImmutableMap.of(), Results.empty().values());
+  }
+
+  @Test
+  void skipped_emptyWithSkipReason() {
+    Results<String> skipped = Results.skipped(ERROR);
+
+    assertEquals(0, skipped.size());
+    assertEquals(ImmutableMap.of(), skipped.values());
+    assertSame(ERROR, skipped.skipReason().orElseThrow());
+    assertTrue(Results.empty().skipReason().isEmpty());
+    assertNotEquals(Results.empty(), skipped);
+  }
+
+  @Test
+  void add_duplicateInputs_throwsIllegalArgumentException() {
+    Results.Builder<String> builder = Results.<String>builder(2).add(inputs(1), "one", null);
+
+    assertThrows(IllegalArgumentException.class, () -> builder.add(inputs(1), "uno", null));
+  }
+
+  private static Inputs inputs(int i) {
+    return new Inputs(ImmutableMap.of("input", withValue(i)));
+  }
+}
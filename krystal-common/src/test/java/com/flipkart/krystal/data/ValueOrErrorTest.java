@@ -0,0 +1,82 @@
+package com.flipkart.krystal.data;
+
+import static com.flipkart.krystal.data.ValueOrError.valueOrError;
+import static com.flipkart.krystal.data.ValueOrError.withError;
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class ValueOrErrorTest {
+
+  @Test
+  void withValue_nonNull_success() {
+    ValueOrError<String> valueOrError = withValue("value");
+
+    assertInstanceOf(ValueOrError.Success.class, valueOrError);
+    assertEquals(Optional.of("value"), valueOrError.value());
+    assertEquals(Optional.empty(), valueOrError.error());
+    assertEquals("value", valueOrError.valueOrNull());
+    assertNull(valueOrError.errorOrNull());
+    assertEquals(withValue("value"), valueOrError);
+  }
+
+  @Test
+  void withError_failure() {
+    IllegalStateException error = new IllegalStateException();
+    ValueOrError<String> valueOrError = withError(error);
+
+    assertInstanceOf(ValueOrError.Failure.class, valueOrError);
+    assertEquals(Optional.empty(), valueOrError.value());
+    assertEquals(Optional.of(error), valueOrError.error());
+    assertNull(valueOrError.valueOrNull());
+    assertSame(error, valueOrError.errorOrNull());
+    assertTrue(valueOrError.toFuture().isCompletedExceptionally());
+  }
+
+  @Test
+  void withValue_nullOrEmptyOptional_emptySingleton() {
+    assertSame(ValueOrError.empty(), withValue(null));
+    assertSame(ValueOrError.empty(), withValue(Optional.empty()));
+    assertSame(ValueOrError.empty(), valueOrError(null, null));
+    assertEquals(Optional.empty(), ValueOrError.empty().value());
+    assertNull(ValueOrError.empty().errorOrNull());
+  }
+
+  @Test
+  void withValue_optional_unwrapped() {
+    assertEquals("value", withValue(Optional.of("value")).valueOrNull());
+  }
+
+  @Test
+  void withValue_booleansAndSmallInts_cachedSingletons() {
+    assertSame(withValue(true), withValue(true));
+    assertSame(withValue(false), withValue(false));
+    assertEquals(Boolean.TRUE, withValue(true).valueOrNull());
+    assertSame(withValue(-128), withValue(-128));
+    assertSame(withValue(127), withValue(127));
+    assertEquals(-128, withValue(-128).valueOrNull());
+    assertEquals(127, withValue(127).valueOrNull());
+    assertNotSame(withValue(128), withValue(128));
+    assertEquals(withValue(128), withValue(128));
+  }
+
+  @Test
+  void valueOrError_valueAndError_throwsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class, () -> valueOrError("value", new IllegalStateException()));
+  }
+
+  @Test
+  void toFuture_value_completedWithValue() throws Exception {
+    assertEquals("value", withValue("value").toFuture().get());
+    assertNull(ValueOrError.empty().toFuture().get());
+  }
+}
@@ -0,0 +1,52 @@
+package com.flipkart.krystal.utils;
+
+import static com.flipkart.krystal.utils.ControlFlowExceptions.STACK_TRACES_PROPERTY;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ControlFlowExceptionsTest {
+
+  @AfterEach
+  void tearDown() {
+    System.clearProperty(STACK_TRACES_PROPERTY);
+    ControlFlowExceptions.setStackTracesEnabled(false);
+  }
+
+  @Test
+  void stackTracesEnabled_propertyNotSet_false() throws Exception {
+    assertFalse(stackTracesEnabledInFreshClass());
+  }
+
+  @Test
+  void stackTracesEnabled_propertySetToTrue_true() throws Exception {
+    System.setProperty(STACK_TRACES_PROPERTY, "true");
+
+    assertTrue(stackTracesEnabledInFreshClass());
+  }
+
+  @Test
+  void setStackTracesEnabled_toggled_stackTracesEnabledReflectsLatestValue() {
+    ControlFlowExceptions.setStackTracesEnabled(true);
+    assertTrue(ControlFlowExceptions.stackTracesEnabled());
+
+    ControlFlowExceptions.setStackTracesEnabled(false);
+    assertFalse(ControlFlowExceptions.stackTracesEnabled());
+  }
+
+  /**
+   * The system property is read when the class is initialized, so it is loaded afresh in an
+   * isolated class loader.
+   */
+  private static boolean stackTracesEnabledInFreshClass() throws Exception {
+    URL classes = ControlFlowExceptions.class.getProtectionDomain().getCodeSource().getLocation();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classes}, null)) {
+      Class<?> freshClass = classLoader.loadClass(ControlFlowExceptions.class.getName());
+      return (boolean) freshClass.getMethod("stackTracesEnabled").invoke(null);
+    }
+  }
+}
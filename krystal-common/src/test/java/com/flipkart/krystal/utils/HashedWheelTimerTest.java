@@ -0,0 +1,97 @@
+package com.flipkart.krystal.utils;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flipkart.krystal.utils.HashedWheelTimer.Timeout;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+  private HashedWheelTimer timer;
+
+  @BeforeEach
+  void setUp() {
+    // A small wheel so that timeouts longer than one rotation are also exercised
+    this.timer = new HashedWheelTimer("test-timer", Duration.ofMillis(1), 8);
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+  }
+
+  @Test
+  void newTimeout_delayElapsed_taskExecutedOnTimerThread() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<String> threadName = new AtomicReference<>();
+    AtomicLong firedAtNanos = new AtomicLong();
+    long startNanos = System.nanoTime();
+    Timeout timeout =
+        timer.newTimeout(
+            () -> {
+              firedAtNanos.set(System.nanoTime());
+              threadName.set(Thread.currentThread().getName());
+              latch.countDown();
+            },
+            Duration.ofMillis(30));
+
+    assertTrue(latch.await(1, SECONDS));
+    assertTrue(firedAtNanos.get() - startNanos >= Duration.ofMillis(30).toNanos());
+    assertEquals("test-timer", threadName.get());
+    assertTrue(timeout.isExpired());
+  }
+
+  @Test
+  void cancel_beforeExpiry_taskNotExecuted() throws Exception {
+    AtomicBoolean executed = new AtomicBoolean();
+    Timeout timeout = timer.newTimeout(() -> executed.set(true), Duration.ofMillis(20));
+
+    assertTrue(timeout.cancel());
+    Thread.sleep(60);
+
+    assertFalse(executed.get());
+    assertTrue(timeout.isCancelled());
+    assertFalse(timeout.isExpired());
+  }
+
+  @Test
+  void cancel_afterExpiry_returnsFalse() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    Timeout timeout = timer.newTimeout(latch::countDown, Duration.ofMillis(1));
+
+    assertTrue(latch.await(1, SECONDS));
+
+    assertFalse(timeout.cancel());
+    assertFalse(timeout.isCancelled());
+  }
+
+  @Test
+  void newTimeout_taskThrows_subsequentTimeoutsStillExecuted() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    timer.newTimeout(
+        () -> {
+          throw new RuntimeException("Expected");
+        },
+        Duration.ofMillis(1));
+    timer.newTimeout(latch::countDown, Duration.ofMillis(5));
+
+    assertTrue(latch.await(1, SECONDS));
+  }
+
+  @Test
+  void close_preventsNewTimeouts() {
+    timer.close();
+    assertThrows(IllegalStateException.class, () -> timer.newTimeout(() -> {}, Duration.ZERO));
+  }
+}
@@ -6,14 +6,19 @@ import static java.util.concurrent.Executors.newWorkStealingPool;
 
 import com.flipkart.krystal.utils.DistributeLeases;
 import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.utils.RequestPriority;
 import java.util.concurrent.ExecutorService;
 
+/**
+ * A pool of single threaded command queues. Each command queue has one lane per {@link
+ * RequestPriority} (see {@link WeightedLaneExecutorService}).
+ */
 public final class ForkJoinExecutorPool extends MultiLeasePool<ExecutorService>
     implements AutoCloseable {
 
   public ForkJoinExecutorPool(double maxParallelismPerCore) {
     super(
-        () -> newWorkStealingPool(1),
+        () -> new WeightedLaneExecutorService(newWorkStealingPool(1)),
         new DistributeLeases(
             max(1, (int) (getRuntime().availableProcessors() * maxParallelismPerCore)), 1),
         ExecutorService::shutdown);
@@ -2,6 +2,7 @@ package com.flipkart.krystal.krystex;
 
 import com.flipkart.krystal.data.Inputs;
 import com.flipkart.krystal.krystex.node.NodeId;
+import com.flipkart.krystal.utils.RequestPriority;
 import java.util.concurrent.CompletableFuture;
 
 public interface KrystalExecutor extends AutoCloseable {
@@ -10,6 +11,14 @@ public interface KrystalExecutor extends AutoCloseable {
 
   <T> CompletableFuture<T> executeNode(NodeId nodeId, Inputs inputs, String requestId);
 
+  /**
+   * Same as {@link #executeNode(NodeId, Inputs, String)}, except that all the commands of the
+   * request are executed with the given priority relative to the commands of other requests
+   * sharing the same command queue.
+   */
+  <T> CompletableFuture<T> executeNode(
+      NodeId nodeId, Inputs inputs, String requestId, RequestPriority priority);
+
   /** Flushes any pending requests. */
   void flush();
 
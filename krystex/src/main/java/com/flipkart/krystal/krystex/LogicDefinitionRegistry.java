@@ -1,13 +1,15 @@
 package com.flipkart.krystal.krystex;
 
 import com.flipkart.krystal.krystex.node.NodeLogicId;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/** Registry of logic definitions. Logics can be safely registered and looked up concurrently. */
 public final class LogicDefinitionRegistry {
-  private final Map<NodeLogicId, MainLogicDefinition<?>> mainLogicDefinitions = new HashMap<>();
+  private final Map<NodeLogicId, MainLogicDefinition<?>> mainLogicDefinitions =
+      new ConcurrentHashMap<>();
   private final Map<NodeLogicId, ResolverLogicDefinition> resolverLogicDefinitions =
-      new HashMap<>();
+      new ConcurrentHashMap<>();
 
   public LogicDefinitionRegistry() {}
 
@@ -21,17 +23,11 @@ public final class LogicDefinitionRegistry {
   }
 
   public void addMainLogic(MainLogicDefinition<?> mainLogicDefinition) {
-    if (mainLogicDefinitions.containsKey(mainLogicDefinition.nodeLogicId())) {
-      return;
-    }
-    mainLogicDefinitions.put(mainLogicDefinition.nodeLogicId(), mainLogicDefinition);
+    mainLogicDefinitions.putIfAbsent(mainLogicDefinition.nodeLogicId(), mainLogicDefinition);
   }
 
   public void addResolver(ResolverLogicDefinition def) {
-    if (resolverLogicDefinitions.containsKey(def.nodeLogicId())) {
-      return;
-    }
-    resolverLogicDefinitions.put(def.nodeLogicId(), def);
+    resolverLogicDefinitions.putIfAbsent(def.nodeLogicId(), def);
   }
 
   public void validate() {
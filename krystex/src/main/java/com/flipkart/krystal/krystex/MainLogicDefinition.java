@@ -1,5 +1,6 @@
 package com.flipkart.krystal.krystex;
 
+import com.flipkart.krystal.config.LiveConfigProvider;
 import com.flipkart.krystal.data.Inputs;
 import com.flipkart.krystal.krystex.decoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
@@ -11,11 +12,12 @@ import com.flipkart.krystal.krystex.node.NodeLogicId;
 import com.flipkart.krystal.logic.LogicTag;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public abstract sealed class MainLogicDefinition<T> extends LogicDefinition
@@ -29,14 +31,20 @@ public abstract sealed class MainLogicDefinition<T> extends LogicDefinition
   public abstract ImmutableMap<Inputs, CompletableFuture<T>> execute(ImmutableList<Inputs> inputs);
 
   private final Map<String, MainLogicDecoratorConfig> requestScopedLogicDecoratorConfigs =
-      new HashMap<>();
+      new ConcurrentHashMap<>();
 
   /** LogicDecorator Id -> LogicDecorator */
   private final Map<String, MainLogicDecoratorConfig> sessionScopedLogicDecoratorConfigs =
-      new HashMap<>();
+      new ConcurrentHashMap<>();
 
+  /**
+   * Session scoped decorators are shared by all the executors of a session, which might be
+   * requesting them concurrently.
+   */
   private final Map<String, Map<String, MainLogicDecorator>> sessionScopedDecorators =
-      new LinkedHashMap<>();
+      new ConcurrentHashMap<>();
+
+  private volatile @Nullable LiveConfigProvider configProvider;
 
   public ImmutableMap<String, MainLogicDecoratorConfig> getRequestScopedLogicDecoratorConfigs() {
     return ImmutableMap.copyOf(requestScopedLogicDecoratorConfigs);
@@ -58,18 +66,46 @@ public abstract sealed class MainLogicDefinition<T> extends LogicDefinition
             decorators.put(
                 s,
                 sessionScopedDecorators
-                    .computeIfAbsent(s, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(s, k -> new ConcurrentHashMap<>())
                     .computeIfAbsent(
                         instanceId,
                         k ->
-                            decoratorConfig
-                                .factory()
-                                .apply(new DecoratorContext(instanceId, logicExecutionContext))));
+                            createDecorator(
+                                decoratorConfig,
+                                new DecoratorContext(
+                                    instanceId,
+                                    logicExecutionContext,
+                                    // Session scoped decorators are not owned by any executor
+                                    ForkJoinPool.commonPool()))));
           }
         });
     return ImmutableMap.copyOf(decorators);
   }
 
+  /**
+   * Creates a decorator of this logic using the factory of the given config. If a config provider
+   * has been set via {@link #subscribeDecoratorsTo(LiveConfigProvider)}, the decorator is
+   * subscribed to the configs prefixed with its instance id, and is immediately updated with them.
+   */
+  public MainLogicDecorator createDecorator(
+      MainLogicDecoratorConfig decoratorConfig, DecoratorContext decoratorContext) {
+    MainLogicDecorator decorator = decoratorConfig.factory().apply(decoratorContext);
+    LiveConfigProvider configProvider = this.configProvider;
+    if (configProvider != null) {
+      configProvider.subscribe(decorator, decoratorContext.instanceId() + ".");
+    }
+    return decorator;
+  }
+
+  /**
+   * Subscribes every decorator of this logic which is created after this call to the given config
+   * provider. Since the provider holds its listeners weakly, decorators stop receiving updates once
+   * their scope (the session, or the request) ends.
+   */
+  public void subscribeDecoratorsTo(LiveConfigProvider configProvider) {
+    this.configProvider = configProvider;
+  }
+
   public void registerRequestScopedDecorator(MainLogicDecoratorConfig decoratorConfig) {
     requestScopedLogicDecoratorConfigs.put(decoratorConfig.decoratorType(), decoratorConfig);
   }
@@ -1,8 +1,19 @@
 package com.flipkart.krystal.krystex;
 
-public record RequestId(String asString) {
+import com.flipkart.krystal.utils.RequestPriority;
+
+/**
+ * @param priority The priority of the request. The ids of the requests made on behalf of this
+ *     request (see {@link #append(Object)}) inherit this priority, so that all the commands of a
+ *     request are executed with the same priority.
+ */
+public record RequestId(String asString, RequestPriority priority) {
+
+  public RequestId(String asString) {
+    this(asString, RequestPriority.DEFAULT);
+  }
 
   public RequestId append(Object suffix) {
-    return new RequestId("%s:%s".formatted(asString, suffix));
+    return new RequestId("%s:%s".formatted(asString, suffix), priority);
   }
 }
@@ -0,0 +1,147 @@
+package com.flipkart.krystal.krystex;
+
+import com.flipkart.krystal.utils.RequestPriority;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A single threaded executor service with one task queue (lane) per {@link RequestPriority}.
+ *
+ * <p>Tasks submitted to a lane are executed in the order of submission. When tasks are waiting in
+ * multiple lanes, the lanes are served in a weighted round-robin fashion: upto {@link
+ * RequestPriority#weight()} tasks are executed from a lane before moving on to the next one. This
+ * way, commands of latency critical requests are not stuck behind a backlog of commands of
+ * background requests sharing the same command queue, while background requests are never starved.
+ *
+ * <p>Tasks submitted via {@link #execute(Runnable)} are executed in the {@link
+ * RequestPriority#DEFAULT} lane.
+ */
+public final class WeightedLaneExecutorService extends AbstractExecutorService {
+
+  private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+  private final ExecutorService delegate;
+  private final Queue<Runnable>[] lanes;
+  private final Executor[] laneExecutors;
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+  /** Accessed only from the drain task */
+  private int currentLane;
+
+  /** Accessed only from the drain task */
+  private int remainingCredits = PRIORITIES[0].weight();
+
+  /**
+   * @param delegate The executor on which the tasks are executed. Tasks are executed sequentially
+   *     even if the delegate is multi-threaded.
+   */
+  public WeightedLaneExecutorService(ExecutorService delegate) {
+    this.delegate = delegate;
+    //noinspection unchecked
+    this.lanes = new Queue[PRIORITIES.length];
+    this.laneExecutors = new Executor[PRIORITIES.length];
+    for (RequestPriority priority : PRIORITIES) {
+      lanes[priority.ordinal()] = new ConcurrentLinkedQueue<>();
+      laneExecutors[priority.ordinal()] = task -> execute(task, priority);
+    }
+  }
+
+  /** Returns an executor which executes tasks in the lane of the given priority. */
+  public Executor lane(RequestPriority priority) {
+    return laneExecutors[priority.ordinal()];
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    execute(task, RequestPriority.DEFAULT);
+  }
+
+  private void execute(Runnable task, RequestPriority priority) {
+    if (delegate.isShutdown()) {
+      throw new RejectedExecutionException("WeightedLaneExecutorService has been shutdown");
+    }
+    lanes[priority.ordinal()].add(task);
+    if (drainScheduled.compareAndSet(false, true)) {
+      delegate.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      Runnable task = nextTask();
+      if (task == null) {
+        drainScheduled.set(false);
+        // A task might have been added after the lanes were found empty, but before the flag was
+        // reset. In that case, continue draining unless another drain has been scheduled.
+        if (allLanesEmpty() || !drainScheduled.compareAndSet(false, true)) {
+          return;
+        }
+        continue;
+      }
+      try {
+        task.run();
+      } catch (Throwable e) {
+        Thread currentThread = Thread.currentThread();
+        currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+      }
+    }
+  }
+
+  /** Returns the next task as per weighted round-robin, or null if all the lanes are empty. */
+  private @Nullable Runnable nextTask() {
+    for (int i = 0; i <= lanes.length; i++) {
+      if (remainingCredits > 0) {
+        Runnable task = lanes[currentLane].poll();
+        if (task != null) {
+          remainingCredits--;
+          return task;
+        }
+      }
+      currentLane = (currentLane + 1) % lanes.length;
+      remainingCredits = PRIORITIES[currentLane].weight();
+    }
+    return null;
+  }
+
+  private boolean allLanesEmpty() {
+    for (Queue<Runnable> lane : lanes) {
+      if (!lane.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
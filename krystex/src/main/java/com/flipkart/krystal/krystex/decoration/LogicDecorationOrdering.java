@@ -4,6 +4,7 @@ import static java.util.Comparator.comparingInt;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -24,9 +25,22 @@ public class LogicDecorationOrdering {
   }
 
   public Comparator<LogicDecorator<?>> decorationOrder() {
-    return comparingInt(
-        key ->
-            Optional.ofNullable(decoratorTypeIndices.get(key.decoratorType()))
-                .orElse(Integer.MIN_VALUE));
+    return comparingInt(key -> indexOf(key.decoratorType()));
+  }
+
+  /**
+   * Returns true if decorators of the given type are always applied before (i.e. inside) decorators
+   * of each of the other given types. Decorator types which are not part of this ordering are
+   * applied first, in no particular order among themselves.
+   */
+  public boolean decoratesBefore(String decoratorType, Collection<String> otherDecoratorTypes) {
+    int index = indexOf(decoratorType);
+    return otherDecoratorTypes.stream()
+        .filter(other -> !other.equals(decoratorType))
+        .allMatch(other -> index < indexOf(other));
+  }
+
+  private int indexOf(String decoratorType) {
+    return Optional.ofNullable(decoratorTypeIndices.get(decoratorType)).orElse(Integer.MIN_VALUE);
   }
 }
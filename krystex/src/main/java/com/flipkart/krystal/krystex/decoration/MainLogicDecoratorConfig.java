@@ -1,6 +1,7 @@
 package com.flipkart.krystal.krystex.decoration;
 
 import com.flipkart.krystal.config.ConfigProvider;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -21,5 +22,12 @@ public record MainLogicDecoratorConfig(
     Predicate<LogicExecutionContext> shouldDecorate,
     Function<LogicExecutionContext, String> instanceIdGenerator,
     Function<DecoratorContext, MainLogicDecorator> factory) {
-  public record DecoratorContext(String instanceId, LogicExecutionContext logicExecutionContext) {}
+  /**
+   * @param executor The executor on which the decorator must execute any work which it triggers
+   *     asynchronously (for example, on the expiry of a timer), so that such work is never executed
+   *     on the thread of the timer. For request scoped decorators, this is the command queue of the
+   *     executor which created the decorator.
+   */
+  public record DecoratorContext(
+      String instanceId, LogicExecutionContext logicExecutionContext, Executor executor) {}
 }
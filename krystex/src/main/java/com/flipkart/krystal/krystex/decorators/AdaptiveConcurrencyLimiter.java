@@ -0,0 +1,176 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static com.flipkart.krystal.utils.Futures.flattenBatch;
+
+import com.flipkart.krystal.config.ConfigKey;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig.DecoratorContext;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Limits the number of concurrent executions of the decorated logic to a {@link ConcurrencyLimit}
+ * which adapts to the observed latencies of the logic. Unlike a bulkhead with a static maximum
+ * concurrency, the limit grows when the downstream can absorb more load (for example after it is
+ * scaled up), and shrinks when its latencies increase (for example during a brownout).
+ *
+ * <p>Each execution of the decorated logic (i.e. each batch of inputs) counts as one call. Calls
+ * over the limit wait in a bounded queue, and are rejected with a {@link
+ * RejectedExecutionException} when the queue is full. Queued calls are executed on the executor of
+ * this decorator once an earlier call completes, so this decorator must decorate logic which is
+ * safe to execute from that executor - ideally it should be the innermost decorator of the logic.
+ *
+ * <p>The limit is maintained per instance id and outlives individual decorator instances, so the
+ * instance id should identify the decorated logic (for example, the vajram id). The current limit
+ * can be published as a metric using {@link #concurrencyLimit(String)}.
+ *
+ * <p>The limiter is configured using the following configs:
+ *
+ * <ul>
+ *   <li>{@code <instanceId>.concurrency_limit.enabled}: defaults to false
+ *   <li>{@code <instanceId>.concurrency_limit.initial_limit}: defaults to {@value
+ *       #DEFAULT_INITIAL_LIMIT}. Only used when the limit is created.
+ *   <li>{@code <instanceId>.concurrency_limit.min_limit}: defaults to {@value #DEFAULT_MIN_LIMIT}
+ *   <li>{@code <instanceId>.concurrency_limit.max_limit}: defaults to {@value #DEFAULT_MAX_LIMIT}
+ *   <li>{@code <instanceId>.concurrency_limit.max_queue_size}: defaults to 0, i.e. calls over the
+ *       limit are rejected immediately.
+ * </ul>
+ */
+public final class AdaptiveConcurrencyLimiter implements MainLogicDecorator {
+
+  public static final String DECORATOR_TYPE = AdaptiveConcurrencyLimiter.class.getName();
+
+  private static final int DEFAULT_INITIAL_LIMIT = 20;
+  private static final int DEFAULT_MIN_LIMIT = 1;
+  private static final int DEFAULT_MAX_LIMIT = 200;
+
+  private static final Map<String, ConcurrencyLimit> LIMITS = new ConcurrentHashMap<>();
+
+  private final String instanceId;
+  private final Executor executor;
+
+  private final ConfigKey<Boolean> enabledKey;
+  private final ConfigKey<Integer> initialLimitKey;
+  private final ConfigKey<Integer> minLimitKey;
+  private final ConfigKey<Integer> maxLimitKey;
+  private final ConfigKey<Integer> maxQueueSizeKey;
+
+  private volatile boolean enabled;
+  private volatile @Nullable ConcurrencyLimit concurrencyLimit;
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   */
+  public AdaptiveConcurrencyLimiter(String instanceId) {
+    this(instanceId, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   * @param executor The executor on which queued calls are executed. Typically the executor of the
+   *     {@link DecoratorContext} of this decorator.
+   */
+  public AdaptiveConcurrencyLimiter(String instanceId, Executor executor) {
+    this.instanceId = instanceId;
+    this.executor = executor;
+    this.enabledKey = ConfigKey.booleanKey(instanceId + ".concurrency_limit.enabled");
+    this.initialLimitKey = ConfigKey.intKey(instanceId + ".concurrency_limit.initial_limit");
+    this.minLimitKey = ConfigKey.intKey(instanceId + ".concurrency_limit.min_limit");
+    this.maxLimitKey = ConfigKey.intKey(instanceId + ".concurrency_limit.max_limit");
+    this.maxQueueSizeKey = ConfigKey.intKey(instanceId + ".concurrency_limit.max_queue_size");
+  }
+
+  @Override
+  public MainLogic<Object> decorateLogic(MainLogic<Object> logicToDecorate) {
+    ConcurrencyLimit concurrencyLimit = this.concurrencyLimit;
+    if (!enabled || concurrencyLimit == null) {
+      return logicToDecorate;
+    }
+    return inputsList -> {
+      if (concurrencyLimit.tryAcquire()) {
+        return executeWithPermit(logicToDecorate, inputsList, concurrencyLimit);
+      }
+      CompletableFuture<ImmutableMap<Inputs, CompletableFuture<Object>>> queuedExecution =
+          new CompletableFuture<>();
+      boolean queued =
+          concurrencyLimit.enqueue(
+              () -> {
+                try {
+                  queuedExecution.complete(
+                      executeWithPermit(logicToDecorate, inputsList, concurrencyLimit));
+                } catch (Throwable e) {
+                  queuedExecution.completeExceptionally(e);
+                }
+              },
+              executor);
+      if (!queued) {
+        queuedExecution.completeExceptionally(
+            new RejectedExecutionException(
+                "Concurrency limit of %s reached for %s"
+                    .formatted(concurrencyLimit.limit(), instanceId)));
+      }
+      return flattenBatch(inputsList, queuedExecution);
+    };
+  }
+
+  private static ImmutableMap<Inputs, CompletableFuture<Object>> executeWithPermit(
+      MainLogic<Object> logicToDecorate,
+      ImmutableList<Inputs> inputsList,
+      ConcurrencyLimit concurrencyLimit) {
+    long startNanos = System.nanoTime();
+    ImmutableMap<Inputs, CompletableFuture<Object>> results;
+    try {
+      results = logicToDecorate.execute(inputsList);
+    } catch (Throwable e) {
+      concurrencyLimit.release(System.nanoTime() - startNanos);
+      throw e;
+    }
+    CompletableFuture.allOf(results.values().toArray(CompletableFuture[]::new))
+        .whenComplete(
+            (unused, throwable) -> concurrencyLimit.release(System.nanoTime() - startNanos));
+    return results;
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    this.enabled = configProvider.getConfig(enabledKey, false);
+    int minLimit = configProvider.getConfig(minLimitKey, DEFAULT_MIN_LIMIT);
+    int maxLimit = configProvider.getConfig(maxLimitKey, DEFAULT_MAX_LIMIT);
+    int maxQueueSize = configProvider.getConfig(maxQueueSizeKey, 0);
+    ConcurrencyLimit concurrencyLimit =
+        LIMITS.computeIfAbsent(
+            instanceId,
+            k ->
+                new ConcurrencyLimit(
+                    configProvider.getConfig(initialLimitKey, DEFAULT_INITIAL_LIMIT),
+                    minLimit,
+                    maxLimit,
+                    maxQueueSize));
+    concurrencyLimit.update(minLimit, maxLimit, maxQueueSize);
+    this.concurrencyLimit = concurrencyLimit;
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+
+  /**
+   * The adaptive concurrency limit of the logic decorated by the given instance id, if it has been
+   * configured. This can be used to publish the current limit, in-flight calls and queued calls as
+   * metrics.
+   */
+  public static @Nullable ConcurrencyLimit concurrencyLimit(String instanceId) {
+    return LIMITS.get(instanceId);
+  }
+}
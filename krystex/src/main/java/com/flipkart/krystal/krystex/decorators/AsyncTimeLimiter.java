@@ -0,0 +1,142 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static com.flipkart.krystal.utils.Futures.propagateCompletion;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.flipkart.krystal.config.ConfigKey;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig.DecoratorContext;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.flipkart.krystal.utils.HashedWheelTimer.Timeout;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Limits the time for which the results of the decorated logic are awaited. If the results of an
+ * execution are not computed within the configured timeout, they are completed exceptionally with a
+ * {@link TimeoutException} (which the dependants of the node receive as an error). The futures
+ * returned by the decorated logic are never cancelled: they may be shared with other callers (for
+ * example, by a session scoped input modulation decorator), and cancelling a {@link
+ * CompletableFuture} does not interrupt the computation anyway.
+ *
+ * <p>Timeouts of all the executions are tracked by a single {@link HashedWheelTimer} (by default,
+ * {@link HashedWheelTimer#shared()}), so no thread is blocked and no scheduled task is created per
+ * execution. All the inputs of a batch share one timeout which is cancelled as soon as all their
+ * results are computed. On expiry, the timer hands off to the executor of this decorator, which
+ * completes the results - so the dependants of the node are never run on the timer thread.
+ *
+ * <p>The timeout is configured using the following configs:
+ *
+ * <ul>
+ *   <li>{@code <instanceId>.time_limiter.enabled}: defaults to true
+ *   <li>{@code <instanceId>.time_limiter.timeout_ms}: Time limiting is disabled if this is not
+ *       configured.
+ * </ul>
+ */
+public final class AsyncTimeLimiter implements MainLogicDecorator {
+
+  public static final String DECORATOR_TYPE = AsyncTimeLimiter.class.getName();
+
+  private static final long DISABLED = -1;
+
+  private final String instanceId;
+  private final HashedWheelTimer timer;
+  private final Executor executor;
+  private final ConfigKey<Boolean> enabledKey;
+  private final ConfigKey<Long> timeoutMsKey;
+
+  private volatile long timeoutMillis = DISABLED;
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   */
+  public AsyncTimeLimiter(String instanceId) {
+    this(instanceId, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   * @param executor The executor on which timed out results are completed. Typically the executor
+   *     of the {@link DecoratorContext} of this decorator.
+   */
+  public AsyncTimeLimiter(String instanceId, Executor executor) {
+    this(instanceId, HashedWheelTimer.shared(), executor);
+  }
+
+  public AsyncTimeLimiter(String instanceId, HashedWheelTimer timer, Executor executor) {
+    this.instanceId = instanceId;
+    this.timer = timer;
+    this.executor = executor;
+    this.enabledKey = ConfigKey.booleanKey(instanceId + ".time_limiter.enabled");
+    this.timeoutMsKey = ConfigKey.longKey(instanceId + ".time_limiter.timeout_ms");
+  }
+
+  @Override
+  public MainLogic<Object> decorateLogic(MainLogic<Object> logicToDecorate) {
+    long timeoutMillis = this.timeoutMillis;
+    if (timeoutMillis == DISABLED) {
+      return logicToDecorate;
+    }
+    return inputsList -> {
+      ImmutableMap<Inputs, CompletableFuture<Object>> results =
+          logicToDecorate.execute(inputsList);
+      ImmutableMap.Builder<Inputs, CompletableFuture<Object>> timeLimitedResults =
+          ImmutableMap.builderWithExpectedSize(results.size());
+      List<CompletableFuture<Object>> timeLimitedPendingResults = new ArrayList<>();
+      for (Entry<Inputs, CompletableFuture<Object>> entry : results.entrySet()) {
+        CompletableFuture<Object> result = entry.getValue();
+        if (result.isDone()) {
+          timeLimitedResults.put(entry.getKey(), result);
+        } else {
+          CompletableFuture<Object> timeLimitedResult = new CompletableFuture<>();
+          propagateCompletion(result, timeLimitedResult);
+          timeLimitedPendingResults.add(timeLimitedResult);
+          timeLimitedResults.put(entry.getKey(), timeLimitedResult);
+        }
+      }
+      if (!timeLimitedPendingResults.isEmpty()) {
+        Timeout timeout =
+            timer.newTimeout(
+                () -> executor.execute(() -> onTimeout(timeoutMillis, timeLimitedPendingResults)),
+                timeoutMillis,
+                MILLISECONDS);
+        CompletableFuture.allOf(timeLimitedPendingResults.toArray(CompletableFuture[]::new))
+            .whenComplete((unused, throwable) -> timeout.cancel());
+      }
+      return timeLimitedResults.buildOrThrow();
+    };
+  }
+
+  private void onTimeout(
+      long timeoutMillis, List<CompletableFuture<Object>> timeLimitedPendingResults) {
+    TimeoutException timeoutException =
+        new TimeoutException(
+            "Execution of %s timed out after %s ms".formatted(instanceId, timeoutMillis));
+    for (CompletableFuture<Object> timeLimitedResult : timeLimitedPendingResults) {
+      // Results which have been computed in the meantime are not affected
+      timeLimitedResult.completeExceptionally(timeoutException);
+    }
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    this.timeoutMillis =
+        configProvider.getConfig(enabledKey, true)
+            ? configProvider.getConfig(timeoutMsKey, DISABLED)
+            : DISABLED;
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+}
@@ -0,0 +1,152 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+
+/**
+ * An adaptive limit on the number of concurrent executions of some logic, estimated using the
+ * gradient of latencies (similar to the Gradient2 algorithm of Netflix's concurrency-limits).
+ *
+ * <p>Two exponential moving averages of latencies are maintained: a short term average which
+ * reflects the current latency, and a long term average which reflects the latency when the
+ * downstream is not overloaded. When the short term average rises above the long term average (by
+ * more than the tolerance), the downstream is assumed to be queueing requests and the limit is
+ * reduced in proportion. Otherwise, the limit is increased by a small amount which allows for a
+ * small queue at the downstream. The limit is increased only when it is being utilized.
+ *
+ * <p>Executions which exceed the limit can wait in a bounded queue until other executions complete.
+ * Queued executions are started on the executor they were queued with, never on the thread which
+ * completed the earlier execution. This class is thread safe.
+ */
+public final class ConcurrencyLimit {
+
+  private static final double TOLERANCE = 1.5;
+  private static final double SMOOTHING = 0.2;
+  private static final double SHORT_TERM_ALPHA = 2.0 / (10 + 1);
+  private static final double LONG_TERM_ALPHA = 2.0 / (600 + 1);
+
+  /** Guarded by {@code this} */
+  private final Deque<QueuedExecution> queue = new ArrayDeque<>();
+
+  private volatile int minLimit;
+  private volatile int maxLimit;
+  private volatile int maxQueueSize;
+
+  private volatile double estimatedLimit;
+  private volatile int inFlight;
+
+  /** Guarded by {@code this} */
+  private double shortTermRttNanos;
+
+  /** Guarded by {@code this} */
+  private double longTermRttNanos;
+
+  public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int maxQueueSize) {
+    update(minLimit, maxLimit, maxQueueSize);
+    this.estimatedLimit = clamp(initialLimit);
+  }
+
+  synchronized void update(int minLimit, int maxLimit, int maxQueueSize) {
+    this.minLimit = max(1, minLimit);
+    this.maxLimit = max(this.minLimit, maxLimit);
+    this.maxQueueSize = max(0, maxQueueSize);
+    this.estimatedLimit = clamp(estimatedLimit);
+  }
+
+  /**
+   * @return true if an execution can start now, in which case {@link #release(long)} must be
+   *     called once it completes.
+   */
+  synchronized boolean tryAcquire() {
+    if (inFlight < limit()) {
+      inFlight++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Queues an execution which will be started on the given executor once other executions
+   * complete. The execution must call {@link #release(long)} once it completes.
+   *
+   * @return false if the queue is full.
+   */
+  synchronized boolean enqueue(Runnable execution, Executor executor) {
+    if (queue.size() >= maxQueueSize) {
+      return false;
+    }
+    queue.add(new QueuedExecution(execution, executor));
+    return true;
+  }
+
+  /** Records the completion of an execution and starts queued executions if possible. */
+  void release(long latencyNanos) {
+    while (true) {
+      QueuedExecution next;
+      synchronized (this) {
+        if (latencyNanos >= 0) {
+          onSample(latencyNanos);
+          latencyNanos = -1;
+          inFlight--;
+        }
+        if (queue.isEmpty() || inFlight >= limit()) {
+          return;
+        }
+        next = queue.remove();
+        inFlight++;
+      }
+      // Dispatching (instead of running) the execution makes sure that logic which completes
+      // synchronously does not call release() recursively, growing the stack with the queue.
+      next.executor().execute(next.execution());
+    }
+  }
+
+  /** The current limit on the number of concurrent executions. */
+  public int limit() {
+    return (int) estimatedLimit;
+  }
+
+  /** The number of executions currently in progress. */
+  public int inFlight() {
+    return inFlight;
+  }
+
+  /** The number of executions waiting for other executions to complete. */
+  public synchronized int queueSize() {
+    return queue.size();
+  }
+
+  /** Must be called while holding the lock on {@code this} */
+  private void onSample(long rttNanos) {
+    if (longTermRttNanos == 0) {
+      shortTermRttNanos = rttNanos;
+      longTermRttNanos = rttNanos;
+      return;
+    }
+    shortTermRttNanos += (rttNanos - shortTermRttNanos) * SHORT_TERM_ALPHA;
+    longTermRttNanos += (rttNanos - longTermRttNanos) * LONG_TERM_ALPHA;
+    // After a period of high latencies, decay the long term average faster so that the limit
+    // recovers quickly once the downstream recovers.
+    if (longTermRttNanos / shortTermRttNanos > 2) {
+      longTermRttNanos *= 0.95;
+    }
+    double estimatedLimit = this.estimatedLimit;
+    if (inFlight < estimatedLimit / 2) {
+      // The limit is not being utilized. Latencies tell nothing about whether it should be raised.
+      return;
+    }
+    double gradient = max(0.5, min(1.0, TOLERANCE * longTermRttNanos / shortTermRttNanos));
+    double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    this.estimatedLimit = clamp(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+  }
+
+  private double clamp(double limit) {
+    return min(maxLimit, max(minLimit, limit));
+  }
+
+  private record QueuedExecution(Runnable execution, Executor executor) {}
+}
@@ -0,0 +1,59 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the extra load generated by hedged executions (see {@link RequestHedging}) to a fraction
+ * of the primary executions.
+ *
+ * <p>This is a token bucket: every primary execution deposits {@code maxHedgeRatio} tokens, and
+ * every hedged execution withdraws one token. The bucket holds at most {@code maxBurst} tokens, so
+ * that a long period without hedging does not allow a burst of hedges when latencies suddenly
+ * increase.
+ */
+public final class HedgeBudget {
+
+  private static final long TOKEN_SCALE = 1000;
+
+  private static final class GlobalBudgetHolder {
+    private static final HedgeBudget GLOBAL = new HedgeBudget(0.05, 100);
+  }
+
+  private final long depositPerExecution;
+  private final long maxTokens;
+  private final AtomicLong tokens = new AtomicLong();
+
+  /**
+   * @param maxHedgeRatio the maximum number of hedged executions per primary execution.
+   * @param maxBurst the maximum number of hedged executions which can be made in quick succession.
+   */
+  public HedgeBudget(double maxHedgeRatio, int maxBurst) {
+    this.depositPerExecution = Math.max(1, (long) (maxHedgeRatio * TOKEN_SCALE));
+    this.maxTokens = Math.max(1, maxBurst) * TOKEN_SCALE;
+  }
+
+  /** A budget shared by all the {@link RequestHedging} decorators which allows 5% extra load. */
+  public static HedgeBudget global() {
+    return GlobalBudgetHolder.GLOBAL;
+  }
+
+  void onPrimaryExecution() {
+    tokens.accumulateAndGet(
+        depositPerExecution, (current, deposit) -> Math.min(maxTokens, current + deposit));
+  }
+
+  /**
+   * @return true if a hedged execution is allowed, in which case a token is withdrawn from the
+   *     budget.
+   */
+  boolean tryAcquire() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < TOKEN_SCALE) {
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - TOKEN_SCALE));
+    return true;
+  }
+}
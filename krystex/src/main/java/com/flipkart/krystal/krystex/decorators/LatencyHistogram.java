@@ -0,0 +1,105 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static java.lang.Long.numberOfLeadingZeros;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of recent latencies with microsecond resolution, used to estimate latency
+ * percentiles.
+ *
+ * <p>Latencies are counted in exponentially sized buckets - each power of two is split into {@value
+ * #SUB_BUCKETS} sub-buckets - so percentiles are accurate to within 12.5%. To track changes in
+ * latency, only recent samples are retained: once {@code windowSize} samples have been recorded,
+ * the older half of the samples is discarded.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final int windowSize;
+
+  /** Samples recorded since the last rotation */
+  private volatile AtomicLongArray current = new AtomicLongArray(BUCKET_COUNT);
+
+  /** Samples recorded between the last two rotations */
+  private volatile AtomicLongArray previous = new AtomicLongArray(BUCKET_COUNT);
+
+  private final AtomicLong currentCount = new AtomicLong();
+  private volatile long previousCount;
+
+  /**
+   * @param windowSize the number of recent samples over which percentiles are computed.
+   */
+  public LatencyHistogram(int windowSize) {
+    this.windowSize = Math.max(windowSize, 2);
+  }
+
+  public void record(long latencyNanos) {
+    current.incrementAndGet(bucketIndex(Math.max(latencyNanos / 1000, 0)));
+    if (currentCount.incrementAndGet() == windowSize / 2) {
+      rotate();
+    }
+  }
+
+  /** The number of samples over which percentiles are currently computed. */
+  public long sampleCount() {
+    return previousCount + currentCount.get();
+  }
+
+  /**
+   * Returns the latency below which the given percentage of recent samples lie, or 0 if no samples
+   * have been recorded.
+   *
+   * @param percentile a value between 0 and 100
+   */
+  public long percentileNanos(double percentile) {
+    AtomicLongArray current = this.current;
+    AtomicLongArray previous = this.previous;
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      total += current.get(i) + previous.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += current.get(i) + previous.get(i);
+      if (seen >= rank) {
+        return bucketUpperBoundMicros(i) * 1000;
+      }
+    }
+    return bucketUpperBoundMicros(BUCKET_COUNT - 1) * 1000;
+  }
+
+  private synchronized void rotate() {
+    this.previous = current;
+    this.previousCount = currentCount.get();
+    this.current = new AtomicLongArray(BUCKET_COUNT);
+    currentCount.set(0);
+  }
+
+  private static int bucketIndex(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) micros;
+    }
+    int exponent = Long.SIZE - 1 - numberOfLeadingZeros(micros);
+    int mantissa = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+  }
+
+  private static long bucketUpperBoundMicros(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long mantissa = index % SUB_BUCKETS;
+    int shift = exponent - SUB_BUCKET_BITS;
+    return ((SUB_BUCKETS + mantissa + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,175 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static com.flipkart.krystal.utils.Futures.propagateCompletion;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.config.ConfigKey;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig.DecoratorContext;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.flipkart.krystal.utils.HashedWheelTimer.Timeout;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reduces tail latency by hedging: if the results of an execution of the decorated logic have not
+ * been computed within a percentile of its recent latencies, the logic is executed again with the
+ * same inputs. Each input's result is taken from whichever execution computes it first.
+ *
+ * <p>Hedging must only be enabled for logic which is idempotent. The hedged execution is handed off
+ * by a {@link HashedWheelTimer} to the executor of this decorator, so the decorated logic must be
+ * safe to execute from that executor - ideally this should be the innermost decorator of the
+ * logic. The futures of the losing execution are never cancelled: they may be shared with other
+ * callers (for example, by a session scoped input modulation decorator), and cancelling a {@link
+ * CompletableFuture} does not interrupt the computation anyway.
+ *
+ * <p>The latencies of executions are recorded in a {@link LatencyHistogram} per instance id which
+ * outlives individual decorator instances, so the instance id should identify the decorated logic
+ * (for example, the vajram id). The extra load caused by hedging is bounded by a {@link
+ * HedgeBudget} ({@link HedgeBudget#global()} by default).
+ *
+ * <p>Hedging is configured using the following configs:
+ *
+ * <ul>
+ *   <li>{@code <instanceId>.hedging.enabled}: defaults to false
+ *   <li>{@code <instanceId>.hedging.percentile}: the percentile of recent latencies after which an
+ *       execution is hedged. Defaults to {@value #DEFAULT_PERCENTILE}.
+ * </ul>
+ */
+public final class RequestHedging implements MainLogicDecorator {
+
+  public static final String DECORATOR_TYPE = RequestHedging.class.getName();
+
+  private static final double DEFAULT_PERCENTILE = 95;
+  private static final int HISTOGRAM_WINDOW = 1024;
+
+  /** Executions are not hedged until these many latencies have been recorded */
+  private static final int MIN_SAMPLES = 100;
+
+  private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+  private final String instanceId;
+  private final HedgeBudget hedgeBudget;
+  private final HashedWheelTimer timer;
+  private final Executor executor;
+  private final LatencyHistogram latencyHistogram;
+  private final ConfigKey<Boolean> enabledKey;
+  private final ConfigKey<Double> percentileKey;
+
+  private volatile boolean enabled;
+  private volatile double percentile = DEFAULT_PERCENTILE;
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   */
+  public RequestHedging(String instanceId) {
+    this(instanceId, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   * @param executor The executor on which hedged executions of the decorated logic are executed.
+   *     Typically the executor of the {@link DecoratorContext} of this decorator.
+   */
+  public RequestHedging(String instanceId, Executor executor) {
+    this(instanceId, HedgeBudget.global(), HashedWheelTimer.shared(), executor);
+  }
+
+  public RequestHedging(
+      String instanceId, HedgeBudget hedgeBudget, HashedWheelTimer timer, Executor executor) {
+    this.instanceId = instanceId;
+    this.hedgeBudget = hedgeBudget;
+    this.timer = timer;
+    this.executor = executor;
+    this.latencyHistogram = latencyHistogram(instanceId);
+    this.enabledKey = ConfigKey.booleanKey(instanceId + ".hedging.enabled");
+    this.percentileKey = ConfigKey.doubleKey(instanceId + ".hedging.percentile");
+  }
+
+  @Override
+  public MainLogic<Object> decorateLogic(MainLogic<Object> logicToDecorate) {
+    if (!enabled) {
+      return logicToDecorate;
+    }
+    return inputsList -> {
+      long startNanos = System.nanoTime();
+      ImmutableMap<Inputs, CompletableFuture<Object>> primaryResults =
+          logicToDecorate.execute(inputsList);
+      hedgeBudget.onPrimaryExecution();
+      CompletableFuture<Void> primaryCompletion =
+          CompletableFuture.allOf(primaryResults.values().toArray(CompletableFuture[]::new));
+      primaryCompletion.whenComplete(
+          (unused, throwable) -> latencyHistogram.record(System.nanoTime() - startNanos));
+      if (primaryCompletion.isDone() || latencyHistogram.sampleCount() < MIN_SAMPLES) {
+        return primaryResults;
+      }
+      ImmutableMap.Builder<Inputs, CompletableFuture<Object>> results =
+          ImmutableMap.builderWithExpectedSize(primaryResults.size());
+      primaryResults.forEach(
+          (inputs, primaryResult) -> {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            propagateCompletion(primaryResult, result);
+            results.put(inputs, result);
+          });
+      ImmutableMap<Inputs, CompletableFuture<Object>> hedgeableResults = results.buildOrThrow();
+      Timeout timeout =
+          timer.newTimeout(
+              () -> executor.execute(() -> hedge(logicToDecorate, inputsList, hedgeableResults)),
+              latencyHistogram.percentileNanos(percentile),
+              NANOSECONDS);
+      primaryCompletion.whenComplete((unused, throwable) -> timeout.cancel());
+      return hedgeableResults;
+    };
+  }
+
+  private void hedge(
+      MainLogic<Object> logicToDecorate,
+      ImmutableList<Inputs> inputsList,
+      ImmutableMap<Inputs, CompletableFuture<Object>> results) {
+    if (!hedgeBudget.tryAcquire()) {
+      return;
+    }
+    ImmutableMap<Inputs, CompletableFuture<Object>> hedgedResults;
+    try {
+      hedgedResults = logicToDecorate.execute(inputsList);
+    } catch (Throwable e) {
+      // The primary execution is still in progress, so its results will be used
+      return;
+    }
+    results.forEach(
+        (inputs, result) -> {
+          CompletableFuture<Object> hedgedResult = hedgedResults.get(inputs);
+          if (hedgedResult != null) {
+            // Whichever execution completes the result first wins
+            propagateCompletion(hedgedResult, result);
+          }
+        });
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    this.enabled = configProvider.getConfig(enabledKey, false);
+    this.percentile = configProvider.getConfig(percentileKey, DEFAULT_PERCENTILE);
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+
+  /**
+   * The histogram of recent latencies of the logic decorated by the given instance id. This can be
+   * used to publish latency metrics.
+   */
+  public static LatencyHistogram latencyHistogram(String instanceId) {
+    return HISTOGRAMS.computeIfAbsent(instanceId, k -> new LatencyHistogram(HISTOGRAM_WINDOW));
+  }
+}
@@ -0,0 +1,177 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.flipkart.krystal.data.InputValue;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.data.ValueOrError;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A compact binary {@link CacheCodec} for values composed of nulls, booleans, integers, longs,
+ * doubles, strings, byte arrays, lists and maps. Every value is encoded as a one byte tag followed
+ * by its contents, with integers, longs and lengths encoded as zig-zag varints.
+ *
+ * <p>Inputs are encoded as their values sorted by input name, so they can be used as keys only if
+ * all their values can be encoded by this codec. Inputs containing errors or dependency results
+ * are not encodable.
+ *
+ * <p>Decoded lists and maps are unmodifiable, but are not necessarily of the same type as the
+ * encoded ones.
+ */
+public final class BinaryCacheCodec implements CacheCodec {
+
+  private static final byte NULL = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte DOUBLE = 5;
+  private static final byte STRING = 6;
+  private static final byte BYTES = 7;
+  private static final byte LIST = 8;
+  private static final byte MAP = 9;
+
+  @Override
+  public byte[] encodeKey(Inputs inputs) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TreeMap<String, InputValue<Object>> sortedValues = new TreeMap<>(inputs.values());
+    writeVarint(out, sortedValues.size());
+    for (Entry<String, InputValue<Object>> entry : sortedValues.entrySet()) {
+      if (!(entry.getValue() instanceof ValueOrError<Object> valueOrError)
+          || valueOrError.errorOrNull() != null) {
+        throw new IllegalArgumentException(
+            "Input %s cannot be encoded as a cache key".formatted(entry.getKey()));
+      }
+      writeString(out, entry.getKey());
+      write(out, valueOrError.valueOrNull());
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public byte[] encodeValue(@Nullable Object value) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    write(out, value);
+    return out.toByteArray();
+  }
+
+  @Override
+  public @Nullable Object decodeValue(ByteBuffer buffer) {
+    byte tag = buffer.get();
+    return switch (tag) {
+      case NULL -> null;
+      case FALSE -> false;
+      case TRUE -> true;
+      case INT -> (int) readVarint(buffer);
+      case LONG -> readVarint(buffer);
+      case DOUBLE -> buffer.getDouble();
+      case STRING -> new String(readBytes(buffer), UTF_8);
+      case BYTES -> readBytes(buffer);
+      case LIST -> {
+        int size = (int) readVarint(buffer);
+        List<@Nullable Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(decodeValue(buffer));
+        }
+        yield Collections.unmodifiableList(list);
+      }
+      case MAP -> {
+        int size = (int) readVarint(buffer);
+        Map<@Nullable Object, @Nullable Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+          map.put(decodeValue(buffer), decodeValue(buffer));
+        }
+        yield Collections.unmodifiableMap(map);
+      }
+      default -> throw new IllegalArgumentException("Unknown tag " + tag);
+    };
+  }
+
+  private static void write(ByteArrayOutputStream out, @Nullable Object value) {
+    if (value == null) {
+      out.write(NULL);
+    } else if (value instanceof Boolean b) {
+      out.write(b ? TRUE : FALSE);
+    } else if (value instanceof Integer i) {
+      out.write(INT);
+      writeVarint(out, i);
+    } else if (value instanceof Long l) {
+      out.write(LONG);
+      writeVarint(out, l);
+    } else if (value instanceof Double d) {
+      out.write(DOUBLE);
+      long bits = Double.doubleToLongBits(d);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        out.write((int) (bits >>> shift));
+      }
+    } else if (value instanceof String s) {
+      out.write(STRING);
+      writeBytes(out, s.getBytes(UTF_8));
+    } else if (value instanceof byte[] bytes) {
+      out.write(BYTES);
+      writeBytes(out, bytes);
+    } else if (value instanceof List<?> list) {
+      out.write(LIST);
+      writeVarint(out, list.size());
+      for (Object item : list) {
+        write(out, item);
+      }
+    } else if (value instanceof Map<?, ?> map) {
+      out.write(MAP);
+      writeVarint(out, map.size());
+      for (Entry<?, ?> entry : map.entrySet()) {
+        write(out, entry.getKey());
+        write(out, entry.getValue());
+      }
+    } else {
+      throw new IllegalArgumentException(
+          "Values of type %s cannot be encoded".formatted(value.getClass().getName()));
+    }
+  }
+
+  private static void writeString(ByteArrayOutputStream out, String s) {
+    writeBytes(out, s.getBytes(UTF_8));
+  }
+
+  private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+    writeVarint(out, bytes.length);
+    out.writeBytes(bytes);
+  }
+
+  private static byte[] readBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[(int) readVarint(buffer)];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, long value) {
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      out.write((int) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    out.write((int) zigZag);
+  }
+
+  private static long readVarint(ByteBuffer buffer) {
+    long zigZag = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      zigZag |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (zigZag >>> 1) ^ -(zigZag & 1);
+  }
+}
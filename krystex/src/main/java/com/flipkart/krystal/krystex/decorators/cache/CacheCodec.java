@@ -0,0 +1,30 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import com.flipkart.krystal.data.Inputs;
+import java.nio.ByteBuffer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Encodes cache keys and values to bytes so that they can be stored outside the java heap. */
+public interface CacheCodec {
+
+  /**
+   * Encodes the inputs to bytes. Inputs which are not equal must be encoded to different bytes.
+   * Equal inputs should be encoded to equal bytes, or else lookups of those inputs miss the cache.
+   *
+   * @throws IllegalArgumentException if the inputs cannot be encoded, in which case their results
+   *     are not cached.
+   */
+  byte[] encodeKey(Inputs inputs);
+
+  /**
+   * @throws IllegalArgumentException if the value cannot be encoded, in which case it is not
+   *     cached.
+   */
+  byte[] encodeValue(@Nullable Object value);
+
+  /**
+   * Decodes a value from the remaining bytes of the given buffer. The buffer may be backed by a
+   * memory mapped file which is unmapped later, so the decoded value must not retain it.
+   */
+  @Nullable Object decodeValue(ByteBuffer buffer);
+}
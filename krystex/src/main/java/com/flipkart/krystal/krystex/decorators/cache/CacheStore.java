@@ -0,0 +1,20 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import com.flipkart.krystal.data.Inputs;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Stores the results cached by {@link ResultCache}. Implementations must be thread safe, and are
+ * free to evict entries at any time (for example, to bound their size).
+ */
+public interface CacheStore {
+
+  @Nullable CachedResult get(Inputs inputs);
+
+  void put(Inputs inputs, CachedResult result);
+
+  void remove(Inputs inputs);
+
+  /** The number of entries currently in this store. */
+  long size();
+}
@@ -0,0 +1,22 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A result cached in a {@link CacheStore}.
+ *
+ * @param value the cached value. Null if the cached result is empty (negative caching)
+ * @param expiresAtMillis the epoch time (in millis) until which the value is fresh
+ * @param staleUntilMillis the epoch time (in millis) until which the value can be served while it
+ *     is being refreshed. Always greater than or equal to {@code expiresAtMillis}
+ */
+public record CachedResult(@Nullable Object value, long expiresAtMillis, long staleUntilMillis) {
+
+  public boolean isFresh(long nowMillis) {
+    return nowMillis < expiresAtMillis;
+  }
+
+  public boolean isUsable(long nowMillis) {
+    return nowMillis < staleUntilMillis;
+  }
+}
@@ -0,0 +1,95 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import com.flipkart.krystal.data.Inputs;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An on-heap {@link CacheStore} which holds at most a fixed number of entries, evicting the least
+ * recently used entries when full.
+ *
+ * <p>To reduce contention, the entries are split across segments by the hash of their inputs, each
+ * of which is an access ordered {@link LinkedHashMap} guarded by its own lock. Recency is hence
+ * tracked per segment, which approximates global LRU order.
+ */
+public final class LruCacheStore implements CacheStore {
+
+  private static final int SEGMENT_COUNT = 16;
+
+  private final Segment[] segments;
+
+  public LruCacheStore(int maxEntries) {
+    this(maxEntries, SEGMENT_COUNT);
+  }
+
+  /**
+   * Creates a store whose entries are split across at most the given number of segments. With a
+   * single segment, entries are evicted in exact LRU order.
+   */
+  LruCacheStore(int maxEntries, int maxSegmentCount) {
+    int segmentCount = Math.min(maxSegmentCount, Math.max(1, maxEntries));
+    int maxEntriesPerSegment = Math.max(1, maxEntries / segmentCount);
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(maxEntriesPerSegment);
+    }
+  }
+
+  @Override
+  public @Nullable CachedResult get(Inputs inputs) {
+    Segment segment = segmentFor(inputs);
+    synchronized (segment) {
+      return segment.get(inputs);
+    }
+  }
+
+  @Override
+  public void put(Inputs inputs, CachedResult result) {
+    Segment segment = segmentFor(inputs);
+    synchronized (segment) {
+      segment.put(inputs, result);
+    }
+  }
+
+  @Override
+  public void remove(Inputs inputs) {
+    Segment segment = segmentFor(inputs);
+    synchronized (segment) {
+      segment.remove(inputs);
+    }
+  }
+
+  @Override
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  private Segment segmentFor(Inputs inputs) {
+    int hash = inputs.hashCode();
+    // Spread the higher bits so that poorly distributed hashes still use all the segments
+    hash ^= hash >>> 16;
+    return segments[Math.floorMod(hash, segments.length)];
+  }
+
+  private static final class Segment extends LinkedHashMap<Inputs, CachedResult> {
+
+    private final int maxEntries;
+
+    private Segment(int maxEntries) {
+      super(16, 0.75f, true);
+      this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Inputs, CachedResult> eldest) {
+      return size() > maxEntries;
+    }
+  }
+}
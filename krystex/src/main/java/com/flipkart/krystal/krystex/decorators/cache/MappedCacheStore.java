@@ -0,0 +1,479 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.flipkart.krystal.data.Inputs;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link CacheStore} which stores cached results outside the java heap in memory mapped files,
+ * so that large cached values do not add to garbage collection pressure.
+ *
+ * <p>Results are encoded using a {@link CacheCodec} and appended to a ring of fixed size segment
+ * files. Only a hash index of the keys is held in memory. When the segment being written to is
+ * full, the oldest segment is reused and the entries in it are dropped. The number of entries is
+ * bounded separately using the clock algorithm: every entry has a reference bit which is set when
+ * it is read, and when the store is full, the clock hand evicts the first entry whose bit is not
+ * set (clearing the bits of the entries it passes).
+ *
+ * <p>Since the segment files persist, the index is rebuilt from them when a store is opened on the
+ * same directory, so a restarted process starts with a warm cache. Entries which are no longer
+ * usable are skipped while rebuilding the index. The store must be {@link #close() closed} to make
+ * sure all the entries are written to disk, and to release the mapped segments.
+ *
+ * <p>All the segments are mapped up front, so a store reserves {@code segmentSize * segmentCount}
+ * bytes of address space and disk space (1 GiB with the defaults of 16 segments of 64 MiB) as soon
+ * as it is opened. The segment files are created sparse where the file system supports it, and
+ * pages are only loaded into memory as they are written and read - but stores with small values
+ * should be created with smaller segments.
+ *
+ * <p>Reads can proceed concurrently, while writes are serialized.
+ */
+public final class MappedCacheStore implements CacheStore, AutoCloseable {
+
+  private static final int MAGIC = 0x4B434331;
+  private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  private static final int DEFAULT_SEGMENT_COUNT = 16;
+
+  /** magic (int), unused (int), sequence number (long) */
+  private static final int SEGMENT_HEADER_SIZE = 16;
+
+  /** record length (int), key length (int), expires at (long), stale until (long) */
+  private static final int RECORD_HEADER_SIZE = 24;
+
+  /** The instance of {@code sun.misc.Unsafe}, or null if it is not accessible */
+  private static final @Nullable Object UNSAFE;
+
+  /** {@code sun.misc.Unsafe#invokeCleaner(ByteBuffer)}, or null if it is not accessible */
+  private static final @Nullable Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafe = theUnsafe.get(null);
+      invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Segments are unmapped when they are garbage collected
+      unsafe = null;
+      invokeCleaner = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private final CacheCodec codec;
+  private final Clock clock;
+  private final int segmentSize;
+  private final MappedByteBuffer[] segments;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** Guarded by {@link #lock} */
+  private final Map<ByteBuffer, Slot> index = new HashMap<>();
+
+  /** Guarded by {@link #lock} */
+  private final @Nullable Slot[] clockSlots;
+
+  /**
+   * The slots of the entries in each segment, so that the entries of a segment can be dropped
+   * without scanning all the slots when the segment is reused. Guarded by {@link #lock}
+   */
+  private final Set<Slot>[] segmentSlots;
+
+  /** Guarded by {@link #lock} */
+  private int clockHand;
+
+  /** Guarded by {@link #lock} */
+  private int usedSlots;
+
+  /** Guarded by {@link #lock} */
+  private int headSegment;
+
+  /** Guarded by {@link #lock} */
+  private int writeOffset;
+
+  /** Guarded by {@link #lock} */
+  private long nextSequence;
+
+  /** Guarded by {@link #lock} */
+  private boolean closed;
+
+  /**
+   * Creates a store with 16 segments of 64 MiB each, which maps 1 GiB of files in the given
+   * directory. Use {@link #MappedCacheStore(Path, int, int, int, CacheCodec, Clock)} to bound the
+   * size of the store.
+   */
+  public MappedCacheStore(Path directory, int maxEntries) throws IOException {
+    this(
+        directory,
+        maxEntries,
+        DEFAULT_SEGMENT_SIZE,
+        DEFAULT_SEGMENT_COUNT,
+        new BinaryCacheCodec(),
+        Clock.systemUTC());
+  }
+
+  public MappedCacheStore(
+      Path directory,
+      int maxEntries,
+      int segmentSize,
+      int segmentCount,
+      CacheCodec codec,
+      Clock clock)
+      throws IOException {
+    if (segmentSize <= SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE || segmentCount < 2) {
+      throw new IllegalArgumentException(
+          "Invalid segment size %s or segment count %s".formatted(segmentSize, segmentCount));
+    }
+    this.codec = codec;
+    this.clock = clock;
+    this.segmentSize = segmentSize;
+    this.segments = new MappedByteBuffer[segmentCount];
+    this.clockSlots = new Slot[Math.max(1, maxEntries)];
+    //noinspection unchecked
+    this.segmentSlots = new Set[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segmentSlots[i] = new HashSet<>();
+    }
+    Files.createDirectories(directory);
+    for (int i = 0; i < segmentCount; i++) {
+      try (FileChannel channel =
+          FileChannel.open(directory.resolve("segment-" + i + ".dat"), CREATE, READ, WRITE)) {
+        segments[i] = channel.map(READ_WRITE, 0, segmentSize);
+      }
+    }
+    rebuildIndex();
+  }
+
+  @Override
+  public @Nullable CachedResult get(Inputs inputs) {
+    ByteBuffer key = encodeKey(inputs);
+    if (key == null) {
+      return null;
+    }
+    lock.readLock().lock();
+    try {
+      Slot slot = closed ? null : index.get(key);
+      if (slot == null) {
+        return null;
+      }
+      slot.referenced = true;
+      ByteBuffer segment = segments[slot.segment].duplicate();
+      int offset = slot.offset;
+      int recordLength = segment.getInt(offset);
+      int keyLength = segment.getInt(offset + 4);
+      long expiresAtMillis = segment.getLong(offset + 8);
+      long staleUntilMillis = segment.getLong(offset + 16);
+      segment.limit(offset + recordLength).position(offset + RECORD_HEADER_SIZE + keyLength);
+      return new CachedResult(
+          codec.decodeValue(segment.slice()), expiresAtMillis, staleUntilMillis);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void put(Inputs inputs, CachedResult result) {
+    ByteBuffer key = encodeKey(inputs);
+    if (key == null) {
+      return;
+    }
+    byte[] value;
+    try {
+      value = codec.encodeValue(result.value());
+    } catch (IllegalArgumentException e) {
+      // Values which cannot be encoded are not cached
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      int offset = append(key, value, result.expiresAtMillis(), result.staleUntilMillis());
+      if (offset >= 0) {
+        insertSlot(key, headSegment, offset);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(Inputs inputs) {
+    ByteBuffer key = encodeKey(inputs);
+    if (key == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      Slot slot = closed ? null : index.get(key);
+      if (slot != null) {
+        removeSlot(slot);
+        // A tombstone, so that the entry is not restored when the index is rebuilt
+        append(key, new byte[0], 0, 0);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public long size() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Flushes all the entries to disk and unmaps the segments. Once closed, the store is empty and
+   * ignores writes.
+   */
+  @Override
+  public void close() {
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      index.clear();
+      Arrays.fill(clockSlots, null);
+      for (Set<Slot> slots : segmentSlots) {
+        slots.clear();
+      }
+      usedSlots = 0;
+      for (MappedByteBuffer segment : segments) {
+        segment.force();
+        unmap(segment);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Unmaps the segment right away instead of when it is garbage collected, so that the address
+   * space and the file are released on close. Since the segment must never be accessed after this,
+   * it is only called after the store has been closed, while holding the write lock.
+   */
+  private static void unmap(MappedByteBuffer segment) {
+    Object unsafe = UNSAFE;
+    Method invokeCleaner = INVOKE_CLEANER;
+    if (unsafe == null || invokeCleaner == null) {
+      return;
+    }
+    try {
+      invokeCleaner.invoke(unsafe, segment);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // The segment is unmapped when it is garbage collected
+    }
+  }
+
+  private @Nullable ByteBuffer encodeKey(Inputs inputs) {
+    try {
+      return ByteBuffer.wrap(codec.encodeKey(inputs));
+    } catch (IllegalArgumentException e) {
+      // Inputs which cannot be encoded are not cached
+      return null;
+    }
+  }
+
+  /**
+   * Must be called while holding the write lock.
+   *
+   * @return the offset in the head segment at which the record was written, or -1 if the record is
+   *     too large to fit in a segment.
+   */
+  private int append(ByteBuffer key, byte[] value, long expiresAtMillis, long staleUntilMillis) {
+    int keyLength = key.remaining();
+    int recordLength = RECORD_HEADER_SIZE + keyLength + value.length;
+    if (SEGMENT_HEADER_SIZE + recordLength > segmentSize) {
+      return -1;
+    }
+    if (writeOffset + recordLength > segmentSize) {
+      startNextSegment();
+    }
+    ByteBuffer segment = segments[headSegment].duplicate();
+    int offset = writeOffset;
+    segment.position(offset);
+    segment.putInt(recordLength);
+    segment.putInt(keyLength);
+    segment.putLong(expiresAtMillis);
+    segment.putLong(staleUntilMillis);
+    segment.put(key.duplicate());
+    segment.put(value);
+    writeOffset = offset + recordLength;
+    terminate(segment, writeOffset);
+    return offset;
+  }
+
+  /** Must be called while holding the write lock. Reuses the oldest segment. */
+  private void startNextSegment() {
+    headSegment = (headSegment + 1) % segments.length;
+    Set<Slot> droppedSlots = segmentSlots[headSegment];
+    for (Slot slot : droppedSlots) {
+      index.remove(slot.key);
+      clockSlots[slot.clockIndex] = null;
+      usedSlots--;
+    }
+    droppedSlots.clear();
+    ByteBuffer segment = segments[headSegment];
+    segment.putInt(0, MAGIC);
+    segment.putLong(8, nextSequence++);
+    writeOffset = SEGMENT_HEADER_SIZE;
+    terminate(segment, writeOffset);
+  }
+
+  /** Marks the end of the records of a segment, so that stale records after it are not read. */
+  private void terminate(ByteBuffer segment, int offset) {
+    if (offset + 4 <= segmentSize) {
+      segment.putInt(offset, 0);
+    }
+  }
+
+  /** Must be called while holding the write lock. */
+  private void insertSlot(ByteBuffer key, int segment, int offset) {
+    Slot existing = index.get(key);
+    if (existing != null) {
+      if (existing.segment != segment) {
+        segmentSlots[existing.segment].remove(existing);
+        segmentSlots[segment].add(existing);
+      }
+      existing.segment = segment;
+      existing.offset = offset;
+      return;
+    }
+    int clockIndex;
+    if (usedSlots < clockSlots.length) {
+      // There is a free slot - find it
+      while (clockSlots[clockHand] != null) {
+        clockHand = (clockHand + 1) % clockSlots.length;
+      }
+    } else {
+      while (true) {
+        Slot candidate = clockSlots[clockHand];
+        if (candidate == null || !candidate.referenced) {
+          break;
+        }
+        candidate.referenced = false;
+        clockHand = (clockHand + 1) % clockSlots.length;
+      }
+    }
+    clockIndex = clockHand;
+    Slot evicted = clockSlots[clockIndex];
+    if (evicted != null) {
+      index.remove(evicted.key);
+      segmentSlots[evicted.segment].remove(evicted);
+    } else {
+      usedSlots++;
+    }
+    Slot slot = new Slot(key, clockIndex, segment, offset);
+    clockSlots[clockIndex] = slot;
+    segmentSlots[segment].add(slot);
+    index.put(key, slot);
+    clockHand = (clockHand + 1) % clockSlots.length;
+  }
+
+  private void rebuildIndex() {
+    lock.writeLock().lock();
+    try {
+      long nowMillis = clock.millis();
+      int[] segmentOrder =
+          IntStream.range(0, segments.length)
+              .filter(i -> segments[i].getInt(0) == MAGIC)
+              .boxed()
+              .sorted(Comparator.comparingLong(i -> segments[i].getLong(8)))
+              .mapToInt(Integer::intValue)
+              .toArray();
+      if (segmentOrder.length == 0) {
+        headSegment = segments.length - 1;
+        nextSequence = 1;
+        startNextSegment();
+        return;
+      }
+      for (int segmentIndex : segmentOrder) {
+        ByteBuffer segment = segments[segmentIndex].duplicate();
+        int offset = SEGMENT_HEADER_SIZE;
+        while (offset + RECORD_HEADER_SIZE <= segmentSize) {
+          int recordLength = segment.getInt(offset);
+          int keyLength = segment.getInt(offset + 4);
+          if (recordLength < RECORD_HEADER_SIZE + keyLength
+              || keyLength < 0
+              || offset + recordLength > segmentSize) {
+            break;
+          }
+          byte[] keyBytes = new byte[keyLength];
+          segment.get(offset + RECORD_HEADER_SIZE, keyBytes);
+          ByteBuffer key = ByteBuffer.wrap(keyBytes);
+          long staleUntilMillis = segment.getLong(offset + 16);
+          if (nowMillis < staleUntilMillis) {
+            insertSlot(key, segmentIndex, offset);
+          } else {
+            Slot slot = index.get(key);
+            if (slot != null) {
+              removeSlot(slot);
+            }
+          }
+          offset += recordLength;
+        }
+        headSegment = segmentIndex;
+        writeOffset = offset;
+      }
+      nextSequence = segments[headSegment].getLong(8) + 1;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Must be called while holding the write lock. */
+  private void removeSlot(Slot slot) {
+    index.remove(slot.key);
+    clockSlots[slot.clockIndex] = null;
+    segmentSlots[slot.segment].remove(slot);
+    usedSlots--;
+  }
+
+  private static final class Slot {
+
+    private final ByteBuffer key;
+    private final int clockIndex;
+    private int segment;
+    private int offset;
+    private volatile boolean referenced;
+
+    private Slot(ByteBuffer key, int clockIndex, int segment, int offset) {
+      this.key = key;
+      this.clockIndex = clockIndex;
+      this.segment = segment;
+      this.offset = offset;
+    }
+  }
+}
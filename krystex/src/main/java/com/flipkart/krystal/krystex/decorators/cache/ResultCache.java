@@ -0,0 +1,232 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import com.flipkart.krystal.config.ConfigKey;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Caches the results of the decorated logic per {@link Inputs} in a pluggable {@link CacheStore}.
+ * This is meant to be used as a session scoped decorator of IO logic whose results change slowly
+ * (for example, catalogue lookups), so that results are shared across requests.
+ *
+ * <ul>
+ *   <li>Results are fresh for the configured ttl, after which they can still be served for the
+ *       configured stale duration. When a stale result is served, it is refreshed asynchronously
+ *       by executing the decorated logic, and the refreshed result replaces the stale one once it
+ *       is computed.
+ *   <li>Empty (null) results are cached for the negative ttl, if configured.
+ *   <li>Errors are never cached.
+ *   <li>Concurrent misses for the same inputs (for example, from different requests) share one
+ *       execution of the decorated logic.
+ * </ul>
+ *
+ * <p>The misses and refreshes of a batch are executed by the decorated logic as one batch. This
+ * decorator should hence be ordered after (i.e. outside) the input modulation decorator in the
+ * {@link com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering}, so that only misses are
+ * modulated, and misses from many requests are batched together.
+ *
+ * <p>Since results are cached by the inputs received by the decorated logic, the logic must not
+ * depend on anything which varies across requests other than those inputs.
+ *
+ * <p>The cache is configured using the following configs:
+ *
+ * <ul>
+ *   <li>{@code <instanceId>.result_cache.enabled}: defaults to true
+ *   <li>{@code <instanceId>.result_cache.ttl_ms}: Caching is disabled if neither this nor the
+ *       negative ttl is configured.
+ *   <li>{@code <instanceId>.result_cache.stale_ms}: the duration after expiry for which stale
+ *       results are served while being refreshed. Defaults to 0.
+ *   <li>{@code <instanceId>.result_cache.negative_ttl_ms}: the ttl of empty results. Defaults to 0,
+ *       i.e. empty results are not cached.
+ * </ul>
+ */
+public final class ResultCache implements MainLogicDecorator {
+
+  public static final String DECORATOR_TYPE = ResultCache.class.getName();
+
+  private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+  private final String instanceId;
+  private final CacheStore cacheStore;
+  private final Clock clock;
+
+  private final ConfigKey<Boolean> enabledKey;
+  private final ConfigKey<Long> ttlKey;
+  private final ConfigKey<Long> staleKey;
+  private final ConfigKey<Long> negativeTtlKey;
+
+  /** Inputs whose stale results are being refreshed */
+  private final Set<Inputs> refreshing = ConcurrentHashMap.newKeySet();
+
+  /** Results of inputs which missed the cache and are being computed */
+  private final Map<Inputs, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder staleHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private volatile boolean enabled;
+  private volatile long ttlMillis;
+  private volatile long staleMillis;
+  private volatile long negativeTtlMillis;
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   */
+  public ResultCache(String instanceId) {
+    this(instanceId, new LruCacheStore(DEFAULT_MAX_ENTRIES), Clock.systemUTC());
+  }
+
+  public ResultCache(String instanceId, CacheStore cacheStore) {
+    this(instanceId, cacheStore, Clock.systemUTC());
+  }
+
+  public ResultCache(String instanceId, CacheStore cacheStore, Clock clock) {
+    this.instanceId = instanceId;
+    this.cacheStore = cacheStore;
+    this.clock = clock;
+    this.enabledKey = ConfigKey.booleanKey(instanceId + ".result_cache.enabled");
+    this.ttlKey = ConfigKey.longKey(instanceId + ".result_cache.ttl_ms");
+    this.staleKey = ConfigKey.longKey(instanceId + ".result_cache.stale_ms");
+    this.negativeTtlKey = ConfigKey.longKey(instanceId + ".result_cache.negative_ttl_ms");
+  }
+
+  @Override
+  public MainLogic<Object> decorateLogic(MainLogic<Object> logicToDecorate) {
+    if (!enabled) {
+      return logicToDecorate;
+    }
+    return inputsList -> {
+      long nowMillis = clock.millis();
+      ImmutableMap.Builder<Inputs, CompletableFuture<Object>> results =
+          ImmutableMap.builderWithExpectedSize(inputsList.size());
+      List<Inputs> toExecute = new ArrayList<>();
+      Map<Inputs, CompletableFuture<Object>> missFutures = new HashMap<>();
+      for (Inputs inputs : inputsList) {
+        CachedResult cachedResult = cacheStore.get(inputs);
+        if (cachedResult != null && cachedResult.isUsable(nowMillis)) {
+          results.put(inputs, completedFuture(cachedResult.value()));
+          if (cachedResult.isFresh(nowMillis)) {
+            hits.increment();
+          } else {
+            staleHits.increment();
+            if (refreshing.add(inputs)) {
+              toExecute.add(inputs);
+            }
+          }
+          continue;
+        }
+        misses.increment();
+        CompletableFuture<Object> missFuture = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(inputs, missFuture);
+        if (existing != null) {
+          results.put(inputs, existing.copy());
+        } else {
+          toExecute.add(inputs);
+          missFutures.put(inputs, missFuture);
+          results.put(inputs, missFuture.copy());
+        }
+      }
+      if (!toExecute.isEmpty()) {
+        execute(logicToDecorate, ImmutableList.copyOf(toExecute), missFutures);
+      }
+      return results.buildOrThrow();
+    };
+  }
+
+  private void execute(
+      MainLogic<Object> logicToDecorate,
+      ImmutableList<Inputs> inputsList,
+      Map<Inputs, CompletableFuture<Object>> missFutures) {
+    ImmutableMap<Inputs, CompletableFuture<Object>> results;
+    try {
+      results = logicToDecorate.execute(inputsList);
+    } catch (Throwable e) {
+      for (Inputs inputs : inputsList) {
+        onCompletion(inputs, null, e, missFutures.get(inputs));
+      }
+      return;
+    }
+    for (Inputs inputs : inputsList) {
+      CompletableFuture<Object> missFuture = missFutures.get(inputs);
+      CompletableFuture<Object> result = results.get(inputs);
+      if (result == null) {
+        onCompletion(
+            inputs, null, new IllegalStateException("No result for inputs " + inputs), missFuture);
+      } else {
+        result.whenComplete((value, error) -> onCompletion(inputs, value, error, missFuture));
+      }
+    }
+  }
+
+  private void onCompletion(
+      Inputs inputs,
+      @Nullable Object value,
+      @Nullable Throwable error,
+      @Nullable CompletableFuture<Object> missFuture) {
+    if (error == null) {
+      long ttlMillis = value != null ? this.ttlMillis : this.negativeTtlMillis;
+      if (ttlMillis > 0) {
+        long expiresAtMillis = clock.millis() + ttlMillis;
+        cacheStore.put(
+            inputs, new CachedResult(value, expiresAtMillis, expiresAtMillis + staleMillis));
+      }
+    }
+    // The cache is updated before the in flight future is removed, so that concurrent lookups
+    // either find the cached result or share the in flight future.
+    refreshing.remove(inputs);
+    if (missFuture != null) {
+      inFlight.remove(inputs, missFuture);
+      if (error != null) {
+        missFuture.completeExceptionally(error);
+      } else {
+        missFuture.complete(value);
+      }
+    }
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    this.ttlMillis = configProvider.getConfig(ttlKey, 0L);
+    this.staleMillis = Math.max(0, configProvider.getConfig(staleKey, 0L));
+    this.negativeTtlMillis = configProvider.getConfig(negativeTtlKey, 0L);
+    this.enabled =
+        configProvider.getConfig(enabledKey, true) && (ttlMillis > 0 || negativeTtlMillis > 0);
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+
+  /** The number of lookups which found a fresh result. */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /** The number of lookups which were served a stale result while it was being refreshed. */
+  public long staleHits() {
+    return staleHits.sum();
+  }
+
+  /** The number of lookups which found no usable result. */
+  public long misses() {
+    return misses.sum();
+  }
+}
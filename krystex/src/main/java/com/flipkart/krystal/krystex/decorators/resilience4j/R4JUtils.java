@@ -1,8 +1,8 @@
 package com.flipkart.krystal.krystex.decorators.resilience4j;
 
+import static com.flipkart.krystal.utils.Futures.flattenBatch;
 import static io.github.resilience4j.decorators.Decorators.ofCompletionStage;
 import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.function.Function.identity;
 
 import com.flipkart.krystal.data.Inputs;
 import com.flipkart.krystal.krystex.MainLogic;
@@ -11,35 +11,56 @@ import com.google.common.collect.ImmutableMap;
 import io.github.resilience4j.decorators.Decorators.DecorateCompletionStage;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.function.UnaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 final class R4JUtils {
 
-  static DecorateCompletionStage<ImmutableMap<Inputs, CompletableFuture<Object>>>
-      decorateAsyncExecute(MainLogic<Object> logicToDecorate, ImmutableList<Inputs> inputsList) {
-    return ofCompletionStage(
-        () -> {
-          ImmutableMap<Inputs, CompletableFuture<Object>> result =
-              logicToDecorate.execute(inputsList);
-          return allOf(result.values().toArray(CompletableFuture[]::new))
-              .handle((unused, throwable) -> result);
-        });
+  /**
+   * Executes the given logic guarded by the resilience4j decoration. The decoration observes a
+   * single completion stage which completes when all the results of the batch have been computed.
+   *
+   * <p>Resilience4j's circuit breaker and bulkhead either execute the logic synchronously or reject
+   * the execution without executing it. In the former case the results of the logic are returned
+   * as is, so no future is created per input. In the latter case all the inputs fail with the
+   * rejection.
+   */
+  static ImmutableMap<Inputs, CompletableFuture<Object>> executeDecorated(
+      MainLogic<Object> logicToDecorate,
+      ImmutableList<Inputs> inputsList,
+      UnaryOperator<DecorateCompletionStage<Void>> decoration) {
+    BatchExecution batchExecution = new BatchExecution(logicToDecorate, inputsList);
+    CompletionStage<Void> batchCompletion =
+        decoration.apply(ofCompletionStage(batchExecution::execute)).get();
+    ImmutableMap<Inputs, CompletableFuture<Object>> results = batchExecution.results;
+    if (results != null) {
+      return results;
+    }
+    return flattenBatch(
+        inputsList,
+        batchCompletion.<ImmutableMap<Inputs, CompletableFuture<Object>>>thenApply(
+            unused -> {
+              throw new IllegalStateException("Decorated logic was not executed");
+            }));
   }
 
-  static ImmutableMap<Inputs, CompletableFuture<Object>> extractResponseMap(
-      ImmutableList<Inputs> inputsList,
-      CompletionStage<ImmutableMap<Inputs, CompletableFuture<Object>>> decoratedCompletion) {
-    //noinspection UnstableApiUsage
-    ImmutableMap.Builder<Inputs, CompletableFuture<Object>> result =
-        ImmutableMap.builderWithExpectedSize(inputsList.size());
-    for (Inputs inputs : inputsList) {
-      result.put(
-          inputs,
-          decoratedCompletion
-              .thenApply(resultMap -> resultMap.get(inputs))
-              .toCompletableFuture()
-              .thenCompose(identity()));
+  private static final class BatchExecution {
+
+    private final MainLogic<Object> logicToDecorate;
+    private final ImmutableList<Inputs> inputsList;
+    private @Nullable ImmutableMap<Inputs, CompletableFuture<Object>> results;
+
+    private BatchExecution(MainLogic<Object> logicToDecorate, ImmutableList<Inputs> inputsList) {
+      this.logicToDecorate = logicToDecorate;
+      this.inputsList = inputsList;
+    }
+
+    private CompletionStage<Void> execute() {
+      ImmutableMap<Inputs, CompletableFuture<Object>> results = logicToDecorate.execute(inputsList);
+      this.results = results;
+      return allOf(results.values().toArray(CompletableFuture[]::new))
+          .handle((unused, throwable) -> null);
     }
-    return result.build();
   }
 
   private R4JUtils() {}
@@ -1,16 +1,16 @@
 package com.flipkart.krystal.krystex.decorators.resilience4j;
 
-import static com.flipkart.krystal.krystex.decorators.resilience4j.R4JUtils.decorateAsyncExecute;
-import static com.flipkart.krystal.krystex.decorators.resilience4j.R4JUtils.extractResponseMap;
+import static com.flipkart.krystal.krystex.decorators.resilience4j.R4JUtils.executeDecorated;
 
+import com.flipkart.krystal.config.ConfigKey;
 import com.flipkart.krystal.config.ConfigProvider;
 import com.flipkart.krystal.krystex.MainLogic;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
 import io.github.resilience4j.bulkhead.Bulkhead;
 import io.github.resilience4j.bulkhead.BulkheadConfig;
-import io.github.resilience4j.bulkhead.BulkheadConfig.Builder;
 import io.github.resilience4j.bulkhead.internal.SemaphoreBulkhead;
-import java.util.Optional;
+import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class Resilience4JBulkhead implements MainLogicDecorator {
 
@@ -18,13 +18,19 @@ public final class Resilience4JBulkhead implements MainLogicDecorator {
 
   private final String instanceId;
 
-  private Bulkhead bulkhead;
+  private final ConfigKey<Boolean> enabledKey;
+  private final ConfigKey<Integer> maxConcurrencyKey;
+
+  private volatile @Nullable Bulkhead bulkhead;
+  private @Nullable Integer maxConcurrency;
 
   /**
    * @param instanceId The tag because of which this logic decorator was applied.
    */
   public Resilience4JBulkhead(String instanceId) {
     this.instanceId = instanceId;
+    this.enabledKey = ConfigKey.booleanKey(instanceId + ".bulkhead.enabled");
+    this.maxConcurrencyKey = ConfigKey.intKey(instanceId + ".bulkhead.max_concurrency");
   }
 
   @Override
@@ -32,9 +38,8 @@ public final class Resilience4JBulkhead implements MainLogicDecorator {
     Bulkhead bulkhead = this.bulkhead;
     if (bulkhead != null) {
       return inputsList ->
-          extractResponseMap(
-              inputsList,
-              decorateAsyncExecute(logicToDecorate, inputsList).withBulkhead(bulkhead).get());
+          executeDecorated(
+              logicToDecorate, inputsList, decoration -> decoration.withBulkhead(bulkhead));
     } else {
       return logicToDecorate;
     }
@@ -42,43 +47,31 @@ public final class Resilience4JBulkhead implements MainLogicDecorator {
 
   @Override
   public void onConfigUpdate(ConfigProvider configProvider) {
-    updateBulkhead(configProvider);
+    if (!configProvider.getConfig(enabledKey, true)) {
+      this.bulkhead = null;
+      return;
+    }
+    Integer maxConcurrency = configProvider.getConfigOrNull(maxConcurrencyKey);
+    Bulkhead bulkhead = this.bulkhead;
+    if (bulkhead != null && Objects.equals(maxConcurrency, this.maxConcurrency)) {
+      // Nothing has changed - avoid rebuilding the bulkhead config
+      return;
+    }
+    BulkheadConfig.Builder builder = BulkheadConfig.custom().writableStackTraceEnabled(false);
+    if (maxConcurrency != null) {
+      builder.maxConcurrentCalls(maxConcurrency);
+    }
+    BulkheadConfig bulkheadConfig = builder.build();
+    if (bulkhead != null) {
+      bulkhead.changeConfig(bulkheadConfig);
+    } else {
+      this.bulkhead = new SemaphoreBulkhead(instanceId + ".bulkhead", bulkheadConfig);
+    }
+    this.maxConcurrency = maxConcurrency;
   }
 
   @Override
   public String getId() {
     return instanceId;
   }
-
-  private void init(ConfigProvider configProvider) {
-    this.bulkhead =
-        getBulkheadConfig(configProvider)
-            .map(bulkheadConfig -> new SemaphoreBulkhead(instanceId + ".bulkhead", bulkheadConfig))
-            .orElse(null);
-  }
-
-  private void updateBulkhead(ConfigProvider configProvider) {
-    Bulkhead bulkhead = this.bulkhead;
-    Optional<BulkheadConfig> newBulkheadConfig = getBulkheadConfig(configProvider);
-    if (!Optional.ofNullable(bulkhead).map(Bulkhead::getBulkheadConfig).equals(newBulkheadConfig)) {
-      if (bulkhead != null && newBulkheadConfig.isPresent()) {
-        bulkhead.changeConfig(newBulkheadConfig.get());
-      } else {
-        init(configProvider);
-      }
-    }
-  }
-
-  private Optional<BulkheadConfig> getBulkheadConfig(ConfigProvider configProvider) {
-    boolean bulkheadEnabled =
-        configProvider.<Boolean>getConfig(instanceId + ".bulkhead.enabled").orElse(true);
-    if (!bulkheadEnabled) {
-      return Optional.empty();
-    }
-    Builder builder = BulkheadConfig.custom().writableStackTraceEnabled(false);
-    configProvider
-        .<Integer>getConfig(instanceId + ".bulkhead.max_concurrency")
-        .ifPresent(builder::maxConcurrentCalls);
-    return Optional.of(builder.build());
-  }
 }
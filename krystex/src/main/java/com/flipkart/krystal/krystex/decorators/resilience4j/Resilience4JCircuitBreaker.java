@@ -1,8 +1,8 @@
 package com.flipkart.krystal.krystex.decorators.resilience4j;
 
-import static com.flipkart.krystal.krystex.decorators.resilience4j.R4JUtils.decorateAsyncExecute;
-import static com.flipkart.krystal.krystex.decorators.resilience4j.R4JUtils.extractResponseMap;
+import static com.flipkart.krystal.krystex.decorators.resilience4j.R4JUtils.executeDecorated;
 
+import com.flipkart.krystal.config.ConfigKey;
 import com.flipkart.krystal.config.ConfigProvider;
 import com.flipkart.krystal.krystex.MainLogic;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
@@ -10,6 +10,7 @@ import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.internal.CircuitBreakerStateMachine;
 import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class Resilience4JCircuitBreaker implements MainLogicDecorator {
 
@@ -17,13 +18,16 @@ public final class Resilience4JCircuitBreaker implements MainLogicDecorator {
 
   private final String instanceId;
 
-  private CircuitBreaker circuitBreaker;
+  private final ConfigKey<Boolean> enabledKey;
+
+  private volatile @Nullable CircuitBreaker circuitBreaker;
 
   /**
    * @param instanceId The tag because of which this logic decorator was applied.
    */
   public Resilience4JCircuitBreaker(String instanceId) {
     this.instanceId = instanceId;
+    this.enabledKey = ConfigKey.booleanKey(instanceId + ".circuit_breaker.enabled");
   }
 
   @Override
@@ -31,11 +35,10 @@ public final class Resilience4JCircuitBreaker implements MainLogicDecorator {
     CircuitBreaker circuitBreaker = this.circuitBreaker;
     if (circuitBreaker != null) {
       return inputsList ->
-          extractResponseMap(
+          executeDecorated(
+              logicToDecorate,
               inputsList,
-              decorateAsyncExecute(logicToDecorate, inputsList)
-                  .withCircuitBreaker(circuitBreaker)
-                  .get());
+              decoration -> decoration.withCircuitBreaker(circuitBreaker));
     } else {
       return logicToDecorate;
     }
@@ -59,9 +62,7 @@ public final class Resilience4JCircuitBreaker implements MainLogicDecorator {
   }
 
   private Optional<CircuitBreakerConfig> getCircuitBreakerConfig(ConfigProvider configProvider) {
-    boolean circuitBreakerEnabled =
-        configProvider.<Boolean>getConfig(instanceId + ".circuit_breaker.enabled").orElse(true);
-    if (!circuitBreakerEnabled) {
+    if (!configProvider.getConfig(enabledKey, true)) {
       return Optional.empty();
     }
     return Optional.of(CircuitBreakerConfig.ofDefaults());
@@ -0,0 +1,188 @@
+package com.flipkart.krystal.krystex.decorators.resilience4j;
+
+import static com.flipkart.krystal.utils.Futures.flattenBatch;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.config.ConfigKey;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig.DecoratorContext;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Limits the rate at which the decorated logic is executed. Every execution of the logic acquires
+ * one permit per input in the batch being executed, so that the rate limit applies to the number of
+ * inputs rather than the number of calls.
+ *
+ * <p>If permits are not available, the execution is delayed without blocking the calling thread:
+ * once the permits have been reserved, a {@link HashedWheelTimer} hands the execution off to the
+ * executor of this decorator, which executes the decorated logic. This decorator must hence be
+ * applied only on logic which is safe to execute from that executor - ideally it should be the
+ * innermost decorator of the logic. If the permits cannot be reserved within the configured
+ * timeout, all the inputs of the batch fail with {@link RequestNotPermitted}.
+ *
+ * <p>The rate limit is configured using the following configs:
+ *
+ * <ul>
+ *   <li>{@code <instanceId>.rate_limiter.enabled}: defaults to true
+ *   <li>{@code <instanceId>.rate_limiter.limit_for_period}: the number of permits available in
+ *       every refresh period. Rate limiting is disabled if this is not configured.
+ *   <li>{@code <instanceId>.rate_limiter.limit_refresh_period_ms}
+ *   <li>{@code <instanceId>.rate_limiter.timeout_ms}: the maximum time for which an execution can
+ *       be delayed.
+ * </ul>
+ */
+public final class Resilience4JRateLimiter implements MainLogicDecorator {
+
+  public static final String DECORATOR_TYPE = Resilience4JRateLimiter.class.getName();
+
+  private final String instanceId;
+  private final HashedWheelTimer timer;
+  private final Executor executor;
+
+  private final ConfigKey<Boolean> enabledKey;
+  private final ConfigKey<Integer> limitForPeriodKey;
+  private final ConfigKey<Long> limitRefreshPeriodMsKey;
+  private final ConfigKey<Long> timeoutMsKey;
+
+  private volatile @Nullable RateLimiter rateLimiter;
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   */
+  public Resilience4JRateLimiter(String instanceId) {
+    this(instanceId, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   * @param executor The executor on which delayed executions of the decorated logic are executed.
+   *     Typically the executor of the {@link DecoratorContext} of this decorator.
+   */
+  public Resilience4JRateLimiter(String instanceId, Executor executor) {
+    this(instanceId, HashedWheelTimer.shared(), executor);
+  }
+
+  public Resilience4JRateLimiter(String instanceId, HashedWheelTimer timer, Executor executor) {
+    this.instanceId = instanceId;
+    this.timer = timer;
+    this.executor = executor;
+    this.enabledKey = ConfigKey.booleanKey(instanceId + ".rate_limiter.enabled");
+    this.limitForPeriodKey = ConfigKey.intKey(instanceId + ".rate_limiter.limit_for_period");
+    this.limitRefreshPeriodMsKey =
+        ConfigKey.longKey(instanceId + ".rate_limiter.limit_refresh_period_ms");
+    this.timeoutMsKey = ConfigKey.longKey(instanceId + ".rate_limiter.timeout_ms");
+  }
+
+  @Override
+  public MainLogic<Object> decorateLogic(MainLogic<Object> logicToDecorate) {
+    RateLimiter rateLimiter = this.rateLimiter;
+    if (rateLimiter != null) {
+      return inputsList -> {
+        if (inputsList.isEmpty()) {
+          return logicToDecorate.execute(inputsList);
+        }
+        long nanosToWait = rateLimiter.reservePermission(inputsList.size());
+        if (nanosToWait < 0) {
+          return failAll(inputsList, RequestNotPermitted.createRequestNotPermitted(rateLimiter));
+        } else if (nanosToWait == 0) {
+          return logicToDecorate.execute(inputsList);
+        }
+        CompletableFuture<ImmutableMap<Inputs, CompletableFuture<Object>>> delayedExecution =
+            new CompletableFuture<>();
+        // The timer's thread only hands the execution off, so that it is never blocked by the logic
+        timer.newTimeout(
+            () ->
+                executor.execute(
+                    () -> {
+                      try {
+                        delayedExecution.complete(logicToDecorate.execute(inputsList));
+                      } catch (Throwable e) {
+                        delayedExecution.completeExceptionally(e);
+                      }
+                    }),
+            nanosToWait,
+            NANOSECONDS);
+        return flattenBatch(inputsList, delayedExecution);
+      };
+    } else {
+      return logicToDecorate;
+    }
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    updateRateLimiter(configProvider);
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+
+  private void updateRateLimiter(ConfigProvider configProvider) {
+    RateLimiter rateLimiter = this.rateLimiter;
+    Optional<RateLimiterConfig> newConfig = getRateLimiterConfig(configProvider);
+    if (rateLimiter != null && newConfig.isPresent()) {
+      RateLimiterConfig currentConfig = rateLimiter.getRateLimiterConfig();
+      if (currentConfig.getLimitRefreshPeriod().equals(newConfig.get().getLimitRefreshPeriod())) {
+        // Limits can be changed without losing the permits already reserved
+        if (currentConfig.getLimitForPeriod() != newConfig.get().getLimitForPeriod()) {
+          rateLimiter.changeLimitForPeriod(newConfig.get().getLimitForPeriod());
+        }
+        if (!currentConfig.getTimeoutDuration().equals(newConfig.get().getTimeoutDuration())) {
+          rateLimiter.changeTimeoutDuration(newConfig.get().getTimeoutDuration());
+        }
+        return;
+      }
+    }
+    this.rateLimiter =
+        newConfig
+            .map(config -> RateLimiter.of(instanceId + ".rate_limiter", config))
+            .orElse(null);
+  }
+
+  private Optional<RateLimiterConfig> getRateLimiterConfig(ConfigProvider configProvider) {
+    if (!configProvider.getConfig(enabledKey, true)) {
+      return Optional.empty();
+    }
+    Integer limitForPeriod = configProvider.getConfigOrNull(limitForPeriodKey);
+    if (limitForPeriod == null) {
+      return Optional.empty();
+    }
+    RateLimiterConfig.Builder builder =
+        RateLimiterConfig.custom().writableStackTraceEnabled(false).limitForPeriod(limitForPeriod);
+    Long limitRefreshPeriodMs = configProvider.getConfigOrNull(limitRefreshPeriodMsKey);
+    if (limitRefreshPeriodMs != null) {
+      builder.limitRefreshPeriod(Duration.ofMillis(limitRefreshPeriodMs));
+    }
+    Long timeoutMs = configProvider.getConfigOrNull(timeoutMsKey);
+    if (timeoutMs != null) {
+      builder.timeoutDuration(Duration.ofMillis(timeoutMs));
+    }
+    return Optional.of(builder.build());
+  }
+
+  private static ImmutableMap<Inputs, CompletableFuture<Object>> failAll(
+      ImmutableList<Inputs> inputsList, Throwable error) {
+    ImmutableMap.Builder<Inputs, CompletableFuture<Object>> result =
+        ImmutableMap.builderWithExpectedSize(inputsList.size());
+    for (Inputs inputs : inputsList) {
+      result.put(inputs, CompletableFuture.failedFuture(error));
+    }
+    return result.buildOrThrow();
+  }
+}
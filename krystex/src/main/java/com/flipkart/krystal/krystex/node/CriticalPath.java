@@ -0,0 +1,18 @@
+package com.flipkart.krystal.krystex.node;
+
+import com.flipkart.krystal.krystex.RequestId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * The chain of dependent nodes whose latencies add up to the end-to-end latency of a request.
+ *
+ * @param requestId the request of the root node of the path
+ * @param spans the spans on the critical path starting from the root node
+ * @param contributionNanos the time (in nanos) each node contributed to the critical path,
+ *     excluding the time spent waiting on its critical dependency.
+ */
+public record CriticalPath(
+    RequestId requestId,
+    ImmutableList<NodeExecutionSpan> spans,
+    ImmutableMap<NodeId, Long> contributionNanos) {}
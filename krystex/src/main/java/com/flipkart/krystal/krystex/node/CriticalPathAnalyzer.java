@@ -0,0 +1,170 @@
+package com.flipkart.krystal.krystex.node;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.flipkart.krystal.krystex.RequestId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Computes the critical paths of requests executed by {@link KrystalNodeExecutor}s and aggregates
+ * the critical path contribution of every node over a sliding time window.
+ *
+ * <p>A single instance is meant to be shared across all executors of a session. All methods are
+ * thread-safe.
+ */
+public final class CriticalPathAnalyzer {
+
+  private final long windowNanos;
+
+  private final Deque<RecordedPath> recordedPaths = new ArrayDeque<>();
+
+  /** Sum of the contributions of all the paths in {@link #recordedPaths} */
+  private final Map<NodeId, Long> contributionsInWindow = new LinkedHashMap<>();
+
+  public CriticalPathAnalyzer(Duration window) {
+    this.windowNanos = window.toNanos();
+  }
+
+  /**
+   * Computes the critical path of a request starting from the given root span.
+   *
+   * <p>The dependencies of a span are the spans of the dependency requests recorded in {@code
+   * dependencyExecutions}. The dependency which completed last is the one which gated the
+   * completion of a node. If that dependency itself could only start after some other dependency
+   * of the same node completed (for example, because its inputs were resolved from that other
+   * dependency), then the other dependency is also on the critical path, and so on. Each of these
+   * dependencies is then expanded recursively.
+   *
+   * <p>The time a node spent waiting on the dependencies on the critical path is excluded from the
+   * contribution of the node.
+   */
+  public static CriticalPath computeCriticalPath(
+      NodeExecutionSpan root,
+      Collection<NodeExecutionSpan> spans,
+      Collection<DependencyExecution> dependencyExecutions) {
+    Map<SpanKey, NodeExecutionSpan> spansByKey = new LinkedHashMap<>();
+    for (NodeExecutionSpan span : spans) {
+      spansByKey.put(new SpanKey(span.nodeId(), span.requestId()), span);
+    }
+    Map<SpanKey, Set<NodeExecutionSpan>> dependencySpansByDependant = new LinkedHashMap<>();
+    for (DependencyExecution dependencyExecution : dependencyExecutions) {
+      NodeExecutionSpan dependencySpan =
+          spansByKey.get(
+              new SpanKey(
+                  dependencyExecution.dependencyNodeId(),
+                  dependencyExecution.dependencyRequestId()));
+      if (dependencySpan != null) {
+        dependencySpansByDependant
+            .computeIfAbsent(
+                new SpanKey(
+                    dependencyExecution.dependantNodeId(),
+                    dependencyExecution.dependantRequestId()),
+                k -> new LinkedHashSet<>())
+            .add(dependencySpan);
+      }
+    }
+    List<NodeExecutionSpan> path = new ArrayList<>();
+    Map<NodeId, Long> contributions = new LinkedHashMap<>();
+    addToCriticalPath(root, dependencySpansByDependant, path, contributions);
+    return new CriticalPath(
+        root.requestId(), ImmutableList.copyOf(path), ImmutableMap.copyOf(contributions));
+  }
+
+  private static void addToCriticalPath(
+      NodeExecutionSpan current,
+      Map<SpanKey, Set<NodeExecutionSpan>> dependencySpansByDependant,
+      List<NodeExecutionSpan> path,
+      Map<NodeId, Long> contributions) {
+    path.add(current);
+    Set<NodeExecutionSpan> dependencySpans =
+        dependencySpansByDependant.getOrDefault(
+            new SpanKey(current.nodeId(), current.requestId()), Set.of());
+    // Walk backwards in time from the end of the current span: the dependency which completed last
+    // gated the current span, and the dependency which completed last before that one started
+    // gated that one, and so on.
+    Deque<NodeExecutionSpan> criticalDependencies = new ArrayDeque<>();
+    long gatedFrom = Long.MAX_VALUE;
+    while (true) {
+      NodeExecutionSpan criticalDependency = null;
+      for (NodeExecutionSpan span : dependencySpans) {
+        if (span.endNanos() <= gatedFrom
+            && span.endNanos() > current.startNanos()
+            && !criticalDependencies.contains(span)
+            && (criticalDependency == null || span.endNanos() > criticalDependency.endNanos())) {
+          criticalDependency = span;
+        }
+      }
+      if (criticalDependency == null) {
+        break;
+      }
+      criticalDependencies.addFirst(criticalDependency);
+      gatedFrom = criticalDependency.startNanos();
+    }
+    long waitingTime = 0;
+    for (NodeExecutionSpan criticalDependency : criticalDependencies) {
+      waitingTime +=
+          max(
+              0,
+              min(current.endNanos(), criticalDependency.endNanos())
+                  - max(current.startNanos(), criticalDependency.startNanos()));
+    }
+    contributions.merge(current.nodeId(), current.durationNanos() - waitingTime, Long::sum);
+    for (NodeExecutionSpan criticalDependency : criticalDependencies) {
+      addToCriticalPath(criticalDependency, dependencySpansByDependant, path, contributions);
+    }
+  }
+
+  public synchronized void record(CriticalPath criticalPath) {
+    long now = System.nanoTime();
+    evictExpired(now);
+    recordedPaths.addLast(new RecordedPath(now, criticalPath));
+    criticalPath
+        .contributionNanos()
+        .forEach((nodeId, t) -> contributionsInWindow.merge(nodeId, t, Long::sum));
+  }
+
+  /**
+   * @return The total critical path contribution of each node across all the requests recorded in
+   *     the current time window, sorted in descending order of contribution.
+   */
+  public synchronized ImmutableMap<NodeId, Duration> getCriticalPathContributions() {
+    evictExpired(System.nanoTime());
+    return contributionsInWindow.entrySet().stream()
+        .sorted(Entry.<NodeId, Long>comparingByValue(Comparator.reverseOrder()))
+        .collect(toImmutableMap(Entry::getKey, e -> Duration.ofNanos(e.getValue())));
+  }
+
+  private void evictExpired(long now) {
+    RecordedPath oldest;
+    while ((oldest = recordedPaths.peekFirst()) != null
+        && now - oldest.recordedAtNanos() > windowNanos) {
+      recordedPaths.removeFirst();
+      oldest
+          .criticalPath()
+          .contributionNanos()
+          .forEach(
+              (nodeId, t) ->
+                  contributionsInWindow.computeIfPresent(
+                      nodeId, (n, total) -> total - t == 0 ? null : total - t));
+    }
+  }
+
+  private record SpanKey(NodeId nodeId, RequestId requestId) {}
+
+  private record RecordedPath(long recordedAtNanos, CriticalPath criticalPath) {}
+}
@@ -0,0 +1,18 @@
+package com.flipkart.krystal.krystex.node;
+
+import com.flipkart.krystal.krystex.RequestId;
+
+/**
+ * Records that a node executed a request of one of its dependency nodes while executing a request
+ * of its own.
+ *
+ * @param dependantNodeId the node which executed the dependency
+ * @param dependantRequestId the request of the dependant node which needed the dependency
+ * @param dependencyNodeId the dependency node
+ * @param dependencyRequestId the request with which the dependency node was executed
+ */
+public record DependencyExecution(
+    NodeId dependantNodeId,
+    RequestId dependantRequestId,
+    NodeId dependencyNodeId,
+    RequestId dependencyRequestId) {}
@@ -1,7 +1,6 @@
 package com.flipkart.krystal.krystex.node;
 
 import static com.flipkart.krystal.utils.Futures.linkFutures;
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.runAsync;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
@@ -11,6 +10,7 @@ import com.flipkart.krystal.data.Inputs;
 import com.flipkart.krystal.krystex.KrystalExecutor;
 import com.flipkart.krystal.krystex.MainLogicDefinition;
 import com.flipkart.krystal.krystex.RequestId;
+import com.flipkart.krystal.krystex.WeightedLaneExecutorService;
 import com.flipkart.krystal.krystex.commands.ExecuteWithInputs;
 import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.NodeRequestCommand;
@@ -21,6 +21,7 @@ import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig.DecoratorContext;
 import com.flipkart.krystal.utils.MultiLeasePool;
 import com.flipkart.krystal.utils.MultiLeasePool.Lease;
+import com.flipkart.krystal.utils.RequestPriority;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
@@ -28,11 +29,16 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /** Default implementation of Krystal executor which */
 @Slf4j
@@ -41,6 +47,11 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
   private final NodeDefinitionRegistry nodeDefinitionRegistry;
   private final LogicDecorationOrdering logicDecorationOrdering;
   private final Lease<? extends ExecutorService> commandQueueLease;
+  private final RequestPriority defaultPriority;
+
+  /** The priorities of all the requests submitted to this executor */
+  private final Set<RequestPriority> prioritiesInUse = ConcurrentHashMap.newKeySet();
+
   private final RequestId requestId;
 
   /** DecoratorType -> {InstanceId -> Decorator} */
@@ -53,23 +64,67 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
   private final Map<RequestId, List<NodeExecutionInfo>> unFlushedRequests = new LinkedHashMap<>();
   private final Map<NodeId, Set<DependantChain>> dependantChainsPerNode = new LinkedHashMap<>();
 
+  private final @Nullable CriticalPathAnalyzer criticalPathAnalyzer;
+  /**
+   * Spans are completed on whichever thread completes a node's response, hence a concurrent queue.
+   */
+  private final Queue<NodeExecutionSpan> executionSpans = new ConcurrentLinkedQueue<>();
+
+  private final Queue<DependencyExecution> dependencyExecutions = new ConcurrentLinkedQueue<>();
+
   public KrystalNodeExecutor(
       NodeDefinitionRegistry nodeDefinitionRegistry,
       LogicDecorationOrdering logicDecorationOrdering,
       MultiLeasePool<? extends ExecutorService> commandQueuePool,
       String requestId) {
+    this(nodeDefinitionRegistry, logicDecorationOrdering, commandQueuePool, requestId, null);
+  }
+
+  /**
+   * @param criticalPathAnalyzer if not null, the execution spans of all the nodes are recorded and
+   *     the critical paths of all the requests submitted to this executor are recorded in this
+   *     analyzer once the requests complete.
+   */
+  public KrystalNodeExecutor(
+      NodeDefinitionRegistry nodeDefinitionRegistry,
+      LogicDecorationOrdering logicDecorationOrdering,
+      MultiLeasePool<? extends ExecutorService> commandQueuePool,
+      String requestId,
+      @Nullable CriticalPathAnalyzer criticalPathAnalyzer) {
+    this(
+        nodeDefinitionRegistry,
+        logicDecorationOrdering,
+        commandQueuePool,
+        requestId,
+        criticalPathAnalyzer,
+        RequestPriority.DEFAULT);
+  }
+
+  /**
+   * @param defaultPriority The priority of the requests which are submitted without a priority. If
+   *     the command queues of the pool are {@link WeightedLaneExecutorService}s, the commands of a
+   *     request are executed in the lane of its priority. Otherwise, priorities are ignored.
+   */
+  public KrystalNodeExecutor(
+      NodeDefinitionRegistry nodeDefinitionRegistry,
+      LogicDecorationOrdering logicDecorationOrdering,
+      MultiLeasePool<? extends ExecutorService> commandQueuePool,
+      String requestId,
+      @Nullable CriticalPathAnalyzer criticalPathAnalyzer,
+      RequestPriority defaultPriority) {
     this.nodeDefinitionRegistry = nodeDefinitionRegistry;
     this.logicDecorationOrdering = logicDecorationOrdering;
     this.commandQueueLease = commandQueuePool.lease();
-    this.requestId = new RequestId(requestId);
+    this.defaultPriority = defaultPriority;
+    this.prioritiesInUse.add(defaultPriority);
+    this.requestId = new RequestId(requestId, defaultPriority);
+    this.criticalPathAnalyzer = criticalPathAnalyzer;
   }
 
   private ImmutableMap<String, MainLogicDecorator> getRequestScopedDecorators(
-      LogicExecutionContext logicExecutionContext) {
+      NodeDefinition nodeDefinition, LogicExecutionContext logicExecutionContext) {
     NodeId nodeId = logicExecutionContext.nodeId();
-    NodeDefinition nodeDefinition = nodeDefinitionRegistry.get(nodeId);
-    MainLogicDefinition<?> mainLogicDefinition =
-        nodeDefinitionRegistry.logicDefinitionRegistry().getMain(nodeDefinition.mainLogicNode());
+    MainLogicDefinition<?> mainLogicDefinition = nodeDefinition.mainLogicDefinition();
     Map<String, MainLogicDecorator> decorators = new LinkedHashMap<>();
     mainLogicDefinition
         .getRequestScopedLogicDecoratorConfigs()
@@ -84,10 +139,12 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
                         .computeIfAbsent(
                             instanceId,
                             k ->
-                                decoratorConfig
-                                    .factory()
-                                    .apply(
-                                        new DecoratorContext(instanceId, logicExecutionContext)));
+                                mainLogicDefinition.createDecorator(
+                                    decoratorConfig,
+                                    new DecoratorContext(
+                                        instanceId,
+                                        logicExecutionContext,
+                                        commandQueue(defaultPriority))));
                 mainLogicDecorator.executeCommand(
                     new InitiateActiveDepChains(
                         nodeId, ImmutableSet.copyOf(dependantChainsPerNode.get(nodeId))));
@@ -106,25 +163,36 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
   @Override
   public <T> CompletableFuture<T> executeNode(NodeId nodeId, Inputs inputs, String requestId) {
     //noinspection unchecked
-    return (CompletableFuture<T>) executeNode(nodeId, inputs, new RequestId(requestId));
+    return (CompletableFuture<T>)
+        executeNode(nodeId, inputs, new RequestId(requestId, defaultPriority));
+  }
+
+  @Override
+  public <T> CompletableFuture<T> executeNode(
+      NodeId nodeId, Inputs inputs, String requestId, RequestPriority priority) {
+    //noinspection unchecked
+    return (CompletableFuture<T>) executeNode(nodeId, inputs, new RequestId(requestId, priority));
   }
 
   private CompletableFuture<?> executeNode(NodeId nodeId, Inputs inputs, RequestId requestId) {
     if (closed) {
       throw new RejectedExecutionException("KrystalNodeExecutor is already closed");
     }
+    prioritiesInUse.add(requestId.priority());
     return supplyAsync(
             () -> {
               createDependantNodes(nodeId, DependantChainStart.instance());
               CompletableFuture<Object> future = new CompletableFuture<>();
-              NodeExecutionInfo nodeExecutionInfo = new NodeExecutionInfo(nodeId, inputs, future);
+              NodeExecutionInfo nodeExecutionInfo =
+                  new NodeExecutionInfo(
+                      nodeId, nodeDefinitionRegistry.get(nodeId), inputs, future);
               allRequests.computeIfAbsent(requestId, r -> new ArrayList<>()).add(nodeExecutionInfo);
               unFlushedRequests
                   .computeIfAbsent(requestId, r -> new ArrayList<>())
                   .add(nodeExecutionInfo);
               return future;
             },
-            commandQueueLease.get())
+            commandQueue(requestId.priority()))
         .thenCompose(identity());
   }
 
@@ -158,7 +226,11 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
           nodeId,
           n ->
               new Node(
-                  nodeDefinition, this, this::getRequestScopedDecorators, logicDecorationOrdering));
+                  nodeDefinition,
+                  this,
+                  logicExecutionContext ->
+                      getRequestScopedDecorators(nodeDefinition, logicExecutionContext),
+                  logicDecorationOrdering));
       ImmutableMap<String, NodeId> dependencyNodes = nodeDefinition.dependencyNodes();
       dependencyNodes.forEach(
           (dependencyName, depNodeId) ->
@@ -173,16 +245,73 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
   CompletableFuture<NodeResponse> enqueueCommand(NodeRequestCommand nodeCommand) {
     return supplyAsync(
             () -> nodeRegistry.get(nodeCommand.nodeId()).executeRequestCommand(nodeCommand),
-            commandQueueLease.get())
+            commandQueue(nodeCommand.requestId().priority()))
         .thenCompose(identity());
   }
 
+  /**
+   * All the commands of a request are executed in the lane of its priority, and hence in the order
+   * in which they are enqueued.
+   */
+  private Executor commandQueue(RequestPriority priority) {
+    ExecutorService executorService = commandQueueLease.get();
+    if (executorService instanceof WeightedLaneExecutorService weightedLaneExecutorService) {
+      return weightedLaneExecutorService.lane(priority);
+    }
+    return executorService;
+  }
+
+  /**
+   * Executes the given task on the command queue after all the commands which have already been
+   * enqueued by this executor, irrespective of their priority. Used for the commands which are not
+   * specific to a request (like flushes), which must not overtake the commands of any request.
+   *
+   * <p>Lanes of different priorities are not executed in the order of enqueueing, but each lane
+   * is. So the task hops through the lane of every priority in use, from the highest to the
+   * lowest, and is executed in the last of them. If all the requests of this executor have the
+   * same priority, this is the same as enqueueing the task in the lane of that priority.
+   */
+  private void enqueueAfterAllCommands(Runnable task) {
+    ExecutorService executorService = commandQueueLease.get();
+    if (!(executorService instanceof WeightedLaneExecutorService weightedLaneExecutorService)) {
+      runAsync(task, executorService);
+      return;
+    }
+    List<Executor> lanes = new ArrayList<>();
+    for (RequestPriority priority : RequestPriority.values()) {
+      if (prioritiesInUse.contains(priority)) {
+        lanes.add(weightedLaneExecutorService.lane(priority));
+      }
+    }
+    enqueueAfterLanes(lanes, 0, task);
+  }
+
+  private static void enqueueAfterLanes(List<Executor> lanes, int laneIndex, Runnable task) {
+    if (laneIndex == lanes.size() - 1) {
+      runAsync(task, lanes.get(laneIndex));
+    } else {
+      runAsync(() -> enqueueAfterLanes(lanes, laneIndex + 1, task), lanes.get(laneIndex));
+    }
+  }
+
+  boolean isRecordingSpans() {
+    return criticalPathAnalyzer != null;
+  }
+
+  void recordSpan(NodeExecutionSpan nodeExecutionSpan) {
+    executionSpans.add(nodeExecutionSpan);
+  }
+
+  void recordDependencyExecution(DependencyExecution dependencyExecution) {
+    dependencyExecutions.add(dependencyExecution);
+  }
+
   void enqueueCommand(Flush flush) {
-    runAsync(() -> nodeRegistry.get(flush.nodeId()).executeCommand(flush), commandQueueLease.get());
+    enqueueAfterAllCommands(() -> nodeRegistry.get(flush.nodeId()).executeCommand(flush));
   }
 
   public void flush() {
-    runAsync(
+    enqueueAfterAllCommands(
         () -> {
           unFlushedRequests.forEach(
               (requestId, nodeExecutionInfos) -> {
@@ -192,29 +321,22 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
                       if (nodeExecutionInfo.future().isDone()) {
                         return;
                       }
-                      NodeDefinition nodeDefinition = nodeDefinitionRegistry.get(nodeId);
                       CompletableFuture<Object> submissionResult =
                           enqueueCommand(
                                   new ExecuteWithInputs(
                                       nodeId,
-                                      nodeDefinitionRegistry
-                                          .logicDefinitionRegistry()
-                                          .getMain(nodeDefinition.mainLogicNode())
-                                          .inputNames()
-                                          .stream()
-                                          .filter(
-                                              s -> !nodeDefinition.dependencyNodes().containsKey(s))
-                                          .collect(toImmutableSet()),
+                                      nodeExecutionInfo.nodeDefinition().nonDependencyInputNames(),
                                       nodeExecutionInfo.inputs(),
                                       DependantChainStart.instance(),
                                       requestId))
                               .thenApply(NodeResponse::response)
                               .thenApply(
                                   valueOrError -> {
-                                    if (valueOrError.error().isPresent()) {
-                                      throw new RuntimeException(valueOrError.error().get());
+                                    Throwable error = valueOrError.errorOrNull();
+                                    if (error != null) {
+                                      throw new RuntimeException(error);
                                     } else {
-                                      return valueOrError.value().orElse(null);
+                                      return valueOrError.valueOrNull();
                                     }
                                   });
                       linkFutures(submissionResult, nodeExecutionInfo.future());
@@ -225,8 +347,7 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
                   nodeExecutionInfos.forEach(
                       nodeExecutionInfo -> enqueueCommand(new Flush(nodeExecutionInfo.nodeId()))));
           unFlushedRequests.clear();
-        },
-        commandQueueLease.get());
+        });
   }
 
   /**
@@ -240,7 +361,7 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
     }
     this.closed = true;
     flush();
-    supplyAsync(
+    enqueueAfterAllCommands(
         () ->
             allOf(
                     allRequests.values().stream()
@@ -248,10 +369,38 @@ public final class KrystalNodeExecutor implements KrystalExecutor {
                             nodeExecutionInfos ->
                                 nodeExecutionInfos.stream().map(NodeExecutionInfo::future))
                         .toArray(CompletableFuture[]::new))
-                .whenComplete((unused, throwable) -> commandQueueLease.close()),
-        commandQueueLease.get());
+                .whenComplete(
+                    (unused, throwable) -> {
+                      recordCriticalPaths();
+                      commandQueueLease.close();
+                    }));
+  }
+
+  private void recordCriticalPaths() {
+    CriticalPathAnalyzer criticalPathAnalyzer = this.criticalPathAnalyzer;
+    if (criticalPathAnalyzer == null) {
+      return;
+    }
+    List<NodeExecutionSpan> spans = new ArrayList<>(executionSpans);
+    List<DependencyExecution> dependencyExecutions = new ArrayList<>(this.dependencyExecutions);
+    allRequests.forEach(
+        (requestId, nodeExecutionInfos) ->
+            nodeExecutionInfos.forEach(
+                nodeExecutionInfo ->
+                    spans.stream()
+                        .filter(span -> span.requestId().equals(requestId))
+                        .filter(span -> span.nodeId().equals(nodeExecutionInfo.nodeId()))
+                        .findAny()
+                        .ifPresent(
+                            root ->
+                                criticalPathAnalyzer.record(
+                                    CriticalPathAnalyzer.computeCriticalPath(
+                                        root, spans, dependencyExecutions)))));
   }
 
   private record NodeExecutionInfo(
-      NodeId nodeId, Inputs inputs, CompletableFuture<Object> future) {}
+      NodeId nodeId,
+      NodeDefinition nodeDefinition,
+      Inputs inputs,
+      CompletableFuture<Object> future) {}
 }
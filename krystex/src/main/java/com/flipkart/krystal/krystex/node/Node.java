@@ -1,8 +1,6 @@
 package com.flipkart.krystal.krystex.node;
 
 import static com.flipkart.krystal.data.ValueOrError.withError;
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.lang.Math.max;
 
 import com.flipkart.krystal.data.InputValue;
@@ -19,20 +17,16 @@ import com.flipkart.krystal.krystex.commands.ExecuteWithDependency;
 import com.flipkart.krystal.krystex.commands.ExecuteWithInputs;
 import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.NodeRequestCommand;
-import com.flipkart.krystal.krystex.commands.SkipNode;
 import com.flipkart.krystal.krystex.decoration.FlushCommand;
 import com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.decoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
-import com.flipkart.krystal.utils.ImmutableMapView;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Optional;
@@ -57,10 +51,6 @@ public class Node {
   private final Function<LogicExecutionContext, ImmutableMap<String, MainLogicDecorator>>
       requestScopedDecoratorsSupplier;
 
-  private final ImmutableMapView<Optional<String>, List<ResolverDefinition>>
-      resolverDefinitionsByInput;
-  private final ImmutableMapView<String, ImmutableSet<ResolverDefinition>>
-      resolverDefinitionsByDependencies;
   private final LogicDecorationOrdering logicDecorationOrdering;
 
   private final Map<RequestId, Map<String, DependencyNodeExecutions>> dependencyExecutions =
@@ -82,6 +72,13 @@ public class Node {
    */
   private final Map<Inputs, CompletableFuture<Object>> resultsCache = new LinkedHashMap<>();
 
+  /**
+   * Populated only when the executor is recording {@link NodeExecutionSpan}s. Contains futures
+   * which complete after the span of the corresponding request has been recorded.
+   */
+  private final Map<RequestId, CompletableFuture<NodeResponse>> spanRecordingResultsByRequest =
+      new LinkedHashMap<>();
+
   private final Map<RequestId, Boolean> mainLogicExecuted = new LinkedHashMap<>();
 
   private final Map<RequestId, Map<NodeLogicId, ResolverCommand>> resolverResults =
@@ -103,13 +100,6 @@ public class Node {
     this.krystalNodeExecutor = krystalNodeExecutor;
     this.requestScopedDecoratorsSupplier = requestScopedDecoratorsSupplier;
     this.logicDecorationOrdering = logicDecorationOrdering;
-    this.resolverDefinitionsByInput =
-        createResolverDefinitionsByInputs(nodeDefinition.resolverDefinitions());
-    this.resolverDefinitionsByDependencies =
-        ImmutableMapView.viewOf(
-            nodeDefinition.resolverDefinitions().stream()
-                .collect(
-                    Collectors.groupingBy(ResolverDefinition::dependencyName, toImmutableSet())));
   }
 
   void executeCommand(Flush nodeCommand) {
@@ -120,15 +110,10 @@ public class Node {
 
   CompletableFuture<NodeResponse> executeRequestCommand(NodeRequestCommand nodeCommand) {
     RequestId requestId = nodeCommand.requestId();
-    final CompletableFuture<NodeResponse> resultForRequest =
-        resultsByRequest.computeIfAbsent(requestId, r -> new CompletableFuture<>());
+    final CompletableFuture<NodeResponse> resultForRequest = getOrCreateResultFuture(requestId);
     try {
       boolean executeMainLogic;
-      if (nodeCommand instanceof SkipNode skipNode) {
-        resultForRequest.completeExceptionally(
-            new SkipNodeException(skipNode.skipDependencyCommand().reason()));
-        return resultForRequest;
-      } else if (nodeCommand instanceof ExecuteWithDependency executeWithDependency) {
+      if (nodeCommand instanceof ExecuteWithDependency executeWithDependency) {
         executeMainLogic = executeWithDependency(requestId, executeWithDependency);
       } else if (nodeCommand instanceof ExecuteWithInputs executeWithInputs) {
         requestsByDependantChain
@@ -146,14 +131,43 @@ public class Node {
     } catch (Exception e) {
       resultForRequest.completeExceptionally(e);
     }
+    return spanRecordingResult(requestId, resultForRequest);
+  }
+
+  private CompletableFuture<NodeResponse> getOrCreateResultFuture(RequestId requestId) {
+    CompletableFuture<NodeResponse> resultForRequest = resultsByRequest.get(requestId);
+    if (resultForRequest == null) {
+      resultForRequest = new CompletableFuture<>();
+      resultsByRequest.put(requestId, resultForRequest);
+      if (krystalNodeExecutor.isRecordingSpans()) {
+        long startNanos = System.nanoTime();
+        // Dependants are handed this future so that the span of this node is always recorded
+        // before the dependants observe the result.
+        spanRecordingResultsByRequest.put(
+            requestId,
+            resultForRequest.whenComplete(
+                (nodeResponse, throwable) ->
+                    krystalNodeExecutor.recordSpan(
+                        new NodeExecutionSpan(nodeId, requestId, startNanos, System.nanoTime()))));
+      }
+    }
     return resultForRequest;
   }
 
+  private CompletableFuture<NodeResponse> spanRecordingResult(
+      RequestId requestId, CompletableFuture<NodeResponse> resultForRequest) {
+    return spanRecordingResultsByRequest.getOrDefault(requestId, resultForRequest);
+  }
+
   private void flushDecoratorsIfNeeded(DependantChain dependantChain) {
     if (!flushedDependantChain.getOrDefault(dependantChain, false)) {
       return;
     }
     Set<RequestId> requestIds = requestsByDependantChain.get(dependantChain);
+    if (requestIds == null) {
+      // All the requests from this dependant chain were skipped
+      return;
+    }
     if (requestIds.stream().allMatch(key -> mainLogicExecuted.getOrDefault(key, false))) {
       Iterable<MainLogicDecorator> reverseSortedDecorators =
           getSortedDecorators(dependantChain)::descendingIterator;
@@ -184,11 +198,7 @@ public class Node {
   }
 
   private boolean execute(RequestId requestId, ImmutableSet<String> newInputNames) {
-    MainLogicDefinition<Object> mainLogicNodeDefinition =
-        nodeDefinition
-            .nodeDefinitionRegistry()
-            .logicDefinitionRegistry()
-            .getMain(nodeDefinition.mainLogicNode());
+    MainLogicDefinition<Object> mainLogicNodeDefinition = nodeDefinition.mainLogicDefinition();
 
     Map<String, InputValue<Object>> allInputs =
         inputsValueCollector.computeIfAbsent(requestId, r -> new LinkedHashMap<>());
@@ -211,9 +221,7 @@ public class Node {
     Iterable<ResolverDefinition> pendingResolvers;
     if (newInputNames.isEmpty()) {
       pendingResolvers =
-          resolverDefinitionsByInput
-                  .getOrDefault(Optional.<String>empty(), Collections.emptyList())
-                  .stream()
+          nodeDefinition.resolverDefinitionsForInput(Optional.empty()).stream()
                   .filter(
                       resolverDefinition ->
                           availableInputs.containsAll(resolverDefinition.boundFrom()))
@@ -226,8 +234,8 @@ public class Node {
           newInputNames.stream()
                   .flatMap(
                       input ->
-                          resolverDefinitionsByInput
-                              .getOrDefault(Optional.ofNullable(input), ImmutableList.of())
+                          nodeDefinition
+                              .resolverDefinitionsForInput(Optional.ofNullable(input))
                               .stream()
                               .filter(
                                   resolverDefinition ->
@@ -270,27 +278,25 @@ public class Node {
     Inputs inputsForResolver = getInputsForResolver(resolverDefinition, requestId);
     NodeLogicId nodeLogicId = resolverDefinition.resolverNodeLogicId();
     ResolverCommand resolverCommand =
-        nodeDefinition
-            .nodeDefinitionRegistry()
-            .logicDefinitionRegistry()
-            .getResolver(nodeLogicId)
-            .resolve(inputsForResolver);
+        nodeDefinition.resolverLogicDefinition(nodeLogicId).resolve(inputsForResolver);
     nodeResults.put(nodeLogicId, resolverCommand);
     DependencyNodeExecutions dependencyNodeExecutions =
         dependencyExecutions
             .computeIfAbsent(requestId, k -> new LinkedHashMap<>())
             .computeIfAbsent(dependencyName, k -> new DependencyNodeExecutions());
     dependencyNodeExecutions.executedResolvers().add(resolverDefinition);
-    if (resolverCommand instanceof SkipDependency) {
+    if (resolverCommand instanceof SkipDependency skipDependency) {
       if (dependencyValuesCollector.getOrDefault(requestId, ImmutableMap.of()).get(dependencyName)
           == null) {
-        krystalNodeExecutor.enqueueCommand(
-            new SkipNode(
-                depNodeId,
-                requestId.append("skip(%s)".formatted(dependencyName)),
-                (SkipDependency) resolverCommand));
+        // The dependency node is not involved in a skip, so instead of sending it a command, the
+        // dependency is marked as skipped in-line on the command thread. Dependants receive empty
+        // results whose skip reason distinguishes the skip from a fan-out of size zero.
         this.executeRequestCommand(
-            new ExecuteWithDependency(this.nodeId, dependencyName, Results.empty(), requestId));
+            new ExecuteWithDependency(
+                this.nodeId,
+                dependencyName,
+                Results.skipped(new SkipNodeException(skipDependency.reason())),
+                requestId));
       }
     } else {
       // Since the resolver can return multiple inputs, we have to call the dependency Node
@@ -341,7 +347,8 @@ public class Node {
               .individualCallResponses()
               .putIfAbsent(
                   dependencyRequestId,
-                  krystalNodeExecutor.enqueueCommand(
+                  enqueueDependencyCommand(
+                      requestId,
                       new ExecuteWithInputs(
                           depNodeId,
                           newInputs.values().keySet(),
@@ -356,7 +363,7 @@ public class Node {
         requestCounter += batchSize;
       }
       ImmutableSet<ResolverDefinition> resolverDefinitionsForDependency =
-          this.resolverDefinitionsByDependencies.get(dependencyName);
+          nodeDefinition.resolverDefinitionsForDependency(dependencyName);
       if (resolverDefinitionsForDependency.equals(dependencyNodeExecutions.executedResolvers())) {
         CompletableFuture.allOf(
                 dependencyNodeExecutions
@@ -369,12 +376,14 @@ public class Node {
                   if (throwable != null) {
                     results = new Results<>(ImmutableMap.of(Inputs.empty(), withError(throwable)));
                   } else {
-                    results =
-                        new Results<>(
-                            dependencyNodeExecutions.individualCallResponses().values().stream()
-                                .map(cf -> cf.getNow(new NodeResponse()))
-                                .collect(
-                                    toImmutableMap(NodeResponse::inputs, NodeResponse::response)));
+                    Collection<CompletableFuture<NodeResponse>> responses =
+                        dependencyNodeExecutions.individualCallResponses().values();
+                    Results.Builder<Object> resultsBuilder = Results.builder(responses.size());
+                    for (CompletableFuture<NodeResponse> response : responses) {
+                      NodeResponse nodeResponse = response.getNow(new NodeResponse());
+                      resultsBuilder.add(nodeResponse.inputs(), nodeResponse.response());
+                    }
+                    results = resultsBuilder.build();
                   }
                   krystalNodeExecutor.enqueueCommand(
                       new ExecuteWithDependency(this.nodeId, dependencyName, results, requestId));
@@ -387,6 +396,16 @@ public class Node {
     }
   }
 
+  private CompletableFuture<NodeResponse> enqueueDependencyCommand(
+      RequestId requestId, ExecuteWithInputs dependencyCommand) {
+    if (krystalNodeExecutor.isRecordingSpans()) {
+      krystalNodeExecutor.recordDependencyExecution(
+          new DependencyExecution(
+              nodeId, requestId, dependencyCommand.nodeId(), dependencyCommand.requestId()));
+    }
+    return krystalNodeExecutor.enqueueCommand(dependencyCommand);
+  }
+
   private void flushAllDependenciesIfNeeded(DependantChain dependantChain) {
     nodeDefinition
         .dependencyNodes()
@@ -402,7 +421,7 @@ public class Node {
         requestsByDependantChain.getOrDefault(dependantChain, ImmutableSet.of());
     NodeId depNodeId = nodeDefinition.dependencyNodes().get(dependencyName);
     ImmutableSet<ResolverDefinition> resolverDefinitionsForDependency =
-        this.resolverDefinitionsByDependencies.get(dependencyName);
+        nodeDefinition.resolverDefinitionsForDependency(dependencyName);
     if (!requestsForDependantChain.isEmpty()
         && requestsForDependantChain.stream()
             .allMatch(
@@ -448,7 +467,8 @@ public class Node {
                   .containsKey(depName)) {
                 RequestId dependencyRequestId = requestId.append("%s".formatted(depName));
                 CompletableFuture<NodeResponse> nodeResponse =
-                    krystalNodeExecutor.enqueueCommand(
+                    enqueueDependencyCommand(
+                        requestId,
                         new ExecuteWithInputs(
                             depNodeId,
                             ImmutableSet.of(),
@@ -477,11 +497,7 @@ public class Node {
 
   private void executeMainLogic(
       CompletableFuture<NodeResponse> resultForRequest, RequestId requestId) {
-    MainLogicDefinition<Object> mainLogicDefinition =
-        nodeDefinition
-            .nodeDefinitionRegistry()
-            .logicDefinitionRegistry()
-            .getMain(nodeDefinition.mainLogicNode());
+    MainLogicDefinition<Object> mainLogicDefinition = nodeDefinition.mainLogicDefinition();
     MainLogicInputs mainLogicInputs = getInputsForMainLogic(requestId);
     // Retrieve existing result from cache if result for this set of inputs has already been
     // calculated
@@ -541,11 +557,7 @@ public class Node {
   }
 
   private NavigableSet<MainLogicDecorator> getSortedDecorators(DependantChain dependantChain) {
-    MainLogicDefinition<Object> mainLogicDefinition =
-        nodeDefinition
-            .nodeDefinitionRegistry()
-            .logicDefinitionRegistry()
-            .getMain(nodeDefinition.mainLogicNode());
+    MainLogicDefinition<Object> mainLogicDefinition = nodeDefinition.mainLogicDefinition();
     Map<String, MainLogicDecorator> decorators =
         new LinkedHashMap<>(
             mainLogicDefinition.getSessionScopedLogicDecorators(nodeDefinition, dependantChain));
@@ -564,29 +576,6 @@ public class Node {
     return sortedDecorators;
   }
 
-  private static ImmutableMapView<Optional<String>, List<ResolverDefinition>>
-      createResolverDefinitionsByInputs(ImmutableList<ResolverDefinition> resolverDefinitions) {
-    Map<Optional<String>, List<ResolverDefinition>> resolverDefinitionsByInput =
-        new LinkedHashMap<>();
-    resolverDefinitions.forEach(
-        resolverDefinition -> {
-          if (!resolverDefinition.boundFrom().isEmpty()) {
-            resolverDefinition
-                .boundFrom()
-                .forEach(
-                    input ->
-                        resolverDefinitionsByInput
-                            .computeIfAbsent(Optional.of(input), s -> new ArrayList<>())
-                            .add(resolverDefinition));
-          } else {
-            resolverDefinitionsByInput
-                .computeIfAbsent(Optional.empty(), s -> new ArrayList<>())
-                .add(resolverDefinition);
-          }
-        });
-    return ImmutableMapView.viewOf(resolverDefinitionsByInput);
-  }
-
   private record DependencyNodeExecutions(
       LongAdder executionCounter,
       Set<ResolverDefinition> executedResolvers,
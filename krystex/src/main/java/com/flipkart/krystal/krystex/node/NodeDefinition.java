@@ -1,18 +1,134 @@
 package com.flipkart.krystal.krystex.node;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.stream.Collectors.groupingBy;
 
 import com.flipkart.krystal.krystex.CallGraph;
+import com.flipkart.krystal.krystex.MainLogicDefinition;
 import com.flipkart.krystal.krystex.ResolverDefinition;
+import com.flipkart.krystal.krystex.ResolverLogicDefinition;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The definition of a node. Besides the ids of the logics of this node, a node definition holds
+ * direct references to the corresponding logic definitions and other facts derived from them. These
+ * are computed once when the node definition is created so that node execution never needs to
+ * consult the {@link NodeDefinitionRegistry} or the {@link
+ * com.flipkart.krystal.krystex.LogicDefinitionRegistry}.
+ */
+public final class NodeDefinition {
+
+  private final NodeId nodeId;
+  private final NodeLogicId mainLogicNode;
+  private final ImmutableMap<String, NodeId> dependencyNodes;
+  private final ImmutableList<ResolverDefinition> resolverDefinitions;
+  private final NodeDefinitionRegistry nodeDefinitionRegistry;
+
+  private final MainLogicDefinition<Object> mainLogicDefinition;
+  private final ImmutableSet<String> nonDependencyInputNames;
+  private final ImmutableMap<NodeLogicId, ResolverLogicDefinition> resolverLogicDefinitions;
+
+  /** Input name (or empty for resolvers which are not bound to any input) -> Resolvers */
+  private final ImmutableMap<Optional<String>, ImmutableList<ResolverDefinition>>
+      resolverDefinitionsByInput;
+
+  /** Dependency name -> Resolvers */
+  private final ImmutableMap<String, ImmutableSet<ResolverDefinition>>
+      resolverDefinitionsByDependencies;
+
+  NodeDefinition(
+      NodeId nodeId,
+      NodeLogicId mainLogicNode,
+      ImmutableMap<String, NodeId> dependencyNodes,
+      ImmutableList<ResolverDefinition> resolverDefinitions,
+      NodeDefinitionRegistry nodeDefinitionRegistry) {
+    this.nodeId = nodeId;
+    this.mainLogicNode = mainLogicNode;
+    this.dependencyNodes = dependencyNodes;
+    this.resolverDefinitions = resolverDefinitions;
+    this.nodeDefinitionRegistry = nodeDefinitionRegistry;
+    this.mainLogicDefinition =
+        nodeDefinitionRegistry.logicDefinitionRegistry().getMain(mainLogicNode);
+    if (mainLogicDefinition == null) {
+      throw new IllegalArgumentException(
+          "No main logic with id %s found for node %s".formatted(mainLogicNode, nodeId));
+    }
+    this.nonDependencyInputNames =
+        mainLogicDefinition.inputNames().stream()
+            .filter(inputName -> !dependencyNodes.containsKey(inputName))
+            .collect(toImmutableSet());
+    Map<NodeLogicId, ResolverLogicDefinition> resolverLogics = new LinkedHashMap<>();
+    for (ResolverDefinition resolverDefinition : resolverDefinitions) {
+      NodeLogicId resolverNodeLogicId = resolverDefinition.resolverNodeLogicId();
+      ResolverLogicDefinition resolverLogicDefinition =
+          nodeDefinitionRegistry.logicDefinitionRegistry().getResolver(resolverNodeLogicId);
+      if (resolverLogicDefinition == null) {
+        throw new IllegalArgumentException(
+            "No resolver logic with id %s found for node %s"
+                .formatted(resolverNodeLogicId, nodeId));
+      }
+      resolverLogics.put(resolverNodeLogicId, resolverLogicDefinition);
+    }
+    this.resolverLogicDefinitions = ImmutableMap.copyOf(resolverLogics);
+    this.resolverDefinitionsByInput = createResolverDefinitionsByInputs(resolverDefinitions);
+    this.resolverDefinitionsByDependencies =
+        ImmutableMap.copyOf(
+            resolverDefinitions.stream()
+                .collect(groupingBy(ResolverDefinition::dependencyName, toImmutableSet())));
+  }
+
+  public NodeId nodeId() {
+    return nodeId;
+  }
+
+  public NodeLogicId mainLogicNode() {
+    return mainLogicNode;
+  }
+
+  public ImmutableMap<String, NodeId> dependencyNodes() {
+    return dependencyNodes;
+  }
+
+  public ImmutableList<ResolverDefinition> resolverDefinitions() {
+    return resolverDefinitions;
+  }
+
+  public NodeDefinitionRegistry nodeDefinitionRegistry() {
+    return nodeDefinitionRegistry;
+  }
+
+  public MainLogicDefinition<Object> mainLogicDefinition() {
+    return mainLogicDefinition;
+  }
+
+  /** Names of those inputs of the main logic which are not dependencies. */
+  public ImmutableSet<String> nonDependencyInputNames() {
+    return nonDependencyInputNames;
+  }
+
+  public ResolverLogicDefinition resolverLogicDefinition(NodeLogicId resolverNodeLogicId) {
+    return resolverLogicDefinitions.get(resolverNodeLogicId);
+  }
+
+  public ImmutableList<ResolverDefinition> resolverDefinitionsForInput(
+      Optional<String> inputName) {
+    return resolverDefinitionsByInput.getOrDefault(inputName, ImmutableList.of());
+  }
+
+  public @Nullable ImmutableSet<ResolverDefinition> resolverDefinitionsForDependency(
+      String dependencyName) {
+    return resolverDefinitionsByDependencies.get(dependencyName);
+  }
 
-public record NodeDefinition(
-    NodeId nodeId,
-    NodeLogicId mainLogicNode,
-    ImmutableMap<String, NodeId> dependencyNodes,
-    ImmutableList<ResolverDefinition> resolverDefinitions,
-    NodeDefinitionRegistry nodeDefinitionRegistry) {
   public CallGraph getCallGraph(CallGraph previousCalls) {
     return new CallGraph(
         nodeId,
@@ -26,4 +142,36 @@ public record NodeDefinition(
                 })
             .collect(toImmutableList()));
   }
+
+  @Override
+  public String toString() {
+    return "NodeDefinition[nodeId=%s, mainLogicNode=%s, dependencyNodes=%s]"
+        .formatted(nodeId, mainLogicNode, dependencyNodes);
+  }
+
+  private static ImmutableMap<Optional<String>, ImmutableList<ResolverDefinition>>
+      createResolverDefinitionsByInputs(ImmutableList<ResolverDefinition> resolverDefinitions) {
+    Map<Optional<String>, List<ResolverDefinition>> resolverDefinitionsByInput =
+        new LinkedHashMap<>();
+    resolverDefinitions.forEach(
+        resolverDefinition -> {
+          if (!resolverDefinition.boundFrom().isEmpty()) {
+            resolverDefinition
+                .boundFrom()
+                .forEach(
+                    input ->
+                        resolverDefinitionsByInput
+                            .computeIfAbsent(Optional.of(input), s -> new ArrayList<>())
+                            .add(resolverDefinition));
+          } else {
+            resolverDefinitionsByInput
+                .computeIfAbsent(Optional.empty(), s -> new ArrayList<>())
+                .add(resolverDefinition);
+          }
+        });
+    ImmutableMap.Builder<Optional<String>, ImmutableList<ResolverDefinition>> builder =
+        ImmutableMap.builder();
+    resolverDefinitionsByInput.forEach((k, v) -> builder.put(k, ImmutableList.copyOf(v)));
+    return builder.build();
+  }
 }
@@ -4,13 +4,17 @@ import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
 import com.flipkart.krystal.krystex.ResolverDefinition;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Registry of node definitions. Node definitions can be safely registered and looked up
+ * concurrently.
+ */
 public final class NodeDefinitionRegistry {
 
   private final LogicDefinitionRegistry logicDefinitionRegistry;
-  private final Map<NodeId, NodeDefinition> nodeDefinitions = new LinkedHashMap<>();
+  private final Map<NodeId, NodeDefinition> nodeDefinitions = new ConcurrentHashMap<>();
 
   public NodeDefinitionRegistry(LogicDefinitionRegistry logicDefinitionRegistry) {
     this.logicDefinitionRegistry = logicDefinitionRegistry;
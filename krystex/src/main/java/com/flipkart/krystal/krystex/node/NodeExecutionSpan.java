@@ -0,0 +1,16 @@
+package com.flipkart.krystal.krystex.node;
+
+import com.flipkart.krystal.krystex.RequestId;
+
+/**
+ * The time interval during which a node was executing for a given request - starting when the
+ * first command for the request reached the node, and ending when the node's response for the
+ * request was completed.
+ */
+public record NodeExecutionSpan(
+    NodeId nodeId, RequestId requestId, long startNanos, long endNanos) {
+
+  public long durationNanos() {
+    return endNanos - startNanos;
+  }
+}
@@ -1,8 +1,14 @@
 package com.flipkart.krystal.krystex.node;
 
+import com.flipkart.krystal.utils.ControlFlowExceptions;
+
+/**
+ * Signals that a node was skipped. This exception does not capture a stack trace unless {@link
+ * ControlFlowExceptions#stackTracesEnabled()}.
+ */
 public class SkipNodeException extends RuntimeException {
 
   public SkipNodeException(String message) {
-    super(message);
+    super(message, null, false, ControlFlowExceptions.stackTracesEnabled());
   }
 }
@@ -4,6 +4,8 @@ module flipkart.krystal.krystex {
   exports com.flipkart.krystal.krystex.node to
       flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.decoration to flipkart.krystal.vajramexecutor.krystex;
+  exports com.flipkart.krystal.krystex.decorators;
+  exports com.flipkart.krystal.krystex.decorators.cache;
   exports com.flipkart.krystal.krystex.decorators.resilience4j;
 
   requires com.google.common;
@@ -11,6 +13,7 @@ module flipkart.krystal.krystex {
   requires static io.github.resilience4j.all;
   requires static io.github.resilience4j.bulkhead;
   requires static io.github.resilience4j.circuitbreaker;
+  requires static io.github.resilience4j.ratelimiter;
   requires static lombok;
   requires static org.slf4j;
   requires flipkart.krystal.common;
@@ -0,0 +1,281 @@
+package com.flipkart.krystal.krystex;
+
+import static com.flipkart.krystal.utils.RequestPriority.BACKGROUND;
+import static com.flipkart.krystal.utils.RequestPriority.CRITICAL;
+import static com.flipkart.krystal.utils.RequestPriority.DEFAULT;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.utils.RequestPriority;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class WeightedLaneExecutorServiceTest {
+
+  @Test
+  void execute_allLanesBacklogged_lanesServedInWeightedRoundRobin() {
+    ManualExecutorService delegate = new ManualExecutorService();
+    WeightedLaneExecutorService executorService = new WeightedLaneExecutorService(delegate);
+    List<RequestPriority> executionOrder = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      for (RequestPriority priority : RequestPriority.values()) {
+        executorService.lane(priority).execute(() -> executionOrder.add(priority));
+      }
+    }
+
+    delegate.runAll();
+
+    List<RequestPriority> expectedRound = new ArrayList<>();
+    expectedRound.addAll(Collections.nCopies(8, CRITICAL));
+    expectedRound.addAll(Collections.nCopies(4, DEFAULT));
+    expectedRound.add(BACKGROUND);
+    assertThat(executionOrder.subList(0, 13)).isEqualTo(expectedRound);
+    assertThat(executionOrder.subList(13, 26)).isEqualTo(expectedRound);
+    assertThat(executionOrder).hasSize(48);
+  }
+
+  @Test
+  void execute_higherLanesAlwaysBacklogged_backgroundLaneNotStarved() {
+    ManualExecutorService delegate = new ManualExecutorService();
+    WeightedLaneExecutorService executorService = new WeightedLaneExecutorService(delegate);
+    List<RequestPriority> executionOrder = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      executorService.lane(BACKGROUND).execute(() -> executionOrder.add(BACKGROUND));
+    }
+    // Every critical and default task enqueues another one, so those lanes are never empty
+    AtomicInteger remaining = new AtomicInteger(1000);
+    for (RequestPriority priority : List.of(CRITICAL, DEFAULT)) {
+      executorService
+          .lane(priority)
+          .execute(
+              new SelfReplenishingTask(executorService, priority, executionOrder, remaining));
+    }
+
+    delegate.runAll();
+
+    List<Integer> backgroundPositions = new ArrayList<>();
+    for (int i = 0; i < executionOrder.size(); i++) {
+      if (executionOrder.get(i) == BACKGROUND) {
+        backgroundPositions.add(i);
+      }
+    }
+    assertThat(backgroundPositions).hasSize(3);
+    // At most one full round of the other lanes (8 + 4 tasks) runs before each background task
+    assertThat(backgroundPositions.get(2)).isLessThan(3 * 13);
+  }
+
+  @Test
+  void execute_defaultLane_tasksExecutedInOrderOfSubmission() {
+    ManualExecutorService delegate = new ManualExecutorService();
+    WeightedLaneExecutorService executorService = new WeightedLaneExecutorService(delegate);
+    List<Integer> executionOrder = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      int task = i;
+      executorService.execute(() -> executionOrder.add(task));
+    }
+
+    delegate.runAll();
+
+    List<Integer> expectedOrder = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      expectedOrder.add(i);
+    }
+    assertThat(executionOrder).isEqualTo(expectedOrder);
+  }
+
+  @Test
+  void execute_tasksSubmittedWhileDraining_singleDrainScheduled() {
+    ManualExecutorService delegate = new ManualExecutorService();
+    WeightedLaneExecutorService executorService = new WeightedLaneExecutorService(delegate);
+    List<String> executionOrder = new ArrayList<>();
+
+    executorService.execute(
+        () -> {
+          executionOrder.add("first");
+          executorService.lane(CRITICAL).execute(() -> executionOrder.add("second"));
+        });
+    executorService.execute(() -> executionOrder.add("third"));
+
+    assertThat(delegate.pendingTasks()).isEqualTo(1);
+    delegate.runAll();
+
+    assertThat(executionOrder).containsExactly("first", "third", "second");
+    assertThat(delegate.pendingTasks()).isZero();
+  }
+
+  @Test
+  void execute_afterLanesDrained_newDrainScheduled() {
+    ManualExecutorService delegate = new ManualExecutorService();
+    WeightedLaneExecutorService executorService = new WeightedLaneExecutorService(delegate);
+    AtomicInteger executed = new AtomicInteger();
+    executorService.execute(executed::incrementAndGet);
+    delegate.runAll();
+
+    executorService.lane(BACKGROUND).execute(executed::incrementAndGet);
+
+    assertThat(delegate.pendingTasks()).isEqualTo(1);
+    delegate.runAll();
+    assertThat(executed).hasValue(2);
+  }
+
+  @Test
+  void execute_concurrentSubmitters_allTasksExecutedOneAtATime() throws Exception {
+    ExecutorService delegate = Executors.newFixedThreadPool(4);
+    ExecutorService submitters = Executors.newFixedThreadPool(8);
+    try {
+      WeightedLaneExecutorService executorService = new WeightedLaneExecutorService(delegate);
+      int tasksPerSubmitter = 10_000;
+      CountDownLatch allExecuted = new CountDownLatch(8 * tasksPerSubmitter);
+      AtomicInteger concurrentlyExecuting = new AtomicInteger();
+      AtomicInteger maxConcurrentlyExecuting = new AtomicInteger();
+      CyclicBarrier start = new CyclicBarrier(8);
+      for (int s = 0; s < 8; s++) {
+        RequestPriority priority = RequestPriority.values()[s % 3];
+        submitters.execute(
+            () -> {
+              awaitQuietly(start);
+              for (int i = 0; i < tasksPerSubmitter; i++) {
+                executorService
+                    .lane(priority)
+                    .execute(
+                        () -> {
+                          maxConcurrentlyExecuting.accumulateAndGet(
+                              concurrentlyExecuting.incrementAndGet(), Math::max);
+                          concurrentlyExecuting.decrementAndGet();
+                          allExecuted.countDown();
+                        });
+              }
+            });
+      }
+
+      // If a task added while a drain is finishing were missed, the latch would never reach zero
+      assertThat(allExecuted.await(30, SECONDS)).isTrue();
+      assertThat(maxConcurrentlyExecuting).hasValue(1);
+    } finally {
+      submitters.shutdownNow();
+      delegate.shutdownNow();
+    }
+  }
+
+  @Test
+  void execute_taskThrows_laterTasksExecutedAndErrorReported() throws Exception {
+    ManualExecutorService delegate = new ManualExecutorService();
+    WeightedLaneExecutorService executorService = new WeightedLaneExecutorService(delegate);
+    AtomicReference<Throwable> reportedError = new AtomicReference<>();
+    List<String> executionOrder = new ArrayList<>();
+    IllegalStateException error = new IllegalStateException("task failed");
+    executorService.execute(
+        () -> {
+          executionOrder.add("failing");
+          throw error;
+        });
+    executorService.execute(() -> executionOrder.add("next"));
+
+    Thread drainThread = new Thread(delegate::runAll);
+    drainThread.setUncaughtExceptionHandler((thread, throwable) -> reportedError.set(throwable));
+    drainThread.start();
+    drainThread.join(SECONDS.toMillis(5));
+
+    assertThat(executionOrder).containsExactly("failing", "next");
+    assertThat(reportedError).hasValue(error);
+  }
+
+  @Test
+  void execute_afterShutdown_rejected() {
+    WeightedLaneExecutorService executorService =
+        new WeightedLaneExecutorService(new ManualExecutorService());
+
+    executorService.shutdown();
+
+    assertThatThrownBy(() -> executorService.lane(CRITICAL).execute(() -> {}))
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  private static void awaitQuietly(CyclicBarrier barrier) {
+    try {
+      barrier.await();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** A task which enqueues a copy of itself in its lane until the shared budget is exhausted */
+  private record SelfReplenishingTask(
+      WeightedLaneExecutorService executorService,
+      RequestPriority priority,
+      List<RequestPriority> executionOrder,
+      AtomicInteger remaining)
+      implements Runnable {
+
+    @Override
+    public void run() {
+      executionOrder.add(priority);
+      if (remaining.decrementAndGet() > 0) {
+        executorService.lane(priority).execute(this);
+      }
+    }
+  }
+
+  /** An executor service which runs submitted tasks only when asked to, on the calling thread */
+  private static final class ManualExecutorService extends AbstractExecutorService {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private boolean shutdown;
+
+    void runAll() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    }
+
+    int pendingTasks() {
+      return tasks.size();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      return new ArrayList<>(tasks);
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return shutdown;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private ExecutorService queuedCallExecutor;
+
+  /** The result futures returned by the logic, and the threads it was executed on, per input */
+  private Map<Inputs, CompletableFuture<Object>> logicResults;
+
+  private Map<Inputs, String> executingThreads;
+  private MainLogic<Object> logic;
+
+  @BeforeEach
+  void setUp() {
+    this.queuedCallExecutor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "queued-call-executor"));
+    this.logicResults = new ConcurrentHashMap<>();
+    this.executingThreads = new ConcurrentHashMap<>();
+    this.logic =
+        inputsList -> {
+          Inputs inputs = inputsList.get(0);
+          executingThreads.put(inputs, Thread.currentThread().getName());
+          CompletableFuture<Object> result = new CompletableFuture<>();
+          logicResults.put(inputs, result);
+          return ImmutableMap.of(inputs, result);
+        };
+  }
+
+  @AfterEach
+  void tearDown() {
+    queuedCallExecutor.shutdownNow();
+  }
+
+  @Test
+  void execute_limitReached_callQueuedUntilEarlierCallCompletes(TestInfo testInfo) {
+    MainLogic<Object> limitedLogic = limitedLogic(testInfo.getDisplayName(), 1);
+    Inputs inputs1 = inputs(1);
+    Inputs inputs2 = inputs(2);
+
+    CompletableFuture<Object> result1 =
+        limitedLogic.execute(ImmutableList.of(inputs1)).get(inputs1);
+    CompletableFuture<Object> result2 =
+        limitedLogic.execute(ImmutableList.of(inputs2)).get(inputs2);
+    assertThat(logicResults).containsOnlyKeys(inputs1);
+
+    logicResults.get(inputs1).complete("result_1");
+
+    assertThat(result1).succeedsWithin(1, SECONDS).isEqualTo("result_1");
+    assertThat(queuedCallExecutor.submit(() -> logicResults.get(inputs2).complete("result_2")))
+        .succeedsWithin(1, SECONDS);
+    assertThat(result2).succeedsWithin(1, SECONDS).isEqualTo("result_2");
+    assertThat(executingThreads.get(inputs2)).isEqualTo("queued-call-executor");
+  }
+
+  @Test
+  void execute_queueFull_rejected(TestInfo testInfo) {
+    MainLogic<Object> limitedLogic = limitedLogic(testInfo.getDisplayName(), 0);
+    Inputs inputs1 = inputs(1);
+    Inputs inputs2 = inputs(2);
+
+    limitedLogic.execute(ImmutableList.of(inputs1));
+    CompletableFuture<Object> result2 =
+        limitedLogic.execute(ImmutableList.of(inputs2)).get(inputs2);
+
+    assertThat(result2)
+        .failsWithin(1, SECONDS)
+        .withThrowableOfType(Exception.class)
+        .withRootCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(logicResults).containsOnlyKeys(inputs1);
+  }
+
+  /** Decorates the logic with a concurrency limit fixed at one call */
+  private MainLogic<Object> limitedLogic(String instanceId, int maxQueueSize) {
+    AdaptiveConcurrencyLimiter limiter =
+        new AdaptiveConcurrencyLimiter(instanceId, queuedCallExecutor);
+    limiter.onConfigUpdate(
+        new ConfigProvider() {
+          @SuppressWarnings("unchecked")
+          @Override
+          public <T> Optional<T> getConfig(String key) {
+            return switch (key.substring(instanceId.length())) {
+              case ".concurrency_limit.enabled" -> (Optional<T>) Optional.of(true);
+              case ".concurrency_limit.initial_limit",
+                  ".concurrency_limit.min_limit",
+                  ".concurrency_limit.max_limit" -> (Optional<T>) Optional.of(1);
+              case ".concurrency_limit.max_queue_size" -> (Optional<T>) Optional.of(maxQueueSize);
+              default -> Optional.empty();
+            };
+          }
+        });
+    return limiter.decorateLogic(logic);
+  }
+
+  private static Inputs inputs(int value) {
+    return new Inputs(ImmutableMap.of("input", withValue(value)));
+  }
+}
@@ -0,0 +1,140 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncTimeLimiterTest {
+
+  private static final String INSTANCE_ID = "test_vajram";
+  private static final Inputs SLOW_INPUTS = new Inputs(ImmutableMap.of("input", withValue(1)));
+  private static final Inputs FAST_INPUTS = new Inputs(ImmutableMap.of("input", withValue(2)));
+
+  private HashedWheelTimer timer;
+  private ExecutorService decoratorExecutor;
+
+  /** Never completed by the logic itself */
+  private CompletableFuture<Object> slowResult;
+
+  private MainLogic<Object> logic;
+
+  @BeforeEach
+  void setUp() {
+    this.timer = new HashedWheelTimer("test-timer", Duration.ofMillis(1), 64);
+    this.decoratorExecutor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "decorator-executor"));
+    this.slowResult = new CompletableFuture<>();
+    this.logic =
+        inputsList ->
+            ImmutableMap.of(SLOW_INPUTS, slowResult, FAST_INPUTS, completedFuture("fast"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+    decoratorExecutor.shutdownNow();
+  }
+
+  @Test
+  void execute_resultNotComputedInTime_timesOutOffTimerThread() throws Exception {
+    MainLogic<Object> timeLimitedLogic =
+        timeLimiter(Map.of(INSTANCE_ID + ".time_limiter.timeout_ms", 100)).decorateLogic(logic);
+    AtomicReference<String> completingThread = new AtomicReference<>();
+    CountDownLatch completed = new CountDownLatch(1);
+
+    ImmutableMap<Inputs, CompletableFuture<Object>> results =
+        timeLimitedLogic.execute(ImmutableList.of(SLOW_INPUTS, FAST_INPUTS));
+    CompletableFuture<Object> result = results.get(SLOW_INPUTS);
+    result.whenComplete(
+        (o, throwable) -> {
+          completingThread.set(Thread.currentThread().getName());
+          completed.countDown();
+        });
+
+    // Awaiting the latch (rather than the future) ensures that the test thread does not run the
+    // callbacks of the future itself
+    assertThat(completed.await(1, SECONDS)).isTrue();
+    assertThat(result)
+        .failsWithin(0, SECONDS)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(TimeoutException.class);
+    assertThat(completingThread).hasValue("decorator-executor");
+    assertThat(results.get(FAST_INPUTS)).isCompletedWithValue("fast");
+    // The result of the decorated logic is not cancelled, since it may be shared
+    assertThat(slowResult).isNotCancelled();
+  }
+
+  @Test
+  void execute_resultComputedInTime_resultNotTimedOut() throws Exception {
+    MainLogic<Object> timeLimitedLogic =
+        timeLimiter(Map.of(INSTANCE_ID + ".time_limiter.timeout_ms", 100)).decorateLogic(logic);
+
+    CompletableFuture<Object> result =
+        timeLimitedLogic.execute(ImmutableList.of(SLOW_INPUTS)).get(SLOW_INPUTS);
+    slowResult.complete("slow");
+    Thread.sleep(200);
+
+    assertThat(result).isCompletedWithValue("slow");
+  }
+
+  @Test
+  void execute_timeLimiterDisabled_resultsNotDecorated() {
+    MainLogic<Object> timeLimitedLogic =
+        timeLimiter(
+                Map.of(
+                    INSTANCE_ID + ".time_limiter.timeout_ms",
+                    10,
+                    INSTANCE_ID + ".time_limiter.enabled",
+                    false))
+            .decorateLogic(logic);
+
+    CompletableFuture<Object> result =
+        timeLimitedLogic.execute(ImmutableList.of(SLOW_INPUTS)).get(SLOW_INPUTS);
+
+    assertThat(result).isSameAs(slowResult);
+  }
+
+  @Test
+  void execute_timeoutNotConfigured_resultsNotDecorated() {
+    MainLogic<Object> timeLimitedLogic = timeLimiter(Map.of()).decorateLogic(logic);
+
+    CompletableFuture<Object> result =
+        timeLimitedLogic.execute(ImmutableList.of(SLOW_INPUTS)).get(SLOW_INPUTS);
+
+    assertThat(result).isSameAs(slowResult);
+  }
+
+  private AsyncTimeLimiter timeLimiter(Map<String, Object> configs) {
+    AsyncTimeLimiter timeLimiter = new AsyncTimeLimiter(INSTANCE_ID, timer, decoratorExecutor);
+    timeLimiter.onConfigUpdate(
+        new ConfigProvider() {
+          @SuppressWarnings("unchecked")
+          @Override
+          public <T> Optional<T> getConfig(String key) {
+            return Optional.ofNullable((T) configs.get(key));
+          }
+        });
+    return timeLimiter;
+  }
+}
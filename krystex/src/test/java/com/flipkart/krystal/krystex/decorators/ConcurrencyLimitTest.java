@@ -0,0 +1,131 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitTest {
+
+  private static final long FAST = Duration.ofMillis(1).toNanos();
+  private static final long SLOW = Duration.ofMillis(10).toNanos();
+
+  @Test
+  void release_stableLatenciesAtFullUtilization_growsLimit() {
+    ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(10, 1, 100, 0);
+
+    completeAtFullUtilization(concurrencyLimit, FAST, 50);
+
+    assertTrue(concurrencyLimit.limit() > 10, "Limit: " + concurrencyLimit.limit());
+  }
+
+  @Test
+  void release_stableLatenciesAtFullUtilization_limitBoundedByMax() {
+    ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(10, 1, 100, 0);
+
+    completeAtFullUtilization(concurrencyLimit, FAST, 500);
+
+    assertEquals(100, concurrencyLimit.limit());
+  }
+
+  @Test
+  void release_latenciesIncrease_shrinksLimit() {
+    ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(10, 1, 100, 0);
+    completeAtFullUtilization(concurrencyLimit, FAST, 50);
+    int limitBeforeSlowdown = concurrencyLimit.limit();
+
+    completeAtFullUtilization(concurrencyLimit, SLOW, 50);
+
+    assertTrue(
+        concurrencyLimit.limit() < limitBeforeSlowdown,
+        "Limit %s, before slowdown %s".formatted(concurrencyLimit.limit(), limitBeforeSlowdown));
+  }
+
+  @Test
+  void release_limitNotUtilized_limitUnchanged() {
+    ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(10, 1, 100, 0);
+
+    for (int i = 0; i < 50; i++) {
+      assertTrue(concurrencyLimit.tryAcquire());
+      concurrencyLimit.release(FAST);
+    }
+
+    assertEquals(10, concurrencyLimit.limit());
+  }
+
+  @Test
+  void enqueue_limitReached_queuedExecutionDispatchedToItsExecutorOnRelease() {
+    ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(1, 1, 1, 1);
+    List<Runnable> dispatched = new ArrayList<>();
+    AtomicInteger executions = new AtomicInteger();
+
+    assertTrue(concurrencyLimit.tryAcquire());
+    assertFalse(concurrencyLimit.tryAcquire());
+    assertTrue(concurrencyLimit.enqueue(executions::incrementAndGet, dispatched::add));
+    assertEquals(1, concurrencyLimit.queueSize());
+
+    concurrencyLimit.release(FAST);
+
+    // The queued execution is handed to its executor, and not run by the releasing thread
+    assertEquals(1, dispatched.size());
+    assertEquals(0, executions.get());
+    assertEquals(0, concurrencyLimit.queueSize());
+    assertEquals(1, concurrencyLimit.inFlight());
+    dispatched.get(0).run();
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  void enqueue_queueFull_rejected() {
+    ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(1, 1, 1, 1);
+
+    assertTrue(concurrencyLimit.tryAcquire());
+    assertTrue(concurrencyLimit.enqueue(() -> {}, Runnable::run));
+    assertFalse(concurrencyLimit.enqueue(() -> {}, Runnable::run));
+    assertEquals(1, concurrencyLimit.queueSize());
+  }
+
+  @Test
+  void release_queuedExecutionsReleaseSynchronously_stackDoesNotGrowWithQueue() {
+    int queueSize = 100_000;
+    ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(1, 1, 1, queueSize);
+    List<Runnable> dispatched = new ArrayList<>();
+    AtomicInteger executions = new AtomicInteger();
+    assertTrue(concurrencyLimit.tryAcquire());
+    for (int i = 0; i < queueSize; i++) {
+      concurrencyLimit.enqueue(
+          () -> {
+            executions.incrementAndGet();
+            concurrencyLimit.release(FAST);
+          },
+          dispatched::add);
+    }
+
+    concurrencyLimit.release(FAST);
+    // Drain the dispatched executions the way an executor would - one after the other
+    for (int i = 0; i < dispatched.size(); i++) {
+      dispatched.get(i).run();
+    }
+
+    assertEquals(queueSize, executions.get());
+    assertEquals(0, concurrencyLimit.inFlight());
+  }
+
+  /**
+   * Completes executions one at a time with the given latency, starting new executions so that the
+   * limit is always fully utilized.
+   */
+  private static void completeAtFullUtilization(
+      ConcurrencyLimit concurrencyLimit, long latencyNanos, int completions) {
+    while (concurrencyLimit.tryAcquire()) {}
+    for (int i = 0; i < completions; i++) {
+      concurrencyLimit.release(latencyNanos);
+      while (concurrencyLimit.tryAcquire()) {}
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void percentileNanos_noSamples_returnsZero() {
+    assertEquals(0, new LatencyHistogram(100).percentileNanos(99));
+  }
+
+  @Test
+  void percentileNanos_latenciesBelowEightMicros_exact() {
+    LatencyHistogram latencyHistogram = new LatencyHistogram(100);
+    for (int micros = 0; micros < 8; micros++) {
+      latencyHistogram.record(micros * 1000L);
+    }
+
+    assertEquals(3_000, latencyHistogram.percentileNanos(50));
+    assertEquals(7_000, latencyHistogram.percentileNanos(100));
+  }
+
+  @Test
+  void percentileNanos_uniformLatencies_upperBoundOfPercentileBucket() {
+    LatencyHistogram latencyHistogram = new LatencyHistogram(1000);
+    for (int micros = 1; micros <= 100; micros++) {
+      latencyHistogram.record(micros * 1000L);
+    }
+
+    // 50us falls in the bucket [48us, 51us]
+    assertEquals(51_000, latencyHistogram.percentileNanos(50));
+    // 90us falls in the bucket [88us, 95us]
+    assertEquals(95_000, latencyHistogram.percentileNanos(90));
+    // 99us and 100us fall in the bucket [96us, 103us]
+    assertEquals(103_000, latencyHistogram.percentileNanos(99));
+    assertEquals(103_000, latencyHistogram.percentileNanos(100));
+  }
+
+  @Test
+  void percentileNanos_anyLatency_overestimatedByAtMostOneEighth() {
+    for (long micros = 1; micros < 1_000_000; micros = micros * 3 / 2 + 1) {
+      LatencyHistogram latencyHistogram = new LatencyHistogram(100);
+      latencyHistogram.record(micros * 1000);
+
+      long estimateMicros = latencyHistogram.percentileNanos(100) / 1000;
+      assertTrue(estimateMicros >= micros, "Underestimated " + micros);
+      assertTrue(estimateMicros <= micros + micros / 8, "Overestimated " + micros);
+    }
+  }
+
+  @Test
+  void record_windowFilled_olderHalfDiscarded() {
+    LatencyHistogram latencyHistogram = new LatencyHistogram(4);
+    latencyHistogram.record(1_000_000);
+    latencyHistogram.record(1_000_000);
+    latencyHistogram.record(10_000);
+    latencyHistogram.record(10_000);
+
+    assertEquals(2, latencyHistogram.sampleCount());
+    assertEquals(10_000, latencyHistogram.percentileNanos(100));
+  }
+}
@@ -0,0 +1,143 @@
+package com.flipkart.krystal.krystex.decorators;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class RequestHedgingTest {
+
+  private static final Inputs INPUTS = new Inputs(ImmutableMap.of("input", withValue(1)));
+
+  private HashedWheelTimer timer;
+  private ExecutorService hedgingExecutor;
+
+  /** The names of the threads on which the logic was executed, in order of execution */
+  private List<String> executingThreads;
+
+  private CompletableFuture<Object> primaryResult;
+  private MainLogic<Object> logic;
+
+  @BeforeEach
+  void setUp() {
+    this.timer = new HashedWheelTimer("test-timer", Duration.ofMillis(1), 64);
+    this.hedgingExecutor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "hedging-executor"));
+    this.executingThreads = new CopyOnWriteArrayList<>();
+    // The first execution never completes, every later execution completes immediately
+    this.primaryResult = new CompletableFuture<>();
+    this.logic =
+        inputsList -> {
+          executingThreads.add(Thread.currentThread().getName());
+          return ImmutableMap.of(
+              INPUTS, executingThreads.size() == 1 ? primaryResult : completedFuture("hedged"));
+        };
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+    hedgingExecutor.shutdownNow();
+  }
+
+  @Test
+  void execute_slowerThanPercentile_hedgedOffTimerThread(TestInfo testInfo) {
+    String instanceId = testInfo.getDisplayName();
+    recordLatencies(instanceId, 100, Duration.ofMillis(1));
+    MainLogic<Object> hedgedLogic =
+        enabledHedging(instanceId, new HedgeBudget(1, 1)).decorateLogic(logic);
+
+    CompletableFuture<Object> result = hedgedLogic.execute(ImmutableList.of(INPUTS)).get(INPUTS);
+
+    assertThat(result).succeedsWithin(1, SECONDS).isEqualTo("hedged");
+    assertThat(executingThreads).hasSize(2);
+    assertThat(executingThreads.get(1)).isEqualTo("hedging-executor");
+    // The losing execution is not cancelled, since its futures may be shared
+    assertThat(primaryResult).isNotCancelled();
+  }
+
+  @Test
+  void execute_hedgeBudgetExhausted_notHedged(TestInfo testInfo) throws Exception {
+    String instanceId = testInfo.getDisplayName();
+    recordLatencies(instanceId, 100, Duration.ofMillis(1));
+    MainLogic<Object> hedgedLogic =
+        enabledHedging(instanceId, new HedgeBudget(0.01, 1)).decorateLogic(logic);
+
+    CompletableFuture<Object> result = hedgedLogic.execute(ImmutableList.of(INPUTS)).get(INPUTS);
+    Thread.sleep(100);
+
+    assertThat(result).isNotDone();
+    assertThat(executingThreads).hasSize(1);
+    primaryResult.complete("primary");
+    assertThat(result).succeedsWithin(1, SECONDS).isEqualTo("primary");
+  }
+
+  @Test
+  void execute_tooFewLatencySamples_notHedged(TestInfo testInfo) {
+    String instanceId = testInfo.getDisplayName();
+    recordLatencies(instanceId, 99, Duration.ofMillis(1));
+    MainLogic<Object> hedgedLogic =
+        enabledHedging(instanceId, new HedgeBudget(1, 1)).decorateLogic(logic);
+
+    CompletableFuture<Object> result = hedgedLogic.execute(ImmutableList.of(INPUTS)).get(INPUTS);
+
+    assertThat(result).isSameAs(primaryResult);
+  }
+
+  @Test
+  void hedgeBudget_depositsBoundedByMaxBurst() {
+    HedgeBudget hedgeBudget = new HedgeBudget(0.5, 1);
+    assertThat(hedgeBudget.tryAcquire()).isFalse();
+
+    hedgeBudget.onPrimaryExecution();
+    assertThat(hedgeBudget.tryAcquire()).isFalse();
+    hedgeBudget.onPrimaryExecution();
+    hedgeBudget.onPrimaryExecution();
+    hedgeBudget.onPrimaryExecution();
+    assertThat(hedgeBudget.tryAcquire()).isTrue();
+    // Deposits beyond the max burst of one hedge are discarded
+    assertThat(hedgeBudget.tryAcquire()).isFalse();
+  }
+
+  private RequestHedging enabledHedging(String instanceId, HedgeBudget hedgeBudget) {
+    RequestHedging requestHedging =
+        new RequestHedging(instanceId, hedgeBudget, timer, hedgingExecutor);
+    requestHedging.onConfigUpdate(
+        new ConfigProvider() {
+          @SuppressWarnings("unchecked")
+          @Override
+          public <T> Optional<T> getConfig(String key) {
+            if (key.equals(instanceId + ".hedging.enabled")) {
+              return (Optional<T>) Optional.of(true);
+            }
+            return Optional.empty();
+          }
+        });
+    return requestHedging;
+  }
+
+  private static void recordLatencies(String instanceId, int count, Duration latency) {
+    LatencyHistogram latencyHistogram = RequestHedging.latencyHistogram(instanceId);
+    for (int i = 0; i < count; i++) {
+      latencyHistogram.record(latency.toNanos());
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Inputs;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+class LruCacheStoreTest {
+
+  private static final long FAR_FUTURE = Long.MAX_VALUE;
+
+  @Test
+  void put_whenFull_evictsLeastRecentlyPutEntry() {
+    LruCacheStore store = new LruCacheStore(2, 1);
+    store.put(inputs(1), result("1"));
+    store.put(inputs(2), result("2"));
+    store.put(inputs(3), result("3"));
+
+    assertThat(store.get(inputs(1))).isNull();
+    assertThat(store.get(inputs(2))).isEqualTo(result("2"));
+    assertThat(store.get(inputs(3))).isEqualTo(result("3"));
+    assertThat(store.size()).isEqualTo(2);
+  }
+
+  @Test
+  void put_whenFull_evictsLeastRecentlyReadEntry() {
+    LruCacheStore store = new LruCacheStore(2, 1);
+    store.put(inputs(1), result("1"));
+    store.put(inputs(2), result("2"));
+    store.get(inputs(1));
+    store.put(inputs(3), result("3"));
+
+    assertThat(store.get(inputs(1))).isEqualTo(result("1"));
+    assertThat(store.get(inputs(2))).isNull();
+    assertThat(store.get(inputs(3))).isEqualTo(result("3"));
+  }
+
+  @Test
+  void put_existingEntry_replacedWithoutEviction() {
+    LruCacheStore store = new LruCacheStore(2, 1);
+    store.put(inputs(1), result("1"));
+    store.put(inputs(2), result("2"));
+    store.put(inputs(1), result("1'"));
+
+    assertThat(store.get(inputs(1))).isEqualTo(result("1'"));
+    assertThat(store.get(inputs(2))).isEqualTo(result("2"));
+    assertThat(store.size()).isEqualTo(2);
+  }
+
+  @Test
+  void remove_entryRemoved() {
+    LruCacheStore store = new LruCacheStore(2, 1);
+    store.put(inputs(1), result("1"));
+    store.remove(inputs(1));
+
+    assertThat(store.get(inputs(1))).isNull();
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  void put_manyEntriesAcrossSegments_sizeBoundedByMaxEntries() {
+    LruCacheStore store = new LruCacheStore(100);
+    for (int i = 0; i < 10_000; i++) {
+      store.put(inputs(i), result(String.valueOf(i)));
+    }
+
+    assertThat(store.size()).isBetween(1L, 100L);
+    // The most recently put entry is never evicted
+    assertThat(store.get(inputs(9_999))).isEqualTo(result("9999"));
+  }
+
+  private static CachedResult result(String value) {
+    return new CachedResult(value, FAR_FUTURE, FAR_FUTURE);
+  }
+
+  private static Inputs inputs(int i) {
+    return new Inputs(ImmutableMap.of("input", withValue(i)));
+  }
+}
@@ -0,0 +1,153 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Inputs;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedCacheStoreTest {
+
+  private static final long FAR_FUTURE = Long.MAX_VALUE;
+
+  @TempDir Path directory;
+
+  @Test
+  void get_afterPut_returnsDecodedResult() throws IOException {
+    try (MappedCacheStore store = newStore(100)) {
+      Object value = List.of("a", 1, 2L, 3.0, true, Map.of("k", "v"));
+      store.put(inputs(1), new CachedResult(value, 10, FAR_FUTURE));
+      store.put(inputs(2), new CachedResult(null, 10, FAR_FUTURE));
+
+      assertThat(store.get(inputs(1))).isEqualTo(new CachedResult(value, 10, FAR_FUTURE));
+      assertThat(store.get(inputs(2))).isEqualTo(new CachedResult(null, 10, FAR_FUTURE));
+      assertThat(store.get(inputs(3))).isNull();
+    }
+  }
+
+  @Test
+  void reopen_restoresUsableEntries() throws IOException {
+    try (MappedCacheStore store = newStore(100)) {
+      store.put(inputs(1), new CachedResult("usable", 10, FAR_FUTURE));
+      store.put(inputs(2), new CachedResult("expired", 0, 1));
+      store.put(inputs(3), new CachedResult("removed", 10, FAR_FUTURE));
+      store.remove(inputs(3));
+    }
+    try (MappedCacheStore store = newStore(100)) {
+      assertThat(store.get(inputs(1))).isEqualTo(new CachedResult("usable", 10, FAR_FUTURE));
+      assertThat(store.get(inputs(2))).isNull();
+      assertThat(store.get(inputs(3))).isNull();
+      assertThat(store.size()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void put_whenFull_evictsUnreferencedEntry() throws IOException {
+    try (MappedCacheStore store = newStore(2)) {
+      store.put(inputs(1), new CachedResult("1", 10, FAR_FUTURE));
+      store.put(inputs(2), new CachedResult("2", 10, FAR_FUTURE));
+      store.get(inputs(1));
+      store.put(inputs(3), new CachedResult("3", 10, FAR_FUTURE));
+
+      assertThat(store.get(inputs(1))).isNotNull();
+      assertThat(store.get(inputs(2))).isNull();
+      assertThat(store.get(inputs(3))).isNotNull();
+    }
+  }
+
+  @Test
+  void put_segmentReused_onlyEntriesLastWrittenToSegmentDropped() throws IOException {
+    // Three records fit in a segment
+    String value = "v".repeat(20_000);
+    try (MappedCacheStore store = newStore(100)) {
+      store.put(inputs(1), new CachedResult(value, 10, FAR_FUTURE));
+      store.put(inputs(2), new CachedResult(value, 10, FAR_FUTURE));
+      store.put(inputs(1), new CachedResult(value, 10, FAR_FUTURE));
+      // Starts the second segment
+      store.put(inputs(3), new CachedResult(value, 10, FAR_FUTURE));
+      store.put(inputs(4), new CachedResult(value, 10, FAR_FUTURE));
+      // Moves the entry to the second segment
+      store.put(inputs(1), new CachedResult(value, 10, FAR_FUTURE));
+      // Reuses the first segment
+      store.put(inputs(5), new CachedResult(value, 10, FAR_FUTURE));
+
+      assertThat(store.get(inputs(1))).isNotNull();
+      assertThat(store.get(inputs(2))).isNull();
+      assertThat(store.get(inputs(3))).isNotNull();
+      assertThat(store.get(inputs(4))).isNotNull();
+      assertThat(store.get(inputs(5))).isNotNull();
+      assertThat(store.size()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void close_storeEmptiedAndWritesIgnored() throws IOException {
+    MappedCacheStore store = newStore(100);
+    store.put(inputs(1), new CachedResult("1", 10, FAR_FUTURE));
+
+    store.close();
+    store.put(inputs(2), new CachedResult("2", 10, FAR_FUTURE));
+    store.remove(inputs(1));
+    store.close();
+
+    assertThat(store.get(inputs(1))).isNull();
+    assertThat(store.get(inputs(2))).isNull();
+    assertThat(store.size()).isEqualTo(0);
+    try (MappedCacheStore reopened = newStore(100)) {
+      assertThat(reopened.get(inputs(1))).isEqualTo(new CachedResult("1", 10, FAR_FUTURE));
+    }
+  }
+
+  // @Test
+  void offHeapVsOnHeap_underGcLoad_benchmark() throws Exception {
+    int entryCount = 100_000;
+    int loopCount = 5_000_000;
+    byte[] payload = new byte[4096];
+    try (MappedCacheStore mappedStore = new MappedCacheStore(directory, entryCount)) {
+      for (CacheStore store : List.of(new LruCacheStore(entryCount), mappedStore)) {
+        for (int i = 0; i < entryCount; i++) {
+          store.put(inputs(i), new CachedResult(payload, FAR_FUTURE, FAR_FUTURE));
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread garbageGenerator =
+            new Thread(
+                () -> {
+                  while (running.get()) {
+                    byte[][] garbage = new byte[1024][];
+                    for (int i = 0; i < garbage.length; i++) {
+                      garbage[i] = new byte[1024];
+                    }
+                  }
+                });
+        garbageGenerator.start();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < loopCount; i++) {
+          store.get(inputs(ThreadLocalRandom.current().nextInt(entryCount)));
+        }
+        long time = System.nanoTime() - startTime;
+        running.set(false);
+        garbageGenerator.join();
+        System.out.printf(
+            "%s: %,d ns per lookup%n", store.getClass().getSimpleName(), time / loopCount);
+      }
+    }
+  }
+
+  private MappedCacheStore newStore(int maxEntries) throws IOException {
+    return new MappedCacheStore(
+        directory, maxEntries, 64 * 1024, 2, new BinaryCacheCodec(), Clock.systemUTC());
+  }
+
+  private static Inputs inputs(int i) {
+    return new Inputs(ImmutableMap.of("input", withValue(i)));
+  }
+}
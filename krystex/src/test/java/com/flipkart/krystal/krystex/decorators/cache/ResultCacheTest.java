@@ -0,0 +1,240 @@
+package com.flipkart.krystal.krystex.decorators.cache;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.MapConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResultCacheTest {
+
+  private static final String INSTANCE_ID = "test_vajram";
+  private static final Inputs INPUTS = new Inputs(ImmutableMap.of("input", withValue(1)));
+
+  private TestClock clock;
+
+  /** The inputs of every execution of the decorated logic, in order of execution */
+  private List<ImmutableList<Inputs>> executions;
+
+  /** The results returned by the successive executions of the decorated logic */
+  private Queue<CompletableFuture<Object>> results;
+
+  private MainLogic<Object> logic;
+
+  @BeforeEach
+  void setUp() {
+    this.clock = new TestClock();
+    this.executions = new ArrayList<>();
+    this.results = new ArrayDeque<>();
+    this.logic =
+        inputsList -> {
+          executions.add(inputsList);
+          ImmutableMap.Builder<Inputs, CompletableFuture<Object>> resultsByInputs =
+              ImmutableMap.builder();
+          for (Inputs inputs : inputsList) {
+            resultsByInputs.put(inputs, results.remove());
+          }
+          return resultsByInputs.buildOrThrow();
+        };
+  }
+
+  @Test
+  void execute_freshResultCached_hit() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 1000));
+    MainLogic<Object> decorated = resultCache.decorateLogic(logic);
+    results.add(completedFuture("v1"));
+
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+    clock.advance(Duration.ofMillis(999));
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+
+    assertThat(executions).hasSize(1);
+    assertThat(resultCache.misses()).isEqualTo(1);
+    assertThat(resultCache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  void execute_resultExpiredWithinStaleDuration_staleServedAndRefreshed() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 1000, "stale_ms", 5000));
+    MainLogic<Object> decorated = resultCache.decorateLogic(logic);
+    results.add(completedFuture("v1"));
+    execute(decorated).get();
+
+    clock.advance(Duration.ofMillis(1500));
+    CompletableFuture<Object> refreshed = new CompletableFuture<>();
+    results.add(refreshed);
+
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+    // A refresh is already in progress, so it is not triggered again
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+    assertThat(executions).hasSize(2);
+    assertThat(resultCache.staleHits()).isEqualTo(2);
+
+    refreshed.complete("v2");
+
+    assertThat(execute(decorated).get()).isEqualTo("v2");
+    assertThat(executions).hasSize(2);
+    assertThat(resultCache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  void execute_resultExpiredBeyondStaleDuration_miss() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 1000, "stale_ms", 5000));
+    MainLogic<Object> decorated = resultCache.decorateLogic(logic);
+    results.add(completedFuture("v1"));
+    execute(decorated).get();
+
+    clock.advance(Duration.ofMillis(6000));
+    results.add(completedFuture("v2"));
+
+    assertThat(execute(decorated).get()).isEqualTo("v2");
+    assertThat(executions).hasSize(2);
+    assertThat(resultCache.misses()).isEqualTo(2);
+  }
+
+  @Test
+  void execute_emptyResultWithNegativeTtl_cachedForNegativeTtl() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 10_000, "negative_ttl_ms", 1000));
+    MainLogic<Object> decorated = resultCache.decorateLogic(logic);
+    results.add(completedFuture(null));
+
+    assertThat(execute(decorated).get()).isNull();
+    assertThat(execute(decorated).get()).isNull();
+    assertThat(executions).hasSize(1);
+
+    clock.advance(Duration.ofMillis(1000));
+    results.add(completedFuture("v1"));
+
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+    assertThat(executions).hasSize(2);
+  }
+
+  @Test
+  void execute_emptyResultWithoutNegativeTtl_notCached() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 10_000));
+    MainLogic<Object> decorated = resultCache.decorateLogic(logic);
+    results.add(completedFuture(null));
+    results.add(completedFuture("v1"));
+
+    assertThat(execute(decorated).get()).isNull();
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+    assertThat(executions).hasSize(2);
+  }
+
+  @Test
+  void execute_error_notCached() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 10_000));
+    MainLogic<Object> decorated = resultCache.decorateLogic(logic);
+    results.add(failedFuture(new IllegalStateException("failed")));
+    results.add(completedFuture("v1"));
+
+    assertThat(execute(decorated))
+        .failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withRootCauseInstanceOf(IllegalStateException.class);
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+    assertThat(executions).hasSize(2);
+  }
+
+  @Test
+  void execute_logicThrows_errorPropagatedAndNotCached() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 10_000));
+    MainLogic<Object> decorated =
+        resultCache.decorateLogic(
+            inputsList -> {
+              executions.add(inputsList);
+              throw new IllegalStateException("failed");
+            });
+
+    assertThat(execute(decorated)).isCompletedExceptionally();
+    assertThat(execute(decorated)).isCompletedExceptionally();
+    assertThat(executions).hasSize(2);
+  }
+
+  @Test
+  void execute_concurrentMisses_logicExecutedOnce() throws Exception {
+    ResultCache resultCache = resultCache(Map.of("ttl_ms", 10_000));
+    MainLogic<Object> decorated = resultCache.decorateLogic(logic);
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    results.add(result);
+
+    CompletableFuture<Object> first = execute(decorated);
+    CompletableFuture<Object> second = execute(decorated);
+
+    assertThat(executions).hasSize(1);
+    assertThat(first).isNotDone();
+    assertThat(second).isNotDone();
+
+    result.complete("v1");
+
+    assertThat(first.get()).isEqualTo("v1");
+    assertThat(second.get()).isEqualTo("v1");
+    assertThat(execute(decorated).get()).isEqualTo("v1");
+    assertThat(executions).hasSize(1);
+    assertThat(resultCache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  void decorateLogic_noTtlConfigured_logicNotDecorated() {
+    ResultCache resultCache = resultCache(Map.of());
+
+    assertThat(resultCache.decorateLogic(logic)).isSameAs(logic);
+  }
+
+  private ResultCache resultCache(Map<String, Object> configs) {
+    ImmutableMap.Builder<String, Object> prefixedConfigs = ImmutableMap.builder();
+    configs.forEach(
+        (key, value) -> prefixedConfigs.put(INSTANCE_ID + ".result_cache." + key, value));
+    ResultCache resultCache = new ResultCache(INSTANCE_ID, new LruCacheStore(100), clock);
+    resultCache.onConfigUpdate(new MapConfigProvider(prefixedConfigs.buildOrThrow()));
+    return resultCache;
+  }
+
+  private static CompletableFuture<Object> execute(MainLogic<Object> decorated) {
+    return decorated.execute(ImmutableList.of(INPUTS)).get(INPUTS);
+  }
+
+  /** A clock which only moves when it is advanced by the test */
+  private static final class TestClock extends Clock {
+
+    private Instant instant = Instant.ofEpochMilli(1_000_000);
+
+    private void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
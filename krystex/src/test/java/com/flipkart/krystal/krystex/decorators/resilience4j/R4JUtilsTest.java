@@ -0,0 +1,167 @@
+package com.flipkart.krystal.krystex.decorators.resilience4j;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static com.flipkart.krystal.krystex.decorators.resilience4j.R4JUtils.executeDecorated;
+import static io.github.resilience4j.decorators.Decorators.ofCompletionStage;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.function.Function.identity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.decorators.Decorators.DecorateCompletionStage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class R4JUtilsTest {
+
+  @Test
+  void executeDecorated_permitted_returnsResultsOfLogic() {
+    CompletableFuture<Object> pending = new CompletableFuture<>();
+    ImmutableList<Inputs> inputsList = inputsList(2);
+    ImmutableMap<Inputs, CompletableFuture<Object>> logicResults =
+        ImmutableMap.of(
+            inputsList.get(0), CompletableFuture.completedFuture("done"),
+            inputsList.get(1), pending);
+    Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom().maxConcurrentCalls(1).build());
+
+    ImmutableMap<Inputs, CompletableFuture<Object>> results =
+        executeDecorated(
+            ignored -> logicResults, inputsList, decoration -> decoration.withBulkhead(bulkhead));
+
+    assertThat(results).isSameAs(logicResults);
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(0);
+    pending.complete("done");
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+  }
+
+  @Test
+  void executeDecorated_rejected_failsAllInputs() {
+    ImmutableList<Inputs> inputsList = inputsList(3);
+    Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom().maxConcurrentCalls(0).build());
+
+    ImmutableMap<Inputs, CompletableFuture<Object>> results =
+        executeDecorated(
+            R4JUtilsTest::completedResults,
+            inputsList,
+            decoration -> decoration.withBulkhead(bulkhead));
+
+    assertThat(results.keySet()).containsExactlyElementsOf(inputsList);
+    results
+        .values()
+        .forEach(
+            result ->
+                assertThat(result)
+                    .failsWithin(1, SECONDS)
+                    .withThrowableOfType(Exception.class)
+                    .withRootCauseInstanceOf(BulkheadFullException.class));
+  }
+
+  // @Test
+  void batchOverhead_benchmark() {
+    int inputCount = 1_000_000;
+    for (int batchSize : new int[] {1, 10, 1000}) {
+      ImmutableList<Inputs> inputsList = inputsList(batchSize);
+      int loopCount = inputCount / batchSize;
+      Bulkhead bulkhead = Bulkhead.ofDefaults("bulkhead");
+      CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("circuitBreaker");
+      MainLogic<Object> logic = R4JUtilsTest::completedResults;
+      MainLogic<Object> chainedLogic =
+          chainPerInput(
+              chainPerInput(logic, decoration -> decoration.withBulkhead(bulkhead)),
+              decoration -> decoration.withCircuitBreaker(circuitBreaker));
+      MainLogic<Object> batchedLogic =
+          in2 ->
+              executeDecorated(
+                  in1 ->
+                      executeDecorated(logic, in1, decoration -> decoration.withBulkhead(bulkhead)),
+                  in2,
+                  decoration -> decoration.withCircuitBreaker(circuitBreaker));
+      // Warm up
+      benchmark(logic, inputsList, loopCount);
+      benchmark(chainedLogic, inputsList, loopCount);
+      benchmark(batchedLogic, inputsList, loopCount);
+
+      long undecoratedTime = benchmark(logic, inputsList, loopCount);
+      long chainedTime = benchmark(chainedLogic, inputsList, loopCount);
+      long batchedTime = benchmark(batchedLogic, inputsList, loopCount);
+      System.out.printf(
+          "Batch size %,d: per-input overhead of per-input chains: %,.0f ns, of batch completion:"
+              + " %,.0f ns%n",
+          batchSize,
+          (1.0 * chainedTime - undecoratedTime) / inputCount,
+          (1.0 * batchedTime - undecoratedTime) / inputCount);
+    }
+  }
+
+  private static long benchmark(
+      MainLogic<Object> logic, ImmutableList<Inputs> inputsList, int loopCount) {
+    CompletableFuture<?>[] futures = new CompletableFuture[loopCount];
+    long startTime = System.nanoTime();
+    for (int i = 0; i < loopCount; i++) {
+      futures[i] = allOf(logic.execute(inputsList).values().toArray(CompletableFuture[]::new));
+    }
+    allOf(futures).join();
+    return System.nanoTime() - startTime;
+  }
+
+  /**
+   * Decorates the logic the way resilience4j decorators did before they shared the batch level
+   * completion - by chaining three completion stages per input.
+   */
+  private static MainLogic<Object> chainPerInput(
+      MainLogic<Object> logic,
+      UnaryOperator<DecorateCompletionStage<ImmutableMap<Inputs, CompletableFuture<Object>>>>
+          decoration) {
+    return inputsList -> {
+      CompletionStage<ImmutableMap<Inputs, CompletableFuture<Object>>> completion =
+          decoration
+              .apply(
+                  ofCompletionStage(
+                      () -> {
+                        ImmutableMap<Inputs, CompletableFuture<Object>> result =
+                            logic.execute(inputsList);
+                        return allOf(result.values().toArray(CompletableFuture[]::new))
+                            .handle((unused, throwable) -> result);
+                      }))
+              .get();
+      ImmutableMap.Builder<Inputs, CompletableFuture<Object>> result =
+          ImmutableMap.builderWithExpectedSize(inputsList.size());
+      for (Inputs inputs : inputsList) {
+        result.put(
+            inputs,
+            completion
+                .thenApply(resultMap -> resultMap.get(inputs))
+                .toCompletableFuture()
+                .thenCompose(identity()));
+      }
+      return result.buildOrThrow();
+    };
+  }
+
+  private static ImmutableMap<Inputs, CompletableFuture<Object>> completedResults(
+      ImmutableList<Inputs> inputsList) {
+    ImmutableMap.Builder<Inputs, CompletableFuture<Object>> results =
+        ImmutableMap.builderWithExpectedSize(inputsList.size());
+    for (Inputs inputs : inputsList) {
+      results.put(inputs, CompletableFuture.completedFuture("value"));
+    }
+    return results.buildOrThrow();
+  }
+
+  private static ImmutableList<Inputs> inputsList(int size) {
+    return IntStream.range(0, size)
+        .mapToObj(i -> new Inputs(ImmutableMap.of("input", withValue(i))))
+        .collect(ImmutableList.toImmutableList());
+  }
+}
@@ -0,0 +1,157 @@
+package com.flipkart.krystal.krystex.decorators.resilience4j;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.MainLogicDefinition;
+import com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig;
+import com.flipkart.krystal.krystex.node.KrystalNodeExecutor;
+import com.flipkart.krystal.krystex.node.NodeDefinition;
+import com.flipkart.krystal.krystex.node.NodeDefinitionRegistry;
+import com.flipkart.krystal.krystex.node.NodeLogicId;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class Resilience4JRateLimiterTest {
+  private KrystalNodeExecutor krystalNodeExecutor;
+  private NodeDefinitionRegistry nodeDefinitionRegistry;
+  private LogicDefinitionRegistry logicDefinitionRegistry;
+  private HashedWheelTimer timer;
+  private ExecutorService delayedExecutor;
+
+  /** The name of the thread on which the logic was executed for each input */
+  private Map<Object, String> executingThreads;
+
+  @BeforeEach
+  void setUp() {
+    this.logicDefinitionRegistry = new LogicDefinitionRegistry();
+    this.nodeDefinitionRegistry = new NodeDefinitionRegistry(logicDefinitionRegistry);
+    this.krystalNodeExecutor =
+        new KrystalNodeExecutor(
+            nodeDefinitionRegistry,
+            new LogicDecorationOrdering(ImmutableSet.of()),
+            new ForkJoinExecutorPool(1),
+            "test");
+    this.timer = new HashedWheelTimer("test-timer", Duration.ofMillis(1), 64);
+    this.delayedExecutor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "delayed-executor"));
+    this.executingThreads = new ConcurrentHashMap<>();
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+    delayedExecutor.shutdownNow();
+  }
+
+  @Test
+  void rateLimiter_permitsExhausted_delaysExecutionOffTimerThread() {
+    NodeDefinition nodeDefinition = rateLimitedNode(200, 2000);
+
+    CompletableFuture<Object> callWithinLimit =
+        krystalNodeExecutor.executeNode(
+            nodeDefinition.nodeId(), new Inputs(ImmutableMap.of("input", withValue(1))), "req_1");
+    CompletableFuture<Object> callBeyondLimit =
+        krystalNodeExecutor.executeNode(
+            nodeDefinition.nodeId(), new Inputs(ImmutableMap.of("input", withValue(2))), "req_2");
+    krystalNodeExecutor.flush();
+
+    assertThat(callWithinLimit).succeedsWithin(1, SECONDS).isEqualTo("computed_value");
+    assertThat(callBeyondLimit).succeedsWithin(1, SECONDS).isEqualTo("computed_value");
+    assertThat(executingThreads.get(1)).isNotEqualTo("delayed-executor");
+    assertThat(executingThreads.get(2)).isEqualTo("delayed-executor");
+  }
+
+  @Test
+  void rateLimiter_permitsNotAvailableWithinTimeout_failsWithRequestNotPermitted() {
+    NodeDefinition nodeDefinition = rateLimitedNode(10_000, 0);
+
+    CompletableFuture<Object> callWithinLimit =
+        krystalNodeExecutor.executeNode(
+            nodeDefinition.nodeId(), new Inputs(ImmutableMap.of("input", withValue(1))), "req_1");
+    CompletableFuture<Object> callBeyondLimit =
+        krystalNodeExecutor.executeNode(
+            nodeDefinition.nodeId(), new Inputs(ImmutableMap.of("input", withValue(2))), "req_2");
+    krystalNodeExecutor.flush();
+
+    assertThat(callWithinLimit).succeedsWithin(1, SECONDS).isEqualTo("computed_value");
+    assertThat(callBeyondLimit)
+        .failsWithin(1, SECONDS)
+        .withThrowableOfType(Exception.class)
+        .withRootCauseInstanceOf(RequestNotPermitted.class);
+    assertThat(executingThreads).doesNotContainKey(2);
+  }
+
+  /** Creates a node whose logic is limited to one input per refresh period */
+  private NodeDefinition rateLimitedNode(long refreshPeriodMs, long timeoutMs) {
+    MainLogicDefinition<String> mainLogic =
+        newAsyncLogic(
+            "nodeLogic",
+            Set.of("input"),
+            inputs -> {
+              executingThreads.put(
+                  inputs.getInputValueOrNull("input"), Thread.currentThread().getName());
+              return completedFuture("computed_value");
+            });
+    Resilience4JRateLimiter resilience4JRateLimiter =
+        new Resilience4JRateLimiter("", timer, delayedExecutor);
+    resilience4JRateLimiter.onConfigUpdate(
+        new ConfigProvider() {
+          @SuppressWarnings("unchecked")
+          @Override
+          public <T> Optional<T> getConfig(String key) {
+            return switch (key) {
+              case ".rate_limiter.enabled" -> (Optional<T>) Optional.of(true);
+              case ".rate_limiter.limit_for_period" -> (Optional<T>) Optional.of(1);
+              case ".rate_limiter.limit_refresh_period_ms" -> (Optional<T>)
+                  Optional.of(refreshPeriodMs);
+              case ".rate_limiter.timeout_ms" -> (Optional<T>) Optional.of(timeoutMs);
+              default -> throw new UnsupportedOperationException();
+            };
+          }
+        });
+    mainLogic.registerRequestScopedDecorator(
+        new MainLogicDecoratorConfig(
+            Resilience4JRateLimiter.DECORATOR_TYPE,
+            logicExecutionContext -> true,
+            logicExecutionContext -> "",
+            decoratorContext -> resilience4JRateLimiter));
+    return nodeDefinitionRegistry.newNodeDefinition("node", mainLogic.nodeLogicId());
+  }
+
+  private <T> MainLogicDefinition<T> newAsyncLogic(
+      String nodeId, Set<String> inputs, Function<Inputs, CompletableFuture<T>> logic) {
+    IOLogicDefinition<T> def =
+        new IOLogicDefinition<>(
+            new NodeLogicId(nodeId),
+            inputs,
+            inputsList ->
+                inputsList.stream()
+                    .collect(ImmutableMap.toImmutableMap(Function.identity(), logic)),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addMainLogic(def);
+    return def;
+  }
+}
@@ -2,20 +2,31 @@ package com.flipkart.krystal.krystex.node;
 
 import static com.flipkart.krystal.data.ValueOrError.valueOrError;
 import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static com.flipkart.krystal.utils.RequestPriority.BACKGROUND;
+import static com.flipkart.krystal.utils.RequestPriority.CRITICAL;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.function.Function.identity;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.data.Results;
 import com.flipkart.krystal.krystex.ComputeLogicDefinition;
 import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
 import com.flipkart.krystal.krystex.MainLogicDefinition;
+import com.flipkart.krystal.krystex.RequestId;
+import com.flipkart.krystal.krystex.ResolverCommand;
+import com.flipkart.krystal.krystex.ResolverDefinition;
+import com.flipkart.krystal.krystex.ResolverLogicDefinition;
 import com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -65,6 +76,34 @@ class KrystalNodeExecutorTest {
     assertEquals("computed_value", timedGet(future));
   }
 
+  @Test
+  void requestExecution_requestsOfDifferentPriorities_allCompletedOnFlush() throws Exception {
+    NodeDefinition nodeDefinition =
+        nodeDefinitionRegistry.newNodeDefinition(
+            "node",
+            newComputeLogic(
+                    "nodeLogic",
+                    Set.of("a"),
+                    inputs -> inputs.getInputValue("a").value().orElseThrow())
+                .nodeLogicId());
+
+    CompletableFuture<Object> critical =
+        krystalNodeExecutor.executeNode(
+            nodeDefinition.nodeId(),
+            new Inputs(ImmutableMap.of("a", withValue(1))),
+            "r1",
+            CRITICAL);
+    CompletableFuture<Object> background =
+        krystalNodeExecutor.executeNode(
+            nodeDefinition.nodeId(),
+            new Inputs(ImmutableMap.of("a", withValue(2))),
+            "r2",
+            BACKGROUND);
+    krystalNodeExecutor.flush();
+    assertEquals(1, timedGet(critical));
+    assertEquals(2, timedGet(background));
+  }
+
   @Test
   void requestExecution_unboundInputs_success() throws Exception {
     String logicId = "requestExecution_noDependencies_success_nodeName";
@@ -219,6 +258,152 @@ class KrystalNodeExecutorTest {
     assertEquals("l1:l2:l3:l4:final", timedGet(future));
   }
 
+  @Test
+  void requestExecution_skippedDependency_surfacesSkipNodeException() throws Exception {
+    NodeDefinition dep =
+        nodeDefinitionRegistry.newNodeDefinition(
+            "skipped_dep",
+            newComputeLogic("skipped_dep_logic", ImmutableSet.of("x"), inputs -> "not_skipped")
+                .nodeLogicId());
+    logicDefinitionRegistry.addResolver(
+        new ResolverLogicDefinition(
+            new NodeLogicId("skipping_resolver"),
+            ImmutableSet.of(),
+            inputs -> ResolverCommand.skip("skip_reason"),
+            ImmutableMap.of()));
+    NodeDefinition dependant =
+        nodeDefinitionRegistry.newNodeDefinition(
+            "skipped_dep_dependant",
+            newComputeLogic(
+                    "skipped_dep_dependant_logic",
+                    ImmutableSet.of("dep"),
+                    inputs -> {
+                      Results<Object> depResults = inputs.getDepValue("dep");
+                      return depResults.size() == 0
+                          ? depResults
+                              .skipReason()
+                              .filter(SkipNodeException.class::isInstance)
+                              .map(skipReason -> "skipped:" + skipReason.getMessage())
+                              .orElse("not_skipped")
+                          : "not_skipped";
+                    })
+                .nodeLogicId(),
+            ImmutableMap.of("dep", dep.nodeId()),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    new NodeLogicId("skipping_resolver"),
+                    ImmutableSet.of(),
+                    "dep",
+                    ImmutableSet.of("x"))));
+
+    CompletableFuture<Object> future =
+        krystalNodeExecutor.executeNode(dependant.nodeId(), Inputs.empty(), "r");
+    krystalNodeExecutor.flush();
+    assertEquals("skipped:skip_reason", timedGet(future));
+  }
+
+  @Test
+  void computeCriticalPath_parallelDependencies_followsLastCompletedDependency() {
+    NodeId root = new NodeId("root");
+    NodeId fast = new NodeId("fast");
+    NodeId slow = new NodeId("slow");
+    RequestId requestId = new RequestId("r");
+    NodeExecutionSpan rootSpan = new NodeExecutionSpan(root, requestId, 0, 100);
+    NodeExecutionSpan fastSpan = new NodeExecutionSpan(fast, requestId.append("f[0]"), 10, 30);
+    NodeExecutionSpan slowSpan = new NodeExecutionSpan(slow, requestId.append("s[0]"), 10, 80);
+
+    CriticalPath criticalPath =
+        CriticalPathAnalyzer.computeCriticalPath(
+            rootSpan,
+            List.of(rootSpan, fastSpan, slowSpan),
+            List.of(
+                new DependencyExecution(root, requestId, fast, fastSpan.requestId()),
+                new DependencyExecution(root, requestId, slow, slowSpan.requestId())));
+
+    assertEquals(List.of(rootSpan, slowSpan), criticalPath.spans());
+    assertEquals(ImmutableMap.of(root, 30L, slow, 70L), criticalPath.contributionNanos());
+  }
+
+  @Test
+  void computeCriticalPath_sequentialDependencies_followsGatingDependencies() {
+    NodeId root = new NodeId("root");
+    NodeId first = new NodeId("first");
+    NodeId second = new NodeId("second");
+    RequestId requestId = new RequestId("r");
+    NodeExecutionSpan rootSpan = new NodeExecutionSpan(root, requestId, 0, 100);
+    // 'second' could start only after 'first' completed
+    NodeExecutionSpan firstSpan = new NodeExecutionSpan(first, requestId.append("a"), 10, 40);
+    NodeExecutionSpan secondSpan = new NodeExecutionSpan(second, requestId.append("b"), 45, 90);
+
+    CriticalPath criticalPath =
+        CriticalPathAnalyzer.computeCriticalPath(
+            rootSpan,
+            List.of(rootSpan, firstSpan, secondSpan),
+            List.of(
+                new DependencyExecution(root, requestId, first, firstSpan.requestId()),
+                new DependencyExecution(root, requestId, second, secondSpan.requestId())));
+
+    assertEquals(List.of(rootSpan, firstSpan, secondSpan), criticalPath.spans());
+    assertEquals(
+        ImmutableMap.of(root, 25L, first, 30L, second, 45L), criticalPath.contributionNanos());
+  }
+
+  @Test
+  void close_analyzingCriticalPaths_recordsCriticalPathOfExecutedGraph() throws Exception {
+    CriticalPathAnalyzer criticalPathAnalyzer = new CriticalPathAnalyzer(Duration.ofMinutes(1));
+    KrystalNodeExecutor executor =
+        new KrystalNodeExecutor(
+            nodeDefinitionRegistry,
+            new LogicDecorationOrdering(ImmutableSet.of()),
+            new ForkJoinExecutorPool(1),
+            "critical_path_test",
+            criticalPathAnalyzer);
+    NodeDefinition leaf =
+        nodeDefinitionRegistry.newNodeDefinition(
+            "cp_leaf",
+            newComputeLogic(
+                    "cp_leaf_logic",
+                    ImmutableSet.of(),
+                    dependencyValues -> {
+                      try {
+                        Thread.sleep(50);
+                      } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                      }
+                      return "leaf";
+                    })
+                .nodeLogicId());
+    NodeDefinition mid =
+        nodeDefinitionRegistry.newNodeDefinition(
+            "cp_mid",
+            newComputeLogic("cp_mid_logic", ImmutableSet.of("leaf"), dependencyValues -> "mid")
+                .nodeLogicId(),
+            ImmutableMap.of("leaf", leaf.nodeId()));
+    NodeDefinition root =
+        nodeDefinitionRegistry.newNodeDefinition(
+            "cp_root",
+            newComputeLogic("cp_root_logic", ImmutableSet.of("mid"), dependencyValues -> "root")
+                .nodeLogicId(),
+            ImmutableMap.of("mid", mid.nodeId()));
+
+    CompletableFuture<Object> future = executor.executeNode(root.nodeId(), Inputs.empty(), "r1");
+    executor.close();
+    assertEquals("root", timedGet(future));
+
+    // Critical paths are recorded asynchronously once all the requests of the executor complete
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    ImmutableMap<NodeId, Duration> contributions =
+        criticalPathAnalyzer.getCriticalPathContributions();
+    while (contributions.size() < 3 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      contributions = criticalPathAnalyzer.getCriticalPathContributions();
+    }
+    assertEquals(Set.of(root.nodeId(), mid.nodeId(), leaf.nodeId()), contributions.keySet());
+    // The slow leaf node contributes the most to the critical path
+    assertEquals(leaf.nodeId(), contributions.keySet().iterator().next());
+    assertTrue(contributions.get(leaf.nodeId()).compareTo(Duration.ofMillis(50)) >= 0);
+  }
+
   @Test
   void close_preventsNewExecutionRequests() {
     krystalNodeExecutor.close();
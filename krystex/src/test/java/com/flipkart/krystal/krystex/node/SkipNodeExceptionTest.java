@@ -0,0 +1,31 @@
+package com.flipkart.krystal.krystex.node;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flipkart.krystal.utils.ControlFlowExceptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SkipNodeExceptionTest {
+
+  @AfterEach
+  void tearDown() {
+    ControlFlowExceptions.setStackTracesEnabled(false);
+  }
+
+  @Test
+  void new_stackTracesDisabled_stackless() {
+    SkipNodeException exception = new SkipNodeException("skipped");
+
+    assertEquals(0, exception.getStackTrace().length);
+    assertEquals("skipped", exception.getMessage());
+  }
+
+  @Test
+  void new_stackTracesEnabled_stackTraceCaptured() {
+    ControlFlowExceptions.setStackTracesEnabled(true);
+
+    assertTrue(new SkipNodeException("skipped").getStackTrace().length > 0);
+  }
+}
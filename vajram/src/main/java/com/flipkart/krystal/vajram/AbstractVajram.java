@@ -3,16 +3,27 @@ package com.flipkart.krystal.vajram;
 import static com.flipkart.krystal.vajram.VajramID.vajramID;
 import static com.flipkart.krystal.vajram.Vajrams.getVajramIdString;
 
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.vajram.inputs.DependencyCommand;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 abstract sealed class AbstractVajram<T> implements Vajram<T> permits ComputeVajram, IOVajram {
 
   private VajramID id;
 
+  /** The dependency and resolvable inputs of every resolver, indexed by the id assigned to it */
+  private final List<ResolverKey> resolverKeys = new CopyOnWriteArrayList<>();
+
   @Override
   public final VajramID getId() {
     if (id == null) {
       id =
           vajramID(
-              getVajramIdString(getClass())
+              getMetadata()
+                  .map(VajramMetadata::vajramId)
+                  .or(() -> getVajramIdString(getClass()))
                   .orElseThrow(
                       () ->
                           new IllegalStateException(
@@ -20,4 +31,37 @@ abstract sealed class AbstractVajram<T> implements Vajram<T> permits ComputeVajr
     }
     return id;
   }
+
+  /**
+   * Assigns ids to the resolvers of this vajram in the order in which they are looked up, so that
+   * vajrams which only implement {@link #resolveInputOfDependency(String, ImmutableSet, Inputs)}
+   * can also be dispatched by id. Generated vajram implementations override this to assign ids at
+   * compile time.
+   */
+  @Override
+  public int getResolverId(String dependency, ImmutableSet<String> resolvableInputs) {
+    ResolverKey resolverKey = new ResolverKey(dependency, resolvableInputs);
+    synchronized (resolverKeys) {
+      int resolverId = resolverKeys.indexOf(resolverKey);
+      if (resolverId < 0) {
+        resolverKeys.add(resolverKey);
+        resolverId = resolverKeys.size() - 1;
+      }
+      return resolverId;
+    }
+  }
+
+  /**
+   * Delegates to {@link #resolveInputOfDependency(String, ImmutableSet, Inputs)} with the
+   * dependency and resolvable inputs of the resolver to which the given id was assigned by {@link
+   * #getResolverId(String, ImmutableSet)}.
+   */
+  @Override
+  public DependencyCommand<Inputs> resolveInputOfDependency(int resolverId, Inputs inputs) {
+    ResolverKey resolverKey = resolverKeys.get(resolverId);
+    return resolveInputOfDependency(
+        resolverKey.dependency(), resolverKey.resolvableInputs(), inputs);
+  }
+
+  private record ResolverKey(String dependency, ImmutableSet<String> resolvableInputs) {}
 }
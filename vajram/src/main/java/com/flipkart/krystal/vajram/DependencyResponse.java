@@ -3,13 +3,31 @@ package com.flipkart.krystal.vajram;
 
 import static com.flipkart.krystal.data.ValueOrError.empty;
 
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.data.Results;
 import com.flipkart.krystal.data.ValueOrError;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public record DependencyResponse<R extends VajramRequest, V>(
     ImmutableMap<R, ValueOrError<V>> responses) {
+
+  /**
+   * Creates a dependency response from the given results by converting the inputs of every request
+   * into a vajram request using the given function.
+   */
+  public static <R extends VajramRequest, V> DependencyResponse<R, V> fromResults(
+      Results<V> results, Function<Inputs, R> requestFactory) {
+    ImmutableMap.Builder<R, ValueOrError<V>> responses =
+        ImmutableMap.builderWithExpectedSize(results.size());
+    for (int i = 0; i < results.size(); i++) {
+      responses.put(requestFactory.apply(results.inputsAt(i)), results.valueOrErrorAt(i));
+    }
+    return new DependencyResponse<>(responses.buildOrThrow());
+  }
+
   public ValueOrError<V> get(R request) {
     return responses.getOrDefault(request, empty());
   }
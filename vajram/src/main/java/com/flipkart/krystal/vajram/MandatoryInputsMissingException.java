@@ -1,9 +1,14 @@
 package com.flipkart.krystal.vajram;
 
+import com.flipkart.krystal.utils.ControlFlowExceptions;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 
+/**
+ * Signals that a vajram did not receive some of its mandatory inputs. This exception does not
+ * capture a stack trace unless {@link ControlFlowExceptions#stackTracesEnabled()}.
+ */
 public class MandatoryInputsMissingException extends RuntimeException {
 
   private final VajramID vajramID;
@@ -12,6 +17,7 @@ public class MandatoryInputsMissingException extends RuntimeException {
 
   public MandatoryInputsMissingException(
       VajramID vajramID, Map<String, Throwable> failedMandatoryInputs) {
+    super(null, null, false, ControlFlowExceptions.stackTracesEnabled());
     this.vajramID = vajramID;
     this.failedMandatoryInputs = ImmutableMap.copyOf(failedMandatoryInputs);
   }
@@ -10,6 +10,7 @@ import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 public sealed interface Vajram<T> permits AbstractVajram {
@@ -23,8 +24,32 @@ public sealed interface Vajram<T> permits AbstractVajram {
     return DependencyCommand.multiExecuteWith(ImmutableList.of());
   }
 
+  /**
+   * Returns the id of the resolver of this vajram which resolves the given inputs of the given
+   * dependency. This is called once per resolver when the vajram graph is built, after which inputs
+   * are resolved using {@link #resolveInputOfDependency(int, Inputs)} without matching the
+   * dependency and input names. Vajrams which override this must also override {@link
+   * #resolveInputOfDependency(int, Inputs)}.
+   */
+  int getResolverId(String dependency, ImmutableSet<String> resolvableInputs);
+
+  /**
+   * Resolves inputs of a dependency using the resolver with the given id.
+   *
+   * @param resolverId An id returned by {@link #getResolverId(String, ImmutableSet)}
+   */
+  DependencyCommand<Inputs> resolveInputOfDependency(int resolverId, Inputs inputs);
+
   VajramID getId();
 
+  /**
+   * Returns the static metadata of this vajram if it is available without reflection (for example,
+   * if it has been generated along with the vajram's implementation).
+   */
+  default Optional<VajramMetadata> getMetadata() {
+    return Optional.empty();
+  }
+
   ImmutableCollection<VajramInputDefinition> getInputDefinitions();
 
   ImmutableMap<Inputs, CompletableFuture<T>> execute(ImmutableList<Inputs> inputs);
@@ -2,15 +2,81 @@ package com.flipkart.krystal.vajram;
 
 import static java.lang.reflect.Modifier.isFinal;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.reflections.Reflections;
 
 public final class VajramLoader {
 
+  /**
+   * Name of the index file generated by the vajram codegen plugin. The file follows the {@link
+   * ServiceLoader} provider-configuration format and lists the fully qualified class names of all
+   * the vajram implementations generated in a compilation unit.
+   *
+   * <p>{@link ServiceLoader} ignores this file for vajrams in named modules. Such modules must
+   * instead declare the generated vajram implementations in their module descriptor ({@code
+   * provides com.flipkart.krystal.vajram.Vajram with ...}). The codegen plugin fails the build if a
+   * module descriptor exists and does not provide all the generated vajram implementations.
+   */
+  public static final String VAJRAM_INDEX_FILE = "META-INF/services/" + Vajram.class.getName();
+
+  /**
+   * Loads all vajrams whose classes are in packages starting with the given prefix.
+   *
+   * <p>Vajrams listed in the {@link #VAJRAM_INDEX_FILE index} generated at build time are loaded
+   * via {@link ServiceLoader}, without scanning the classpath. Only if no indexed vajram is found
+   * in the package is the classpath scanned for vajram implementations (for example, for packages
+   * containing only hand-written vajram implementations).
+   *
+   * @see #loadVajramsFromClassPath(String, boolean)
+   */
   public static List<? extends Vajram> loadVajramsFromClassPath(String packagePrefix) {
+    return loadVajramsFromClassPath(packagePrefix, false);
+  }
+
+  /**
+   * Loads all vajrams whose classes are in packages starting with the given prefix.
+   *
+   * @param scanForUnindexedVajrams If true, the classpath is always scanned for vajram
+   *     implementations which are not in the index (like hand-written vajram implementations in a
+   *     package which also has generated ones), in addition to loading the indexed vajrams. Since
+   *     scanning the classpath is slow, this should be enabled only if such vajrams exist. If
+   *     false, the classpath is scanned only if no indexed vajram is found in the package.
+   */
+  public static List<? extends Vajram> loadVajramsFromClassPath(
+      String packagePrefix, boolean scanForUnindexedVajrams) {
+    List<? extends Vajram> indexedVajrams = loadIndexedVajrams(packagePrefix);
+    if (!scanForUnindexedVajrams) {
+      return indexedVajrams.isEmpty() ? scanClassPath(packagePrefix, Set.of()) : indexedVajrams;
+    }
+    List<Vajram> vajrams = new ArrayList<>(indexedVajrams);
+    Set<Class<?>> indexedClasses =
+        vajrams.stream().map(Vajram::getClass).collect(Collectors.toSet());
+    vajrams.addAll(scanClassPath(packagePrefix, indexedClasses));
+    return vajrams;
+  }
+
+  /**
+   * Loads only those vajrams in packages starting with the given prefix which are listed in the
+   * {@link #VAJRAM_INDEX_FILE index} (or the module descriptors) generated at build time.
+   */
+  public static List<? extends Vajram> loadIndexedVajrams(String packagePrefix) {
+    return ServiceLoader.load(Vajram.class).stream()
+        .filter(provider -> provider.type().getName().startsWith(packagePrefix))
+        .map(Provider::get)
+        .toList();
+  }
+
+  private static List<? extends Vajram> scanClassPath(
+      String packagePrefix, Set<Class<?>> excludedClasses) {
     return new Reflections(packagePrefix)
         .getSubTypesOf(Vajram.class).stream()
             .filter(aClass -> isFinal(aClass.getModifiers()))
+            .filter(aClass -> !excludedClasses.contains(aClass))
             .map(
                 aClass -> {
                   try {
@@ -21,4 +87,6 @@ public final class VajramLoader {
                 })
             .toList();
   }
+
+  private VajramLoader() {}
 }
@@ -0,0 +1,23 @@
+package com.flipkart.krystal.vajram;
+
+import com.flipkart.krystal.logic.LogicTag;
+import com.flipkart.krystal.vajram.inputs.DefaultInputResolverDefinition;
+import com.flipkart.krystal.vajram.inputs.Resolve;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Static metadata of a vajram which would otherwise be read from the annotations of the vajram's
+ * class using reflection. Generated vajram implementations provide this metadata via {@link
+ * Vajram#getMetadata()}, so that vajram graphs can be built without reflection.
+ *
+ * @param vajramId The id of the vajram as declared by {@link VajramDef}
+ * @param inputResolvers The resolvers declared by the {@link Resolve} methods of the vajram. The
+ *     data access specs of the resolution targets are not set - they are taken from the dependency
+ *     definitions of the vajram.
+ * @param logicTags The tags of the vajram logic, including the vajram id and vajram type tags.
+ */
+public record VajramMetadata(
+    String vajramId,
+    ImmutableList<DefaultInputResolverDefinition> inputResolvers,
+    ImmutableMap<String, LogicTag> logicTags) {}
@@ -10,6 +10,7 @@ import com.flipkart.krystal.vajram.IOVajram;
 import com.flipkart.krystal.vajram.Tag;
 import com.flipkart.krystal.vajram.Vajram;
 import com.flipkart.krystal.vajram.VajramLogic;
+import com.flipkart.krystal.vajram.VajramMetadata;
 import com.flipkart.krystal.vajram.inputs.BindFrom;
 import com.flipkart.krystal.vajram.inputs.DefaultInputResolverDefinition;
 import com.flipkart.krystal.vajram.inputs.Dependency;
@@ -36,6 +37,11 @@ import java.util.Optional;
 import java.util.function.Function;
 import lombok.Getter;
 
+/**
+ * The definition of a vajram - its input resolvers and the tags of its logic. These are read from
+ * the {@link Vajram#getMetadata() metadata} of the vajram if available, and otherwise parsed from
+ * the annotations of the vajram's class using reflection.
+ */
 public final class VajramDefinition {
 
   @Getter private final Vajram<?> vajram;
@@ -47,8 +53,32 @@ public final class VajramDefinition {
 
   public VajramDefinition(Vajram<?> vajram) {
     this.vajram = vajram;
-    this.inputResolverDefinitions = ImmutableList.copyOf(parseInputResolvers(vajram));
-    this.mainLogicTags = parseVajramLogicTags(vajram);
+    Optional<VajramMetadata> metadata = vajram.getMetadata();
+    if (metadata.isPresent()) {
+      this.inputResolverDefinitions =
+          ImmutableList.copyOf(inputResolversFromMetadata(vajram, metadata.get()));
+      this.mainLogicTags = metadata.get().logicTags();
+    } else {
+      this.inputResolverDefinitions = ImmutableList.copyOf(parseInputResolvers(vajram));
+      this.mainLogicTags = parseVajramLogicTags(vajram);
+    }
+  }
+
+  private static Collection<InputResolverDefinition> inputResolversFromMetadata(
+      Vajram<?> vajram, VajramMetadata metadata) {
+    List<InputResolverDefinition> inputResolvers =
+        new ArrayList<>(vajram.getSimpleInputResolvers());
+    ImmutableMap<String, Dependency> dependencies = getDependencies(vajram);
+    for (DefaultInputResolverDefinition inputResolver : metadata.inputResolvers()) {
+      QualifiedInputs resolutionTarget = inputResolver.resolutionTarget();
+      inputResolvers.add(
+          createInputResolver(
+              dependencies,
+              resolutionTarget.dependencyName(),
+              resolutionTarget.inputNames(),
+              inputResolver.sources()));
+    }
+    return inputResolvers;
   }
 
   private static Collection<InputResolverDefinition> parseInputResolvers(Vajram<?> vajram) {
@@ -59,21 +89,10 @@ public final class VajramDefinition {
             .filter(method -> method.isAnnotationPresent(Resolve.class))
             .collect(toImmutableSet());
 
-    ImmutableMap<String, Dependency> inputDefinitions =
-        vajram.getInputDefinitions().stream()
-            .filter(vi -> vi instanceof Dependency)
-            .map(vi -> (Dependency) vi)
-            .collect(toImmutableMap(VajramInputDefinition::name, Function.identity()));
+    ImmutableMap<String, Dependency> dependencies = getDependencies(vajram);
 
     for (Method resolverMethod : resolverMethods) {
       Resolve resolver = resolverMethod.getAnnotation(Resolve.class);
-      String targetDependency = resolver.value();
-      Dependency dependency = inputDefinitions.get(targetDependency);
-      if (dependency == null) {
-        throw new IllegalStateException(
-            "Could not find dependency with name %s".formatted(targetDependency));
-      }
-      String[] targetInputs = resolver.inputs();
       ImmutableSet<String> sources =
           Arrays.stream(resolverMethod.getParameters())
               .map(Parameter::getAnnotations)
@@ -90,16 +109,33 @@ public final class VajramDefinition {
               .map(BindFrom::value)
               .collect(toImmutableSet());
       inputResolvers.add(
-          new DefaultInputResolverDefinition(
-              sources,
-              new QualifiedInputs(
-                  targetDependency,
-                  dependency.dataAccessSpec(),
-                  ImmutableSet.copyOf(targetInputs))));
+          createInputResolver(
+              dependencies, resolver.value(), ImmutableSet.copyOf(resolver.inputs()), sources));
     }
     return inputResolvers;
   }
 
+  private static ImmutableMap<String, Dependency> getDependencies(Vajram<?> vajram) {
+    return vajram.getInputDefinitions().stream()
+        .filter(vi -> vi instanceof Dependency)
+        .map(vi -> (Dependency) vi)
+        .collect(toImmutableMap(VajramInputDefinition::name, Function.identity()));
+  }
+
+  private static InputResolverDefinition createInputResolver(
+      ImmutableMap<String, Dependency> dependencies,
+      String targetDependency,
+      ImmutableSet<String> targetInputs,
+      ImmutableSet<String> sources) {
+    Dependency dependency = dependencies.get(targetDependency);
+    if (dependency == null) {
+      throw new IllegalStateException(
+          "Could not find dependency with name %s".formatted(targetDependency));
+    }
+    return new DefaultInputResolverDefinition(
+        sources, new QualifiedInputs(targetDependency, dependency.dataAccessSpec(), targetInputs));
+  }
+
   private static ImmutableMap<String, LogicTag> parseVajramLogicTags(Vajram<?> vajram) {
     Tag[] tags =
         Arrays.stream(getVajramSourceClass(vajram.getClass()).getDeclaredMethods())
@@ -1,5 +1,6 @@
 package com.flipkart.krystal.vajram.exec;
 
+import com.flipkart.krystal.utils.RequestPriority;
 import com.flipkart.krystal.vajram.ApplicationRequestContext;
 import com.flipkart.krystal.vajram.VajramID;
 import com.flipkart.krystal.vajram.VajramRequest;
@@ -13,6 +14,16 @@ public interface VajramExecutor<C extends ApplicationRequestContext> extends Aut
   <T> CompletableFuture<T> execute(
       VajramID vajramId, Function<C, VajramRequest> vajramInputProviders, String requestId);
 
+  /**
+   * Same as {@link #execute(VajramID, Function, String)}, except that the request is executed
+   * with the given priority relative to other requests sharing the same command queue.
+   */
+  <T> CompletableFuture<T> execute(
+      VajramID vajramId,
+      Function<C, VajramRequest> vajramInputProviders,
+      String requestId,
+      RequestPriority priority);
+
   /** Flushes any pending requests */
   void flush();
 
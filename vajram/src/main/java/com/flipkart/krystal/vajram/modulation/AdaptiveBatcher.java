@@ -0,0 +1,214 @@
+package com.flipkart.krystal.vajram.modulation;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.flipkart.krystal.config.ConfigKey;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A {@link WindowedBatcher} whose limits are tuned at runtime based on the observed latency of the
+ * modulated logic, so that the p99 latency of the modulated inputs stays close to a target while
+ * the number of inputs per call is maximised.
+ *
+ * <ul>
+ *   <li>Batch size is tuned using AIMD (additive increase, multiplicative decrease): every {@value
+ *       #ADJUSTMENT_INTERVAL} completed batches, the p99 latency of the last {@value
+ *       #SAMPLE_WINDOW} batches is computed. If it exceeds the target, the batch size is halved,
+ *       otherwise it is increased by one. The batch size always stays between the min and max
+ *       batch sizes.
+ *   <li>The max wait of the batching window is set to the latency headroom - the difference
+ *       between the target and the observed p99 latency - bounded by the configured max wait. This
+ *       way inputs wait longer for a batch to fill up only when the modulated logic is fast enough
+ *       to afford it.
+ * </ul>
+ *
+ * <p>Latencies are reported by the decorator executing the modulated inputs via {@link
+ * #onModulatedInputCompletion(int, long)}. The current batch size, max wait and observed p99
+ * latency are exposed via accessors so that they can be published as metrics.
+ *
+ * <p>The limits are first adjusted only after {@value #SAMPLE_WINDOW} batches have completed, so
+ * only long-lived instances adapt. Use this modulator with {@code
+ * InputModulatorConfig.sessionScoped(...)}, which shares one instance across all the requests of
+ * a session. Instances created per request rarely see enough batches, and keep batching with the
+ * min batch size and the configured max wait.
+ *
+ * <p>The limits can be updated via {@link #onConfigUpdate(ConfigProvider)} using the keys {@value
+ * #MIN_BATCH_SIZE_CONFIG}, {@value #MAX_BATCH_SIZE_CONFIG}, {@value #MAX_WAIT_MS_CONFIG} and
+ * {@value #TARGET_P99_MS_CONFIG}. This class is thread safe.
+ */
+public final class AdaptiveBatcher<I, C> implements InputModulator<I, C> {
+
+  public static final String MIN_BATCH_SIZE_CONFIG = "min_batch_size";
+  public static final String MAX_BATCH_SIZE_CONFIG = "max_batch_size";
+  public static final String MAX_WAIT_MS_CONFIG = "max_wait_ms";
+  public static final String TARGET_P99_MS_CONFIG = "target_p99_ms";
+
+  private static final ConfigKey<Integer> MIN_BATCH_SIZE = ConfigKey.intKey(MIN_BATCH_SIZE_CONFIG);
+  private static final ConfigKey<Integer> MAX_BATCH_SIZE = ConfigKey.intKey(MAX_BATCH_SIZE_CONFIG);
+  private static final ConfigKey<Long> MAX_WAIT_MS = ConfigKey.longKey(MAX_WAIT_MS_CONFIG);
+  private static final ConfigKey<Long> TARGET_P99_MS = ConfigKey.longKey(TARGET_P99_MS_CONFIG);
+
+  /** Number of most recent batch latencies over which the p99 latency is computed. */
+  static final int SAMPLE_WINDOW = 128;
+
+  /** Number of batch completions between successive adjustments of the limits. */
+  static final int ADJUSTMENT_INTERVAL = 32;
+
+  /** Nearest rank p99 - excludes the slowest batch of the window. */
+  private static final int P99_INDEX = (int) Math.ceil(SAMPLE_WINDOW * 0.99) - 1;
+
+  private final WindowedBatcher<I, C> delegate;
+
+  private final int defaultMinBatchSize;
+  private final int defaultMaxBatchSize;
+  private final Duration defaultMaxWait;
+  private final Duration defaultTargetP99;
+
+  private volatile int minBatchSize;
+  private volatile int maxBatchSize;
+  private volatile long maxWaitNanos;
+  private volatile long targetP99Nanos;
+
+  private volatile int currentBatchSize;
+  private volatile long currentMaxWaitNanos;
+  private volatile long observedP99Nanos;
+
+  /** Ring buffer of the most recent batch latencies. Guarded by {@code this} */
+  private final long[] latencySamples = new long[SAMPLE_WINDOW];
+
+  /** Guarded by {@code this} */
+  private long completedBatches;
+
+  public AdaptiveBatcher(int minBatchSize, int maxBatchSize, Duration maxWait, Duration targetP99) {
+    this(minBatchSize, maxBatchSize, maxWait, targetP99, HashedWheelTimer.shared());
+  }
+
+  public AdaptiveBatcher(
+      int minBatchSize,
+      int maxBatchSize,
+      Duration maxWait,
+      Duration targetP99,
+      HashedWheelTimer timer) {
+    if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+      throw new IllegalArgumentException(
+          "Invalid batch size bounds [%s, %s]".formatted(minBatchSize, maxBatchSize));
+    }
+    this.defaultMinBatchSize = minBatchSize;
+    this.defaultMaxBatchSize = maxBatchSize;
+    this.defaultMaxWait = maxWait;
+    this.defaultTargetP99 = targetP99;
+    this.minBatchSize = minBatchSize;
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.targetP99Nanos = targetP99.toNanos();
+    // Start with the smallest batches so that latency is low until the downstream is observed
+    this.currentBatchSize = minBatchSize;
+    this.currentMaxWaitNanos = maxWaitNanos;
+    this.delegate = WindowedBatcher.hybrid(minBatchSize, maxWait, timer);
+  }
+
+  @Override
+  public ImmutableList<ModulatedInput<I, C>> add(I inputsNeedingModulation, C commonInputs) {
+    return delegate.add(inputsNeedingModulation, commonInputs);
+  }
+
+  @Override
+  public void modulate() {
+    delegate.modulate();
+  }
+
+  @Override
+  public void onModulation(Consumer<ImmutableList<ModulatedInput<I, C>>> listener) {
+    delegate.onModulation(listener);
+  }
+
+  @Override
+  public void onModulation(
+      Consumer<ImmutableList<ModulatedInput<I, C>>> listener, Executor executor) {
+    delegate.onModulation(listener, executor);
+  }
+
+  @Override
+  public boolean modulatesByItself() {
+    return delegate.modulatesByItself();
+  }
+
+  @Override
+  public void onModulatedInputCompletion(int batchSize, long latencyNanos) {
+    synchronized (this) {
+      latencySamples[(int) (completedBatches++ % SAMPLE_WINDOW)] = latencyNanos;
+      if (completedBatches < SAMPLE_WINDOW || completedBatches % ADJUSTMENT_INTERVAL != 0) {
+        return;
+      }
+      long[] sortedSamples = latencySamples.clone();
+      Arrays.sort(sortedSamples);
+      long p99Nanos = sortedSamples[P99_INDEX];
+      this.observedP99Nanos = p99Nanos;
+      adjustLimits(p99Nanos);
+    }
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    int minBatchSize = max(1, configProvider.getConfig(MIN_BATCH_SIZE, defaultMinBatchSize));
+    int maxBatchSize =
+        max(minBatchSize, configProvider.getConfig(MAX_BATCH_SIZE, defaultMaxBatchSize));
+    synchronized (this) {
+      this.minBatchSize = minBatchSize;
+      this.maxBatchSize = maxBatchSize;
+      this.maxWaitNanos = getMillisConfig(configProvider, MAX_WAIT_MS, defaultMaxWait);
+      this.targetP99Nanos = getMillisConfig(configProvider, TARGET_P99_MS, defaultTargetP99);
+      this.currentBatchSize = min(max(currentBatchSize, minBatchSize), maxBatchSize);
+      this.currentMaxWaitNanos = min(currentMaxWaitNanos, maxWaitNanos);
+      applyLimits();
+    }
+  }
+
+  /** The max number of inputs which are currently modulated into a single batch. */
+  public int currentBatchSize() {
+    return currentBatchSize;
+  }
+
+  /** The max time for which inputs currently wait to be batched. */
+  public Duration currentMaxWait() {
+    return Duration.ofNanos(currentMaxWaitNanos);
+  }
+
+  /**
+   * The p99 latency of the last {@value #SAMPLE_WINDOW} batches, or {@link Duration#ZERO} if not
+   * enough batches have completed yet.
+   */
+  public Duration observedP99Latency() {
+    return Duration.ofNanos(observedP99Nanos);
+  }
+
+  /** Must be called while holding the lock on {@code this} */
+  private void adjustLimits(long p99Nanos) {
+    long targetP99Nanos = this.targetP99Nanos;
+    if (p99Nanos > targetP99Nanos) {
+      currentBatchSize = max(minBatchSize, currentBatchSize / 2);
+    } else {
+      currentBatchSize = min(maxBatchSize, currentBatchSize + 1);
+    }
+    currentMaxWaitNanos = min(maxWaitNanos, max(0, targetP99Nanos - p99Nanos));
+    applyLimits();
+  }
+
+  /** Must be called while holding the lock on {@code this} */
+  private void applyLimits() {
+    delegate.setLimits(currentBatchSize, Duration.ofNanos(currentMaxWaitNanos));
+  }
+
+  private static long getMillisConfig(
+      ConfigProvider configProvider, ConfigKey<Long> key, Duration defaultValue) {
+    Long millis = configProvider.getConfigOrNull(key);
+    return (millis != null ? Duration.ofMillis(millis) : defaultValue).toNanos();
+  }
+}
@@ -1,11 +1,9 @@
 package com.flipkart.krystal.vajram.modulation;
 
-import static com.google.common.collect.ImmutableList.toImmutableList;
-
+import com.flipkart.krystal.config.ConfigKey;
 import com.flipkart.krystal.config.ConfigProvider;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +12,7 @@ import java.util.function.Consumer;
 public final class Batcher<I, C> implements InputModulator<I, C> {
 
   private static final int DEFAULT_BATCH_SIZE = 1;
+  private static final ConfigKey<Integer> MIN_BATCH_SIZE = ConfigKey.intKey("min_batch_size");
   private Consumer<ImmutableList<ModulatedInput<I, C>>> modulationListener;
   private final Map<C, List<I>> unModulatedRequests = new HashMap<>();
   private int minBatchSize = DEFAULT_BATCH_SIZE;
@@ -26,31 +25,29 @@ public final class Batcher<I, C> implements InputModulator<I, C> {
 
   @Override
   public ImmutableList<ModulatedInput<I, C>> add(I inputsNeedingModulation, C commonInputs) {
-    unModulatedRequests
-        .computeIfAbsent(commonInputs, k -> new ArrayList<>())
-        .add(inputsNeedingModulation);
-    return getModulatedInputs(commonInputs, false);
-  }
-
-  private ImmutableList<ModulatedInput<I, C>> getModulatedInputs(C commonInputs, boolean force) {
-    ImmutableList<I> inputsNeedingModulations =
-        ImmutableList.copyOf(unModulatedRequests.get(commonInputs));
-    if (force || inputsNeedingModulations.size() >= minBatchSize) {
-      unModulatedRequests.put(commonInputs, new ArrayList<>());
-      return ImmutableList.of(new ModulatedInput<>(inputsNeedingModulations, commonInputs));
+    List<I> pendingInputs =
+        unModulatedRequests.computeIfAbsent(commonInputs, k -> new ArrayList<>());
+    pendingInputs.add(inputsNeedingModulation);
+    if (pendingInputs.size() >= minBatchSize) {
+      // The entry is removed once its batch is drained so that common inputs which are never seen
+      // again do not accumulate
+      unModulatedRequests.remove(commonInputs);
+      return ImmutableList.of(
+          new ModulatedInput<>(ImmutableList.copyOf(pendingInputs), commonInputs));
     }
     return ImmutableList.of();
   }
 
   @Override
   public void modulate() {
-    ImmutableList<ModulatedInput<I, C>> modulatedInputs =
-        unModulatedRequests.keySet().stream()
-            .map(c -> getModulatedInputs(c, true))
-            .flatMap(Collection::stream)
-            .collect(toImmutableList());
+    ImmutableList.Builder<ModulatedInput<I, C>> modulatedInputs = ImmutableList.builder();
+    unModulatedRequests.forEach(
+        (commonInputs, pendingInputs) ->
+            modulatedInputs.add(
+                new ModulatedInput<>(ImmutableList.copyOf(pendingInputs), commonInputs)));
+    unModulatedRequests.clear();
     if (modulationListener != null) {
-      modulationListener.accept(modulatedInputs);
+      modulationListener.accept(modulatedInputs.build());
     }
   }
 
@@ -61,7 +58,6 @@ public final class Batcher<I, C> implements InputModulator<I, C> {
 
   @Override
   public void onConfigUpdate(ConfigProvider configProvider) {
-    this.minBatchSize =
-        configProvider.<Integer>getConfig("min_batch_size").orElse(DEFAULT_BATCH_SIZE);
+    this.minBatchSize = configProvider.getConfig(MIN_BATCH_SIZE, DEFAULT_BATCH_SIZE);
   }
 }
@@ -0,0 +1,136 @@
+package com.flipkart.krystal.vajram.modulation;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.google.common.collect.ImmutableList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link InputModulator} which ensures that an input needing modulation is added at most once to
+ * the modulator it wraps while it is pending modulation for the same common inputs. This way the
+ * modulated logic is never executed multiple times for the same inputs in a single batch, even if
+ * the same inputs are requested via multiple dependant chains.
+ *
+ * <p>The decorator executing the modulated inputs is responsible for completing every request for
+ * the duplicate inputs with the single result that is computed for them.
+ *
+ * <p>The number of inputs added to this modulator and the number of those that were discarded as
+ * duplicates are exposed via accessors so that they can be published as metrics. This class is
+ * thread safe if the wrapped modulator is.
+ */
+public final class DeduplicatingInputModulator<I, C> implements InputModulator<I, C> {
+
+  private final InputModulator<I, C> delegate;
+
+  /** Guarded by {@code this} */
+  private final Map<C, Set<I>> pendingInputs = new HashMap<>();
+
+  private final LongAdder addedInputs = new LongAdder();
+  private final LongAdder deduplicatedInputs = new LongAdder();
+
+  private volatile @Nullable Consumer<ImmutableList<ModulatedInput<I, C>>> modulationListener;
+
+  public DeduplicatingInputModulator(InputModulator<I, C> delegate) {
+    this.delegate = delegate;
+    delegate.onModulation(this::notifyListener);
+  }
+
+  @Override
+  public ImmutableList<ModulatedInput<I, C>> add(I inputsNeedingModulation, C commonInputs) {
+    addedInputs.increment();
+    synchronized (this) {
+      if (!pendingInputs
+          .computeIfAbsent(commonInputs, k -> new HashSet<>())
+          .add(inputsNeedingModulation)) {
+        deduplicatedInputs.increment();
+        return ImmutableList.of();
+      }
+    }
+    return removeFromPending(delegate.add(inputsNeedingModulation, commonInputs));
+  }
+
+  @Override
+  public void modulate() {
+    delegate.modulate();
+  }
+
+  @Override
+  public void onModulation(Consumer<ImmutableList<ModulatedInput<I, C>>> listener) {
+    this.modulationListener = listener;
+  }
+
+  @Override
+  public void onModulation(
+      Consumer<ImmutableList<ModulatedInput<I, C>>> listener, Executor executor) {
+    this.modulationListener = listener;
+    delegate.onModulation(this::notifyListener, executor);
+  }
+
+  @Override
+  public boolean modulatesByItself() {
+    return delegate.modulatesByItself();
+  }
+
+  @Override
+  public void onModulatedInputCompletion(int batchSize, long latencyNanos) {
+    delegate.onModulatedInputCompletion(batchSize, latencyNanos);
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    delegate.onConfigUpdate(configProvider);
+  }
+
+  /** The total number of inputs which have been added to this modulator. */
+  public long addedInputs() {
+    return addedInputs.sum();
+  }
+
+  /** The number of added inputs which were discarded since they were already pending. */
+  public long deduplicatedInputs() {
+    return deduplicatedInputs.sum();
+  }
+
+  /**
+   * The fraction of added inputs which were discarded since they were already pending, or 0 if no
+   * inputs have been added.
+   */
+  public double dedupeRatio() {
+    long added = addedInputs.sum();
+    return added == 0 ? 0 : (double) deduplicatedInputs.sum() / added;
+  }
+
+  private void notifyListener(ImmutableList<ModulatedInput<I, C>> modulatedInputs) {
+    removeFromPending(modulatedInputs);
+    Consumer<ImmutableList<ModulatedInput<I, C>>> modulationListener = this.modulationListener;
+    if (modulationListener != null) {
+      modulationListener.accept(modulatedInputs);
+    }
+  }
+
+  /** Inputs which have been modulated are no longer pending and can be added again. */
+  private ImmutableList<ModulatedInput<I, C>> removeFromPending(
+      ImmutableList<ModulatedInput<I, C>> modulatedInputs) {
+    if (modulatedInputs.isEmpty()) {
+      return modulatedInputs;
+    }
+    synchronized (this) {
+      for (ModulatedInput<I, C> modulatedInput : modulatedInputs) {
+        Set<I> pending = pendingInputs.get(modulatedInput.commonInputs());
+        if (pending != null) {
+          modulatedInput.inputsNeedingModulation().forEach(pending::remove);
+          if (pending.isEmpty()) {
+            pendingInputs.remove(modulatedInput.commonInputs());
+          }
+        }
+      }
+    }
+    return modulatedInputs;
+  }
+}
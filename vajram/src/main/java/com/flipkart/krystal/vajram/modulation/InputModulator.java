@@ -2,6 +2,7 @@ package com.flipkart.krystal.vajram.modulation;
 
 import com.flipkart.krystal.config.ConfigListener;
 import com.google.common.collect.ImmutableList;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -12,7 +13,8 @@ import java.util.function.Consumer;
  *
  * <p>Input modulator work by collecting multiple sets of inputs into a collection and "modulate"
  * them by squashing/merging these when some condition is met. For example, {@link Batcher} keeps
- * collecting inputs until a minimum batch size is reached.
+ * collecting inputs until a minimum batch size is reached, and {@link WindowedBatcher} bounds the
+ * size of batches and the time inputs wait to be batched.
  *
  * @param <InputsNeedingModulation> Those inputs which can to be modulated into a single request.
  * @param <CommonInputs> Those inputs which need do not vary within a single request. Meaning, two
@@ -28,8 +30,41 @@ public interface InputModulator<InputsNeedingModulation, CommonInputs> extends C
 
   /**
    * When this InputModulator decides to modulate (due to some internal state like a timer), or when
-   * the {@link #modulate()} method is called, execute the given callback.
+   * the {@link #modulate()} method is called, execute the given callback. Modulators which modulate
+   * based on a timer execute the callback on a shared pool, never on the timer's thread.
    */
   void onModulation(
       Consumer<ImmutableList<ModulatedInput<InputsNeedingModulation, CommonInputs>>> callback);
+
+  /**
+   * Same as {@link #onModulation(Consumer)}, except that when this modulator modulates inputs on
+   * its own (for example, on the expiry of a timer), the callback is executed on the given
+   * executor. Callbacks triggered by {@link #modulate()} are still executed on the calling thread.
+   */
+  default void onModulation(
+      Consumer<ImmutableList<ModulatedInput<InputsNeedingModulation, CommonInputs>>> callback,
+      Executor executor) {
+    onModulation(callback);
+  }
+
+  /**
+   * Returns true if every input added to this modulator is eventually modulated even if {@link
+   * #modulate()} is never called - for example, on the expiry of a timer. Inputs added to other
+   * modulators wait until {@link #modulate()} is called.
+   */
+  default boolean modulatesByItself() {
+    return false;
+  }
+
+  /**
+   * Called when all the results of a modulated input have been computed. Modulators which adapt
+   * their modulation strategy to the performance of the modulated logic (like {@link
+   * AdaptiveBatcher}) can use this to observe its latency. This method may be called from any
+   * thread.
+   *
+   * @param batchSize The number of inputs needing modulation in the modulated input.
+   * @param latencyNanos The time elapsed between the execution of the modulated input and the
+   *     completion of all its results.
+   */
+  default void onModulatedInputCompletion(int batchSize, long latencyNanos) {}
 }
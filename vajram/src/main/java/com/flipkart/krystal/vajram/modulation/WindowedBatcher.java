@@ -0,0 +1,220 @@
+package com.flipkart.krystal.vajram.modulation;
+
+import static java.lang.Math.min;
+
+import com.flipkart.krystal.config.ConfigKey;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.flipkart.krystal.utils.HashedWheelTimer.Timeout;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link InputModulator} which bounds both the size of the batches and the time for which inputs
+ * wait to be batched.
+ *
+ * <ul>
+ *   <li>Max batch size: As soon as the inputs pending for some common inputs reach the max batch
+ *       size, they are modulated into a batch. When the pending inputs are modulated for any other
+ *       reason, they are split into multiple batches none of which exceed the max batch size, so
+ *       that they can be executed in parallel.
+ *   <li>Max wait: The pending inputs for some common inputs are modulated at most this long after
+ *       the first of them was added. The {@link HashedWheelTimer} task only hands the expired
+ *       window off to the executor passed to {@link #onModulation(Consumer, Executor)} (the common
+ *       {@link ForkJoinPool} by default), which modulates the inputs and notifies the listener.
+ * </ul>
+ *
+ * <p>Both of these are optional. If both are configured, inputs are modulated when either of the
+ * limits is reached, whichever happens first. In all cases, pending inputs are modulated when
+ * {@link #modulate()} is called.
+ *
+ * <p>The limits can be updated via {@link #onConfigUpdate(ConfigProvider)} using the keys {@value
+ * #MAX_BATCH_SIZE_CONFIG} and {@value #MAX_WAIT_MS_CONFIG}. This class is thread safe.
+ */
+public final class WindowedBatcher<I, C> implements InputModulator<I, C> {
+
+  public static final String MAX_BATCH_SIZE_CONFIG = "max_batch_size";
+  public static final String MAX_WAIT_MS_CONFIG = "max_wait_ms";
+
+  private static final ConfigKey<Integer> MAX_BATCH_SIZE = ConfigKey.intKey(MAX_BATCH_SIZE_CONFIG);
+  private static final ConfigKey<Long> MAX_WAIT_MS = ConfigKey.longKey(MAX_WAIT_MS_CONFIG);
+
+  private static final int UNBOUNDED_BATCH_SIZE = 0;
+
+  private final HashedWheelTimer timer;
+  private final int defaultMaxBatchSize;
+  private final @Nullable Duration defaultMaxWait;
+
+  private volatile int maxBatchSize;
+  private volatile @Nullable Duration maxWait;
+  private volatile @Nullable Consumer<ImmutableList<ModulatedInput<I, C>>> modulationListener;
+  private volatile Executor windowExpiryExecutor = ForkJoinPool.commonPool();
+
+  /** Guarded by {@code this} */
+  private final Map<C, PendingBatch<I>> pendingBatches = new LinkedHashMap<>();
+
+  private WindowedBatcher(int maxBatchSize, @Nullable Duration maxWait, HashedWheelTimer timer) {
+    this.defaultMaxBatchSize = maxBatchSize;
+    this.defaultMaxWait = maxWait;
+    this.maxBatchSize = maxBatchSize;
+    this.maxWait = maxWait;
+    this.timer = timer;
+  }
+
+  /** Modulates inputs as soon as {@code maxBatchSize} inputs are pending. */
+  public static <I, C> WindowedBatcher<I, C> maxSize(int maxBatchSize) {
+    return new WindowedBatcher<>(maxBatchSize, null, HashedWheelTimer.shared());
+  }
+
+  /** Modulates inputs at most {@code maxWait} after the first of them is added. */
+  public static <I, C> WindowedBatcher<I, C> timeWindow(Duration maxWait) {
+    return new WindowedBatcher<>(UNBOUNDED_BATCH_SIZE, maxWait, HashedWheelTimer.shared());
+  }
+
+  /**
+   * Modulates inputs as soon as {@code maxBatchSize} inputs are pending or {@code maxWait} after
+   * the first of them is added, whichever happens first.
+   */
+  public static <I, C> WindowedBatcher<I, C> hybrid(int maxBatchSize, Duration maxWait) {
+    return hybrid(maxBatchSize, maxWait, HashedWheelTimer.shared());
+  }
+
+  public static <I, C> WindowedBatcher<I, C> hybrid(
+      int maxBatchSize, Duration maxWait, HashedWheelTimer timer) {
+    return new WindowedBatcher<>(maxBatchSize, maxWait, timer);
+  }
+
+  @Override
+  public ImmutableList<ModulatedInput<I, C>> add(I inputsNeedingModulation, C commonInputs) {
+    synchronized (this) {
+      PendingBatch<I> pendingBatch =
+          pendingBatches.computeIfAbsent(commonInputs, k -> new PendingBatch<>());
+      pendingBatch.inputs.add(inputsNeedingModulation);
+      int maxBatchSize = this.maxBatchSize;
+      if (maxBatchSize > UNBOUNDED_BATCH_SIZE && pendingBatch.inputs.size() >= maxBatchSize) {
+        pendingBatches.remove(commonInputs);
+        return drain(commonInputs, pendingBatch);
+      }
+      Duration maxWait = this.maxWait;
+      if (pendingBatch.inputs.size() == 1 && maxWait != null) {
+        pendingBatch.timeout =
+            timer.newTimeout(
+                () ->
+                    windowExpiryExecutor.execute(() -> onWindowExpiry(commonInputs, pendingBatch)),
+                maxWait);
+      }
+    }
+    return ImmutableList.of();
+  }
+
+  @Override
+  public void modulate() {
+    ImmutableList.Builder<ModulatedInput<I, C>> modulatedInputs = ImmutableList.builder();
+    synchronized (this) {
+      pendingBatches.forEach(
+          (commonInputs, pendingBatch) ->
+              modulatedInputs.addAll(drain(commonInputs, pendingBatch)));
+      pendingBatches.clear();
+    }
+    notifyListener(modulatedInputs.build());
+  }
+
+  @Override
+  public void onModulation(Consumer<ImmutableList<ModulatedInput<I, C>>> listener) {
+    this.modulationListener = listener;
+  }
+
+  @Override
+  public void onModulation(
+      Consumer<ImmutableList<ModulatedInput<I, C>>> listener, Executor executor) {
+    this.windowExpiryExecutor = executor;
+    this.modulationListener = listener;
+  }
+
+  @Override
+  public boolean modulatesByItself() {
+    return maxWait != null;
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    this.maxBatchSize = configProvider.getConfig(MAX_BATCH_SIZE, defaultMaxBatchSize);
+    Long maxWaitMs = configProvider.getConfigOrNull(MAX_WAIT_MS);
+    this.maxWait = maxWaitMs != null ? Duration.ofMillis(maxWaitMs) : defaultMaxWait;
+  }
+
+  /**
+   * Updates the limits of this batcher without changing its configured defaults. Used by
+   * modulators which tune these limits at runtime.
+   */
+  void setLimits(int maxBatchSize, @Nullable Duration maxWait) {
+    this.maxBatchSize = maxBatchSize;
+    this.maxWait = maxWait;
+  }
+
+  /** The number of distinct common inputs which have pending inputs. */
+  synchronized int pendingCommonInputsCount() {
+    return pendingBatches.size();
+  }
+
+  private void onWindowExpiry(C commonInputs, PendingBatch<I> expiredBatch) {
+    ImmutableList<ModulatedInput<I, C>> modulatedInputs;
+    synchronized (this) {
+      if (pendingBatches.get(commonInputs) != expiredBatch) {
+        // The inputs for which the timer was started have already been modulated
+        return;
+      }
+      pendingBatches.remove(commonInputs);
+      modulatedInputs = drain(commonInputs, expiredBatch);
+    }
+    notifyListener(modulatedInputs);
+  }
+
+  /**
+   * Splits the inputs of a pending batch into modulated batches. The caller must have removed the
+   * pending batch from {@link #pendingBatches} - entries are removed as soon as they are drained so
+   * that common inputs which are never seen again do not accumulate.
+   *
+   * <p>Must be called while holding the lock on {@code this}
+   */
+  private ImmutableList<ModulatedInput<I, C>> drain(C commonInputs, PendingBatch<I> pendingBatch) {
+    Timeout timeout = pendingBatch.timeout;
+    if (timeout != null) {
+      timeout.cancel();
+    }
+    List<I> inputs = pendingBatch.inputs;
+    if (inputs.isEmpty()) {
+      return ImmutableList.of();
+    }
+    int maxBatchSize = this.maxBatchSize;
+    int batchSize = maxBatchSize > UNBOUNDED_BATCH_SIZE ? maxBatchSize : inputs.size();
+    ImmutableList.Builder<ModulatedInput<I, C>> batches = ImmutableList.builder();
+    for (int from = 0; from < inputs.size(); from += batchSize) {
+      batches.add(
+          new ModulatedInput<>(
+              ImmutableList.copyOf(inputs.subList(from, min(from + batchSize, inputs.size()))),
+              commonInputs));
+    }
+    return batches.build();
+  }
+
+  private void notifyListener(ImmutableList<ModulatedInput<I, C>> modulatedInputs) {
+    Consumer<ImmutableList<ModulatedInput<I, C>>> modulationListener = this.modulationListener;
+    if (modulationListener != null && !modulatedInputs.isEmpty()) {
+      modulationListener.accept(modulatedInputs);
+    }
+  }
+
+  private static final class PendingBatch<I> {
+    private final List<I> inputs = new ArrayList<>();
+    private @Nullable Timeout timeout;
+  }
+}
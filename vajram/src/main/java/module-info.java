@@ -13,4 +13,6 @@ module flipkart.krystal.vajram {
   requires org.checkerframework.checker.qual;
   requires com.google.errorprone.annotations;
   requires flipkart.krystal.common;
+
+  uses com.flipkart.krystal.vajram.Vajram;
 }
@@ -0,0 +1,38 @@
+package com.flipkart.krystal.vajram;
+
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flipkart.krystal.utils.ControlFlowExceptions;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MandatoryInputsMissingExceptionTest {
+
+  @AfterEach
+  void tearDown() {
+    ControlFlowExceptions.setStackTracesEnabled(false);
+  }
+
+  @Test
+  void new_stackTracesDisabled_stackless() {
+    MandatoryInputsMissingException exception = newException();
+
+    assertEquals(0, exception.getStackTrace().length);
+    assertTrue(exception.getMessage().contains("input_1 (Cause: missing)"));
+  }
+
+  @Test
+  void new_stackTracesEnabled_stackTraceCaptured() {
+    ControlFlowExceptions.setStackTracesEnabled(true);
+
+    assertTrue(newException().getStackTrace().length > 0);
+  }
+
+  private static MandatoryInputsMissingException newException() {
+    return new MandatoryInputsMissingException(
+        vajramID("TestVajram"), Map.of("input_1", new IllegalArgumentException("missing")));
+  }
+}
@@ -0,0 +1,97 @@
+package com.flipkart.krystal.vajram.modulation;
+
+import static com.flipkart.krystal.vajram.modulation.AdaptiveBatcher.ADJUSTMENT_INTERVAL;
+import static com.flipkart.krystal.vajram.modulation.AdaptiveBatcher.SAMPLE_WINDOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatcherTest {
+
+  private static final Duration MAX_WAIT = Duration.ofMillis(50);
+  private static final Duration TARGET_P99 = Duration.ofMillis(100);
+
+  private HashedWheelTimer timer;
+  private AdaptiveBatcher<String, String> batcher;
+
+  @BeforeEach
+  void setUp() {
+    this.timer = new HashedWheelTimer("test-timer", Duration.ofMillis(1), 64);
+    this.batcher = new AdaptiveBatcher<>(2, 4, MAX_WAIT, TARGET_P99, timer);
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+  }
+
+  @Test
+  void onModulatedInputCompletion_sampleWindowNotFull_limitsUnchanged() {
+    complete(SAMPLE_WINDOW - 1, Duration.ofMillis(10));
+
+    assertEquals(2, batcher.currentBatchSize());
+    assertEquals(MAX_WAIT, batcher.currentMaxWait());
+    assertEquals(Duration.ZERO, batcher.observedP99Latency());
+  }
+
+  @Test
+  void onModulatedInputCompletion_p99BelowTarget_increasesBatchSizeByOne() {
+    complete(SAMPLE_WINDOW, Duration.ofMillis(10));
+
+    assertEquals(3, batcher.currentBatchSize());
+    assertEquals(Duration.ofMillis(10), batcher.observedP99Latency());
+    // Only the latency headroom, bounded by the max wait, is spent waiting for batches
+    assertEquals(MAX_WAIT, batcher.currentMaxWait());
+    assertEquals(3, batchSizeOf(batcher));
+  }
+
+  @Test
+  void onModulatedInputCompletion_p99BelowTarget_batchSizeBoundedByMax() {
+    complete(SAMPLE_WINDOW + 4 * ADJUSTMENT_INTERVAL, Duration.ofMillis(10));
+
+    assertEquals(4, batcher.currentBatchSize());
+  }
+
+  @Test
+  void onModulatedInputCompletion_p99AboveTarget_halvesBatchSize() {
+    complete(SAMPLE_WINDOW + ADJUSTMENT_INTERVAL, Duration.ofMillis(10));
+    assertEquals(4, batcher.currentBatchSize());
+
+    complete(ADJUSTMENT_INTERVAL, Duration.ofMillis(150));
+
+    assertEquals(2, batcher.currentBatchSize());
+    assertEquals(Duration.ofMillis(150), batcher.observedP99Latency());
+    assertEquals(Duration.ZERO, batcher.currentMaxWait());
+  }
+
+  @Test
+  void onModulatedInputCompletion_singleSlowBatch_notTreatedAsP99() {
+    complete(SAMPLE_WINDOW - 1, Duration.ofMillis(90));
+    complete(1, Duration.ofSeconds(1));
+
+    assertEquals(3, batcher.currentBatchSize());
+    assertEquals(Duration.ofMillis(90), batcher.observedP99Latency());
+    assertEquals(Duration.ofMillis(10), batcher.currentMaxWait());
+  }
+
+  private void complete(int batches, Duration latency) {
+    for (int i = 0; i < batches; i++) {
+      batcher.onModulatedInputCompletion(1, latency.toNanos());
+    }
+  }
+
+  /** Returns the size of the first batch returned while adding inputs one by one */
+  private static int batchSizeOf(AdaptiveBatcher<String, String> batcher) {
+    for (int i = 1; ; i++) {
+      ImmutableList<ModulatedInput<String, String>> batches = batcher.add("input_" + i, "common");
+      if (!batches.isEmpty()) {
+        return batches.get(0).inputsNeedingModulation().size();
+      }
+    }
+  }
+}
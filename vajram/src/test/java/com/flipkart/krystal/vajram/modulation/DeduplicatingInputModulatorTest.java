@@ -0,0 +1,150 @@
+package com.flipkart.krystal.vajram.modulation;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DeduplicatingInputModulatorTest {
+
+  private HashedWheelTimer timer;
+  private ExecutorService listenerExecutor;
+  private List<ImmutableList<ModulatedInput<String, String>>> notifiedBatches;
+
+  @BeforeEach
+  void setUp() {
+    this.timer = new HashedWheelTimer("test-timer", Duration.ofMillis(1), 64);
+    this.listenerExecutor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "listener-executor"));
+    this.notifiedBatches = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+    listenerExecutor.shutdownNow();
+  }
+
+  @Test
+  void add_duplicateOfPendingInput_discarded() {
+    DeduplicatingInputModulator<String, String> modulator =
+        new DeduplicatingInputModulator<>(WindowedBatcher.maxSize(3));
+
+    assertEquals(ImmutableList.of(), modulator.add("a", "common"));
+    assertEquals(ImmutableList.of(), modulator.add("a", "common"));
+    assertEquals(ImmutableList.of(), modulator.add("b", "common"));
+
+    assertEquals(
+        ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a", "b", "c"), "common")),
+        modulator.add("c", "common"));
+  }
+
+  @Test
+  void add_sameInputDifferentCommonInputs_notDiscarded() {
+    DeduplicatingInputModulator<String, String> modulator =
+        new DeduplicatingInputModulator<>(WindowedBatcher.maxSize(2));
+
+    modulator.add("a", "common_1");
+    modulator.add("a", "common_2");
+
+    assertEquals(0, modulator.deduplicatedInputs());
+  }
+
+  @Test
+  void add_inputModulatedBySize_addedAgain() {
+    DeduplicatingInputModulator<String, String> modulator =
+        new DeduplicatingInputModulator<>(WindowedBatcher.maxSize(2));
+    modulator.add("a", "common");
+    modulator.add("b", "common");
+
+    assertEquals(ImmutableList.of(), modulator.add("a", "common"));
+    assertEquals(
+        ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a", "c"), "common")),
+        modulator.add("c", "common"));
+    assertEquals(0, modulator.deduplicatedInputs());
+  }
+
+  @Test
+  void add_inputModulatedByModulate_addedAgain() {
+    DeduplicatingInputModulator<String, String> modulator =
+        new DeduplicatingInputModulator<>(new Batcher<>(10));
+    modulator.onModulation(notifiedBatches::add);
+    modulator.add("a", "common");
+    modulator.add("a", "common");
+
+    modulator.modulate();
+    modulator.add("a", "common");
+    modulator.modulate();
+
+    assertEquals(
+        List.of(
+            ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a"), "common")),
+            ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a"), "common"))),
+        notifiedBatches);
+    assertEquals(1, modulator.deduplicatedInputs());
+  }
+
+  @Test
+  void windowExpiry_duplicateInputs_modulatedOnceOnGivenExecutor() throws Exception {
+    DeduplicatingInputModulator<String, String> modulator =
+        new DeduplicatingInputModulator<>(
+            WindowedBatcher.hybrid(10, Duration.ofMillis(20), timer));
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<String> listenerThread = new AtomicReference<>();
+    modulator.onModulation(
+        batches -> {
+          listenerThread.set(Thread.currentThread().getName());
+          notifiedBatches.add(batches);
+          latch.countDown();
+        },
+        listenerExecutor);
+
+    modulator.add("a", "common");
+    modulator.add("a", "common");
+    modulator.add("b", "common");
+
+    assertTrue(latch.await(1, SECONDS));
+    assertEquals("listener-executor", listenerThread.get());
+    assertEquals(
+        List.of(ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a", "b"), "common"))),
+        notifiedBatches);
+    // The inputs modulated on window expiry are no longer pending
+    modulator.add("a", "common");
+    assertEquals(1, modulator.deduplicatedInputs());
+  }
+
+  @Test
+  void dedupeRatio_noInputsAdded_zero() {
+    DeduplicatingInputModulator<String, String> modulator =
+        new DeduplicatingInputModulator<>(new Batcher<>(10));
+
+    assertEquals(0, modulator.dedupeRatio());
+  }
+
+  @Test
+  void dedupeRatio_duplicatesAdded_fractionOfAddedInputs() {
+    DeduplicatingInputModulator<String, String> modulator =
+        new DeduplicatingInputModulator<>(new Batcher<>(10));
+
+    modulator.add("a", "common");
+    modulator.add("a", "common");
+    modulator.add("a", "common");
+    modulator.add("b", "common");
+
+    assertEquals(4, modulator.addedInputs());
+    assertEquals(2, modulator.deduplicatedInputs());
+    assertEquals(0.5, modulator.dedupeRatio());
+  }
+}
@@ -0,0 +1,164 @@
+package com.flipkart.krystal.vajram.modulation;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WindowedBatcherTest {
+
+  private HashedWheelTimer timer;
+  private ExecutorService listenerExecutor;
+  private List<ImmutableList<ModulatedInput<String, String>>> notifiedBatches;
+
+  @BeforeEach
+  void setUp() {
+    this.timer = new HashedWheelTimer("test-timer", Duration.ofMillis(1), 64);
+    this.listenerExecutor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "listener-executor"));
+    this.notifiedBatches = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+    listenerExecutor.shutdownNow();
+  }
+
+  @Test
+  void add_maxBatchSizeReached_returnsBatchWithoutNotifyingListener() {
+    WindowedBatcher<String, String> batcher = WindowedBatcher.maxSize(2);
+    batcher.onModulation(notifiedBatches::add, listenerExecutor);
+
+    assertEquals(ImmutableList.of(), batcher.add("a", "common"));
+    ImmutableList<ModulatedInput<String, String>> batches = batcher.add("b", "common");
+
+    assertEquals(
+        ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a", "b"), "common")), batches);
+    assertTrue(notifiedBatches.isEmpty());
+  }
+
+  @Test
+  void add_differentCommonInputs_batchedSeparately() {
+    WindowedBatcher<String, String> batcher = WindowedBatcher.maxSize(2);
+
+    assertEquals(ImmutableList.of(), batcher.add("a", "common_1"));
+    assertEquals(ImmutableList.of(), batcher.add("b", "common_2"));
+    assertEquals(
+        ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a", "c"), "common_1")),
+        batcher.add("c", "common_1"));
+  }
+
+  @Test
+  void windowExpiry_pendingInputs_listenerNotifiedOnGivenExecutor() throws Exception {
+    WindowedBatcher<String, String> batcher =
+        WindowedBatcher.hybrid(10, Duration.ofMillis(20), timer);
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<String> listenerThread = new AtomicReference<>();
+    batcher.onModulation(
+        batches -> {
+          listenerThread.set(Thread.currentThread().getName());
+          notifiedBatches.add(batches);
+          latch.countDown();
+        },
+        listenerExecutor);
+
+    batcher.add("a", "common");
+    batcher.add("b", "common");
+
+    assertTrue(latch.await(1, SECONDS));
+    assertEquals("listener-executor", listenerThread.get());
+    assertEquals(
+        List.of(ImmutableList.of(new ModulatedInput<>(ImmutableList.of("a", "b"), "common"))),
+        notifiedBatches);
+  }
+
+  @Test
+  void windowExpiry_afterSizeTriggeredFlush_listenerNotNotified() throws Exception {
+    WindowedBatcher<String, String> batcher =
+        WindowedBatcher.hybrid(2, Duration.ofMillis(10), timer);
+    batcher.onModulation(notifiedBatches::add, listenerExecutor);
+
+    batcher.add("a", "common");
+    assertEquals(1, batcher.add("b", "common").size());
+    Thread.sleep(50);
+
+    assertTrue(notifiedBatches.isEmpty());
+  }
+
+  @Test
+  void windowExpiry_queuedAfterBatchDrained_newPendingInputsNotModulated() throws Exception {
+    WindowedBatcher<String, String> batcher =
+        WindowedBatcher.hybrid(2, Duration.ofMillis(10), timer);
+    BlockingQueue<Runnable> windowExpiries = new LinkedBlockingQueue<>();
+    batcher.onModulation(notifiedBatches::add, windowExpiries::add);
+
+    batcher.add("a", "common");
+    Runnable staleWindowExpiry = windowExpiries.poll(1, SECONDS);
+    assertEquals(1, batcher.add("b", "common").size());
+    batcher.add("c", "common");
+    staleWindowExpiry.run();
+
+    assertTrue(notifiedBatches.isEmpty());
+    assertEquals(1, batcher.pendingCommonInputsCount());
+  }
+
+  @Test
+  void add_manyDistinctCommonInputs_drainedEntriesRemoved() {
+    WindowedBatcher<String, String> batcher = WindowedBatcher.maxSize(1);
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(1, batcher.add("a", "common_" + i).size());
+    }
+
+    assertEquals(0, batcher.pendingCommonInputsCount());
+  }
+
+  @Test
+  void modulate_pendingInputs_entriesRemoved() {
+    WindowedBatcher<String, String> batcher =
+        WindowedBatcher.hybrid(10, Duration.ofMinutes(1), timer);
+    batcher.add("a", "common_1");
+    batcher.add("b", "common_2");
+
+    batcher.modulate();
+
+    assertEquals(0, batcher.pendingCommonInputsCount());
+  }
+
+  @Test
+  void modulate_pendingInputs_splitIntoBatchesOfMaxSize() {
+    WindowedBatcher<String, String> batcher =
+        WindowedBatcher.hybrid(3, Duration.ofMinutes(1), timer);
+    batcher.onModulation(notifiedBatches::add, listenerExecutor);
+    batcher.add("a", "common");
+    batcher.add("b", "common");
+    batcher.add("c", "common_2");
+    batcher.setLimits(1, Duration.ofMinutes(1));
+
+    batcher.modulate();
+
+    // modulate() notifies the listener on the calling thread
+    assertEquals(
+        List.of(
+            ImmutableList.of(
+                new ModulatedInput<>(ImmutableList.of("a"), "common"),
+                new ModulatedInput<>(ImmutableList.of("b"), "common"),
+                new ModulatedInput<>(ImmutableList.of("c"), "common_2"))),
+        notifiedBatches);
+  }
+}
@@ -10,12 +10,16 @@ class VajramPlugin implements Plugin<Project> {
 
         String mainGeneratedSrcDir = project.buildDir.getPath() + '/generated/sources/vajrams/main/java/'
         String testGeneratedSrcDir = project.buildDir.getPath() + '/generated/sources/vajrams/test/java/'
+        String mainGeneratedResourcesDir = project.buildDir.getPath() + '/generated/resources/vajrams/main/'
 
         project.sourceSets {
             main {
                 java {
                     srcDir mainGeneratedSrcDir
                 }
+                resources {
+                    srcDir mainGeneratedResourcesDir
+                }
             }
             test {
                 java {
@@ -58,11 +62,13 @@ class VajramPlugin implements Plugin<Project> {
                 VajramModelsCodeGen.codeGenVajramImpl(
                         project.sourceSets.main.java.srcDirs,
                         compiledMainDir,
-                        mainGeneratedSrcDir)
+                        mainGeneratedSrcDir,
+                        mainGeneratedResourcesDir)
             }
         }
 
         project.tasks.compileJava.dependsOn 'codeGenVajramImpl'
+        project.tasks.processResources.dependsOn 'codeGenVajramImpl'
 
         project.tasks.register('testCodeGenVajramModels') {
             group = 'krystal'
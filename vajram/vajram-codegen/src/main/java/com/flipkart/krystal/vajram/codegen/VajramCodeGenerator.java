@@ -13,7 +13,6 @@ import static com.flipkart.krystal.vajram.codegen.utils.Constants.COMMON_INPUT;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.COM_FUTURE;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.DEP_COMMAND;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.DEP_RESP;
-import static com.flipkart.krystal.vajram.codegen.utils.Constants.DEP_RESPONSE;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.DOT_SEPARATOR;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.FUNCTION;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.GET_INPUT_DEFINITIONS;
@@ -29,21 +28,19 @@ import static com.flipkart.krystal.vajram.codegen.utils.Constants.INPUT_SRC;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.LINK_HASH_MAP;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.LIST;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.MAP;
+import static com.flipkart.krystal.vajram.codegen.utils.Constants.METADATA;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.METHOD_EXECUTE;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.METHOD_EXECUTE_COMPUTE;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.METHOD_GET_INPUTS_CONVERTOR;
+import static com.flipkart.krystal.vajram.codegen.utils.Constants.METHOD_GET_METADATA;
+import static com.flipkart.krystal.vajram.codegen.utils.Constants.METHOD_GET_RESOLVER_ID;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.METHOD_RESOLVE_INPUT_OF_DEPENDENCY;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.MOD_INPUT;
-import static com.flipkart.krystal.vajram.codegen.utils.Constants.REQUEST;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.RESOLVABLE_INPUTS;
-import static com.flipkart.krystal.vajram.codegen.utils.Constants.RESPONSE;
-import static com.flipkart.krystal.vajram.codegen.utils.Constants.RESPONSES_SUFFIX;
-import static com.flipkart.krystal.vajram.codegen.utils.Constants.RESPONSE_SUFFIX;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.RETURN_TYPE;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.UNMOD_INPUT;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.VAJRAM_LOGIC_METHOD;
 import static com.flipkart.krystal.vajram.codegen.utils.Constants.VAL_ERR;
-import static com.flipkart.krystal.vajram.codegen.utils.Constants.VARIABLE;
 import static com.google.common.base.CaseFormat.LOWER_CAMEL;
 import static com.google.common.base.CaseFormat.LOWER_UNDERSCORE;
 import static com.squareup.javapoet.MethodSpec.constructorBuilder;
@@ -60,10 +57,13 @@ import com.flipkart.krystal.data.Inputs;
 import com.flipkart.krystal.data.ValueOrError;
 import com.flipkart.krystal.datatypes.DataType;
 import com.flipkart.krystal.datatypes.JavaType;
+import com.flipkart.krystal.logic.LogicTag;
 import com.flipkart.krystal.vajram.DependencyResponse;
 import com.flipkart.krystal.vajram.IOVajram;
+import com.flipkart.krystal.vajram.Tag;
 import com.flipkart.krystal.vajram.Vajram;
 import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramMetadata;
 import com.flipkart.krystal.vajram.VajramRequest;
 import com.flipkart.krystal.vajram.Vajrams;
 import com.flipkart.krystal.vajram.codegen.models.AbstractInput;
@@ -78,16 +78,22 @@ import com.flipkart.krystal.vajram.codegen.utils.Constants;
 import com.flipkart.krystal.vajram.das.DataAccessSpec;
 import com.flipkart.krystal.vajram.exception.VajramValidationException;
 import com.flipkart.krystal.vajram.inputs.BindFrom;
+import com.flipkart.krystal.vajram.inputs.DefaultInputResolverDefinition;
 import com.flipkart.krystal.vajram.inputs.Dependency;
 import com.flipkart.krystal.vajram.inputs.DependencyCommand;
 import com.flipkart.krystal.vajram.inputs.Input;
 import com.flipkart.krystal.vajram.inputs.InputSource;
 import com.flipkart.krystal.vajram.inputs.InputValuesAdaptor;
+import com.flipkart.krystal.vajram.inputs.QualifiedInputs;
 import com.flipkart.krystal.vajram.inputs.Resolve;
 import com.flipkart.krystal.vajram.inputs.VajramInputDefinition;
 import com.flipkart.krystal.vajram.modulation.InputsConverter;
 import com.flipkart.krystal.vajram.modulation.ModulatedInput;
 import com.flipkart.krystal.vajram.modulation.UnmodulatedInput;
+import com.flipkart.krystal.vajram.tags.Service;
+import com.flipkart.krystal.vajram.tags.ServiceApi;
+import com.flipkart.krystal.vajram.tags.VajramTags;
+import com.flipkart.krystal.vajram.tags.VajramTags.VajramTypes;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -106,7 +112,6 @@ import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import java.io.IOException;
 import java.io.StringWriter;
-import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
@@ -223,18 +228,21 @@ public class VajramCodeGenerator {
       final Type vajramResponseType = ((ParameterizedType) ((Class<? extends Vajram>) parsedVajramData.vajramClass())
               .getGenericSuperclass()).getActualTypeArguments()[0];
 
+      vajramImplClass.addField(createMetadataField(parsedVajramData));
+      methodSpecs.add(createMetadataMethod());
       MethodSpec inputDefinitionsMethod = createInputDefinitions(classLoader);
       methodSpecs.add(inputDefinitionsMethod);
-      Optional<MethodSpec> inputResolverMethod = createResolvers(resolverMap);
-      inputResolverMethod.ifPresent(methodSpecs::add);
+      methodSpecs.addAll(createResolvers(resolverMap));
 
       if (IOVajram.class.isAssignableFrom(parsedVajramData.vajramClass())) {
-          methodSpecs.add(createIOVajramExecuteMethod(inputsNeedingModulation, commonInputs, vajramResponseType, resolverMap));
+          methodSpecs.add(createIOVajramExecuteMethod(inputsNeedingModulation, commonInputs, vajramResponseType));
       } else {
-          methodSpecs.add(createComputeVajramExecuteMethod(vajramResponseType, resolverMap, inputsNeedingModulation, commonInputs));
+          methodSpecs.add(createComputeVajramExecuteMethod(vajramResponseType, inputsNeedingModulation, commonInputs));
       }
       if (needsModulation) {
           methodSpecs.add(createInputConvertersMethod(inputsNeedingModulation, commonInputs));
+      } else {
+          methodSpecs.addAll(createInputAccessors());
       }
 
       StringWriter writer = new StringWriter();
@@ -252,16 +260,81 @@ public class VajramCodeGenerator {
       return writer.toString();
   }
 
+    /**
+     * Method to generate the static {@link VajramMetadata} of the Vajram. The metadata is computed
+     * from the annotations of the Vajram class when the code is generated, so that building vajram
+     * graphs does not need to read these annotations using reflection.
+     * @param parsedVajramData Parsed Vajram class data
+     * @return {@link FieldSpec} of the metadata constant
+     */
+    private FieldSpec createMetadataField(ParsedVajramData parsedVajramData) {
+        String vajramId = Vajrams.getVajramIdString(parsedVajramData.vajramClass()).orElseThrow(
+                () -> new VajramValidationException("VajramDef annotation missing for :" + vajramName));
+        CodeBlock.Builder resolvers = CodeBlock.builder();
+        for (Method method : parsedVajramData.resolveMethods()) {
+            Resolve resolve = method.getAnnotation(Resolve.class);
+            List<String> sources = stream(method.getParameters())
+                    .map(parameter -> parameter.getAnnotation(BindFrom.class))
+                    .filter(Objects::nonNull)
+                    .map(BindFrom::value)
+                    .toList();
+            resolvers.add(resolvers.isEmpty() ? "\n" : ",\n")
+                    .add("new $T($L, new $T($S, $L))", DefaultInputResolverDefinition.class, immutableSetOf(sources),
+                            QualifiedInputs.class, resolve.value(), immutableSetOf(List.of(resolve.inputs())));
+        }
+
+        Map<String, String> logicTags = new LinkedHashMap<>();
+        Method vajramLogic = parsedVajramData.vajramLogic();
+        for (Tag tag : vajramLogic.getAnnotationsByType(Tag.class)) {
+            logicTags.put(tag.name(), tag.value());
+        }
+        Service service = vajramLogic.getAnnotation(Service.class);
+        if (service != null) {
+            logicTags.put(Service.TAG_KEY, service.value());
+        }
+        ServiceApi serviceApi = vajramLogic.getAnnotation(ServiceApi.class);
+        if (serviceApi != null) {
+            logicTags.put(ServiceApi.TAG_KEY, serviceApi.apiName());
+        }
+        logicTags.put(VajramTags.VAJRAM_ID, vajramId);
+        logicTags.put(VajramTags.VAJRAM_TYPE, IOVajram.class.isAssignableFrom(parsedVajramData.vajramClass())
+                ? VajramTypes.IO_VAJRAM : VajramTypes.COMPUTE_VAJRAM);
+        CodeBlock.Builder tags = CodeBlock.builder().add("$T.<$T, $T>builder()", ImmutableMap.class, String.class,
+                LogicTag.class);
+        logicTags.forEach((key, value) -> tags.add("\n.put($S, new $T($S, $S))", key, LogicTag.class, key, value));
+        tags.add("\n.buildOrThrow()");
+
+        return FieldSpec.builder(VajramMetadata.class, METADATA, PRIVATE, STATIC, FINAL)
+                .initializer("new $T($>$>\n$S,\n$T.of($>$L$<),\n$L$<$<)", VajramMetadata.class, vajramId,
+                        ImmutableList.class, resolvers.build(), tags.build())
+                .build();
+    }
+
+    /**
+     * Method to generate "getMetadata" function which returns the static metadata of the Vajram.
+     * @return {@link MethodSpec}
+     */
+    private static MethodSpec createMetadataMethod() {
+        return methodBuilder(METHOD_GET_METADATA).addModifiers(PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(ParameterizedTypeName.get(Optional.class, VajramMetadata.class))
+                .addStatement("return $T.of($L)", Optional.class, METADATA)
+                .build();
+    }
+
+    private static CodeBlock immutableSetOf(Collection<String> values) {
+        return CodeBlock.of("$T.of($L)", ImmutableSet.class,
+                values.stream().map(value -> CodeBlock.of("$S", value)).collect(CodeBlock.joining(", ")));
+    }
+
     /**
      * Method to generate "executeCompute" function code for ComputeVajrams
      * Supported DataAccessSpec => VajramID only.
      * @param vajramResponseType Vajram response type
-     * @param resolverMap Map of all the resolved variables to the methods resolving them
      * @return generated code for "executeCompute" {@link MethodSpec}
      */
     private MethodSpec createComputeVajramExecuteMethod(Type vajramResponseType,
-            Map<String, ? extends Collection<Method>> resolverMap, ClassName inputsNeedingModulation,
-            ClassName commonInputs) {
+            ClassName inputsNeedingModulation, ClassName commonInputs) {
         Builder executeBuilder = methodBuilder(METHOD_EXECUTE_COMPUTE).addModifiers(PUBLIC)
                 .addParameter(ParameterizedTypeName.get(ImmutableList.class, Inputs.class), INPUTS_LIST)
                 .returns(ParameterizedTypeName.get(ClassName.get(ImmutableMap.class), ClassName.get(Inputs.class),
@@ -301,94 +374,96 @@ public class VajramCodeGenerator {
             executeBuilder.addCode(codeBuilder.build());
         }
         else { // TODO : Need non modulated IO vajram to test this
-            simpleComputeMethodBuilder(resolverMap, executeBuilder);
+            simpleComputeMethodBuilder(executeBuilder, ParameterizedTypeName.get(clsDeps.get(VAL_ERR),
+                    ClassName.bestGuess(vajramResponseType.getTypeName())), true);
         }
         return executeBuilder.build();
     }
 
-    private void simpleComputeMethodBuilder(Map<String, ? extends Collection<Method>> resolverMap, Builder executeBuilder) {
-        CodeBlock.Builder returnBuilder = CodeBlock.builder().add("""
-                return inputsList.stream().collect(
-                     $T.toImmutableMap($T.identity(),
-                     element -> {
-                """, clsDeps.get(IM_MAP), clsDeps.get(FUNCTION));
-        List<CodeBlock> inputCodeBlocks = new ArrayList<>();
-        inputDefsMap.values().forEach(inputDef -> {
-            if (resolverMap.containsKey(inputDef.name())) {
-                CodeBlock.Builder codeBlock = CodeBlock.builder();
-                if (inputDef instanceof Dependency<?> inputDefDependency) {
-                    DataAccessSpec dataAccessSpec = inputDefDependency.dataAccessSpec();
-                    if (dataAccessSpec instanceof VajramID vajramID) {
-                        String depVajramClass = vajramID.className().orElseThrow(() -> new VajramValidationException(
-                                "Vajram class missing in VajramInputDefinition for :" + vajramName));
-                        String[] splits = COMPILE.split(depVajramClass);
-                        String depPackageName = Arrays.stream(splits, 0, splits.length - 1).collect(Collectors.joining(DOT));
-                        String depRequestClass = CodegenUtils.getRequestClassName(splits[splits.length - 1]);
-                        ParsedVajramData parsedVajramData = vajramDefs.get(splits[splits.length - 1]);
-                        final Type typeArgument = ((ParameterizedType) ((Class<? extends Vajram>) parsedVajramData.vajramClass()).getGenericSuperclass()).getActualTypeArguments()[0];
-                        final String variableName = CodegenUtils.toJavaName(inputDef.name());
-                        if (resolverMap.get(inputDef.name()).size() > 1) {
-                            final String depVariableName = variableName + RESPONSES_SUFFIX;
-                            // handle iterable
-                            codeBlock.addNamed("""
-                                            $depResp:T<$request:T, $response:T> $depResponse:L =
-                                                 new $depResp:T<>(
-                                                     element.<$response:T>getDepValue($variable:S).values().entrySet().stream()
-                                                         .collect(
-                                                             $imMap:T.toImmutableMap(
-                                                                 e -> $request:T.from(e.getKey()), java.util.Map.Entry::getValue)));
-                                             """,
-                                    ImmutableMap.of(DEP_RESP, clsDeps.get(DEP_RESP), REQUEST,
-                                            ClassName.get(depPackageName, depRequestClass), RESPONSE, ClassName.bestGuess(typeArgument.getTypeName()),
-                                            VARIABLE, variableName, DEP_RESPONSE, depVariableName, IM_MAP, clsDeps.get(IM_MAP)));
-                            inputCodeBlocks.add(CodeBlock.builder().add(depVariableName).build());
-                        } else if (resolverMap.get(inputDef.name()).size() == 1) {
-                            final String depVariableName = variableName + RESPONSE_SUFFIX;
-                            codeBlock.addStatement("$T<$T, $T<$T>> $L = \n" + " element.getInputValueOrThrow($S)",
-                                    clsDeps.get(IM_MAP), clsDeps.get(INPUTS), clsDeps.get(VAL_ERR), ClassName.bestGuess(typeArgument.getTypeName()),
-                                    variableName, inputDef.name());
-                            codeBlock.addNamed("""
-                                    $depResp:T<$request:T, $response:T> $depResponse:L =
-                                        new $depResp:T<>(
-                                            $variable:L.entrySet().stream()
-                                                .collect(
-                                                    $imMap:T.toImmutableMap(
-                                                        e -> $request:T.from(e.getKey()), java.util.Map.Entry::getValue)));
-                                    """, ImmutableMap.of(REQUEST, ClassName.get(depPackageName, depRequestClass),
-                                    RESPONSE, ClassName.bestGuess(typeArgument.getTypeName()), VARIABLE,
-                                    variableName, DEP_RESPONSE, depVariableName, DEP_RESP, clsDeps.get(DEP_RESP),
-                                    IM_MAP, clsDeps.get(IM_MAP)));
-                            inputCodeBlocks.add(CodeBlock.builder().add(depVariableName).build());
-                        }
-                    }
-                }
-                returnBuilder.add(codeBlock.build());
-            } else {
-                // call vajram logic method with all input values
-                if (inputDef.isMandatory()) {
-                    inputCodeBlocks.add(
-                            CodeBlock.builder().add("element.getInputValueOrThrow($S)", inputDef.name()).build());
+    /**
+     * Generates an execute body which builds the {@code AllInputs} of every {@link Inputs} by calling
+     * one typed accessor per input (see {@link #createInputAccessors()}) in the order of the
+     * {@code AllInputs} constructor parameters, and then calls the vajram logic. A plain loop is used
+     * instead of streams and collectors since this code runs for every request of every vajram.
+     *
+     * @param resultType the type of the values of the map returned by the execute method.
+     * @param wrapInValueOrError whether the result of the vajram logic needs to be wrapped in a
+     *     {@link ValueOrError}.
+     */
+    private void simpleComputeMethodBuilder(Builder executeBuilder, TypeName resultType,
+            boolean wrapInValueOrError) {
+        CodeBlock.Builder allInputsArgs = CodeBlock.builder();
+        List<String> accessorNames = inputDefsMap.values().stream()
+                .filter(inputDef -> inputDef instanceof Input<?>
+                        || (inputDef instanceof Dependency<?> dependency
+                        && dependency.dataAccessSpec() instanceof VajramID))
+                .map(inputDef -> toJavaName(inputDef.name()))
+                .toList();
+        for (int i = 0; i < accessorNames.size(); i++) {
+            allInputsArgs.add(i == 0 ? "\n$L($L)" : ",\n$L($L)", accessorNames.get(i), INPUTS);
+        }
+        CodeBlock logicCall = CodeBlock.of("$L(new $T($>$>$L$<$<))",
+                vajramDefs.get(vajramName).vajramLogic().getName(),
+                ClassName.get(packageName, getInputUtilClassName(vajramName), getAllInputsClassname(vajramName)),
+                allInputsArgs.build());
+        TypeName resultsBuilderType = ParameterizedTypeName.get(
+                ClassName.get(ImmutableMap.Builder.class), ClassName.get(Inputs.class), resultType);
+        CodeBlock.Builder codeBuilder = CodeBlock.builder()
+                .addStatement("$T results = $T.builderWithExpectedSize($L.size())",
+                        resultsBuilderType, clsDeps.get(IM_MAP), INPUTS_LIST)
+                .beginControlFlow("for ($T $L : $L)", clsDeps.get(INPUTS), INPUTS, INPUTS_LIST);
+        if (wrapInValueOrError) {
+            codeBuilder.addStatement("results.put($L, $T.valueOrError(() -> $L))",
+                    INPUTS, clsDeps.get(VAL_ERR), logicCall);
+        } else {
+            codeBuilder.addStatement("results.put($L, $L)", INPUTS, logicCall);
+        }
+        codeBuilder.endControlFlow().addStatement("return results.buildOrThrow()");
+        executeBuilder.addCode(codeBuilder.build());
+    }
+
+    /**
+     * Generates one private static accessor per input and vajram dependency of this vajram, which
+     * reads the input's value from {@link Inputs} with its static type. Inputs are read without
+     * allocating {@link Optional}s, and dependency results are converted into a {@link
+     * DependencyResponse} in a single pass over the columnar results.
+     *
+     * <p>{@link Inputs} are keyed by input name (and are assembled by the runtime, not by the
+     * generated code), so the accessors bind the input name as a compile time constant rather than a
+     * positional index.
+     */
+    private List<MethodSpec> createInputAccessors() {
+        List<MethodSpec> accessors = new ArrayList<>();
+        for (VajramInputDefinition inputDef : inputDefsMap.values()) {
+            Builder accessor = methodBuilder(toJavaName(inputDef.name())).addModifiers(PRIVATE, STATIC)
+                    .addParameter(Inputs.class, INPUTS);
+            if (inputDef instanceof Input<?> input) {
+                accessor.returns(wrapPrimitive(getTypeName(input.type())).typeName());
+                if (input.isMandatory()) {
+                    accessor.addStatement("return $L.getInputValueOrThrow($S)", INPUTS, input.name());
                 } else {
-                    inputCodeBlocks.add(
-                            CodeBlock.builder().add("element.getInputValueOrDefault($S, null)", inputDef.name()).build());
+                    accessor.addStatement("return $L.getInputValueOrNull($S)", INPUTS, input.name());
                 }
+            } else if (inputDef instanceof Dependency<?> dependency
+                    && dependency.dataAccessSpec() instanceof VajramID vajramID) {
+                String depVajramClass = vajramID.className().orElseThrow(() -> new VajramValidationException(
+                        "Vajram class missing in VajramInputDefinition for :" + vajramName));
+                int lastDotIndex = depVajramClass.lastIndexOf(DOT_SEPARATOR);
+                String depVajramName = depVajramClass.substring(lastDotIndex + 1);
+                ClassName depRequestClass = ClassName.get(depVajramClass.substring(0, lastDotIndex),
+                        CodegenUtils.getRequestClassName(depVajramName));
+                final Type typeArgument = ((ParameterizedType) ((Class<? extends Vajram>) vajramDefs.get(depVajramName)
+                        .vajramClass()).getGenericSuperclass()).getActualTypeArguments()[0];
+                TypeName responseType = ClassName.bestGuess(typeArgument.getTypeName());
+                accessor.returns(ParameterizedTypeName.get(clsDeps.get(DEP_RESP), depRequestClass, responseType))
+                        .addStatement("return $T.fromResults($L.<$T>getDepValue($S), $T::from)",
+                                clsDeps.get(DEP_RESP), INPUTS, responseType, dependency.name(), depRequestClass);
+            } else {
+                continue;
             }
-        });
-        returnBuilder.add("\nreturn $T.valueOrError(() -> $L(new $T(\n", clsDeps.get(VAL_ERR),
-                vajramDefs.get(vajramName).vajramLogic().getName(),
-                ClassName.get(packageName, getInputUtilClassName(vajramName), getAllInputsClassname(vajramName)));
-        // merge the code blocks for inputs
-        for (int i = 0; i < inputCodeBlocks.size(); i++) {
-            // for formatting
-            returnBuilder.add("\t\t");
-            returnBuilder.add(inputCodeBlocks.get(i));
-            if (i != inputCodeBlocks.size() - 1) {
-                returnBuilder.add(",\n");
-            }
+            accessors.add(accessor.build());
         }
-        returnBuilder.add(")));\n");
-        returnBuilder.add("}));\n");
-        executeBuilder.addCode(returnBuilder.build());
+        return accessors;
     }
 
     /**
@@ -414,8 +489,7 @@ public class VajramCodeGenerator {
      * @return generated code for "execute" {@link MethodSpec}
      */
     private MethodSpec createIOVajramExecuteMethod(
-            ClassName inputsNeedingModulation, ClassName commonInputs, Type vajramResponseType,
-            Map<String, ? extends Collection<Method>> resolverMap) {
+            ClassName inputsNeedingModulation, ClassName commonInputs, Type vajramResponseType) {
         Builder executeMethodBuilder = methodBuilder(METHOD_EXECUTE).addModifiers(PUBLIC)
         .addParameter(ParameterizedTypeName.get(ImmutableList.class, Inputs.class), INPUTS_LIST)
         .returns(
@@ -455,89 +529,143 @@ public class VajramCodeGenerator {
             }
             executeMethodBuilder.addCode(codeBuilder.build());
         } else {
-            simpleComputeMethodBuilder(resolverMap, executeMethodBuilder);
+            simpleComputeMethodBuilder(executeMethodBuilder, ParameterizedTypeName.get(
+                    ClassName.get(CompletableFuture.class), ClassName.bestGuess(vajramResponseType.getTypeName())),
+                    false);
         }
         return executeMethodBuilder.build();
     }
 
     /**
-     * Method to generate "resolveInputOfDependency" function code for Vajrams.
-     * If there are no resolvers defined in the Vajram, {@link Optional}.empty() is returned.
+     * Method to generate the resolver functions of Vajrams. Every resolve method of the vajram is
+     * assigned an integer id (its index among the resolve methods) and the following are generated:
+     * <ul>
+     *   <li>"getResolverId" which maps the dependency and resolvable inputs of a resolver to its id.
+     *   This is called once per resolver when the vajram graph is built.
+     *   <li>"resolveInputOfDependency(int, Inputs)" which dispatches to the resolver using a switch
+     *   on the resolver id.
+     *   <li>"resolveInputOfDependency(String, ImmutableSet, Inputs)" which looks up the resolver id
+     *   and delegates to the above.
+     * </ul>
+     * If there are no resolvers defined in the Vajram, an empty list is returned.
      * @param resolverMap Map of all the resolved variables to the methods resolving them
-     * @return generated code for "resolveInputOfDependency" {@link MethodSpec}
+     * @return generated code for the resolver functions
      */
-    public Optional<MethodSpec> createResolvers(Map<String, ? extends List<Method>> resolverMap) {
+    public List<MethodSpec> createResolvers(Map<String, ? extends List<Method>> resolverMap) {
       String dependency = "dependency";
-      Builder resolveInputsBuilder = methodBuilder(METHOD_RESOLVE_INPUT_OF_DEPENDENCY).addModifiers(
-                      PUBLIC).addParameter(String.class, dependency)
-              .addParameter(ParameterizedTypeName.get(ImmutableSet.class, String.class), RESOLVABLE_INPUTS).addParameter(Inputs.class,
-                      INPUTS).returns(
-                      ParameterizedTypeName.get(ClassName.get(DependencyCommand.class), ClassName.get(Inputs.class)));
+      String resolverId = "resolverId";
       ParsedVajramData parsedVajramData = vajramDefs.get(vajramName);
-      if (Objects.nonNull(parsedVajramData)) {
-          resolveInputsBuilder.beginControlFlow("switch ($L) ", dependency);
-          if (parsedVajramData.resolveMethods().isEmpty()) {
-              return Optional.empty();
-          }
-          // get all resolved variable names
-          List<String> resolvedVariables = parsedVajramData.resolveMethods().stream()
-                  .map(method -> method.getAnnotation(Resolve.class).value()).toList();
-
-          resolverMap.forEach((variable, methods) -> {
-              CodeBlock.Builder caseBuilder = CodeBlock.builder().beginControlFlow("case $S -> ", variable);
-              methods.forEach(method -> {
-                  Resolve resolve = method.getAnnotation(Resolve.class);
-                  String[] inputs = resolve.inputs();
-                  // TODO : confirm if this logic is correct for all parameters for a resolve method
-                  stream(method.getParameters()).forEach(parameter -> {
-                      CodeBlock.Builder ifBlockBuilder = buildInputResolver(resolvedVariables, resolverMap,
-                              method, inputs, parameter);
-                      caseBuilder.add(ifBlockBuilder.build());
-                  });
-              });
-              caseBuilder.endControlFlow();
-              resolveInputsBuilder.addCode(caseBuilder.build());
-          });
-          resolveInputsBuilder.endControlFlow();
-          resolveInputsBuilder.addStatement("throw new $T($S)", ClassName.get(VajramValidationException.class),
-                  "Unresolvable dependency");
-      } else {
-          resolveInputsBuilder.addStatement("throw new $T($S)", ClassName.get(VajramValidationException.class),
-                  "Unresolvable dependency");
+      if (Objects.isNull(parsedVajramData) || parsedVajramData.resolveMethods().isEmpty()) {
+          return List.of();
       }
-      return Optional.of(resolveInputsBuilder.build());
+      Builder resolverIdBuilder = methodBuilder(METHOD_GET_RESOLVER_ID).addModifiers(PUBLIC)
+              .addAnnotation(Override.class)
+              .addParameter(String.class, dependency)
+              .addParameter(ParameterizedTypeName.get(ImmutableSet.class, String.class), RESOLVABLE_INPUTS)
+              .returns(int.class);
+      Builder resolveByIdBuilder = methodBuilder(METHOD_RESOLVE_INPUT_OF_DEPENDENCY).addModifiers(PUBLIC)
+              .addAnnotation(Override.class)
+              .addParameter(int.class, resolverId)
+              .addParameter(Inputs.class, INPUTS)
+              .returns(ParameterizedTypeName.get(clsDeps.get(DEP_COMMAND), clsDeps.get(INPUTS)));
+      // get all resolved variable names
+      List<String> resolvedVariables = parsedVajramData.resolveMethods().stream()
+              .map(method -> method.getAnnotation(Resolve.class).value()).toList();
+
+      resolveByIdBuilder.beginControlFlow("switch ($L)", resolverId);
+      List<Method> resolveMethods = new ArrayList<>(parsedVajramData.resolveMethods());
+      for (int id = 0; id < resolveMethods.size(); id++) {
+          Method method = resolveMethods.get(id);
+          Resolve resolve = method.getAnnotation(Resolve.class);
+          String[] inputs = resolve.inputs();
+          resolverIdBuilder.beginControlFlow("if ($S.equals($L) && $T.of($L).equals($L))",
+                  resolve.value(), dependency, ImmutableSet.class,
+                  stream(inputs).map(input -> CodeBlock.of("$S", input)).collect(CodeBlock.joining(", ")),
+                  RESOLVABLE_INPUTS);
+          resolverIdBuilder.addStatement("return $L", id);
+          resolverIdBuilder.endControlFlow();
+
+          // The resolve method is invoked once with all its bound parameters
+          CodeBlock.Builder caseBuilder = CodeBlock.builder().beginControlFlow("case $L -> ", id);
+          caseBuilder.add(buildInputResolver(resolvedVariables, resolverMap, method, inputs).build());
+          caseBuilder.endControlFlow();
+          resolveByIdBuilder.addCode(caseBuilder.build());
+      }
+      resolverIdBuilder.addStatement("return -1");
+      resolveByIdBuilder.endControlFlow();
+      resolveByIdBuilder.addStatement("throw new $T($S)", ClassName.get(VajramValidationException.class),
+              "Unresolvable dependency");
+
+      MethodSpec resolveByNameMethod = methodBuilder(METHOD_RESOLVE_INPUT_OF_DEPENDENCY).addModifiers(PUBLIC)
+              .addAnnotation(Override.class)
+              .addParameter(String.class, dependency)
+              .addParameter(ParameterizedTypeName.get(ImmutableSet.class, String.class), RESOLVABLE_INPUTS)
+              .addParameter(Inputs.class, INPUTS)
+              .returns(ParameterizedTypeName.get(clsDeps.get(DEP_COMMAND), clsDeps.get(INPUTS)))
+              .addStatement("return $L($L($L, $L), $L)", METHOD_RESOLVE_INPUT_OF_DEPENDENCY, METHOD_GET_RESOLVER_ID,
+                      dependency, RESOLVABLE_INPUTS, INPUTS)
+              .build();
+      return List.of(resolverIdBuilder.build(), resolveByIdBuilder.build(), resolveByNameMethod);
   }
 
     /**
-     * Method to generate resolver code for input binding
+     * Method to generate resolver code for input binding. The resolve method is invoked once with all
+     * its parameters bound, so the generated code block ends with a single return statement.
      * @param resolvedVariables all resolved variable names
      * @param resolverMap Map of all the resolved variables to the methods resolving them
      * @param method Vajram resolve method
      * @param inputs Resolve annotation inputs
-     * @param methodParam Resolve method parameter
      * @return {@link CodeBlock.Builder} with resolver code
      */
-    private CodeBlock.Builder buildInputResolver(Collection<String> resolvedVariables, Map<String, ? extends List<Method>> resolverMap, Method method, String[] inputs,
-            AnnotatedElement methodParam) {
-        // check if the input is satisfied by input or other resolved variables
-        String bindParamName = methodParam.getAnnotation(BindFrom.class).value();
-        Parameter parameter = stream(method.getParameters()).filter(
-                param -> inputDefsMap.containsKey(bindParamName) ||
-                resolvedVariables.contains(bindParamName)).findFirst()
-                .orElseThrow(() -> new VajramValidationException("Parameter binding incorrect for input - " + inputs[0]));
+    private CodeBlock.Builder buildInputResolver(Collection<String> resolvedVariables, Map<String, ? extends List<Method>> resolverMap, Method method, String[] inputs) {
         CodeBlock.Builder ifBlockBuilder = CodeBlock.builder();
-        ifBlockBuilder.beginControlFlow("if ($T.of($S).equals(resolvableInputs))",
-                Set.class, String.join(",", inputs));
-        // check if the bind param has multiple resolvers
-        if (resolverMap.containsKey(bindParamName) && resolverMap.get(bindParamName).size() > 1) {
-            buildResolverForMultipleBindings(method, inputs, bindParamName, ifBlockBuilder);
+        Parameter[] parameters = method.getParameters();
+        if (parameters.length == 0) {
+            return ifBlockBuilder;
+        }
+        // check if every parameter is satisfied by input or other resolved variables
+        for (Parameter parameter : parameters) {
+            BindFrom bindFrom = parameter.getAnnotation(BindFrom.class);
+            if (bindFrom == null || !(inputDefsMap.containsKey(bindFrom.value())
+                    || resolvedVariables.contains(bindFrom.value()))) {
+                throw new VajramValidationException("Parameter binding incorrect for input - " + inputs[0]);
+            }
+        }
+        // check if a bind param has multiple resolvers
+        List<Parameter> multiBindingParams = stream(parameters).filter(parameter -> {
+            String bindParamName = parameter.getAnnotation(BindFrom.class).value();
+            return resolverMap.containsKey(bindParamName) && resolverMap.get(bindParamName).size() > 1;
+        }).toList();
+        if (multiBindingParams.size() > 1) {
+            throw new VajramValidationException("Incorrect vajram resolver " + vajramName + ": At most one parameter of "
+                    + method.getName() + " can be bound to a variable with multiple resolvers");
+        }
+        if (multiBindingParams.isEmpty()) {
+            buildResolverForSingleBindings(method, inputs, parameters[0], ifBlockBuilder);
         } else {
-            buildResolverForSingleBindings(method, inputs, parameter, ifBlockBuilder);
+            buildResolverForMultipleBindings(method, inputs, multiBindingParams.get(0), ifBlockBuilder);
         }
-        ifBlockBuilder.endControlFlow();
         return ifBlockBuilder;
     }
 
+    /**
+     * Method to generate the arguments with which a resolve method is invoked. Every parameter is
+     * bound to the input named by its {@link BindFrom} annotation, except for the given parameter
+     * (if any), which is bound to the given variable.
+     * @param method Resolve method
+     * @param variableParam The parameter bound to the variable, or null if there is no such parameter
+     * @param variableName The name of the variable
+     * @return the comma separated arguments of the resolve method
+     */
+    private static CodeBlock resolverArguments(Method method, Parameter variableParam, String variableName) {
+        return stream(method.getParameters())
+                .map(parameter -> parameter.equals(variableParam)
+                        ? CodeBlock.of("$L", variableName)
+                        : CodeBlock.of("inputs.getInputValueOrThrow($S)",
+                                parameter.getAnnotation(BindFrom.class).value()))
+                .collect(CodeBlock.joining(", "));
+    }
+
     /**
      * Method to generate resolver code for variables having single resolver.
      * @param method Resolve method
@@ -560,9 +688,9 @@ public class VajramCodeGenerator {
             } else {
                 actualTypeArgument = Primitives.wrap(returnType);
             }
-            ifBlockBuilder.addStatement("$T<$T> $L = super.$L(inputs.getInputValueOrThrow($S))",
+            ifBlockBuilder.addStatement("$T<$T> $L = super.$L($L)",
                     clsDeps.get(DEP_COMMAND), actualTypeArgument, variableName,
-                    method.getName(), parameter.getAnnotation(BindFrom.class).value());
+                    method.getName(), resolverArguments(method, null, null));
 
             ifBlockBuilder.beginControlFlow("if($L instanceof $T.Skip<$T> skip)",
                     parameter.getName(), clsDeps.get(DEP_COMMAND), actualTypeArgument);
@@ -571,8 +699,8 @@ public class VajramCodeGenerator {
             controlFLowStarted = true;
         } else {
             // wrap with dependency command
-            ifBlockBuilder.addStatement("$T value = super.$L(inputs.getInputValueOrThrow($S))",
-                    Primitives.wrap(returnType), method.getName(), parameter.getAnnotation(BindFrom.class).value());
+            ifBlockBuilder.addStatement("$T value = super.$L($L)",
+                    Primitives.wrap(returnType), method.getName(), resolverArguments(method, null, null));
             ifBlockBuilder.addNamed("""
                     $depCommand:T<$returnType:T> $resultName:L =
                           $optional:T.ofNullable(value)
@@ -695,11 +823,12 @@ public class VajramCodeGenerator {
      * Method to generate resolver code for variables having multiple resolvers.
      * @param method Resolve method
      * @param inputs Resolve inputs
-     * @param bindParamName Resolve method parameter
+     * @param parameter Resolve method parameter bound to the variable having multiple resolvers
      * @param ifBlockBuilder The code builder from caller
      */
     private void buildResolverForMultipleBindings(Method method, String[] inputs,
-            String bindParamName, CodeBlock.Builder ifBlockBuilder) {
+            Parameter parameter, CodeBlock.Builder ifBlockBuilder) {
+        String bindParamName = parameter.getAnnotation(BindFrom.class).value();
         VajramInputDefinition vajramInputDef = inputDefsMap.get(bindParamName);
         if (vajramInputDef instanceof Dependency<?> inputDefDependency) {
             DataAccessSpec dataAccessSpec = inputDefDependency.dataAccessSpec();
@@ -713,10 +842,7 @@ public class VajramCodeGenerator {
                 String variableName = "computedValues";
                 ifBlockBuilder.addStatement("""
                         $1T<$2T, $3T> $4L =\s
-                         new $5T<>(inputs.<$6T>getDepValue($7S)
-                              .values().entrySet().stream()
-                              .collect($8T.toImmutableMap(e -> $9T.from(e.getKey()),
-                              $10T::getValue)))""",
+                         $5T.fromResults(inputs.<$6T>getDepValue($7S), $8T::from)""",
                         clsDeps.get(DEP_RESP),
                         ClassName.get(depPackageName, requestClass),
                         ClassName.get(Primitives.wrap(method.getReturnType())),
@@ -724,18 +850,17 @@ public class VajramCodeGenerator {
                         clsDeps.get(DEP_RESP),
                         ClassName.get(Primitives.wrap(method.getReturnType())),
                         bindParamName,
-                        clsDeps.get(IM_MAP),
-                        ClassName.get(depPackageName, requestClass), ClassName.get(Map.Entry.class));
+                        ClassName.get(depPackageName, requestClass));
                 ifBlockBuilder.addStatement("""
                     return $T.multiExecuteWith($L.values().stream()
                         .filter(element -> element.value().isPresent())
                         .map(element -> element.value().get())
-                        .map(super::$L)
+                        .map(value -> super.$L($L))
                         .map(t -> $T.withValue((Object) t))
                         .map(voe -> new $T($T.of($S, voe)))
                         .collect($T.toImmutableList()))""",
                     clsDeps.get(DEP_COMMAND),
-                    variableName, method.getName(),
+                    variableName, method.getName(), resolverArguments(method, parameter, "value"),
                     clsDeps.get(VAL_ERR), clsDeps.get(INPUTS),
                     clsDeps.get(IM_MAP), inputs[0],
                     clsDeps.get(IM_LIST)
@@ -1010,7 +1135,7 @@ public class VajramCodeGenerator {
         "return new $T(%s)"
             .formatted(
                 inputNames.stream()
-                    .map(s -> "values.getInputValueOrDefault($S, null)")
+                    .map(s -> "values.getInputValueOrNull($S)")
                     .collect(Collectors.joining(", "))),
         Stream.concat(Stream.of(enclosingClass), inputNames.stream()).toArray());
     return new FromAndTo(fromInputValues.build(), toInputValues.build());
@@ -4,7 +4,9 @@ import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
 
+import com.flipkart.krystal.vajram.Vajram;
 import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramLoader;
 import com.flipkart.krystal.vajram.codegen.models.ParsedVajramData;
 import com.flipkart.krystal.vajram.codegen.models.VajramInputFile;
 import com.flipkart.krystal.vajram.codegen.models.VajramInputsDef;
@@ -28,6 +30,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.cli.CommandLine;
@@ -42,9 +47,13 @@ import org.apache.commons.cli.ParseException;
 public class VajramModelsCodeGen {
 
     public static final String INPUTS_FILE_EXTENSION = ".vajram.yaml";
+    private static final String MODULE_INFO_FILE = "module-info.java";
+    private static final Pattern VAJRAM_PROVIDES_PATTERN = Pattern.compile(
+            "provides\\s+" + Pattern.quote(Vajram.class.getName()) + "\\s+with\\s+([^;]+);");
     private final List<Path> srcDirs;
     private final Path javaDir;
     private final Path compiledDir;
+    private final Path resourcesDir;
 
     //  private static VajramModelsCodeGen vajramModelsCodeGen = null;
 
@@ -83,10 +92,26 @@ public class VajramModelsCodeGen {
         new VajramModelsCodeGen(srcDirs.stream().map(File::toPath).toList(), Path.of(compiledDir), Path.of(destinationDir)).codeGenVajramImpl();
     }
 
+    /**
+     * Generates the vajram impls into the {@code destinationDir} and an index of all the generated
+     * impls into the {@code resourcesDestinationDir} so that {@link VajramLoader} can load the vajrams
+     * without scanning the classpath.
+     */
+    public static void codeGenVajramImpl(Set<File> srcDirs, String compiledDir, String destinationDir,
+            String resourcesDestinationDir) throws Exception {
+        new VajramModelsCodeGen(srcDirs.stream().map(File::toPath).toList(), Path.of(compiledDir), Path.of(destinationDir),
+                Path.of(resourcesDestinationDir)).codeGenVajramImpl();
+    }
+
     public VajramModelsCodeGen(List<Path> srcDirs, Path compiledDir, Path javaDir) {
+        this(srcDirs, compiledDir, javaDir, null);
+    }
+
+    public VajramModelsCodeGen(List<Path> srcDirs, Path compiledDir, Path javaDir, Path resourcesDir) {
         this.compiledDir = compiledDir;
         this.srcDirs = Collections.unmodifiableList(srcDirs);
         this.javaDir = javaDir;
+        this.resourcesDir = resourcesDir;
     }
 
     private void codeGenModels() throws Exception {
@@ -138,6 +163,7 @@ public class VajramModelsCodeGen {
                             vajramInputFile.vajramInputsDef().allInputsDefinitions());
                 }
             });
+            List<String> vajramImplClassNames = new ArrayList<>();
             inputFiles.forEach(inputFile -> {
                 // check to call VajramImpl codegen if Vajram class exists
                 if (vajramDefs.containsKey(inputFile.vajramName())) {
@@ -145,18 +171,64 @@ public class VajramModelsCodeGen {
                         VajramCodeGenerator vajramCodeGenerator = new VajramCodeGenerator(inputFile, vajramDefs,
                                 vajramInputsDef);
                         codeGenVajramImpl(vajramCodeGenerator, urlcl);
+                        vajramImplClassNames.add(vajramCodeGenerator.getPackageName() + Constants.DOT_SEPARATOR
+                                + CodegenUtils.getVajramImplClassName(vajramCodeGenerator.getVajramName()));
                     } catch (Exception e) {
                         throw new RuntimeException("Could not generate vajram impl for file %s".formatted(
                                 inputFile.inputFilePath().relativeFilePath()), e);
                     }
                 }
             });
+            codeGenVajramIndex(vajramImplClassNames);
         } catch (IOException e) {
             throw new RuntimeException("Exception while generating vajram impl", e);
         }
 
     }
 
+    private void codeGenVajramIndex(List<String> vajramImplClassNames) throws IOException {
+        if (resourcesDir == null) {
+            return;
+        }
+        Path vajramIndexFile = resourcesDir.resolve(VajramLoader.VAJRAM_INDEX_FILE);
+        Files.createDirectories(vajramIndexFile.getParent());
+        Files.write(vajramIndexFile, vajramImplClassNames.stream().sorted().toList(), CREATE, TRUNCATE_EXISTING, WRITE);
+        validateModuleProvides(vajramImplClassNames);
+    }
+
+    /**
+     * ServiceLoader ignores META-INF/services in named modules, so if the vajrams are in a named module, its
+     * descriptor must provide all the generated vajram impls for {@link VajramLoader} to find them.
+     */
+    private void validateModuleProvides(List<String> vajramImplClassNames) throws IOException {
+        for (Path srcDir : srcDirs) {
+            Path moduleInfo = srcDir.resolve(MODULE_INFO_FILE);
+            if (!Files.isRegularFile(moduleInfo)) {
+                continue;
+            }
+            Set<String> providedVajrams = new LinkedHashSet<>();
+            Matcher matcher = VAJRAM_PROVIDES_PATTERN.matcher(Files.readString(moduleInfo));
+            while (matcher.find()) {
+                for (String providedClass : matcher.group(1).split(",")) {
+                    providedVajrams.add(providedClass.strip());
+                }
+            }
+            List<String> missingVajrams = vajramImplClassNames.stream()
+                    .filter(vajramImplClassName -> !providedVajrams.contains(vajramImplClassName))
+                    .sorted()
+                    .toList();
+            if (!missingVajrams.isEmpty()) {
+                throw new IllegalStateException(
+                        "%s does not provide the generated vajram impls %s. Add the following to the module declaration: %n%s"
+                                .formatted(moduleInfo, missingVajrams, vajramImplClassNames.stream()
+                                        .sorted()
+                                        .collect(Collectors.joining(",\n        ",
+                                                "    provides " + Vajram.class.getName() + " with\n        ",
+                                                ";"))));
+            }
+        }
+    }
+
     private void codeGenVajramImpl(VajramCodeGenerator vajramCodeGenerator, ClassLoader classLoader) throws IOException {
         File vajramJavaDir = Paths.get(javaDir.toString(), vajramCodeGenerator.getPackageName().split("\\.")).toFile();
         if (vajramJavaDir.isDirectory() || vajramJavaDir.mkdirs()) {
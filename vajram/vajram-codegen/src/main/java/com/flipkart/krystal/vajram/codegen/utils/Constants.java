@@ -30,6 +30,9 @@ public final class Constants {
     public static final String METHOD_GET_INPUTS_CONVERTOR = "getInputsConvertor";
     public static final String METHOD_EXECUTE = "execute";
     public static final String METHOD_RESOLVE_INPUT_OF_DEPENDENCY = "resolveInputOfDependency";
+    public static final String METHOD_GET_RESOLVER_ID = "getResolverId";
+    public static final String METHOD_GET_METADATA = "getMetadata";
+    public static final String METADATA = "METADATA";
     public static final String METHOD_EXECUTE_COMPUTE = "executeCompute";
     public static final String GET_INPUT_DEFINITIONS = "getInputDefinitions";
     public static final String ALL_INPUTS = "AllInputs";
@@ -2,7 +2,6 @@ package com.flipkart.krystal.vajramexecutor.krystex;
 
 import static com.flipkart.krystal.utils.Futures.linkFutures;
 import static com.google.common.collect.ImmutableList.toImmutableList;
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
 
 import com.flipkart.krystal.config.ConfigProvider;
 import com.flipkart.krystal.config.NestedConfig;
@@ -14,6 +13,7 @@ import com.flipkart.krystal.krystex.decoration.LogicDecoratorCommand;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
 import com.flipkart.krystal.krystex.node.DependantChain;
 import com.flipkart.krystal.vajram.inputs.InputValuesAdaptor;
+import com.flipkart.krystal.vajram.modulation.DeduplicatingInputModulator;
 import com.flipkart.krystal.vajram.modulation.InputModulator;
 import com.flipkart.krystal.vajram.modulation.InputsConverter;
 import com.flipkart.krystal.vajram.modulation.ModulatedInput;
@@ -21,15 +21,16 @@ import com.flipkart.krystal.vajram.modulation.UnmodulatedInput;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 
 public final class InputModulationDecorator<
         I /*InputsNeedingModulation*/ extends InputValuesAdaptor,
@@ -42,45 +43,58 @@ public final class InputModulationDecorator<
   private final InputModulator<I, C> inputModulator;
   private final InputsConverter<I, C> inputsConverter;
   private final Predicate<DependantChain> isApplicableToDependantChain;
-  private final Map<Inputs, CompletableFuture<Object>> futureCache = new HashMap<>();
+  /**
+   * Futures of the inputs which have been added to the input modulator and whose results have not
+   * yet been computed. Entries are removed as soon as their futures complete, so this only holds
+   * the inputs of the current modulation cycle. All the requests for identical inputs in a cycle
+   * share the same future, so that a single result is fanned out to all of them when the input
+   * modulator deduplicates inputs (see {@link DeduplicatingInputModulator}).
+   *
+   * <p>Concurrent since input modulators can modulate inputs from other threads (for example, on
+   * expiry of a batching window).
+   */
+  private final Map<Inputs, CompletableFuture<Object>> futureCache = new ConcurrentHashMap<>();
   private ImmutableSet<DependantChain> activeDependantChains;
   private final Set<DependantChain> flushedDependantChains = new LinkedHashSet<>();
 
+  /** The logic which was most recently decorated by this decorator. */
+  private volatile @MonotonicNonNull MainLogic<Object> logicToDecorate;
+
   public InputModulationDecorator(
       String instanceId,
       InputModulator<I, C> inputModulator,
       InputsConverter<I, C> inputsConverter,
-      Predicate<DependantChain> isApplicableToDependantChain) {
+      Predicate<DependantChain> isApplicableToDependantChain,
+      Executor executor) {
     this.instanceId = instanceId;
     this.inputModulator = inputModulator;
     this.inputsConverter = inputsConverter;
     this.isApplicableToDependantChain = isApplicableToDependantChain;
+    // Inputs modulated by the modulator on its own are executed on the command queue of the
+    // executor which owns this decorator.
+    inputModulator.onModulation(
+        requests -> requests.forEach(this::modulateInputsList), executor);
   }
 
   @Override
   public MainLogic<Object> decorateLogic(MainLogic<Object> logicToDecorate) {
-    inputModulator.onModulation(
-        requests -> requests.forEach(request -> modulateInputsList(logicToDecorate, request)));
+    this.logicToDecorate = logicToDecorate;
     return inputsList -> {
-      List<UnmodulatedInput<I, C>> requests = inputsList.stream().map(inputsConverter).toList();
-      List<ModulatedInput<I, C>> modulatedInputs =
-          requests.stream()
-              .map(
-                  unmodulatedInput ->
-                      inputModulator.add(
-                          unmodulatedInput.inputsNeedingModulation(),
-                          unmodulatedInput.commonInputs()))
-              .flatMap(Collection::stream)
-              .toList();
-      requests.forEach(
-          request ->
-              futureCache.computeIfAbsent(request.toInputValues(), e -> new CompletableFuture<>()));
+      ImmutableMap.Builder<Inputs, CompletableFuture<Object>> results =
+          ImmutableMap.builderWithExpectedSize(inputsList.size());
+      List<ModulatedInput<I, C>> modulatedInputs = new ArrayList<>();
+      for (Inputs inputs : inputsList) {
+        UnmodulatedInput<I, C> request = inputsConverter.apply(inputs);
+        Inputs inputValues = request.toInputValues();
+        // Get hold of the future before modulating since the entry is removed on completion
+        results.put(inputValues, getOrCreateFuture(inputValues));
+        modulatedInputs.addAll(
+            inputModulator.add(request.inputsNeedingModulation(), request.commonInputs()));
+      }
       for (ModulatedInput<I, C> modulatedInput : modulatedInputs) {
-        modulateInputsList(logicToDecorate, modulatedInput);
+        modulateInputsList(modulatedInput);
       }
-      return requests.stream()
-          .map(UnmodulatedInput::toInputValues)
-          .collect(toImmutableMap(Function.identity(), futureCache::get));
+      return results.buildOrThrow();
     };
   }
 
@@ -101,26 +115,55 @@ public final class InputModulationDecorator<
     }
   }
 
-  private void modulateInputsList(
-      MainLogic<Object> logicToDecorate, ModulatedInput<I, C> modulatedInput) {
+  private void modulateInputsList(ModulatedInput<I, C> modulatedInput) {
+    MainLogic<Object> logicToDecorate = this.logicToDecorate;
+    if (logicToDecorate == null) {
+      throw new IllegalStateException(
+          "Decorator %s has not decorated any logic".formatted(instanceId));
+    }
     ImmutableList<UnmodulatedInput<I, C>> requests =
         modulatedInput.inputsNeedingModulation().stream()
             .map(each -> new UnmodulatedInput<>(each, modulatedInput.commonInputs()))
             .collect(toImmutableList());
+    long startNanos = System.nanoTime();
     ImmutableMap<Inputs, CompletableFuture<Object>> originalFutures =
         logicToDecorate.execute(
             requests.stream().map(UnmodulatedInput::toInputValues).collect(toImmutableList()));
+    reportCompletion(inputModulator, requests.size(), startNanos, originalFutures);
     originalFutures.forEach(
-        (inputs, resultFuture) -> {
-          CompletableFuture<Object> cachedResult =
-              futureCache.computeIfAbsent(inputs, request -> new CompletableFuture<>());
-          linkFutures(resultFuture, cachedResult);
+        (inputs, resultFuture) -> linkFutures(resultFuture, getOrCreateFuture(inputs)));
+  }
+
+  private CompletableFuture<Object> getOrCreateFuture(Inputs inputs) {
+    return futureCache.computeIfAbsent(
+        inputs,
+        k -> {
+          CompletableFuture<Object> future = new CompletableFuture<>();
+          future.whenComplete((o, t) -> futureCache.remove(inputs, future));
+          return future;
         });
   }
 
+  /**
+   * Reports the latency of a modulated input to the input modulator once all its results are
+   * computed.
+   */
+  static void reportCompletion(
+      InputModulator<?, ?> inputModulator,
+      int batchSize,
+      long startNanos,
+      ImmutableMap<Inputs, CompletableFuture<Object>> resultFutures) {
+    CompletableFuture.allOf(resultFutures.values().toArray(CompletableFuture[]::new))
+        .whenComplete(
+            (unused, throwable) ->
+                inputModulator.onModulatedInputCompletion(
+                    batchSize, System.nanoTime() - startNanos));
+  }
+
   @Override
   public void onConfigUpdate(ConfigProvider configProvider) {
-    inputModulator.onConfigUpdate(new NestedConfig("input_modulation.", configProvider));
+    inputModulator.onConfigUpdate(
+        new NestedConfig(instanceId + ".input_modulation.", configProvider));
   }
 
   @Override
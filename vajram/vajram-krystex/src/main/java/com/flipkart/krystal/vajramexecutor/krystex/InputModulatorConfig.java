@@ -1,5 +1,6 @@
 package com.flipkart.krystal.vajramexecutor.krystex;
 
+import com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.decoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig.DecoratorContext;
@@ -8,10 +9,12 @@ import com.flipkart.krystal.krystex.node.DependantChain;
 import com.flipkart.krystal.krystex.node.DependantChainFirstNode;
 import com.flipkart.krystal.krystex.node.DependantChainStart;
 import com.flipkart.krystal.krystex.node.NodeDefinitionRegistry;
+import com.flipkart.krystal.logic.LogicTag;
 import com.flipkart.krystal.vajram.Vajram;
 import com.flipkart.krystal.vajram.inputs.InputValuesAdaptor;
 import com.flipkart.krystal.vajram.modulation.InputModulator;
 import com.flipkart.krystal.vajram.modulation.InputsConverter;
+import com.flipkart.krystal.vajram.modulation.WindowedBatcher;
 import com.flipkart.krystal.vajram.tags.VajramTags;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -19,9 +22,20 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * @param sessionScoped if true, the decorators created by the {@code decoratorFactory} are shared
+ *     by all the executors of a session. Otherwise, every executor gets its own decorators.
+ */
 public record InputModulatorConfig(
     Function<LogicExecutionContext, String> instanceIdGenerator,
-    Function<ModulatorContext, MainLogicDecorator> decoratorFactory) {
+    Function<ModulatorContext, MainLogicDecorator> decoratorFactory,
+    boolean sessionScoped) {
+
+  public InputModulatorConfig(
+      Function<LogicExecutionContext, String> instanceIdGenerator,
+      Function<ModulatorContext, MainLogicDecorator> decoratorFactory) {
+    this(instanceIdGenerator, decoratorFactory, false);
+  }
 
   /**
    * Creates a default {@link InputModulatorConfig} which guarantees that every unique {@link
@@ -57,7 +71,8 @@ public record InputModulatorConfig(
                       .decoratorContext()
                       .logicExecutionContext()
                       .dependants()
-                      .equals(dependantChain));
+                      .equals(dependantChain),
+              modulatorContext.decoratorContext().executor());
         });
   }
 
@@ -78,10 +93,48 @@ public record InputModulatorConfig(
               (InputsConverter<InputValuesAdaptor, InputValuesAdaptor>)
                   modulatorContext.vajram().getInputsConvertor();
           return new InputModulationDecorator<>(
-              instanceId, inputModulatorSupplier.get(), inputsConvertor, dependantChains::contains);
+              instanceId,
+              inputModulatorSupplier.get(),
+              inputsConvertor,
+              dependantChains::contains,
+              modulatorContext.decoratorContext().executor());
         });
   }
 
+  /**
+   * Creates a {@link InputModulatorConfig} which modulates the inputs of a vajram across all the
+   * executors of a session using a single {@link SessionInputModulationDecorator} per vajram.
+   * This allows inputs from concurrent requests to be batched together.
+   *
+   * <p>The {@link SessionInputModulationDecorator#DECORATOR_TYPE} must be ordered before all other
+   * session scoped decorators of the graph in its {@link LogicDecorationOrdering}.
+   *
+   * @param inputModulatorSupplier Supplies the thread safe {@link InputModulator} of the
+   *     decorator. Inputs from concurrent requests are batched together only if the modulator
+   *     modulates inputs on its own (for example, a {@link WindowedBatcher} with a max wait time).
+   *     Other modulators modulate whenever any executor flushes its requests.
+   */
+  public static InputModulatorConfig sessionScoped(
+      Supplier<InputModulator<InputValuesAdaptor, InputValuesAdaptor>> inputModulatorSupplier) {
+    return new InputModulatorConfig(
+        logicExecutionContext ->
+            Optional.ofNullable(logicExecutionContext.logicTags().get(VajramTags.VAJRAM_ID))
+                .map(LogicTag::tagValue)
+                .orElseGet(() -> logicExecutionContext.nodeId().value()),
+        modulatorContext -> {
+          @SuppressWarnings("unchecked")
+          var inputsConvertor =
+              (InputsConverter<InputValuesAdaptor, InputValuesAdaptor>)
+                  modulatorContext.vajram().getInputsConvertor();
+          return new SessionInputModulationDecorator<>(
+              modulatorContext.decoratorContext().instanceId(),
+              inputModulatorSupplier.get(),
+              inputsConvertor,
+              modulatorContext.decoratorContext().executor());
+        },
+        true);
+  }
+
   /**
    * @return decorator instanceId of the form {@code
    *     [Start]>vajramId_1:dep_1>vajramId_2:dep_2>....>vajramId_n:dep_n}
@@ -95,11 +148,8 @@ public record InputModulatorConfig(
         String vajramId =
             Optional.ofNullable(
                     nodeDefinitionRegistry
-                        .logicDefinitionRegistry()
-                        .getMain(
-                            nodeDefinitionRegistry
-                                .get(dependantChainFirstNode.nodeId())
-                                .mainLogicNode())
+                        .get(dependantChainFirstNode.nodeId())
+                        .mainLogicDefinition()
                         .logicTags()
                         .get(VajramTags.VAJRAM_ID))
                 .orElseThrow(
@@ -4,6 +4,7 @@ import com.flipkart.krystal.krystex.KrystalExecutor;
 import com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.node.KrystalNodeExecutor;
 import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.utils.RequestPriority;
 import com.flipkart.krystal.vajram.ApplicationRequestContext;
 import com.flipkart.krystal.vajram.VajramID;
 import com.flipkart.krystal.vajram.VajramRequest;
@@ -24,6 +25,20 @@ public class KrystexVajramExecutor<C extends ApplicationRequestContext>
       LogicDecorationOrdering logicDecorationOrdering,
       MultiLeasePool<? extends ExecutorService> executorServicePool,
       C applicationRequestContext) {
+    this(
+        vajramNodeGraph,
+        logicDecorationOrdering,
+        executorServicePool,
+        applicationRequestContext,
+        RequestPriority.DEFAULT);
+  }
+
+  public KrystexVajramExecutor(
+      VajramNodeGraph vajramNodeGraph,
+      LogicDecorationOrdering logicDecorationOrdering,
+      MultiLeasePool<? extends ExecutorService> executorServicePool,
+      C applicationRequestContext,
+      RequestPriority defaultPriority) {
     this.vajramNodeGraph = vajramNodeGraph;
     this.applicationRequestContext = applicationRequestContext;
     this.krystalExecutor =
@@ -31,7 +46,9 @@ public class KrystexVajramExecutor<C extends ApplicationRequestContext>
             vajramNodeGraph.getNodeDefinitionRegistry(),
             logicDecorationOrdering,
             executorServicePool,
-            applicationRequestContext.requestId());
+            applicationRequestContext.requestId(),
+            vajramNodeGraph.getCriticalPathAnalyzer(),
+            defaultPriority);
   }
 
   @Override
@@ -51,6 +68,19 @@ public class KrystexVajramExecutor<C extends ApplicationRequestContext>
         requestId);
   }
 
+  @Override
+  public <T> CompletableFuture<T> execute(
+      VajramID vajramId,
+      Function<C, VajramRequest> vajramRequestBuilder,
+      String requestId,
+      RequestPriority priority) {
+    return krystalExecutor.executeNode(
+        vajramNodeGraph.getNodeId(vajramId),
+        vajramRequestBuilder.apply(applicationRequestContext).toInputValues(),
+        requestId,
+        priority);
+  }
+
   @Override
   public void flush() {
     krystalExecutor.flush();
@@ -0,0 +1,163 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.utils.Futures.linkFutures;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.NestedConfig;
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.krystex.decoration.FlushCommand;
+import com.flipkart.krystal.krystex.decoration.LogicDecoratorCommand;
+import com.flipkart.krystal.krystex.decoration.MainLogicDecorator;
+import com.flipkart.krystal.vajram.inputs.InputValuesAdaptor;
+import com.flipkart.krystal.vajram.modulation.InputModulator;
+import com.flipkart.krystal.vajram.modulation.InputsConverter;
+import com.flipkart.krystal.vajram.modulation.ModulatedInput;
+import com.flipkart.krystal.vajram.modulation.UnmodulatedInput;
+import com.flipkart.krystal.vajram.modulation.WindowedBatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+/**
+ * An input modulation decorator which is shared by all the executors of a session. Inputs from
+ * concurrently executing requests with the same common inputs are modulated into shared batches.
+ *
+ * <p>If the {@link InputModulator} of this decorator {@link InputModulator#modulatesByItself()
+ * modulates by itself} - for example, a {@link WindowedBatcher} with a max wait time - inputs are
+ * not modulated when the dependants of a request are flushed, since other requests might still be
+ * adding inputs to the batch. Other modulators are asked to modulate whenever any of the executors
+ * flushes its requests, so that no input waits forever. The modulator must be thread-safe.
+ *
+ * <p>Every caller receives its own copy of the result future of its inputs. Since each of the
+ * callers (nodes) completes its own response with this future, the results are routed back to the
+ * command queue of the executor which made the request.
+ *
+ * <p>This decorator executes the logic it decorates from any thread (for example, from the executor
+ * to which a batching window expiry is handed off) on behalf of all the executors of the session.
+ * Hence, it must be ordered before all other decorators so that the logic it decorates is the same
+ * undecorated logic for every executor. {@link VajramNodeGraph} fails to build vajram logic if this
+ * is not the case.
+ */
+public final class SessionInputModulationDecorator<
+        I /*InputsNeedingModulation*/ extends InputValuesAdaptor,
+        C /*CommonInputs*/ extends InputValuesAdaptor>
+    implements MainLogicDecorator {
+
+  public static final String DECORATOR_TYPE = SessionInputModulationDecorator.class.getName();
+
+  private final String instanceId;
+  private final InputModulator<I, C> inputModulator;
+  private final InputsConverter<I, C> inputsConverter;
+
+  /** Result futures of inputs which have been added to the modulator and not yet completed */
+  private final Map<Inputs, CompletableFuture<Object>> pendingFutures = new ConcurrentHashMap<>();
+
+  /**
+   * The logic decorated by the first executor. Since this decorator is ordered before all other
+   * decorators, the logic decorated by every executor is equivalent to this one.
+   */
+  @MonotonicNonNull private volatile MainLogic<Object> logicToDecorate;
+
+  public SessionInputModulationDecorator(
+      String instanceId,
+      InputModulator<I, C> inputModulator,
+      InputsConverter<I, C> inputsConverter,
+      Executor executor) {
+    this.instanceId = instanceId;
+    this.inputModulator = inputModulator;
+    this.inputsConverter = inputsConverter;
+    inputModulator.onModulation(
+        requests -> requests.forEach(this::modulateInputsList), executor);
+  }
+
+  @Override
+  public MainLogic<Object> decorateLogic(MainLogic<Object> logicToDecorate) {
+    if (this.logicToDecorate == null) {
+      synchronized (this) {
+        if (this.logicToDecorate == null) {
+          this.logicToDecorate = logicToDecorate;
+        }
+      }
+    }
+    return inputsList -> {
+      ImmutableMap.Builder<Inputs, CompletableFuture<Object>> results = ImmutableMap.builder();
+      for (Inputs inputs : inputsList) {
+        UnmodulatedInput<I, C> unmodulatedInput = inputsConverter.apply(inputs);
+        Inputs inputValues = unmodulatedInput.toInputValues();
+        CompletableFuture<Object> newFuture = new CompletableFuture<>();
+        CompletableFuture<Object> pendingFuture =
+            pendingFutures.putIfAbsent(inputValues, newFuture);
+        if (pendingFuture == null) {
+          pendingFuture = newFuture;
+          newFuture.whenComplete((o, t) -> pendingFutures.remove(inputValues, newFuture));
+          // Identical inputs which are already pending are not added again
+          for (ModulatedInput<I, C> modulatedInput :
+              inputModulator.add(
+                  unmodulatedInput.inputsNeedingModulation(), unmodulatedInput.commonInputs())) {
+            modulateInputsList(modulatedInput);
+          }
+        }
+        results.put(inputValues, pendingFuture.copy());
+      }
+      return results.buildKeepingLast();
+    };
+  }
+
+  @Override
+  public void executeCommand(LogicDecoratorCommand logicDecoratorCommand) {
+    if (logicDecoratorCommand instanceof FlushCommand && !inputModulator.modulatesByItself()) {
+      inputModulator.modulate();
+    }
+  }
+
+  private void modulateInputsList(ModulatedInput<I, C> modulatedInput) {
+    MainLogic<Object> logicToDecorate = this.logicToDecorate;
+    ImmutableList<Inputs> requests =
+        modulatedInput.inputsNeedingModulation().stream()
+            .map(each -> new UnmodulatedInput<>(each, modulatedInput.commonInputs()))
+            .map(UnmodulatedInput::toInputValues)
+            .collect(toImmutableList());
+    if (logicToDecorate == null) {
+      IllegalStateException error =
+          new IllegalStateException(
+              "Decorator %s has not decorated any logic".formatted(instanceId));
+      requests.forEach(
+          inputs -> {
+            CompletableFuture<Object> pendingFuture = pendingFutures.get(inputs);
+            if (pendingFuture != null) {
+              pendingFuture.completeExceptionally(error);
+            }
+          });
+      return;
+    }
+    long startNanos = System.nanoTime();
+    ImmutableMap<Inputs, CompletableFuture<Object>> resultFutures =
+        logicToDecorate.execute(requests);
+    InputModulationDecorator.reportCompletion(
+        inputModulator, requests.size(), startNanos, resultFutures);
+    resultFutures.forEach(
+        (inputs, resultFuture) -> {
+          CompletableFuture<Object> pendingFuture = pendingFutures.get(inputs);
+          if (pendingFuture != null) {
+            linkFutures(resultFuture, pendingFuture);
+          }
+        });
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    inputModulator.onConfigUpdate(
+        new NestedConfig(instanceId + ".input_modulation.", configProvider));
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+}
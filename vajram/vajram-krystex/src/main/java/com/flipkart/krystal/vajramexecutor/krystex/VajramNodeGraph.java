@@ -1,9 +1,12 @@
 package com.flipkart.krystal.vajramexecutor.krystex;
 
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
 import static com.flipkart.krystal.vajram.VajramLoader.loadVajramsFromClassPath;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
+import com.flipkart.krystal.config.LiveConfigProvider;
 import com.flipkart.krystal.data.InputValue;
 import com.flipkart.krystal.data.Inputs;
 import com.flipkart.krystal.data.ValueOrError;
@@ -15,11 +18,13 @@ import com.flipkart.krystal.krystex.ResolverDefinition;
 import com.flipkart.krystal.krystex.ResolverLogicDefinition;
 import com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.decoration.MainLogicDecoratorConfig;
+import com.flipkart.krystal.krystex.node.CriticalPathAnalyzer;
 import com.flipkart.krystal.krystex.node.NodeDefinition;
 import com.flipkart.krystal.krystex.node.NodeDefinitionRegistry;
 import com.flipkart.krystal.krystex.node.NodeId;
 import com.flipkart.krystal.krystex.node.NodeLogicId;
 import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.utils.RequestPriority;
 import com.flipkart.krystal.vajram.ApplicationRequestContext;
 import com.flipkart.krystal.vajram.IOVajram;
 import com.flipkart.krystal.vajram.MandatoryInputsMissingException;
@@ -43,6 +48,7 @@ import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -52,9 +58,18 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 import lombok.Getter;
-
-/** The execution graph encompassing all registered vajrams. */
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The execution graph encompassing all registered vajrams.
+ *
+ * <p>By default, the node definitions of a vajram are created lazily when the vajram is executed
+ * for the first time. If the graph is built with {@link Builder#compileEagerly()}, the node
+ * definitions of all the registered vajrams are created when the graph is built and the graph is
+ * not modified after that.
+ */
 public final class VajramNodeGraph implements VajramExecutableGraph {
 
   @Getter private final NodeDefinitionRegistry nodeDefinitionRegistry;
@@ -65,6 +80,11 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
   /** These are those call graphs of a vajram where no other vajram depends on this. */
   private final Map<VajramID, NodeId> vajramExecutables = new LinkedHashMap<>();
 
+  /**
+   * The node ids of all the registered vajrams if the graph was compiled eagerly, null otherwise.
+   */
+  private final @Nullable ImmutableMap<VajramID, NodeId> compiledVajramExecutables;
+
   private final VajramIndex vajramIndex = new VajramIndex();
 
   private final ImmutableMap<VajramID, InputModulatorConfig> inputModulatorConfigs;
@@ -73,23 +93,72 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
   private final ImmutableMap<String, MainLogicDecoratorConfig> sessionScopedDecoratorConfigs;
 
   private final LogicDecorationOrdering logicDecorationOrdering;
+
+  /** The provider to which all the logic decorators of this graph are subscribed, if any */
+  private final @Nullable LiveConfigProvider configProvider;
+
   private MultiLeasePool<? extends ExecutorService> executorPool;
 
+  /**
+   * The pools from which executors of each default priority lease their command queues. All the
+   * priorities share {@link #executorPool} unless separate command queues per priority are
+   * enabled.
+   */
+  private final ImmutableMap<RequestPriority, MultiLeasePool<? extends ExecutorService>>
+      executorPoolsByPriority;
+
+  @Getter private final @Nullable CriticalPathAnalyzer criticalPathAnalyzer;
+
   private VajramNodeGraph(
       String[] packagePrefixes,
       ImmutableMap<VajramID, InputModulatorConfig> inputModulatorConfigs,
       ImmutableMap<String, MainLogicDecoratorConfig> sessionScopedDecorators,
       LogicDecorationOrdering logicDecorationOrdering,
-      double maxParallelismPerCore) {
+      @Nullable LiveConfigProvider configProvider,
+      double maxParallelismPerCore,
+      @Nullable Duration criticalPathAnalysisWindow,
+      boolean compileEagerly,
+      boolean buildInParallel,
+      boolean scanForUnindexedVajrams,
+      boolean commandQueuesPerPriority) {
     this.inputModulatorConfigs = inputModulatorConfigs;
     this.sessionScopedDecoratorConfigs = sessionScopedDecorators;
     this.logicDecorationOrdering = logicDecorationOrdering;
+    this.configProvider = configProvider;
     this.executorPool = new ForkJoinExecutorPool(maxParallelismPerCore);
+    ImmutableMap.Builder<RequestPriority, MultiLeasePool<? extends ExecutorService>>
+        executorPoolsByPriority = ImmutableMap.builder();
+    for (RequestPriority priority : RequestPriority.values()) {
+      executorPoolsByPriority.put(
+          priority,
+          commandQueuesPerPriority && priority != RequestPriority.DEFAULT
+              ? new ForkJoinExecutorPool(maxParallelismPerCore)
+              : executorPool);
+    }
+    this.executorPoolsByPriority = executorPoolsByPriority.buildOrThrow();
+    this.criticalPathAnalyzer =
+        criticalPathAnalysisWindow == null
+            ? null
+            : new CriticalPathAnalyzer(criticalPathAnalysisWindow);
     LogicDefinitionRegistry logicDefinitionRegistry = new LogicDefinitionRegistry();
     this.nodeDefinitionRegistry = new NodeDefinitionRegistry(logicDefinitionRegistry);
     this.logicRegistryDecorator = new LogicDefRegistryDecorator(logicDefinitionRegistry);
+    Map<VajramID, Vajram<?>> vajrams = new LinkedHashMap<>();
     for (String packagePrefix : packagePrefixes) {
-      loadVajramsFromClassPath(packagePrefix).forEach(this::registerVajram);
+      loadVajramsFromClassPath(packagePrefix, scanForUnindexedVajrams)
+          .forEach(v -> vajrams.putIfAbsent(v.getId(), v));
+    }
+    // Parsing the vajram definitions is independent for each vajram, and hence can be done in
+    // parallel. Linking vajrams with their dependencies is done sequentially.
+    (buildInParallel ? vajrams.values().parallelStream() : vajrams.values().stream())
+        .map(VajramDefinition::new)
+        .toList()
+        .forEach(this::registerVajram);
+    if (compileEagerly) {
+      vajramDefinitions.keySet().forEach(this::_getVajramExecutionGraph);
+      this.compiledVajramExecutables = ImmutableMap.copyOf(vajramExecutables);
+    } else {
+      this.compiledVajramExecutables = null;
     }
   }
 
@@ -103,22 +172,57 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
     return new KrystexVajramExecutor<>(this, logicDecorationOrdering, executorPool, requestContext);
   }
 
+  /**
+   * Creates an executor whose requests are executed with the given priority unless a priority is
+   * specified when executing them (see {@link KrystexVajramExecutor#execute(VajramID, Function,
+   * String, RequestPriority)}). If separate command queues per priority are enabled (see {@link
+   * Builder#commandQueuesPerPriority()}), the executor leases its command queue from the pool of
+   * the given priority.
+   */
+  public <C extends ApplicationRequestContext> KrystexVajramExecutor<C> createExecutor(
+      C requestContext, RequestPriority defaultPriority) {
+    return new KrystexVajramExecutor<>(
+        this,
+        logicDecorationOrdering,
+        executorPoolsByPriority.get(defaultPriority),
+        requestContext,
+        defaultPriority);
+  }
+
   @Override
   public void close() {
-    executorPool.close();
+    ImmutableSet.copyOf(executorPoolsByPriority.values()).forEach(MultiLeasePool::close);
+  }
+
+  /**
+   * Returns the aggregated time each vajram contributed to the critical paths of the requests
+   * executed in the configured critical path analysis window, sorted in descending order of
+   * contribution. Returns an empty map if critical path analysis is not enabled.
+   *
+   * @see Builder#analyzeCriticalPaths(Duration)
+   */
+  public ImmutableMap<VajramID, Duration> getCriticalPathContributions() {
+    CriticalPathAnalyzer criticalPathAnalyzer = this.criticalPathAnalyzer;
+    if (criticalPathAnalyzer == null) {
+      return ImmutableMap.of();
+    }
+    // Node ids of vajrams are the same as their vajram ids
+    return criticalPathAnalyzer.getCriticalPathContributions().entrySet().stream()
+        .collect(toImmutableMap(e -> vajramID(e.getKey().value()), Map.Entry::getValue));
   }
 
   /**
    * Registers vajrams that need to be executed at a later point. This is a necessary step for
    * vajram execution.
    *
-   * @param vajram The vajram to be registered for future execution.
+   * @param vajramDefinition The definition of the vajram to be registered for future execution.
    */
-  private void registerVajram(Vajram vajram) {
+  private void registerVajram(VajramDefinition vajramDefinition) {
+    Vajram<?> vajram = vajramDefinition.getVajram();
     if (vajramDefinitions.containsKey(vajram.getId())) {
       return;
     }
-    vajramDefinitions.put(vajram.getId(), new VajramDefinition(vajram));
+    vajramDefinitions.put(vajram.getId(), vajramDefinition);
     vajramIndex.add(vajram);
   }
 
@@ -127,14 +231,27 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
    * returns the {@link NodeId} of the {@link NodeDefinition} corresponding to this vajram.
    *
    * <p>This method should be called once all necessary vajrams have been registered using the
-   * {@link #registerVajram(Vajram)} method. If a dependency of a vajram is not registered before
-   * this step, this method will throw an exception.
+   * {@link #registerVajram(VajramDefinition)} method. If a dependency of a vajram is not registered
+   * before this step, this method will throw an exception.
+   *
+   * <p>This method is safe to be called concurrently. If the graph was compiled eagerly, this is a
+   * lock-free lookup.
    *
    * @param vajramId The id of the vajram to execute.
    * @return {@link NodeId} of the {@link NodeDefinition} corresponding to this given vajramId
    */
   NodeId getNodeId(VajramID vajramId) {
-    return _getVajramExecutionGraph(vajramId);
+    ImmutableMap<VajramID, NodeId> compiledVajramExecutables = this.compiledVajramExecutables;
+    if (compiledVajramExecutables != null) {
+      NodeId nodeId = compiledVajramExecutables.get(vajramId);
+      if (nodeId == null) {
+        throw new NoSuchElementException("Could not find vajram with id: %s".formatted(vajramId));
+      }
+      return nodeId;
+    }
+    synchronized (this) {
+      return _getVajramExecutionGraph(vajramId);
+    }
   }
 
   private NodeId _getVajramExecutionGraph(VajramID vajramId) {
@@ -191,6 +308,8 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
                       vajram.getInputDefinitions().stream()
                           .filter(i -> sources.contains(i.name()))
                           .collect(toImmutableList());
+                  Function<Inputs, DependencyCommand<Inputs>> resolverLogic =
+                      bindResolverLogic(vajram, inputResolverDefinition);
                   ResolverLogicDefinition inputResolverNode =
                       logicRegistryDecorator.newResolverLogic(
                           "%s:dep(%s):inputResolver(%s)"
@@ -199,16 +318,8 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
                           sources,
                           inputValues -> {
                             validateMandatory(vajramId, inputValues, requiredInputs);
-                            DependencyCommand<Inputs> dependencyCommand;
-                            if (inputResolverDefinition instanceof InputResolver inputResolver) {
-                              dependencyCommand =
-                                  inputResolver.resolve(
-                                      dependencyName, resolvedInputNames, inputValues);
-                            } else {
-                              dependencyCommand =
-                                  vajram.resolveInputOfDependency(
-                                      dependencyName, resolvedInputNames, inputValues);
-                            }
+                            DependencyCommand<Inputs> dependencyCommand =
+                                resolverLogic.apply(inputValues);
                             if (dependencyCommand
                                 instanceof DependencyCommand.Skip<Inputs> skipCommand) {
                               return ResolverCommand.skip(skipCommand.reason());
@@ -226,6 +337,22 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
     return new InputResolverCreationResult(resolverDefinitions);
   }
 
+  /**
+   * Binds the logic of the given resolver when the graph is built, so that resolving inputs does
+   * not involve matching the dependency name and the resolved input names of the resolver.
+   */
+  private static Function<Inputs, DependencyCommand<Inputs>> bindResolverLogic(
+      Vajram<?> vajram, InputResolverDefinition inputResolverDefinition) {
+    String dependencyName = inputResolverDefinition.resolutionTarget().dependencyName();
+    ImmutableSet<String> resolvedInputNames =
+        inputResolverDefinition.resolutionTarget().inputNames();
+    if (inputResolverDefinition instanceof InputResolver inputResolver) {
+      return inputs -> inputResolver.resolve(dependencyName, resolvedInputNames, inputs);
+    }
+    int resolverId = vajram.getResolverId(dependencyName, resolvedInputNames);
+    return inputs -> vajram.resolveInputOfDependency(resolverId, inputs);
+  }
+
   private void validateMandatory(
       VajramID vajramID, Inputs inputs, ImmutableCollection<VajramInputDefinition> requiredInputs) {
     Iterable<VajramInputDefinition> mandatoryInputs =
@@ -236,14 +363,14 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
     Map<String, Throwable> missingMandatoryValues = new HashMap<>();
     for (VajramInputDefinition mandatoryInput : mandatoryInputs) {
       ValueOrError<?> value = inputs.getInputValue(mandatoryInput.name());
-      if (value.error().isPresent() || value.value().isEmpty()) {
+      if (value.valueOrNull() == null) {
+        Throwable error = value.errorOrNull();
         missingMandatoryValues.put(
             mandatoryInput.name(),
-            value
-                .error()
-                .orElse(
-                    new NoSuchElementException(
-                        "No value present for input %s".formatted(mandatoryInput.name()))));
+            error != null
+                ? error
+                : new NoSuchElementException(
+                    "No value present for input %s".formatted(mandatoryInput.name())));
       }
     }
     if (missingMandatoryValues.isEmpty()) {
@@ -278,6 +405,9 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
               return vajramDefinition.getVajram().execute(inputValues);
             },
             vajramDefinition.getMainLogicTags());
+    if (configProvider != null) {
+      vajramLogic.subscribeDecoratorsTo(configProvider);
+    }
     enableInputModulation(vajramLogic, vajramDefinition.getVajram());
     sessionScopedDecoratorConfigs
         .values()
@@ -289,9 +419,11 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
       MainLogicDefinition<T> logicDefinition, Vajram<?> ioVajram) {
     InputModulatorConfig inputModulatorConfig = inputModulatorConfigs.get(ioVajram.getId());
     if (inputModulatorConfig != null) {
-      logicDefinition.registerRequestScopedDecorator(
+      MainLogicDecoratorConfig decoratorConfig =
           new MainLogicDecoratorConfig(
-              InputModulationDecorator.DECORATOR_TYPE,
+              inputModulatorConfig.sessionScoped()
+                  ? SessionInputModulationDecorator.DECORATOR_TYPE
+                  : InputModulationDecorator.DECORATOR_TYPE,
               nodeExecutionContext ->
                   ioVajram.getInputDefinitions().stream()
                       .filter(inputDefinition -> inputDefinition instanceof Input<?>)
@@ -301,7 +433,24 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
               decoratorContext ->
                   inputModulatorConfig
                       .decoratorFactory()
-                      .apply(new ModulatorContext(ioVajram, decoratorContext))));
+                      .apply(new ModulatorContext(ioVajram, decoratorContext)));
+      if (inputModulatorConfig.sessionScoped()) {
+        // The session scoped decorator executes the logic it decorates from any thread, on behalf
+        // of all the executors of the session. So it must not decorate any other decorator.
+        if (!logicDecorationOrdering.decoratesBefore(
+            SessionInputModulationDecorator.DECORATOR_TYPE,
+            sessionScopedDecoratorConfigs.keySet())) {
+          throw new IllegalStateException(
+              "%s of vajram %s must be ordered before all other logic decorators %s"
+                  .formatted(
+                      SessionInputModulationDecorator.DECORATOR_TYPE,
+                      ioVajram.getId(),
+                      sessionScopedDecoratorConfigs.keySet()));
+        }
+        logicDefinition.registerSessionScopedLogicDecorator(decoratorConfig);
+      } else {
+        logicDefinition.registerRequestScopedDecorator(decoratorConfig);
+      }
     }
   }
 
@@ -383,7 +532,13 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
     private final Map<VajramID, InputModulatorConfig> inputModulators = new LinkedHashMap<>();
     private LogicDecorationOrdering logicDecorationOrdering =
         new LogicDecorationOrdering(ImmutableSet.of());
+    private @Nullable LiveConfigProvider configProvider;
     private double maxParallelismPerCore = 1;
+    private @Nullable Duration criticalPathAnalysisWindow;
+    private boolean compileEagerly;
+    private boolean buildInParallel;
+    private boolean scanForUnindexedVajrams;
+    private boolean commandQueuesPerPriority;
 
     public Builder loadFromPackage(String packagePrefix) {
       packagePrefixes.add(packagePrefix);
@@ -416,13 +571,82 @@ public final class VajramNodeGraph implements VajramExecutableGraph {
       return this;
     }
 
+    /**
+     * Subscribes every logic decorator (and hence every input modulator) of the graph to the given
+     * provider when the decorator is created, so that decorators can be retuned at runtime. Each
+     * decorator is notified of changes to the configs prefixed with its instance id.
+     */
+    public Builder configProvider(LiveConfigProvider configProvider) {
+      this.configProvider = configProvider;
+      return this;
+    }
+
+    /**
+     * Enables recording of vajram execution spans and aggregation of the critical path contribution
+     * of every vajram over a sliding window of the given size.
+     *
+     * @see VajramNodeGraph#getCriticalPathContributions()
+     */
+    public Builder analyzeCriticalPaths(Duration window) {
+      this.criticalPathAnalysisWindow = window;
+      return this;
+    }
+
+    /**
+     * Creates the node definitions of all the registered vajrams when the graph is built, instead
+     * of lazily on first execution. This makes the latency of the first execution of every vajram
+     * predictable and the graph immutable once built.
+     */
+    public Builder compileEagerly() {
+      this.compileEagerly = true;
+      return this;
+    }
+
+    /** Parses the definitions of the loaded vajrams in parallel while building the graph. */
+    public Builder buildInParallel() {
+      this.buildInParallel = true;
+      return this;
+    }
+
+    /**
+     * Scans the classpath for vajrams which are not in the index generated by the vajram codegen
+     * plugin (like hand-written vajram implementations), even in packages which have indexed
+     * vajrams. This slows down building the graph, and hence is disabled by default.
+     *
+     * @see com.flipkart.krystal.vajram.VajramLoader#loadVajramsFromClassPath(String, boolean)
+     */
+    public Builder scanForUnindexedVajrams() {
+      this.scanForUnindexedVajrams = true;
+      return this;
+    }
+
+    /**
+     * Executors created with a non-default priority (see {@link
+     * VajramNodeGraph#createExecutor(ApplicationRequestContext, RequestPriority)}) lease their
+     * command queues from a separate pool per priority, so that their commands never compete for
+     * threads with the commands of executors of other priorities. Each pool has upto {@link
+     * #maxParallelismPerCore(double)} command queues per core. Requests of different priorities
+     * executed via the same executor still share its command queue, and are scheduled by the
+     * lanes of the queue.
+     */
+    public Builder commandQueuesPerPriority() {
+      this.commandQueuesPerPriority = true;
+      return this;
+    }
+
     public VajramNodeGraph build() {
       return new VajramNodeGraph(
           packagePrefixes.toArray(String[]::new),
           ImmutableMap.copyOf(inputModulators),
           ImmutableMap.copyOf(sessionScopedDecoratorConfigs),
           logicDecorationOrdering,
-          maxParallelismPerCore);
+          configProvider,
+          maxParallelismPerCore,
+          criticalPathAnalysisWindow,
+          compileEagerly,
+          buildInParallel,
+          scanForUnindexedVajrams,
+          commandQueuesPerPriority);
     }
   }
 }
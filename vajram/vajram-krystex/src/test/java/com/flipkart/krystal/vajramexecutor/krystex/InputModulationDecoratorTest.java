@@ -0,0 +1,81 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.data.ValueOrError.withValue;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Inputs;
+import com.flipkart.krystal.krystex.MainLogic;
+import com.flipkart.krystal.vajram.inputs.InputValuesAdaptor;
+import com.flipkart.krystal.vajram.modulation.DeduplicatingInputModulator;
+import com.flipkart.krystal.vajram.modulation.UnmodulatedInput;
+import com.flipkart.krystal.vajram.modulation.WindowedBatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class InputModulationDecoratorTest {
+
+  @Test
+  void decorateLogic_duplicateInputsDeduplicated_singleResultFannedOutToAllRequests()
+      throws Exception {
+    DeduplicatingInputModulator<TestInputs, TestInputs> inputModulator =
+        new DeduplicatingInputModulator<>(WindowedBatcher.maxSize(2));
+    InputModulationDecorator<TestInputs, TestInputs> decorator =
+        new InputModulationDecorator<>(
+            "test_vajram",
+            inputModulator,
+            inputs ->
+                new UnmodulatedInput<>(
+                    new TestInputs(new Inputs(ImmutableMap.of("key", inputs.getInputValue("key")))),
+                    new TestInputs(
+                        new Inputs(ImmutableMap.of("common", inputs.getInputValue("common"))))),
+            dependantChain -> true,
+            Runnable::run);
+    List<ImmutableList<Inputs>> executions = new ArrayList<>();
+    MainLogic<Object> decorated =
+        decorator.decorateLogic(
+            inputsList -> {
+              executions.add(inputsList);
+              ImmutableMap.Builder<Inputs, CompletableFuture<Object>> results =
+                  ImmutableMap.builder();
+              for (Inputs inputs : inputsList) {
+                results.put(
+                    inputs, completedFuture("result:" + inputs.getInputValueOrThrow("key")));
+              }
+              return results.buildOrThrow();
+            });
+
+    // The same inputs are requested twice (for example, via two dependant chains) before they
+    // are modulated
+    CompletableFuture<Object> first = execute(decorated, inputs("a"));
+    CompletableFuture<Object> second = execute(decorated, inputs("a"));
+    assertThat(executions).isEmpty();
+    CompletableFuture<Object> other = execute(decorated, inputs("b"));
+
+    assertThat(executions).containsExactly(ImmutableList.of(inputs("a"), inputs("b")));
+    assertThat(second).isSameAs(first);
+    assertThat(first.get()).isEqualTo("result:a");
+    assertThat(other.get()).isEqualTo("result:b");
+    assertThat(inputModulator.deduplicatedInputs()).isEqualTo(1);
+  }
+
+  private static CompletableFuture<Object> execute(MainLogic<Object> decorated, Inputs inputs) {
+    return decorated.execute(ImmutableList.of(inputs)).get(inputs);
+  }
+
+  private static Inputs inputs(String key) {
+    return new Inputs(ImmutableMap.of("key", withValue(key), "common", withValue("c")));
+  }
+
+  private record TestInputs(Inputs inputs) implements InputValuesAdaptor {
+
+    @Override
+    public Inputs toInputValues() {
+      return inputs;
+    }
+  }
+}
@@ -7,6 +7,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import com.flipkart.krystal.config.LiveConfigProvider;
 import com.flipkart.krystal.krystex.MainLogic;
 import com.flipkart.krystal.krystex.decoration.FlushCommand;
 import com.flipkart.krystal.krystex.decoration.LogicDecorationOrdering;
@@ -20,6 +21,7 @@ import com.flipkart.krystal.krystex.node.NodeId;
 import com.flipkart.krystal.logic.LogicTag;
 import com.flipkart.krystal.vajram.MandatoryInputsMissingException;
 import com.flipkart.krystal.vajram.modulation.Batcher;
+import com.flipkart.krystal.vajram.modulation.WindowedBatcher;
 import com.flipkart.krystal.vajram.tags.Service;
 import com.flipkart.krystal.vajram.tags.ServiceApi;
 import com.flipkart.krystal.vajram.tags.VajramTags;
@@ -46,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -479,6 +482,127 @@ class KrystexVajramExecutorTest {
     assertThat(timedGet(multiHellos)).isEqualTo("");
   }
 
+  @Test
+  void execute_sessionScopedModulatorMultipleExecutors_batchedIntoOneCall(TestInfo testInfo)
+      throws Exception {
+    VajramNodeGraph graph =
+        loadFromClasspath("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .registerInputModulator(
+                vajramID(TestUserServiceVajram.ID),
+                InputModulatorConfig.sessionScoped(
+                    () -> WindowedBatcher.hybrid(2, ofSeconds(10))))
+            .build();
+    CompletableFuture<TestUserInfo> userInfo1;
+    CompletableFuture<TestUserInfo> userInfo2;
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor =
+        graph.createExecutor(requestContext.requestId(testInfo.getDisplayName() + "_1").build())) {
+      userInfo1 =
+          krystexVajramExecutor.execute(
+              vajramID(TestUserServiceVajram.ID), this::testUserServiceRequest);
+    }
+    // The first executor has been flushed, but the batch is still waiting for more inputs
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor =
+        graph.createExecutor(
+            requestContext
+                .loggedInUserId(Optional.of("user_id_2"))
+                .requestId(testInfo.getDisplayName() + "_2")
+                .build())) {
+      userInfo2 =
+          krystexVajramExecutor.execute(
+              vajramID(TestUserServiceVajram.ID), this::testUserServiceRequest);
+    }
+    assertThat(timedGet(userInfo1).userName()).isEqualTo("Firstname Lastname (user_id_1)");
+    assertThat(timedGet(userInfo2).userName()).isEqualTo("Firstname Lastname (user_id_2)");
+    assertThat(TestUserServiceVajram.CALL_COUNTER.sum()).isEqualTo(1);
+    assertThat(TestUserServiceVajram.REQUESTS)
+        .containsExactlyInAnyOrder(
+            TestUserServiceRequest.builder().userId("user_id_1").build(),
+            TestUserServiceRequest.builder().userId("user_id_2").build());
+  }
+
+  @Test
+  void flush_sessionScopedModulatorWithoutTimeWindow_modulatesOnFlush(TestInfo testInfo)
+      throws Exception {
+    VajramNodeGraph graph =
+        loadFromClasspath("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .registerInputModulator(
+                vajramID(TestUserServiceVajram.ID),
+                InputModulatorConfig.sessionScoped(() -> new Batcher<>(100)))
+            .build();
+    CompletableFuture<TestUserInfo> userInfo;
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor =
+        graph.createExecutor(requestContext.requestId(testInfo.getDisplayName()).build())) {
+      userInfo =
+          krystexVajramExecutor.execute(
+              vajramID(TestUserServiceVajram.ID), this::testUserServiceRequest);
+    }
+    assertThat(timedGet(userInfo).userName()).isEqualTo("Firstname Lastname (user_id_1)");
+    assertThat(TestUserServiceVajram.CALL_COUNTER.sum()).isEqualTo(1);
+  }
+
+  @Test
+  void execute_liveConfigProvider_modulatorRetunedWithoutRestart(TestInfo testInfo)
+      throws Exception {
+    String maxBatchSizeKey =
+        TestUserServiceVajram.ID + ".input_modulation." + WindowedBatcher.MAX_BATCH_SIZE_CONFIG;
+    LiveConfigProvider configProvider = new LiveConfigProvider(Map.of(maxBatchSizeKey, 1));
+    VajramNodeGraph graph =
+        loadFromClasspath("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .registerInputModulator(
+                vajramID(TestUserServiceVajram.ID),
+                InputModulatorConfig.sessionScoped(
+                    () -> WindowedBatcher.hybrid(100, ofSeconds(10))))
+            .configProvider(configProvider)
+            .build();
+    CompletableFuture<TestUserInfo> userInfo1;
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor =
+        graph.createExecutor(requestContext.requestId(testInfo.getDisplayName() + "_1").build())) {
+      userInfo1 =
+          krystexVajramExecutor.execute(
+              vajramID(TestUserServiceVajram.ID), this::testUserServiceRequest);
+    }
+    // Dispatched without waiting for the max wait time since the configured batch size is 1
+    assertThat(timedGet(userInfo1).userName()).isEqualTo("Firstname Lastname (user_id_1)");
+
+    configProvider.update(Map.of(maxBatchSizeKey, 2));
+    List<CompletableFuture<TestUserInfo>> userInfos = new ArrayList<>();
+    for (String userId : List.of("user_id_2", "user_id_3")) {
+      try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor =
+          graph.createExecutor(
+              requestContext
+                  .loggedInUserId(Optional.of(userId))
+                  .requestId(testInfo.getDisplayName() + "_" + userId)
+                  .build())) {
+        userInfos.add(
+            krystexVajramExecutor.execute(
+                vajramID(TestUserServiceVajram.ID), this::testUserServiceRequest));
+      }
+    }
+    assertThat(timedGet(userInfos.get(0)).userName()).isEqualTo("Firstname Lastname (user_id_2)");
+    assertThat(timedGet(userInfos.get(1)).userName()).isEqualTo("Firstname Lastname (user_id_3)");
+    assertThat(TestUserServiceVajram.CALL_COUNTER.sum()).isEqualTo(2);
+  }
+
+  @Test
+  void build_sessionScopedModulatorNotOrderedFirst_throwsException() {
+    Builder builder =
+        loadFromClasspath("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .registerInputModulator(
+                vajramID(TestUserServiceVajram.ID),
+                InputModulatorConfig.sessionScoped(
+                    () -> WindowedBatcher.hybrid(2, ofSeconds(10))))
+            .logicDecorationOrdering(
+                new LogicDecorationOrdering(
+                    ImmutableSet.of(
+                        Resilience4JCircuitBreaker.DECORATOR_TYPE,
+                        Resilience4JBulkhead.DECORATOR_TYPE,
+                        SessionInputModulationDecorator.DECORATOR_TYPE)))
+            .compileEagerly();
+    assertThatThrownBy(builder::build)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining(SessionInputModulationDecorator.DECORATOR_TYPE);
+  }
+
   private HelloRequest helloRequest(TestRequestContext applicationRequestContext) {
     return helloRequestBuilder(applicationRequestContext).build();
   }
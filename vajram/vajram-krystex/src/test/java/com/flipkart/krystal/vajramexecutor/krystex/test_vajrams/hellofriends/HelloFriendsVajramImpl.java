@@ -11,11 +11,17 @@ import static java.util.function.Function.identity;
 import com.flipkart.krystal.data.Inputs;
 import com.flipkart.krystal.data.Results;
 import com.flipkart.krystal.data.ValueOrError;
+import com.flipkart.krystal.logic.LogicTag;
 import com.flipkart.krystal.vajram.DependencyResponse;
+import com.flipkart.krystal.vajram.VajramMetadata;
+import com.flipkart.krystal.vajram.inputs.DefaultInputResolverDefinition;
 import com.flipkart.krystal.vajram.inputs.Dependency;
 import com.flipkart.krystal.vajram.inputs.DependencyCommand;
 import com.flipkart.krystal.vajram.inputs.Input;
+import com.flipkart.krystal.vajram.inputs.QualifiedInputs;
 import com.flipkart.krystal.vajram.inputs.VajramInputDefinition;
+import com.flipkart.krystal.vajram.tags.VajramTags;
+import com.flipkart.krystal.vajram.tags.VajramTags.VajramTypes;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.HelloFriendsInputUtil.HelloFriendsAllInputs;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserInfo;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserServiceRequest;
@@ -25,10 +31,32 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.Set;
 
 public final class HelloFriendsVajramImpl extends HelloFriendsVajram {
 
+  private static final VajramMetadata METADATA =
+      new VajramMetadata(
+          ID,
+          ImmutableList.of(
+              new DefaultInputResolverDefinition(
+                  ImmutableSet.of(USER_ID),
+                  new QualifiedInputs(USER_INFOS, ImmutableSet.of(TestUserServiceVajram.USER_ID))),
+              new DefaultInputResolverDefinition(
+                  ImmutableSet.of(USER_ID, NUMBER_OF_FRIENDS),
+                  new QualifiedInputs(
+                      FRIEND_INFOS, ImmutableSet.of(TestUserServiceVajram.USER_ID)))),
+          ImmutableMap.<String, LogicTag>builder()
+              .put(VajramTags.VAJRAM_ID, new LogicTag(VajramTags.VAJRAM_ID, ID))
+              .put(
+                  VajramTags.VAJRAM_TYPE,
+                  new LogicTag(VajramTags.VAJRAM_TYPE, VajramTypes.COMPUTE_VAJRAM))
+              .buildOrThrow());
+
+  @Override
+  public Optional<VajramMetadata> getMetadata() {
+    return Optional.of(METADATA);
+  }
+
   @Override
   public ImmutableList<VajramInputDefinition> getInputDefinitions() {
     return ImmutableList.of(
@@ -46,36 +74,49 @@ public final class HelloFriendsVajramImpl extends HelloFriendsVajram {
             .build());
   }
 
+  private static final int USER_INFOS_RESOLVER = 0;
+  private static final int FRIEND_INFOS_RESOLVER = 1;
+
   @Override
-  public DependencyCommand<Inputs> resolveInputOfDependency(
-      String dependency, ImmutableSet<String> resolvableInputs, Inputs inputs) {
+  public int getResolverId(String dependency, ImmutableSet<String> resolvableInputs) {
+    if (USER_INFOS.equals(dependency) && ImmutableSet.of("user_id").equals(resolvableInputs)) {
+      return USER_INFOS_RESOLVER;
+    }
+    if (FRIEND_INFOS.equals(dependency) && ImmutableSet.of("user_id").equals(resolvableInputs)) {
+      return FRIEND_INFOS_RESOLVER;
+    }
+    return -1;
+  }
+
+  @Override
+  public DependencyCommand<Inputs> resolveInputOfDependency(int resolverId, Inputs inputs) {
     String userId = inputs.getInputValueOrThrow("user_id");
-    switch (dependency) {
-      case USER_INFOS:
-        {
-          if (Set.of("user_id").equals(resolvableInputs)) {
-            return DependencyCommand.executeWith(
-                new Inputs(
-                    ImmutableMap.of(
-                        "user_id", ValueOrError.withValue(userIdForUserService(userId)))));
-          }
-        }
-      case FRIEND_INFOS:
-        {
-          if (Set.of("user_id").equals(resolvableInputs)) {
-            Optional<Integer> numberOfFriends = inputs.getInputValueOpt("number_of_friends");
-            if (numberOfFriends.isPresent()) {
-              return DependencyCommand.multiExecuteWith(
-                  friendIdsForUserService(userId, numberOfFriends.get()).stream()
-                      .map(s -> new Inputs(ImmutableMap.of("user_id", ValueOrError.withValue(s))))
-                      .collect(toImmutableList()));
-            }
-          }
+    switch (resolverId) {
+      case USER_INFOS_RESOLVER -> {
+        return DependencyCommand.executeWith(
+            new Inputs(
+                ImmutableMap.of(
+                    "user_id", ValueOrError.withValue(userIdForUserService(userId)))));
+      }
+      case FRIEND_INFOS_RESOLVER -> {
+        Optional<Integer> numberOfFriends = inputs.getInputValueOpt("number_of_friends");
+        if (numberOfFriends.isPresent()) {
+          return DependencyCommand.multiExecuteWith(
+              friendIdsForUserService(userId, numberOfFriends.get()).stream()
+                  .map(s -> new Inputs(ImmutableMap.of("user_id", ValueOrError.withValue(s))))
+                  .collect(toImmutableList()));
         }
+      }
     }
     throw new IllegalArgumentException();
   }
 
+  @Override
+  public DependencyCommand<Inputs> resolveInputOfDependency(
+      String dependency, ImmutableSet<String> resolvableInputs, Inputs inputs) {
+    return resolveInputOfDependency(getResolverId(dependency, resolvableInputs), inputs);
+  }
+
   public ImmutableMap<Inputs, ValueOrError<String>> executeCompute(
       ImmutableList<Inputs> inputsList) {
     return inputsList.stream()
@@ -4,4 +4,16 @@ module flipkart.krystal.vajram.vajram_samples {
   requires com.google.common;
   requires static lombok;
   requires java.logging;
+
+  // The vajram impls generated by the vajram codegen plugin
+  provides com.flipkart.krystal.vajram.Vajram with
+      com.flipkart.krystal.vajram.samples.benchmarks.calculator.FormulaImpl,
+      com.flipkart.krystal.vajram.samples.benchmarks.calculator.adder.AdderImpl,
+      com.flipkart.krystal.vajram.samples.benchmarks.calculator.adder.ChainAdderImpl,
+      com.flipkart.krystal.vajram.samples.benchmarks.calculator.adder.SplitAdderImpl,
+      com.flipkart.krystal.vajram.samples.benchmarks.calculator.divider.DividerImpl,
+      com.flipkart.krystal.vajram.samples.benchmarks.calculator.multiplier.MultiplierImpl,
+      com.flipkart.krystal.vajram.samples.benchmarks.calculator.subtractor.SubtractorImpl,
+      com.flipkart.krystal.vajram.samples.greeting.GreetingVajramImpl,
+      com.flipkart.krystal.vajram.samples.greeting.UserServiceVajramImpl;
 }
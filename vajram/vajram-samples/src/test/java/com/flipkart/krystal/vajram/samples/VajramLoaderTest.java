@@ -0,0 +1,59 @@
+package com.flipkart.krystal.vajram.samples;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajram.VajramLoader;
+import com.flipkart.krystal.vajram.samples.benchmarks.calculator.FormulaImpl;
+import com.flipkart.krystal.vajram.samples.benchmarks.calculator.adder.AdderImpl;
+import com.flipkart.krystal.vajram.samples.greeting.GreetingVajramImpl;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VajramLoaderTest {
+
+  private static final String SAMPLES_PACKAGE = "com.flipkart.krystal.vajram.samples";
+
+  @Test
+  void loadIndexedVajrams_generatedImpls_loadedFromIndex() {
+    List<Class<?>> indexedClasses =
+        VajramLoader.loadIndexedVajrams(SAMPLES_PACKAGE).stream()
+            .<Class<?>>map(Vajram::getClass)
+            .toList();
+
+    assertThat(indexedClasses)
+        .hasSize(9)
+        .contains(FormulaImpl.class, AdderImpl.class, GreetingVajramImpl.class);
+  }
+
+  @Test
+  void loadIndexedVajrams_packagePrefix_onlyMatchingVajramsLoaded() {
+    assertThat(
+            VajramLoader.loadIndexedVajrams(SAMPLES_PACKAGE + ".benchmarks.calculator.adder")
+                .stream()
+                .<Class<?>>map(Vajram::getClass))
+        .hasSize(3)
+        .allMatch(aClass -> aClass.getPackageName().endsWith(".adder"));
+  }
+
+  @Test
+  void loadVajramsFromClassPath_indexFound_onlyIndexedVajramsLoaded() {
+    assertThat(
+            VajramLoader.loadVajramsFromClassPath(SAMPLES_PACKAGE).stream()
+                .<Class<?>>map(Vajram::getClass))
+        .containsExactlyInAnyOrderElementsOf(
+            VajramLoader.loadIndexedVajrams(SAMPLES_PACKAGE).stream()
+                .<Class<?>>map(Vajram::getClass)
+                .toList());
+  }
+
+  @Test
+  void loadVajramsFromClassPath_scanForUnindexedVajrams_indexedVajramsNotLoadedAgain() {
+    List<Class<?>> loadedClasses =
+        VajramLoader.loadVajramsFromClassPath(SAMPLES_PACKAGE, true).stream()
+            .<Class<?>>map(Vajram::getClass)
+            .toList();
+
+    assertThat(loadedClasses).doesNotHaveDuplicates().contains(FormulaImpl.class);
+  }
+}